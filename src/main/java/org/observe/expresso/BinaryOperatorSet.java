@@ -1,7 +1,9 @@
 package org.observe.expresso;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiFunction;
@@ -1242,13 +1244,27 @@ public class BinaryOperatorSet {
 	/** A {@link BinaryOperatorSet} that configures a builder to support the standard set of Java binary operators */
 	public static final BinaryOperatorSet STANDARD_JAVA = standardJava(build()).build();
 
+	private static final Object NOT_FOUND = new Object();
+
 	/** Operators by name, target type, primary type, and secondary type */
 	private final Map<String, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, //
 	BinaryOp<?, ?, ?>>>>> theOperators;
+	/**
+	 * Resolved operators (or {@link #NOT_FOUND}) by {@link DispatchKey}. Operator sets are immutable, so resolutions never need to be
+	 * invalidated, but the cache is bounded so that it does not retain classes indefinitely.
+	 */
+	private final DispatchCache<DispatchKey, Object> theDispatchCache;
+	/** Supported primary input types by operator and target type */
+	private final DispatchCache<DispatchKey, List<Class<?>>> thePrimaryTypesCache;
+	/** Supported secondary input types by operator, target type, and primary type */
+	private final DispatchCache<DispatchKey, List<Class<?>>> theSecondaryTypesCache;
 
 	private BinaryOperatorSet(Map<String, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, //
 		BinaryOp<?, ?, ?>>>>> operators) {
 		theOperators = operators;
+		theDispatchCache = new DispatchCache<>();
+		thePrimaryTypesCache = new DispatchCache<>();
+		theSecondaryTypesCache = new DispatchCache<>();
 	}
 
 	/**
@@ -1257,6 +1273,11 @@ public class BinaryOperatorSet {
 	 * @return All primary input types that this operator set knows of for which the given operator may be applied
 	 */
 	public Iterable<Class<?>> getSupportedPrimaryInputTypes(String operator, Class<?> targetType) {
+		return thePrimaryTypesCache.computeIfAbsent(new DispatchKey(operator, targetType, null, null),
+			__ -> cacheTypes(findSupportedPrimaryInputTypes(operator, targetType)));
+	}
+
+	private Iterable<Class<?>> findSupportedPrimaryInputTypes(String operator, Class<?> targetType) {
 		MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, BinaryOp<?, ?, ?>>>> ops = theOperators
 			.get(operator);
 		if (ops == null || ops.isEmpty())
@@ -1273,6 +1294,11 @@ public class BinaryOperatorSet {
 	 *         input
 	 */
 	public Iterable<Class<?>> getSupportedSecondaryInputTypes(String operator, Class<?> targetType, Class<?> primaryType) {
+		return theSecondaryTypesCache.computeIfAbsent(new DispatchKey(operator, targetType, primaryType, null),
+			__ -> cacheTypes(findSupportedSecondaryInputTypes(operator, targetType, primaryType)));
+	}
+
+	private Iterable<Class<?>> findSupportedSecondaryInputTypes(String operator, Class<?> targetType, Class<?> primaryType) {
 		MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, BinaryOp<?, ?, ?>>>> ops = theOperators
 			.get(operator);
 		if (ops == null || ops.isEmpty())
@@ -1292,6 +1318,14 @@ public class BinaryOperatorSet {
 	 * @return The binary operator supported by this operator set with the given operator and input types
 	 */
 	public <S, T> BinaryOp<S, T, ?> getOperator(String operator, Class<?> targetType, Class<S> primaryType, Class<T> secondaryType) {
+		Object found = theDispatchCache.computeIfAbsent(new DispatchKey(operator, targetType, primaryType, secondaryType), __ -> {
+			BinaryOp<?, ?, ?> op = findOperator(operator, targetType, primaryType, secondaryType);
+			return op == null ? NOT_FOUND : op;
+		});
+		return found == NOT_FOUND ? null : (BinaryOp<S, T, ?>) found;
+	}
+
+	private BinaryOp<?, ?, ?> findOperator(String operator, Class<?> targetType, Class<?> primaryType, Class<?> secondaryType) {
 		MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, MultiInheritanceMap2<Class<?>, BinaryOp<?, ?, ?>>>> ops = theOperators
 			.get(operator);
 		if (ops == null || ops.isEmpty())
@@ -1301,12 +1335,18 @@ public class BinaryOperatorSet {
 			for (MultiInheritanceMap2<Class<?>, BinaryOp<?, ?, ?>> ops2 : targetOps.getAll(primaryType, TypeMatch.SUPER_TYPE)) {
 				BinaryOp<?, ?, ?> op = ops2.get(secondaryType, TypeMatch.SUPER_TYPE);
 				if (op != null)
-					return (BinaryOp<S, T, ?>) op;
+					return op;
 			}
 		}
 		return null;
 	}
 
+	private static List<Class<?>> cacheTypes(Iterable<Class<?>> types) {
+		List<Class<?>> list = new ArrayList<>();
+		types.forEach(list::add);
+		return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list);
+	}
+
 	/**
 	 * @param other The other binary operator set to compare to
 	 * @return True if this operator set contains all operators in the other set, with or without extras
@@ -1809,6 +1849,44 @@ public class BinaryOperatorSet {
 		}
 	}
 
+	/** A key by which operator resolutions are cached in an operator set */
+	private static class DispatchKey {
+		private final String theOperator;
+		private final Class<?> theTargetType;
+		private final Class<?> thePrimaryType;
+		private final Class<?> theSecondaryType;
+		private final int hashCode;
+
+		DispatchKey(String operator, Class<?> targetType, Class<?> primaryType, Class<?> secondaryType) {
+			theOperator = operator;
+			theTargetType = targetType;
+			thePrimaryType = primaryType;
+			theSecondaryType = secondaryType;
+			hashCode = Objects.hash(operator, targetType, primaryType, secondaryType);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof DispatchKey))
+				return false;
+			DispatchKey other = (DispatchKey) obj;
+			return hashCode == other.hashCode && Objects.equals(theOperator, other.theOperator) && theTargetType == other.theTargetType
+				&& thePrimaryType == other.thePrimaryType && theSecondaryType == other.theSecondaryType;
+		}
+
+		@Override
+		public String toString() {
+			return theOperator + "(" + thePrimaryType + ", " + theSecondaryType + ")->" + theTargetType;
+		}
+	}
+
 	static boolean unwrapBool(Boolean b) {
 		return b != null && b.booleanValue();
 	}
@@ -2,6 +2,7 @@ package org.observe.expresso;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collections;
@@ -38,10 +39,12 @@ public class CachedClassReflection<T> {
 	public final TypeToken<T> type;
 	private ClassExecutableInfo<Constructor<?>> theConstructors;
 	private final Map<String, ClassMethodInfo> theMethods;
+	private final Map<String, Field> theFields;
 
 	CachedClassReflection(Class<T> type) {
 		this.type = TypeTokens.get().of(type);
 		theMethods = new HashMap<>();
+		theFields = new HashMap<>();
 		for (Constructor<?> constructor : type.getConstructors()) {
 			if (theConstructors == null)
 				theConstructors = new ClassExecutableInfo<>();
@@ -54,6 +57,10 @@ public class CachedClassReflection<T> {
 			for (Method method : Object.class.getMethods())
 				theMethods.computeIfAbsent(method.getName(), ClassMethodInfo::new).add(method);
 		}
+		for (Field field : type.getFields()) {
+			// Like Class.getField(String), prefer the most specific declaration of a name
+			theFields.putIfAbsent(field.getName(), field);
+		}
 	}
 
 	/**
@@ -80,6 +87,14 @@ public class CachedClassReflection<T> {
 		return methods.get(staticMethods, argCount);
 	}
 
+	/**
+	 * @param name The name of the field to get
+	 * @return The public field (static or not) of this type with the given name, or null if there is no such field
+	 */
+	public Field getField(String name) {
+		return theFields.get(name);
+	}
+
 	/**
 	 * A structure holding constructors or methods with the same name
 	 *
@@ -1,5 +1,6 @@
 package org.observe.expresso;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -12,7 +13,9 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.observe.util.TypeParser;
@@ -24,27 +27,49 @@ import org.qommons.io.ErrorReporting;
 
 import com.google.common.reflect.TypeToken;
 
-/** A perspective from which to load classes by name, qualified or not, as well as statically-imported fields and methods */
+/**
+ * <p>
+ * A perspective from which to load classes by name, qualified or not, as well as statically-imported fields and methods
+ * </p>
+ * <p>
+ * Class views are interned by {@link Builder#build()}, so that all views with the same class loaders, imported types, and wildcard
+ * imports share a single instance and its resolution caches. Because of this, class views are immutable, and
+ * {@link #addTypeRetriever(TypeRetriever)} and {@link #removeTypeRetriever(TypeRetriever)} are not supported.
+ * </p>
+ * <p>
+ * Besides its class loaders, a class view falls back to the context class loader of the thread that built it.
+ * </p>
+ */
 public class ClassView implements TypeParser {
 	private static final Class<?> NOT_FOUND = new Object() {
 	}.getClass();
 
+	/**
+	 * All class views currently in use, by their imports. The key of each entry is strongly referenced by its class view, so an entry is
+	 * discarded as soon as its view is no longer used.
+	 */
+	private static final Map<ViewKey, WeakReference<ClassView>> INTERNED_VIEWS = new WeakHashMap<>();
+
 	private final TypeParser theParser;
+	private final ViewKey theKey;
 	private final List<ClassLoader> theClassLoaders;
 	private final Map<String, String> theImportedTypes;
 	private final Set<String> theWildcardImports;
 	private final Map<String, List<Method>> theStaticMethodImports;
+	private final Set<String> theUnresolvedImports;
 
-	private Map<String, Class<?>> theTypeCache;
-	private Map<String, ValueHolder<Field>> theFieldCache;
-	private Map<String, CachedClassReflection.ClassExecutableInfo<Method>> theMethodCache;
+	private final Map<String, Class<?>> theTypeCache;
+	private final Map<String, ValueHolder<Field>> theFieldCache;
+	private final Map<String, CachedClassReflection.ClassExecutableInfo<Method>> theMethodCache;
 
-	private ClassView(List<ClassLoader> classLoaders, Map<String, String> importedTypes, Map<String, ErrorReporting> importTypeErrors,
-		Set<String> wildcardImports) {
-		theClassLoaders = classLoaders;
-		theImportedTypes = importedTypes;
-		theWildcardImports = wildcardImports;
+	private ClassView(ViewKey key) {
+		theKey = key;
+		theClassLoaders = key.classLoaders;
+		theImportedTypes = key.importedTypes;
+		theWildcardImports = key.wildcardImports;
 		theStaticMethodImports = new HashMap<>();
+		Set<String> unresolved = null;
+		theTypeCache = new ConcurrentHashMap<>();
 		theFieldCache = new ConcurrentHashMap<>();
 		theMethodCache = new ConcurrentHashMap<>();
 
@@ -74,9 +99,13 @@ public class ClassView implements TypeParser {
 					}
 				}
 			}
-			if (type == null && !memberFound)
-				importTypeErrors.get(imp.getValue()).error("Import '" + imp.getValue() + "' cannot be resolved");
+			if (type == null && !memberFound) {
+				if (unresolved == null)
+					unresolved = new LinkedHashSet<>();
+				unresolved.add(imp.getValue());
+			}
 		}
+		theUnresolvedImports = unresolved == null ? Collections.emptySet() : Collections.unmodifiableSet(unresolved);
 
 		theParser = TypeTokens.get().newParser();
 		theParser.addTypeRetriever(ClassView.this::getType);
@@ -144,16 +173,11 @@ public class ClassView implements TypeParser {
 	}
 
 	private Class<?> getType(String typeName, int withWildCards) {
-		Class<?> type;
-		if (theTypeCache == null)
-			theTypeCache = new HashMap<>();
-		else {
-			type = theTypeCache.get(typeName);
-			if (type == NOT_FOUND)
-				return null;
-			else if (type != null)
-				return type;
-		}
+		Class<?> type = theTypeCache.get(typeName);
+		if (type == NOT_FOUND)
+			return null;
+		else if (type != null)
+			return type;
 		String key, suffix;
 		int lastDot = typeName.indexOf('.');
 		if (lastDot >= 0) {
@@ -220,10 +244,9 @@ public class ClassView implements TypeParser {
 			} catch (ClassNotFoundException | NoClassDefFoundError | RuntimeException e) { // We don't throw exceptions, just return null
 			}
 		}
-		ClassLoader ccl = Thread.currentThread().getContextClassLoader();
-		if (ccl != null && !theClassLoaders.contains(ccl)) {
+		if (theKey.contextClassLoader != null) {
 			try {
-				return ccl.loadClass(name);
+				return theKey.contextClassLoader.loadClass(name);
 			} catch (ClassNotFoundException | NoClassDefFoundError | RuntimeException e) {
 			}
 		}
@@ -235,15 +258,29 @@ public class ClassView implements TypeParser {
 		return theParser.parseType(text);
 	}
 
+	/**
+	 * Not supported. Class views are interned and shared, so they cannot be modified. To parse types with additional retrievers, create
+	 * a parser with {@link TypeTokens#newParser()} and add {@link #getType(String)} to it as a retriever along with the others.
+	 *
+	 * @param typeRetriever The type retriever to add
+	 * @return Never returns
+	 * @throws UnsupportedOperationException Always
+	 */
 	@Override
-	public TypeParser addTypeRetriever(TypeRetriever typeRetriever) {
-		theParser.addTypeRetriever(typeRetriever);
-		return this;
+	public TypeParser addTypeRetriever(TypeRetriever typeRetriever) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Class views are shared and immutable");
 	}
 
+	/**
+	 * Not supported. Class views are interned and shared, so they cannot be modified.
+	 *
+	 * @param typeRetriever The type retriever to remove
+	 * @return Never returns
+	 * @throws UnsupportedOperationException Always
+	 */
 	@Override
-	public boolean removeTypeRetriever(TypeRetriever typeRetriever) {
-		return theParser.removeTypeRetriever(typeRetriever);
+	public boolean removeTypeRetriever(TypeRetriever typeRetriever) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Class views are shared and immutable");
 	}
 
 	/** @return A builder containing all of this class view's imports */
@@ -269,6 +306,62 @@ public class ClassView implements TypeParser {
 		return new Builder(null);
 	}
 
+	static ClassView intern(ViewKey key) {
+		synchronized (INTERNED_VIEWS) {
+			WeakReference<ClassView> ref = INTERNED_VIEWS.get(key);
+			ClassView view = ref == null ? null : ref.get();
+			if (view == null) {
+				view = new ClassView(key);
+				INTERNED_VIEWS.put(view.theKey, new WeakReference<>(view));
+			}
+			return view;
+		}
+	}
+
+	/** The identity of a class view, by which views are interned */
+	static class ViewKey {
+		final List<ClassLoader> classLoaders;
+		final Map<String, String> importedTypes;
+		final Set<String> wildcardImports;
+		/** The context class loader of the thread that built the view, if it is not one of the class loaders */
+		final ClassLoader contextClassLoader;
+		private final int hashCode;
+
+		ViewKey(List<ClassLoader> classLoaders, Map<String, String> importedTypes, Set<String> wildcardImports,
+			ClassLoader contextClassLoader) {
+			this.classLoaders = classLoaders;
+			this.importedTypes = importedTypes;
+			this.wildcardImports = wildcardImports;
+			this.contextClassLoader = contextClassLoader;
+			hashCode = Objects.hash(classLoaders, importedTypes, wildcardImports, contextClassLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof ViewKey))
+				return false;
+			ViewKey other = (ViewKey) obj;
+			// Class loaders are compared by identity, in order, since they are searched in order
+			if (hashCode != other.hashCode || contextClassLoader != other.contextClassLoader
+				|| classLoaders.size() != other.classLoaders.size())
+				return false;
+			for (int i = 0; i < classLoaders.size(); i++) {
+				if (classLoaders.get(i) != other.classLoaders.get(i))
+					return false;
+			}
+			// Imported types are also searched in order, so order is significant
+			return new ArrayList<>(importedTypes.entrySet()).equals(new ArrayList<>(other.importedTypes.entrySet()))
+				&& new ArrayList<>(wildcardImports).equals(new ArrayList<>(other.wildcardImports));
+		}
+	}
+
 	/** Builds a {@link ClassView} */
 	public static class Builder {
 		private final List<ClassLoader> theClassLoaders;
@@ -324,13 +417,28 @@ public class ClassView implements TypeParser {
 			return this;
 		}
 
-		/** @return The new {@link ClassView} */
+		/**
+		 * Builds the class view. If a class view with the same class loaders, imported types, and wildcard imports has already been built
+		 * with the same context class loader and is still in use, that instance (with all its cached resolutions) is returned instead of a
+		 * new one.
+		 *
+		 * @return The {@link ClassView}
+		 */
 		public ClassView build() {
-			return new ClassView(//
-				theClassLoaders.isEmpty() ? Collections.unmodifiableList(Arrays.asList(Thread.currentThread().getContextClassLoader()))
-					: QommonsUtils.unmodifiableCopy(theClassLoaders), //
-					QommonsUtils.unmodifiableCopy(theImportedTypes), theImportTypeErrors, //
-					QommonsUtils.unmodifiableDistinctCopy(theWildcardImports));
+			ClassLoader ccl = Thread.currentThread().getContextClassLoader();
+			List<ClassLoader> classLoaders = theClassLoaders.isEmpty() ? Collections.unmodifiableList(Arrays.asList(ccl))
+				: QommonsUtils.unmodifiableCopy(theClassLoaders);
+			ClassView view = intern(new ViewKey(classLoaders, //
+				QommonsUtils.unmodifiableCopy(theImportedTypes), //
+				QommonsUtils.unmodifiableDistinctCopy(theWildcardImports), //
+				classLoaders.contains(ccl) ? null : ccl));
+			// Errors are reported to this builder's reporters even if the view was shared
+			for (String unresolved : view.theUnresolvedImports) {
+				ErrorReporting onError = theImportTypeErrors.get(unresolved);
+				if (onError != null)
+					onError.error("Import '" + unresolved + "' cannot be resolved");
+			}
+			return view;
 		}
 	}
 }
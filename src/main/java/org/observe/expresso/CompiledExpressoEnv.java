@@ -1,6 +1,7 @@
 package org.observe.expresso;
 
 import java.awt.Color;
+import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.text.ParseException;
 import java.time.Duration;
@@ -13,6 +14,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.observe.SettableValue;
@@ -51,7 +53,7 @@ public class CompiledExpressoEnv implements SessionValues {
 	private final UnaryOperatorSet theUnaryOperators;
 	private final BinaryOperatorSet theBinaryOperators;
 	private final MultiInheritanceMap2<Class<?>, Set<NonStructuredParser>> theNonStructuredParsers;
-	private final MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> theSyntheticFields;
+	private SyntheticFieldIndex theSyntheticFields;
 	private final ErrorReporting theErrorReporting;
 	private SessionValues theProperties;
 
@@ -79,7 +81,7 @@ public class CompiledExpressoEnv implements SessionValues {
 	 */
 	protected CompiledExpressoEnv(ObservableModelSet models, Map<String, ModelComponentId> attributes,
 		MultiInheritanceMap2<Class<?>, Set<NonStructuredParser>> nonStructuredParsers, UnaryOperatorSet unaryOperators,
-		BinaryOperatorSet binaryOperators, MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> syntheticFields,
+		BinaryOperatorSet binaryOperators, SyntheticFieldIndex syntheticFields,
 		ErrorReporting reporting, SessionValues properties) {
 		theModels = models;
 		theAttributes = attributes;
@@ -88,12 +90,8 @@ public class CompiledExpressoEnv implements SessionValues {
 		theNonStructuredParsers = MultiInheritanceView.createClassMap();
 		if (nonStructuredParsers != null)
 			theNonStructuredParsers.putAll(nonStructuredParsers);
-		theSyntheticFields = MultiInheritanceView.createClassMap();
-		if (syntheticFields != null) {
-			for (Map.Entry<Class<?>, Map<String, SyntheticField.Def<?, ?>>> field : syntheticFields.allEntries()) {
-				theSyntheticFields.computeIfAbsent(field.getKey(), () -> new HashMap<>()).putAll(field.getValue());
-			}
-		}
+		// The index is immutable, so it can be shared with the environment this one was copied from
+		theSyntheticFields = syntheticFields == null ? SyntheticFieldIndex.EMPTY : syntheticFields;
 		theErrorReporting = reporting;
 		theProperties = properties;
 	}
@@ -111,7 +109,7 @@ public class CompiledExpressoEnv implements SessionValues {
 	 */
 	protected CompiledExpressoEnv copy(ObservableModelSet models, Map<String, ModelComponentId> attributes,
 		MultiInheritanceMap2<Class<?>, Set<NonStructuredParser>> nonStructuredParsers, UnaryOperatorSet unaryOperators,
-		BinaryOperatorSet binaryOperators, MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> syntheticFields,
+		BinaryOperatorSet binaryOperators, SyntheticFieldIndex syntheticFields,
 		ErrorReporting reporting, SessionValues properties) {
 		return new CompiledExpressoEnv(models, attributes, nonStructuredParsers, unaryOperators, binaryOperators, syntheticFields,
 			reporting, properties);
@@ -161,7 +159,7 @@ public class CompiledExpressoEnv implements SessionValues {
 	}
 
 	/** @return The set of synthetic fields available for expressions */
-	protected MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> getSyntheticFields() {
+	protected SyntheticFieldIndex getSyntheticFields() {
 		return theSyntheticFields;
 	}
 
@@ -388,7 +386,9 @@ public class CompiledExpressoEnv implements SessionValues {
 	 * @return This environment
 	 */
 	public <E> CompiledExpressoEnv withSyntheticField(Class<E> entityType, String fieldName, SyntheticField.Def<? super E, ?> field) {
-		theSyntheticFields.computeIfAbsent(entityType, () -> new HashMap<>()).put(fieldName, field);
+		if (theSyntheticFields.getFields().getOrDefault(entityType, TypeMatch.EXACT, Collections.emptyMap()).get(fieldName) == field)
+			return this;
+		theSyntheticFields = theSyntheticFields.with(entityType, fieldName, field);
 		return this;
 	}
 
@@ -399,16 +399,19 @@ public class CompiledExpressoEnv implements SessionValues {
 	 * @return The field defined for the given entity type with the given name, or null if no such field was defined
 	 */
 	public <E> SyntheticField.Def<? super E, ?> getSyntheticField(Class<E> entityType, String fieldName) {
-		List<Map<String, SyntheticField.Def<?, ?>>> fieldList = new ArrayList<>();
-		theSyntheticFields.getAll(entityType, TypeMatch.SUPER_TYPE).forEach(fieldList::add);
-		// Traverse from most specific to least
-		Collections.reverse(fieldList);
-		for (Map<String, SyntheticField.Def<?, ?>> fields : fieldList) {
-			SyntheticField.Def<?, ?> field = fields.get(fieldName);
-			if (field != null)
-				return (SyntheticField.Def<? super E, ?>) field;
-		}
-		return null;
+		return (SyntheticField.Def<? super E, ?>) theSyntheticFields.get(entityType, fieldName);
+	}
+
+	/**
+	 * Resolves a field of a type by name. Synthetic fields take precedence over java fields. The result is memoized in this environment,
+	 * so repeated resolutions of the same field (e.g. from every evaluation of a dotted field path) are cheap.
+	 *
+	 * @param ownerType The type to get the field for
+	 * @param fieldName The name of the field to get
+	 * @return The resolved field. Will never be null, but may not be {@link ResolvedField#isFound() found}.
+	 */
+	public ResolvedField resolveField(Class<?> ownerType, String fieldName) {
+		return theSyntheticFields.resolve(ownerType, fieldName);
 	}
 
 	/**
@@ -416,10 +419,7 @@ public class CompiledExpressoEnv implements SessionValues {
 	 * @return This environment
 	 */
 	public CompiledExpressoEnv withAllSyntheticFields(CompiledExpressoEnv other) {
-		for (Map.Entry<Class<?>, Map<String, SyntheticField.Def<?, ?>>> fieldOwner : other.theSyntheticFields.allEntries()) {
-			for (Map.Entry<String, SyntheticField.Def<?, ?>> field : fieldOwner.getValue().entrySet())
-				withSyntheticField(fieldOwner.getKey(), field.getKey(), (SyntheticField.Def<Object, ?>) field.getValue());
-		}
+		theSyntheticFields = theSyntheticFields.withAll(other.theSyntheticFields);
 		return this;
 	}
 
@@ -555,4 +555,149 @@ public class CompiledExpressoEnv implements SessionValues {
 	public String toString() {
 		return new StringBuilder().append("models=").append(theModels).toString();
 	}
+
+	/**
+	 * An immutable set of synthetic fields by owner type with memoized lookups, including negative results. Environments share an index
+	 * until a field is {@link CompiledExpressoEnv#withSyntheticField(Class, String, SyntheticField.Def) added} to one of them, which
+	 * replaces that environment's index with a new one.
+	 */
+	public static class SyntheticFieldIndex {
+		/** An index with no synthetic fields */
+		public static final SyntheticFieldIndex EMPTY = new SyntheticFieldIndex(MultiInheritanceView.createClassMap());
+
+		private static final Object NOT_FOUND = new Object();
+
+		private final MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> theFields;
+		private final Map<Class<?>, Map<String, Object>> theLookups;
+		private final Map<Class<?>, Map<String, ResolvedField>> theResolutions;
+
+		private SyntheticFieldIndex(MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> fields) {
+			theFields = fields;
+			theLookups = new ConcurrentHashMap<>();
+			theResolutions = new ConcurrentHashMap<>();
+		}
+
+		/** @return All synthetic fields in this index, by owner type. This structure must not be modified. */
+		public MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> getFields() {
+			return theFields;
+		}
+
+		/** @return Whether this index contains no synthetic fields */
+		public boolean isEmpty() {
+			return !theFields.allEntries().iterator().hasNext();
+		}
+
+		/**
+		 * @param entityType The entity type of the field to get
+		 * @param fieldName The name of the field to get
+		 * @return The field defined for the given entity type or one of its super types with the given name, or null if no such field
+		 *         was defined
+		 */
+		public SyntheticField.Def<?, ?> get(Class<?> entityType, String fieldName) {
+			Object found = theLookups.computeIfAbsent(entityType, __ -> new ConcurrentHashMap<>())//
+				.computeIfAbsent(fieldName, __ -> {
+					SyntheticField.Def<?, ?> field = find(entityType, fieldName);
+					return field == null ? NOT_FOUND : field;
+				});
+			return found == NOT_FOUND ? null : (SyntheticField.Def<?, ?>) found;
+		}
+
+		private SyntheticField.Def<?, ?> find(Class<?> entityType, String fieldName) {
+			List<Map<String, SyntheticField.Def<?, ?>>> fieldList = new ArrayList<>();
+			theFields.getAll(entityType, TypeMatch.SUPER_TYPE).forEach(fieldList::add);
+			// Traverse from most specific to least
+			Collections.reverse(fieldList);
+			for (Map<String, SyntheticField.Def<?, ?>> fields : fieldList) {
+				SyntheticField.Def<?, ?> field = fields.get(fieldName);
+				if (field != null)
+					return field;
+			}
+			return null;
+		}
+
+		ResolvedField resolve(Class<?> ownerType, String fieldName) {
+			return theResolutions.computeIfAbsent(ownerType, __ -> new ConcurrentHashMap<>())//
+				.computeIfAbsent(fieldName, __ -> {
+					SyntheticField.Def<?, ?> synthetic = get(ownerType, fieldName);
+					if (synthetic != null)
+						return new ResolvedField(synthetic, null);
+					return new ResolvedField(null, CachedClassReflection.get(ownerType).getField(fieldName));
+				});
+		}
+
+		/**
+		 * @param entityType The entity type for the new field
+		 * @param fieldName The name for the new field
+		 * @param field The synthetic field definition
+		 * @return A new index with all of this index's fields, plus the given field
+		 */
+		public SyntheticFieldIndex with(Class<?> entityType, String fieldName, SyntheticField.Def<?, ?> field) {
+			MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> fields = copyFields();
+			fields.computeIfAbsent(entityType, () -> new HashMap<>()).put(fieldName, field);
+			return new SyntheticFieldIndex(fields);
+		}
+
+		/**
+		 * @param other The index to add the fields of
+		 * @return A new index with all of this index's fields, plus all of the other's, or this index if the other contains no fields
+		 */
+		public SyntheticFieldIndex withAll(SyntheticFieldIndex other) {
+			if (other == this || other.isEmpty())
+				return this;
+			else if (isEmpty())
+				return other;
+			MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> fields = copyFields();
+			for (Map.Entry<Class<?>, Map<String, SyntheticField.Def<?, ?>>> fieldOwner : other.theFields.allEntries())
+				fields.computeIfAbsent(fieldOwner.getKey(), () -> new HashMap<>()).putAll(fieldOwner.getValue());
+			return new SyntheticFieldIndex(fields);
+		}
+
+		private MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> copyFields() {
+			MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> fields = MultiInheritanceView.createClassMap();
+			for (Map.Entry<Class<?>, Map<String, SyntheticField.Def<?, ?>>> field : theFields.allEntries())
+				fields.put(field.getKey(), new HashMap<>(field.getValue()));
+			return fields;
+		}
+
+		@Override
+		public String toString() {
+			return theFields.toString();
+		}
+	}
+
+	/** The result of {@link CompiledExpressoEnv#resolveField(Class, String)}: a synthetic field, a java field, or nothing */
+	public static class ResolvedField {
+		private final SyntheticField.Def<?, ?> theSyntheticField;
+		private final Field theField;
+
+		ResolvedField(SyntheticField.Def<?, ?> syntheticField, Field field) {
+			theSyntheticField = syntheticField;
+			theField = field;
+		}
+
+		/** @return The synthetic field resolved, or null if the field is not synthetic */
+		public SyntheticField.Def<?, ?> getSyntheticField() {
+			return theSyntheticField;
+		}
+
+		/** @return The java field resolved, or null if the field is synthetic or was not found */
+		public Field getField() {
+			return theField;
+		}
+
+		/** @return Whether any field was found */
+		public boolean isFound() {
+			return theSyntheticField != null || theField != null;
+		}
+
+		@Override
+		public String toString() {
+			if (theSyntheticField != null)
+				return theSyntheticField.toString();
+			else if (theField != null)
+				return theField.toString();
+			else
+				return "not found";
+		}
+	}
 }
@@ -0,0 +1,51 @@
+package org.observe.expresso;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe resolution cache for operator dispatch. The cache is bounded, so that operator sets which live for the life of the
+ * application (e.g. {@link BinaryOperatorSet#STANDARD_JAVA}) do not retain every class they have ever been asked about. When the bound is
+ * reached the cache is simply cleared, since re-resolving an operator is cheap compared to the memory held by unloaded classes.
+ *
+ * @param <K> The key type of the cache
+ * @param <V> The value type of the cache
+ */
+class DispatchCache<K, V> {
+	/** The default maximum number of resolutions to keep */
+	static final int DEFAULT_MAX_SIZE = 4096;
+
+	private final ConcurrentHashMap<K, V> theCache;
+	private final int theMaxSize;
+
+	DispatchCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/** @param maxSize The maximum number of resolutions to keep */
+	DispatchCache(int maxSize) {
+		theCache = new ConcurrentHashMap<>();
+		theMaxSize = maxSize;
+	}
+
+	/**
+	 * @param key The key to get the resolution for
+	 * @param compute Computes the resolution for the key if it is not cached. Must not return null.
+	 * @return The cached or computed resolution for the key
+	 */
+	V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+		V value = theCache.get(key);
+		if (value != null)
+			return value;
+		value = compute.apply(key);
+		if (theCache.size() >= theMaxSize)
+			theCache.clear();
+		V previous = theCache.putIfAbsent(key, value);
+		return previous != null ? previous : value;
+	}
+
+	/** @return The number of resolutions currently cached */
+	int size() {
+		return theCache.size();
+	}
+}
@@ -43,7 +43,7 @@ public class InterpretedExpressoEnv extends CompiledExpressoEnv {
 	InterpretedExpressoEnv(InterpretedModelSet models, ExternalModelSet extModels, ClassView classView,
 		Map<String, ModelComponentId> attributes,
 		MultiInheritanceMap2<Class<?>, Set<NonStructuredParser>> nonStructuredParsers, UnaryOperatorSet unaryOperators,
-		BinaryOperatorSet binaryOperators, MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> syntheticFields,
+		BinaryOperatorSet binaryOperators, SyntheticFieldIndex syntheticFields,
 		ErrorReporting reporting, SessionValues properties,
 		boolean testing) {
 		super(models, attributes, nonStructuredParsers, unaryOperators, binaryOperators, syntheticFields, reporting, properties);
@@ -55,7 +55,7 @@ public class InterpretedExpressoEnv extends CompiledExpressoEnv {
 	@Override
 	protected CompiledExpressoEnv copy(ObservableModelSet models, Map<String, ModelComponentId> attributes,
 		MultiInheritanceMap2<Class<?>, Set<NonStructuredParser>> nonStructuredParsers, UnaryOperatorSet unaryOperators,
-		BinaryOperatorSet binaryOperators, MultiInheritanceMap2<Class<?>, Map<String, SyntheticField.Def<?, ?>>> syntheticFields,
+		BinaryOperatorSet binaryOperators, SyntheticFieldIndex syntheticFields,
 		ErrorReporting reporting, SessionValues properties) {
 		if (models != null && !(models instanceof InterpretedModelSet))
 			return super.copy(models, attributes, nonStructuredParsers, unaryOperators, binaryOperators, syntheticFields, reporting,
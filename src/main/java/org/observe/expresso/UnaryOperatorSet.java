@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -270,10 +271,18 @@ public class UnaryOperatorSet {
 	/** A {@link UnaryOperatorSet} that configures a builder to support the standard set of Java unary operators */
 	public static final UnaryOperatorSet STANDARD_JAVA = standardJava(build()).build();
 
+	private static final Object NOT_FOUND = new Object();
+
 	private final Map<String, MultiInheritanceMap2<Class<?>, UnaryOp<?, ?>>> theOperators;
+	/**
+	 * Resolved operators (or {@link #NOT_FOUND}) by {@link DispatchKey}. Operator sets are immutable, so resolutions never need to be
+	 * invalidated, but the cache is bounded so that it does not retain classes indefinitely.
+	 */
+	private final DispatchCache<DispatchKey, Object> theDispatchCache;
 
 	private UnaryOperatorSet(Map<String, MultiInheritanceMap2<Class<?>, UnaryOp<?, ?>>> operators) {
 		theOperators = operators;
+		theDispatchCache = new DispatchCache<>();
 	}
 
 	/**
@@ -307,8 +316,12 @@ public class UnaryOperatorSet {
 	 * @return The unary operator supported by this operator set with the given operator and input type
 	 */
 	public <T> UnaryOp<T, ?> getOperator(String operator, Class<T> type) {
-		MultiInheritanceMap2<Class<?>, UnaryOp<?, ?>> ops = theOperators.get(operator);
-		return ops == null ? null : (UnaryOp<T, ?>) ops.get(type, TypeMatch.SUPER_TYPE);
+		Object found = theDispatchCache.computeIfAbsent(new DispatchKey(operator, type), __ -> {
+			MultiInheritanceMap2<Class<?>, UnaryOp<?, ?>> ops = theOperators.get(operator);
+			UnaryOp<?, ?> op = ops == null ? null : ops.get(type, TypeMatch.SUPER_TYPE);
+			return op == null ? NOT_FOUND : op;
+		});
+		return found == NOT_FOUND ? null : (UnaryOp<T, ?>) found;
 	}
 
 	/**
@@ -497,4 +510,37 @@ public class UnaryOperatorSet {
 		}
 	}
 
+	/** A key by which operator resolutions are cached in an operator set */
+	private static class DispatchKey {
+		private final String theOperator;
+		private final Class<?> theType;
+		private final int hashCode;
+
+		DispatchKey(String operator, Class<?> type) {
+			theOperator = operator;
+			theType = type;
+			hashCode = Objects.hash(operator, type);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof DispatchKey))
+				return false;
+			DispatchKey other = (DispatchKey) obj;
+			return hashCode == other.hashCode && Objects.equals(theOperator, other.theOperator) && theType == other.theType;
+		}
+
+		@Override
+		public String toString() {
+			return theOperator + "(" + theType + ")";
+		}
+	}
+
 }
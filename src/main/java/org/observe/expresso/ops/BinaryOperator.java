@@ -386,6 +386,8 @@ public class BinaryOperator implements ObservableExpression {
 			if (type.getModelType() != ModelTypes.Value)
 				throw new ExpressoInterpretationException("Binary operator " + theOperator + " can only be evaluated as a value",
 					operatorReporting.getPosition(), theOperator.length());
+			// First-arg-decisive operations short-circuit, so they can't be fused
+			boolean fuse = FusedValueInstantiator.isFusing(env) && !(op instanceof BinaryOperatorSet.FirstArgDecisiveBinaryOp);
 			InterpretedValueSynth<SettableValue<?>, SettableValue<T>> operated = new InterpretedValueSynth<SettableValue<?>, SettableValue<T>>() {
 				@Override
 				public ModelType<SettableValue<?>> getModelType() {
@@ -414,6 +416,9 @@ public class BinaryOperator implements ObservableExpression {
 							(ModelValueInstantiator<SettableValue<Boolean>>) (ModelValueInstantiator<?>) left.instantiate(),
 							(ModelValueInstantiator<SettableValue<Boolean>>) (ModelValueInstantiator<?>) right.instantiate(), //
 							BinaryOperatorSet.AND, reporting);
+					else if (fuse)
+						return FusedValueInstantiator.fuseBinary(op, left.instantiate(), right.instantiate(), reporting,
+							BinaryOperator.this.toString());
 					else
 						return new ValueInstantiator<>(left.instantiate(), right.instantiate(), op, reporting);
 				}
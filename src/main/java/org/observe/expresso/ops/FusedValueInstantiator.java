@@ -0,0 +1,244 @@
+package org.observe.expresso.ops;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.observe.Observable;
+import org.observe.ObservableValue;
+import org.observe.SettableValue;
+import org.observe.expresso.BinaryOperatorSet.BinaryOp;
+import org.observe.expresso.CompiledExpressoEnv;
+import org.observe.expresso.ModelInstantiationException;
+import org.observe.expresso.ObservableModelSet.ModelSetInstance;
+import org.observe.expresso.ObservableModelSet.ModelValueInstantiator;
+import org.qommons.Stamped;
+import org.qommons.io.ErrorReporting;
+
+/**
+ * <p>
+ * Instantiates a tree of pure operations (e.g. {@link BinaryOperator binary} and {@link UnaryOperator unary} operators) as a single
+ * value which is evaluated by one compiled {@link MethodHandle} over the tree's leaf inputs, instead of as a chain of transformed
+ * {@link SettableValue}s, one per operation.
+ * </p>
+ * <p>
+ * The operation tree is linked into a single method handle when the root of the tree is {@link #instantiate() instantiated}, so a fused
+ * expression is evaluated with no intermediate values, event subscriptions, or caches for its inner operations. Evaluation is not free
+ * of overhead, however: each evaluation gathers the inputs into a new array, primitive operands and results are boxed, and the handle is
+ * held in a field rather than as a constant, so the JIT may not inline through it.
+ * </p>
+ * <p>
+ * Only operators are fused. Short-circuiting operators (e.g. <code>&amp;&amp;</code>), casts, field reads, method invocations, and other
+ * expressions are inputs to the tree, instantiated as usual.
+ * </p>
+ * <p>
+ * This mode is opt-in via the {@link #FUSE_EXPRESSIONS} environment property, because fused values cannot be
+ * {@link SettableValue#set(Object, Object) assigned} (i.e. reversed into their inputs) as un-fused operator values can.
+ * </p>
+ *
+ * @param <T> The type of the value
+ */
+public class FusedValueInstantiator<T> implements ModelValueInstantiator<SettableValue<T>> {
+	/**
+	 * The {@link CompiledExpressoEnv environment} property which, if set to true, causes pure operations to be
+	 * {@link FusedValueInstantiator fused} into single values
+	 */
+	public static final String FUSE_EXPRESSIONS = "expresso.fuse-expressions";
+
+	private static final MethodHandle BINARY_APPLY;
+	private static final MethodHandle FUNCTION_APPLY;
+	private static final MethodHandle REPORT_ERROR;
+	private static final MethodHandle INPUT_GETTER = MethodHandles.arrayElementGetter(Object[].class);
+	static {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			BINARY_APPLY = lookup.findVirtual(BinaryOp.class, "apply", MethodType.methodType(Object.class, Object.class, Object.class));
+			FUNCTION_APPLY = lookup.findVirtual(Function.class, "apply", MethodType.methodType(Object.class, Object.class));
+			REPORT_ERROR = lookup.findStatic(FusedValueInstantiator.class, "reportError",
+				MethodType.methodType(Object.class, ErrorReporting.class, Throwable.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalStateException("Could not link fused expression operations", e);
+		}
+	}
+
+	private final Node theRoot;
+	private final List<ModelValueInstantiator<? extends SettableValue<?>>> theInputs;
+	private final String theText;
+	private MethodHandle theEvaluator;
+
+	private FusedValueInstantiator(Node root, List<ModelValueInstantiator<? extends SettableValue<?>>> inputs, String text) {
+		theRoot = root;
+		theInputs = inputs;
+		theText = text;
+	}
+
+	/**
+	 * @param env The environment to inspect
+	 * @return Whether pure operations should be fused in the given environment
+	 * @see #FUSE_EXPRESSIONS
+	 */
+	public static boolean isFusing(CompiledExpressoEnv env) {
+		return Boolean.TRUE.equals(env.get(FUSE_EXPRESSIONS, false));
+	}
+
+	/**
+	 * @param <T> The type of the operation's result
+	 * @param operator The binary operator to apply
+	 * @param left The instantiator for the left operand
+	 * @param right The instantiator for the right operand
+	 * @param reporting The error reporting for the operation
+	 * @param text The text of the operation, for debugging
+	 * @return The fused value instantiator
+	 */
+	public static <T> FusedValueInstantiator<T> fuseBinary(BinaryOp<?, ?, T> operator, ModelValueInstantiator<? extends SettableValue<?>> left,
+		ModelValueInstantiator<? extends SettableValue<?>> right, ErrorReporting reporting, String text) {
+		return fuse(BINARY_APPLY.bindTo(operator), reporting, text, left, right);
+	}
+
+	/**
+	 * @param <S> The type of the operand
+	 * @param <T> The type of the operation's result
+	 * @param operator The unary operation to apply
+	 * @param operand The instantiator for the operand
+	 * @param reporting The error reporting for the operation
+	 * @param text The text of the operation, for debugging
+	 * @return The fused value instantiator
+	 */
+	public static <S, T> FusedValueInstantiator<T> fuseUnary(Function<? super S, ? extends T> operator,
+		ModelValueInstantiator<? extends SettableValue<? extends S>> operand, ErrorReporting reporting, String text) {
+		return fuse(FUNCTION_APPLY.bindTo(operator), reporting, text, operand);
+	}
+
+	private static <T> FusedValueInstantiator<T> fuse(MethodHandle operation, ErrorReporting reporting, String text,
+		ModelValueInstantiator<? extends SettableValue<?>>... operands) {
+		// Like the un-fused operators, errors in the operation are reported and result in a null value
+		operation = MethodHandles.catchException(operation, Throwable.class, //
+			MethodHandles.dropArguments(REPORT_ERROR.bindTo(reporting), 1, operation.type().parameterList()));
+		List<ModelValueInstantiator<? extends SettableValue<?>>> inputs = new ArrayList<>();
+		Node[] operandNodes = new Node[operands.length];
+		for (int i = 0; i < operands.length; i++) {
+			if (operands[i] instanceof FusedValueInstantiator) {
+				// Absorb the fused operand's tree and inputs
+				FusedValueInstantiator<?> fusedOperand = (FusedValueInstantiator<?>) operands[i];
+				operandNodes[i] = fusedOperand.theRoot;
+				inputs.addAll(fusedOperand.theInputs);
+			} else {
+				operandNodes[i] = LeafNode.INSTANCE;
+				inputs.add(operands[i]);
+			}
+		}
+		return new FusedValueInstantiator<>(new OperationNode(operation, operandNodes), Collections.unmodifiableList(inputs), text);
+	}
+
+	@Override
+	public void instantiate() throws ModelInstantiationException {
+		for (ModelValueInstantiator<?> input : theInputs)
+			input.instantiate();
+		if (theEvaluator == null)
+			theEvaluator = theRoot.compile(new int[1]);
+	}
+
+	@Override
+	public SettableValue<T> get(ModelSetInstance models) throws ModelInstantiationException, IllegalStateException {
+		SettableValue<?>[] inputVs = new SettableValue[theInputs.size()];
+		for (int i = 0; i < inputVs.length; i++)
+			inputVs[i] = theInputs.get(i).get(models);
+		return createValue(inputVs);
+	}
+
+	@Override
+	public SettableValue<T> forModelCopy(SettableValue<T> value, ModelSetInstance sourceModels, ModelSetInstance newModels)
+		throws ModelInstantiationException {
+		SettableValue<?>[] inputVs = new SettableValue[theInputs.size()];
+		boolean different = false;
+		for (int i = 0; i < inputVs.length; i++) {
+			ModelValueInstantiator<SettableValue<?>> input = (ModelValueInstantiator<SettableValue<?>>) theInputs.get(i);
+			SettableValue<?> sourceInput = input.get(sourceModels);
+			inputVs[i] = input.forModelCopy(sourceInput, sourceModels, newModels);
+			different |= sourceInput != inputVs[i];
+		}
+		if (!different)
+			return value;
+		return createValue(inputVs);
+	}
+
+	private SettableValue<T> createValue(SettableValue<?>[] inputVs) {
+		Observable<?>[] changeSources = new Observable[inputVs.length];
+		for (int i = 0; i < inputVs.length; i++)
+			changeSources[i] = inputVs[i].noInitChanges();
+		LongSupplier stamp = () -> Stamped.compositeStamp(inputVs);
+		ObservableValue.SyntheticObservable<T> backing = ObservableValue.of(() -> evaluate(inputVs), stamp, Observable.or(changeSources),
+			() -> this);
+		return SettableValue.asSettable(backing.cached(), __ -> "Fused expression " + theText + " is not reversible");
+	}
+
+	private T evaluate(SettableValue<?>[] inputVs) {
+		Object[] inputs = new Object[inputVs.length];
+		for (int i = 0; i < inputs.length; i++)
+			inputs[i] = inputVs[i].get();
+		try {
+			return (T) theEvaluator.invokeExact(inputs);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Could not evaluate " + theText, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return theText;
+	}
+
+	private static Object reportError(ErrorReporting reporting, Throwable e) {
+		reporting.error(null, e);
+		return null;
+	}
+
+	/** A node in a fused operation tree */
+	private static abstract class Node {
+		/**
+		 * @param nextInput The index of the next leaf input to be consumed by this node, to be incremented for each leaf compiled
+		 * @return A method handle of type (Object[])Object which evaluates this node from the tree's leaf input values
+		 */
+		abstract MethodHandle compile(int[] nextInput);
+	}
+
+	/** A leaf input of a fused operation tree, whose value is simply obtained from the input array */
+	private static class LeafNode extends Node {
+		static final LeafNode INSTANCE = new LeafNode();
+
+		@Override
+		MethodHandle compile(int[] nextInput) {
+			return MethodHandles.insertArguments(INPUT_GETTER, 1, nextInput[0]++);
+		}
+	}
+
+	/** An operation in a fused operation tree */
+	private static class OperationNode extends Node {
+		private final MethodHandle theOperation;
+		private final Node[] theOperands;
+
+		OperationNode(MethodHandle operation, Node[] operands) {
+			theOperation = operation;
+			theOperands = operands;
+		}
+
+		@Override
+		MethodHandle compile(int[] nextInput) {
+			MethodHandle[] operands = new MethodHandle[theOperands.length];
+			for (int i = 0; i < operands.length; i++)
+				operands[i] = theOperands[i].compile(nextInput);
+			// (Object[], Object[], ...)Object, with each operand evaluated from the input array
+			MethodHandle filtered = MethodHandles.filterArguments(theOperation, 0, operands);
+			// All operands get the same input array
+			return MethodHandles.permuteArguments(filtered, MethodType.methodType(Object.class, Object[].class),
+				new int[operands.length]);
+		}
+	}
+}
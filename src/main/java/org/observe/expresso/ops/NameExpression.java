@@ -1,5 +1,8 @@
 package org.observe.expresso.ops;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
@@ -285,25 +288,20 @@ public class NameExpression implements ObservableExpression, Named {
 			if (nameIndex > 0)
 				divisions[nameIndex - 1] = ObservableExpression.evEx(expressionOffset, getExpressionLength(), imv, mv);
 			Class<?> ctxType = TypeTokens.getRawType(instType.getType(0));
-			SyntheticField.Def<?, ?> syntheticField = env.getSyntheticField(ctxType, theNames.get(nameIndex).getName());
-			if (syntheticField != null) {
+			CompiledExpressoEnv.ResolvedField resolved = env.resolveField(ctxType, theNames.get(nameIndex).getName());
+			if (resolved.getSyntheticField() != null) {
 				return evaluateSyntheticField(
-					(SyntheticField<Object, Object>) ((SyntheticField.Def<Object, ?>) syntheticField).get(instType.getType(0)),
+					(SyntheticField<Object, Object>) ((SyntheticField.Def<Object, ?>) resolved.getSyntheticField())
+					.get(instType.getType(0)),
 					(InterpretedValueSynth<SettableValue<?>, SettableValue<Object>>) imv, nameIndex, type, expressionOffset,
 					reporting.at(theNames.get(nameIndex).length() + 1), divisions, env, exHandler);
 			}
-			Field field;
-			try {
-				field = ctxType.getField(theNames.get(nameIndex).getName());
-			} catch (NoSuchFieldException e) {
+			Field field = resolved.getField();
+			if (field == null) {
 				exHandler.handle1(() -> new ExpressoInterpretationException(
 					"'" + getPath(nameIndex) + "' cannot be resolved or is not a field of " + ctxType.getName(),
 					reporting.getFileLocation().getPosition(0), theNames.get(nameIndex).length()));
 				return null;
-			} catch (SecurityException e) {
-				exHandler.handle1(() -> new ExpressoInterpretationException(getPath(nameIndex) + " cannot be accessed",
-					reporting.getFileLocation().getPosition(0), theNames.get(nameIndex).length(), e));
-				return null;
 			}
 			return evaluateField(field, instType.getType(0).resolveType(field.getGenericType()), //
 				imv, nameIndex, type, expressionOffset, reporting, divisions, env, exHandler);
@@ -347,28 +345,20 @@ public class NameExpression implements ObservableExpression, Named {
 			}
 		} else {
 			nameIndex++;
-			SyntheticField.Def<?, ?> syntheticField = env.getSyntheticField(TypeTokens.getRawType(fieldType),
+			CompiledExpressoEnv.ResolvedField resolved = env.resolveField(TypeTokens.getRawType(fieldType),
 				theNames.get(nameIndex).getName());
-			if (syntheticField != null) {
+			if (resolved.getSyntheticField() != null) {
 				return evaluateSyntheticField(
-					(SyntheticField<Object, Object>) ((SyntheticField.Def<Object, ?>) syntheticField).get(fieldType),
+					(SyntheticField<Object, Object>) ((SyntheticField.Def<Object, ?>) resolved.getSyntheticField()).get(fieldType),
 					(InterpretedValueSynth<SettableValue<?>, SettableValue<Object>>) fieldValue, nameIndex, type, expressionOffset,
 					reporting.at(theNames.get(nameIndex).length() + 1), divisions, env, exHandler);
 			}
-			Field newField;
-			try {
-				newField = TypeTokens.getRawType(fieldType).getField(theNames.get(nameIndex).getName());
-			} catch (NoSuchFieldException e) {
+			Field newField = resolved.getField();
+			if (newField == null) {
 				int fNameIndex = nameIndex;
 				exHandler.handle1(() -> new ExpressoInterpretationException(getPath(fNameIndex - 1) + "(" + fieldType + ")."
 					+ theNames.get(fNameIndex).getName() + "' cannot be resolved or is not a field", reporting.getPosition(),
-					theNames.get(fNameIndex).length(), e));
-				return null;
-			} catch (SecurityException e) {
-				int fNameIndex = nameIndex;
-				exHandler.handle1(() -> new ExpressoInterpretationException(
-					getPath(fNameIndex - 1) + "(" + fieldType + ")." + theNames.get(fNameIndex).getName() + " cannot be accessed",
-					reporting.getPosition(), theNames.get(fNameIndex).length(), e));
+					theNames.get(fNameIndex).length()));
 				return null;
 			}
 			value = evaluateField(newField, fieldType.resolveType(newField.getGenericType()), //
@@ -402,26 +392,19 @@ public class NameExpression implements ObservableExpression, Named {
 			}
 		} else {
 			nameIndex++;
-			SyntheticField.Def<? super F, ?> syntheticField = env.getSyntheticField(TypeTokens.getRawType(field.getType()),
+			CompiledExpressoEnv.ResolvedField resolved = env.resolveField(TypeTokens.getRawType(field.getType()),
 				theNames.get(nameIndex).getName());
-			if (syntheticField != null) {
+			if (resolved.getSyntheticField() != null) {
+				SyntheticField.Def<? super F, ?> syntheticField = (SyntheticField.Def<? super F, ?>) resolved.getSyntheticField();
 				return evaluateSyntheticField(syntheticField.get(field.getType()), fieldValue, nameIndex, type, expressionOffset,
 					reporting.at(theNames.get(nameIndex).length() + 1), divisions, env, exHandler);
 			}
-			Field newField;
-			try {
-				newField = TypeTokens.getRawType(field.getType()).getField(theNames.get(nameIndex).getName());
-			} catch (NoSuchFieldException e) {
+			Field newField = resolved.getField();
+			if (newField == null) {
 				int fNameIndex = nameIndex;
 				exHandler.handle1(() -> new ExpressoInterpretationException(getPath(fNameIndex - 1) + "(" + field.getType() + ")."
 					+ theNames.get(fNameIndex).getName() + "' cannot be resolved or is not a field", reporting.getPosition(),
-					theNames.get(fNameIndex).length(), e));
-				return null;
-			} catch (SecurityException e) {
-				int fNameIndex = nameIndex;
-				exHandler.handle1(() -> new ExpressoInterpretationException(
-					getPath(fNameIndex - 1) + "(" + field.getType() + ")." + theNames.get(fNameIndex).getName() + " cannot be accessed",
-					reporting.getPosition(), theNames.get(fNameIndex).length(), e));
+					theNames.get(fNameIndex).length()));
 				return null;
 			}
 			value = evaluateField(newField, field.getType().resolveType(newField.getGenericType()), //
@@ -502,6 +485,7 @@ public class NameExpression implements ObservableExpression, Named {
 		private final Field theField;
 		private final TypeToken<F> theType;
 		private final ErrorReporting theReporting;
+		private FieldAccessor<F> theAccessor;
 
 		FieldInstantiator(ModelValueInstantiator<SettableValue<C>> context, Field field, TypeToken<F> type, ErrorReporting reporting) {
 			theContext = context;
@@ -514,12 +498,20 @@ public class NameExpression implements ObservableExpression, Named {
 		public void instantiate() throws ModelInstantiationException {
 			if (theContext != null)
 				theContext.instantiate();
+			if (theAccessor == null) {
+				try {
+					theAccessor = new FieldAccessor<>(theField);
+				} catch (IllegalAccessException e) {
+					throw new ModelInstantiationException("Could not access field " + theField.getName(), theReporting.getPosition(), 0,
+						e);
+				}
+			}
 		}
 
 		@Override
 		public SettableValue<F> get(ModelSetInstance models) throws ModelInstantiationException, IllegalStateException {
 			SettableValue<C> ctx = theContext == null ? null : theContext.get(models);
-			return new FieldValue<>(ctx, theField, TypeTokens.get().getDefaultValue(theType), theReporting);
+			return new FieldValue<>(ctx, theAccessor, TypeTokens.get().getDefaultValue(theType), theReporting);
 		}
 
 		@Override
@@ -531,7 +523,7 @@ public class NameExpression implements ObservableExpression, Named {
 			SettableValue<C> newCtx = theContext.forModelCopy(oldCtx, sourceModels, newModels);
 			if (oldCtx == newCtx)
 				return value;
-			return new FieldValue<>(newCtx, theField, TypeTokens.get().getDefaultValue(theType), theReporting);
+			return new FieldValue<>(newCtx, theAccessor, TypeTokens.get().getDefaultValue(theType), theReporting);
 		}
 
 		@Override
@@ -569,8 +561,88 @@ public class NameExpression implements ObservableExpression, Named {
 		}
 	}
 
+	/**
+	 * Compiled access to a java field via {@link MethodHandle}s, which avoids the per-access checks of reflective {@link Field} access
+	 *
+	 * @param <F> The type of the field
+	 */
+	static class FieldAccessor<F> {
+		private final Field theField;
+		private final MethodHandle theGetter;
+		private final MethodHandle theSetter;
+
+		FieldAccessor(Field field) throws IllegalAccessException {
+			theField = field;
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			boolean isStatic = Modifier.isStatic(field.getModifiers());
+			// Normalize the handles to (Object)Object and (Object, Object)void so they can be invoked exactly, static or not
+			MethodHandle getter = lookup.unreflectGetter(field);
+			if (isStatic)
+				getter = MethodHandles.dropArguments(getter, 0, Object.class);
+			theGetter = getter.asType(MethodType.methodType(Object.class, Object.class));
+			if (Modifier.isFinal(field.getModifiers()))
+				theSetter = null;
+			else {
+				MethodHandle setter = lookup.unreflectSetter(field);
+				if (isStatic)
+					setter = MethodHandles.dropArguments(setter, 0, Object.class);
+				theSetter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			}
+		}
+
+		Field getField() {
+			return theField;
+		}
+
+		/**
+		 * @param context The instance to get the field value of (ignored for static fields)
+		 * @return The value of the field in the given instance
+		 * @throws IllegalArgumentException If the context is not an instance of the field's declaring type, like {@link Field#get(Object)}
+		 */
+		F get(Object context) throws IllegalArgumentException {
+			try {
+				return (F) theGetter.invokeExact(context);
+			} catch (ClassCastException e) {
+				throw new IllegalArgumentException("Can not get " + theField.getType().getName() + " field " + getFieldName() + " from "
+					+ context.getClass().getName(), e);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Could not get field " + theField.getName(), e);
+			}
+		}
+
+		/**
+		 * @param context The instance to set the field value in (ignored for static fields)
+		 * @param value The value for the field
+		 * @throws IllegalArgumentException If the context is not an instance of the field's declaring type, or the value cannot be
+		 *         assigned to the field, like {@link Field#set(Object, Object)}
+		 * @throws UnsupportedOperationException If the field is final
+		 */
+		void set(Object context, F value) throws IllegalArgumentException, UnsupportedOperationException {
+			if (theSetter == null)
+				throw new UnsupportedOperationException("Final field cannot be assigned");
+			try {
+				theSetter.invokeExact(context, (Object) value);
+			} catch (ClassCastException | NullPointerException e) {
+				// A context of the wrong type, a value of the wrong type, or a null value for a primitive field
+				throw new IllegalArgumentException("Can not set " + theField.getType().getName() + " field " + getFieldName() + " to "
+					+ (value == null ? "null value" : value.getClass().getName()), e);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Could not set field " + theField.getName(), e);
+			}
+		}
+
+		private String getFieldName() {
+			return theField.getDeclaringClass().getName() + "." + theField.getName();
+		}
+	}
+
 	static class FieldValue<F> extends Identifiable.AbstractIdentifiable implements SettableValue<F> {
 		private final SettableValue<?> theContext;
+		private final FieldAccessor<F> theAccessor;
 		private final Field theField;
 		private final boolean isFinal;
 		private final SimpleObservable<Void> theChanges;
@@ -579,9 +651,10 @@ public class NameExpression implements ObservableExpression, Named {
 		private final ErrorReporting theReporting;
 		private long theStamp;
 
-		FieldValue(SettableValue<?> context, Field field, F defaultValue, ErrorReporting reporting) {
+		FieldValue(SettableValue<?> context, FieldAccessor<F> accessor, F defaultValue, ErrorReporting reporting) {
 			theContext = context;
-			theField = field;
+			theAccessor = accessor;
+			theField = accessor.getField();
 			isFinal = Modifier.isFinal(theField.getModifiers());
 			if (isFinal)
 				theChanges = null;
@@ -680,14 +753,8 @@ public class NameExpression implements ObservableExpression, Named {
 						theReporting.error("Cannot assign the field of a null value");
 						return value;
 					}
-					F previous;
-					try {
-						previous = (F) theField.get(ctxV);
-						theField.set(ctxV, value);
-					} catch (IllegalAccessException e) {
-						theReporting.error("Could not access field " + theField.getName(), e);
-						return value;
-					}
+					F previous = theAccessor.get(ctxV);
+					theAccessor.set(ctxV, value);
 					if (ctx != null && ((Setter<Object>) ctx).isAcceptable(ctxV) == null)
 						((Setter<Object>) ctx).set(ctxV);
 					else {
@@ -717,8 +784,8 @@ public class NameExpression implements ObservableExpression, Named {
 
 		F getStatic() {
 			try {
-				return (F) theField.get(null);
-			} catch (IllegalArgumentException | IllegalAccessException e) {
+				return theAccessor.get(null);
+			} catch (IllegalArgumentException e) {
 				theReporting.error("Could not access field " + theField.getName(), e);
 				return null;
 			}
@@ -728,8 +795,8 @@ public class NameExpression implements ObservableExpression, Named {
 			if (context == null)
 				return theDefaultValue;
 			try {
-				return (F) theField.get(context);
-			} catch (IllegalArgumentException | IllegalAccessException e) {
+				return theAccessor.get(context);
+			} catch (IllegalArgumentException e) {
 				theReporting.error("Could not access field " + theField.getName(), e);
 				return null;
 			}
@@ -776,14 +843,8 @@ public class NameExpression implements ObservableExpression, Named {
 				theReporting.error("Cannot assign the field of a null value");
 				return value;
 			}
-			F previous;
-			try {
-				previous = (F) theField.get(ctx);
-				theField.set(ctx, value);
-			} catch (IllegalAccessException e) {
-				theReporting.error("Could not access field " + theField.getName(), e);
-				return value;
-			}
+			F previous = theAccessor.get(ctx);
+			theAccessor.set(ctx, value);
 			if (theContext != null && ((SettableValue<Object>) theContext).isAcceptable(ctx) == null)
 				((SettableValue<Object>) theContext).set(ctx);
 			else {
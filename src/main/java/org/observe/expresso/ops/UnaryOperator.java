@@ -168,7 +168,7 @@ public class UnaryOperator implements ObservableExpression {
 				throw new ExpressoInterpretationException("Unary operator " + theOperator + " can only be evaluated as a value",
 					env.reporting().getPosition(), getExpressionLength());
 			return (MV) evaluateValue(opType, (TypeToken<Object>) type.getType(0), op, (UnaryOp<S, Object>) operator, expressionOffset,
-				operatorReporting, exHandler);
+				operatorReporting, FusedValueInstantiator.isFusing(env), exHandler);
 		}
 	}
 
@@ -183,7 +183,8 @@ public class UnaryOperator implements ObservableExpression {
 
 	private <S, T, EX extends Throwable> EvaluatedExpression<SettableValue<?>, SettableValue<T>> evaluateValue(TypeToken<S> opType,
 		TypeToken<T> type, EvaluatedExpression<SettableValue<?>, SettableValue<S>> op, UnaryOp<S, T> operator, int expressionOffset,
-		ErrorReporting operatorReporting, ExceptionHandler.Single<ExpressoInterpretationException, EX> exHandler) throws EX {
+		ErrorReporting operatorReporting, boolean fuse, ExceptionHandler.Single<ExpressoInterpretationException, EX> exHandler)
+			throws EX {
 		TypeToken<T> operatorType = TypeTokens.get().of(operator.getTargetType());
 		TypeTokens.TypeConverter<T, T, T, T> cast;
 		if (TypeTokens.get().wrap(type).equals(TypeTokens.get().wrap(operatorType))) {
@@ -202,6 +203,14 @@ public class UnaryOperator implements ObservableExpression {
 			}
 			type = cast.getConvertedType();
 		}
+		if (fuse) {
+			Function<S, T> fused = v -> {
+				T result = operator.apply(v);
+				return cast == null ? result : cast.apply(result);
+			};
+			return ObservableExpression.evEx(expressionOffset, getExpressionLength(), op.map(ModelTypes.Value.forType(type),
+				opV -> FusedValueInstantiator.fuseUnary(fused, opV, operatorReporting, toString())), operator, op);
+		}
 		return ObservableExpression.evEx(expressionOffset, getExpressionLength(),
 			op.map(ModelTypes.Value.forType(type), opV -> new ValueInstantiator<>(op.instantiate(), operator, cast, operatorReporting)),
 			operator, op);
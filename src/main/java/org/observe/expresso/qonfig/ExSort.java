@@ -1,23 +1,41 @@
 package org.observe.expresso.qonfig;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import org.observe.Observable;
 import org.observe.SettableValue;
+import org.observe.expresso.CompiledExpressoEnv;
 import org.observe.expresso.ExpressoInterpretationException;
 import org.observe.expresso.ModelInstantiationException;
 import org.observe.expresso.ModelTypes;
+import org.observe.expresso.ObservableExpression;
 import org.observe.expresso.ObservableModelSet.InterpretedValueSynth;
 import org.observe.expresso.ObservableModelSet.ModelComponentId;
 import org.observe.expresso.ObservableModelSet.ModelInstantiator;
 import org.observe.expresso.ObservableModelSet.ModelSetInstance;
 import org.observe.expresso.ObservableModelSet.ModelValueInstantiator;
+import org.observe.expresso.ops.MethodInvocation;
+import org.observe.expresso.ops.NameExpression;
 import org.observe.expresso.qonfig.ExSort.Interpreted.SortInstantiator;
 import org.observe.util.TypeTokens;
 import org.qommons.QommonsUtils;
@@ -29,6 +47,7 @@ import org.qommons.config.QonfigInterpretationException;
 import org.qommons.fn.FunctionUtils;
 import org.qommons.io.LocatedPositionedContent;
 
+import com.google.common.collect.MapMaker;
 import com.google.common.reflect.TypeToken;
 
 /** A &lt;sort> element to sort a collection, transformation results, etc., or a &lt;sort-by> in a &lt;sort> */
@@ -44,6 +63,7 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 	private CompiledExpression theSortWith;
 	private final List<ExSortBy> theSortBy;
 	private boolean isAscending;
+	private boolean isCachingKeys;
 
 	/**
 	 * @param parent The parent element of this sort
@@ -87,6 +107,12 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 		return isAscending;
 	}
 
+	/** @return Whether the attributes of values that this sort's &lt;sort-by> children sort by are computed once per value and cached */
+	@QonfigAttributeGetter("cache-keys")
+	public boolean isCachingKeys() {
+		return isCachingKeys;
+	}
+
 	@Override
 	protected void doUpdate(ExpressoQIS session) throws QonfigInterpretationException {
 		super.doUpdate(session);
@@ -99,6 +125,7 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 		LocatedPositionedContent sortCompareValueNamePosition = session.attributes().get("sort-compare-value-as").getLocatedContent();
 		theSortWith = getAttributeExpression("sort-with", session);
 		isAscending = session.getAttribute("ascending", boolean.class);
+		isCachingKeys = session.getAttribute("cache-keys", boolean.class);
 		syncChildren(ExSortBy.class, theSortBy, session.forChildren("sort-by"));
 
 		if (theSortWith != null) {
@@ -258,6 +285,8 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 			protected final List<SortInstantiator<IT, ?>> theSortBy;
 			protected final Comparator<? super IT> theDefaultSorting;
 			protected final boolean isAscending;
+			private Comparator<? super OT> theCompiled;
+			private boolean isCompiled;
 
 			protected SortInstantiator(ModelComponentId sortValue, ModelComponentId sortCompareValue,
 				ModelValueInstantiator<SettableValue<Integer>> sortWith, List<SortInstantiator<IT, ?>> sortBy,
@@ -272,23 +301,77 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 
 			@Override
 			public Comparator<? super OT> get(ModelSetInstance models) throws ModelInstantiationException, IllegalStateException {
+				return getSorting(models, null);
+			}
+
+			/**
+			 * @param models The model instance to get the sorting for
+			 * @param keyCaches Receives the {@link ExSortBy.SortKeyCache caches} of sort keys of mutable values, which are cached by
+			 *        identity and must be {@link ExSortBy.SortKeyCache#invalidate(Object) invalidated} whenever a value is updated.
+			 *        If null, keys of mutable values will not be cached.
+			 * @return The sorting
+			 * @throws ModelInstantiationException If the sorting could not be instantiated
+			 */
+			protected Comparator<? super OT> getSorting(ModelSetInstance models, List<ExSortBy.SortKeyCache<OT, ?>> keyCaches)
+				throws ModelInstantiationException {
+				Comparator<? super OT> compiled = getCompiled();
+				if (compiled != null)
+					return compiled;
 				SettableValue<OT> left = SettableValue.<OT> build().withDescription(theSortValue.getName()).build();
 				SettableValue<OT> right = SettableValue.<OT> build().withDescription(theSortValue.getName()).build();
-				Supplier<Integer> sorting = getExternalSorting(models, left, right);
+				Supplier<Integer> sorting = getExternalSorting(models, left, right, keyCaches);
 				return new SortWithComparator<>(left, right, sorting);
 			}
 
 			@Override
 			public Comparator<? super OT> forModelCopy(Comparator<? super OT> value, ModelSetInstance sourceModels,
 				ModelSetInstance newModels) throws ModelInstantiationException {
+				if (value == getCompiled())
+					return value;
 				return get(newModels);
 			}
 
+			/**
+			 * @return A comparator for this sorting which compares values directly, without populating and evaluating model values, or null
+			 *         if this sorting depends on expressions that cannot be compiled this way
+			 */
+			protected Comparator<? super OT> getCompiled() {
+				if (!isCompiled) {
+					theCompiled = compile();
+					isCompiled = true;
+				}
+				return theCompiled;
+			}
+
+			/**
+			 * @return A comparator for this sorting which compares values directly, or null if this sorting cannot be compiled
+			 * @see #getCompiled()
+			 */
+			protected abstract Comparator<? super OT> compile();
+
+			/** @return A comparator for the internal type which compares values directly, or null if this sorting cannot be compiled */
+			protected Comparator<? super IT> compileInternal() {
+				if (theSortWith != null)
+					return null;
+				else if (!theSortBy.isEmpty()) {
+					Comparator<? super IT>[] sortBy = new Comparator[theSortBy.size()];
+					int i = 0;
+					for (SortInstantiator<IT, ?> sb : theSortBy) {
+						sortBy[i] = sb.getCompiled();
+						if (sortBy[i] == null)
+							return null;
+						i++;
+					}
+					return new CompositeComparator<>(sortBy, isAscending);
+				} else
+					return theDefaultSorting;
+			}
+
 			protected abstract Supplier<Integer> getExternalSorting(ModelSetInstance parentModels, SettableValue<OT> left,
-				SettableValue<OT> right) throws ModelInstantiationException;
+				SettableValue<OT> right, List<ExSortBy.SortKeyCache<OT, ?>> keyCaches) throws ModelInstantiationException;
 
-			protected Supplier<Integer> getInternalSorting(ModelSetInstance models, SettableValue<IT> left, SettableValue<IT> right)
-				throws ModelInstantiationException {
+			protected Supplier<Integer> getInternalSorting(ModelSetInstance models, SettableValue<IT> left, SettableValue<IT> right,
+				List<ExSortBy.SortKeyCache<IT, ?>> keyCaches) throws ModelInstantiationException {
 				if (theSortWith != null) {
 					ExFlexibleElementModelAddOn.satisfyElementValue(theSortValue, models, left);
 					ExFlexibleElementModelAddOn.satisfyElementValue(theSortCompareValue, models, right);
@@ -297,7 +380,7 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 					Supplier<Integer>[] sortBy = new Supplier[theSortBy.size()];
 					int i = 0;
 					for (SortInstantiator<IT, ?> sb : theSortBy)
-						sortBy[i++] = sb.getExternalSorting(models, left, right);
+						sortBy[i++] = sb.getExternalSorting(models, left, right, keyCaches);
 					return new CompositeIntSupplier(sortBy, isAscending);
 				} else
 					return new DefaultSortSupplier<>(left, right, theDefaultSorting);
@@ -403,6 +486,110 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 			}
 		}
 
+		/**
+		 * A comparator composed of one or more others, the {@link #compileInternal() compiled} equivalent of a
+		 * {@link CompositeIntSupplier}. Returns the result of the first one that is non-zero.
+		 *
+		 * @param <T> The type to sort
+		 */
+		public static class CompositeComparator<T> implements Comparator<T> {
+			private final Comparator<? super T>[] theComponents;
+			private final boolean isAscending;
+
+			/**
+			 * @param components The components for this composite
+			 * @param ascending Whether the sort is ascending
+			 */
+			public CompositeComparator(Comparator<? super T>[] components, boolean ascending) {
+				theComponents = components;
+				isAscending = ascending;
+			}
+
+			@Override
+			public int compare(T o1, T o2) {
+				int result = 0;
+				for (Comparator<? super T> component : theComponents) {
+					result = component.compare(o1, o2);
+					if (result != 0)
+						break;
+				}
+				return isAscending ? result : -result;
+			}
+
+			@Override
+			public int hashCode() {
+				return Objects.hash((Object[]) theComponents);
+			}
+
+			@Override
+			public boolean equals(Object obj) {
+				if (this == obj)
+					return true;
+				else
+					return obj instanceof CompositeComparator && Arrays.equals(theComponents, ((CompositeComparator<?>) obj).theComponents);
+			}
+
+			@Override
+			public String toString() {
+				return Arrays.toString(theComponents);
+			}
+		}
+
+		/**
+		 * Caches the sort key of each value, so that it is computed once per value instead of for each comparison involving the value.
+		 * Values are held weakly. Values of {@link ExSort#isImmutableType(Class) immutable} types are matched by equality. Values of
+		 * mutable types are matched by identity, since a value could be changed in place, leaving a stale key (or, if its hash code
+		 * changed, an unreachable entry), so the key of such a value must be {@link #invalidate(Object) invalidated} each time the value
+		 * may have changed.
+		 *
+		 * @param <T> The type of values to get keys for
+		 * @param <K> The type of the keys
+		 */
+		public static class SortKeyCache<T, K> implements Function<T, K> {
+			private static final Object NULL = new Object();
+
+			private final Function<? super T, ? extends K> theKey;
+			private final Map<T, Object> theKeys;
+
+			/**
+			 * @param key Computes the key for a value
+			 * @param byIdentity Whether to match values by identity instead of equality
+			 */
+			public SortKeyCache(Function<? super T, ? extends K> key, boolean byIdentity) {
+				theKey = key;
+				theKeys = byIdentity ? new MapMaker().weakKeys().makeMap() : new WeakHashMap<>();
+			}
+
+			@Override
+			public synchronized K apply(T value) {
+				if (value == null) // Weak maps can't hold null
+					return theKey.apply(null);
+				Object key = theKeys.get(value);
+				if (key == null) {
+					key = theKey.apply(value);
+					theKeys.put(value, key == null ? NULL : key);
+					return (K) key;
+				}
+				return key == NULL ? null : (K) key;
+			}
+
+			/** @param value The value whose key to discard, e.g. because the value has been updated */
+			public synchronized void invalidate(T value) {
+				if (value != null)
+					theKeys.remove(value);
+			}
+
+			/** Discards all cached keys, e.g. when something the key depends on besides the value changes */
+			public synchronized void clear() {
+				theKeys.clear();
+			}
+
+			@Override
+			public String toString() {
+				return "cached(" + theKey + ")";
+			}
+		}
+
 		/**
 		 * A comparator representing default sorting (when sorting is specified, but no mechanism is given)
 		 *
@@ -517,10 +704,15 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 			}
 
 			@Override
-			protected Supplier<Integer> getExternalSorting(ModelSetInstance parentModels, SettableValue<T> left, SettableValue<T> right)
-				throws ModelInstantiationException {
+			protected Supplier<Integer> getExternalSorting(ModelSetInstance parentModels, SettableValue<T> left, SettableValue<T> right,
+				List<ExSortBy.SortKeyCache<T, ?>> keyCaches) throws ModelInstantiationException {
 				parentModels = theLocalModel.operate(parentModels, (m, mi) -> mi.wrap(m));
-				return getInternalSorting(parentModels, left, right);
+				return getInternalSorting(parentModels, left, right, keyCaches);
+			}
+
+			@Override
+			protected Comparator<? super T> compile() {
+				return compileInternal();
 			}
 		}
 	}
@@ -575,6 +767,8 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 		public static class Interpreted<OT, IT> extends ExSort.Interpreted<OT, IT> {
 			private InterpretedValueSynth<SettableValue<?>, SettableValue<IT>> theAttribute;
 			private final ExSort.Interpreted<?, OT> theSort;
+			private boolean isCachingKeys;
+			private boolean isKeyedByIdentity;
 
 			Interpreted(ExSortBy definition, ExElement.Interpreted<?> parent) throws ExpressoInterpretationException {
 				super(definition, parent);
@@ -605,6 +799,27 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 			public void update(TypeToken<OT> type) throws ExpressoInterpretationException {
 				theAttribute = getParentElement().interpret(getDefinition().getAttribute(), ModelTypes.Value.anyAsV());
 				updateInternal((TypeToken<IT>) theAttribute.getType().getType(0));
+				isCachingKeys = theSort.getDefinition().isCachingKeys();
+				isKeyedByIdentity = isCachingKeys && !ExSort.isImmutableType(TypeTokens.getRawType(getSortType()));
+				if (isKeyedByIdentity && !(theSort instanceof ExRootSort.Interpreted)) {
+					// Keys of mutable values are invalidated as their elements are updated, but nested values have no elements
+					reporting().warn("cache-keys is ignored for mutable type " + getSortType() + " in a nested sort-by");
+					isCachingKeys = isKeyedByIdentity = false;
+				}
+			}
+
+			/** @return Whether this sort-by caches the attribute of each sorted value */
+			public boolean isCachingKeys() {
+				return isCachingKeys;
+			}
+
+			/**
+			 * @return Whether this sort-by's cached attributes are keyed by the identity of the sorted values, because their type is
+			 *         mutable. Such keys are only cached where the sorting is {@link ExSort#getElementSorting obtained} for collection
+			 *         elements.
+			 */
+			public boolean isKeyedByIdentity() {
+				return isKeyedByIdentity;
 			}
 
 			@Override
@@ -617,7 +832,20 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 				return new SortByInstantiator<>(getDefinition().getSortValue(), getDefinition().getSortCompareValue(),
 					getSortWith() == null ? null : getSortWith().instantiate(), instantiateSortBy(), getDefaultSorting(),
 						getDefinition().isAscending(), instantiateLocalModels(),
-						theSort.getDefinition().getSortValue(), theAttribute.instantiate());
+						theSort.getDefinition().getSortValue(), theAttribute.instantiate(), compileAttribute(), isCachingKeys,
+						isKeyedByIdentity);
+			}
+
+			/**
+			 * @return A function to get this sort-by's attribute directly from a sorted value if the attribute is a plain java field or
+			 *         getter of the sorted value, or null otherwise
+			 */
+			protected Function<? super OT, ? extends IT> compileAttribute() {
+				ModelComponentId sortValue = theSort.getDefinition().getSortValue();
+				if (sortValue == null)
+					return null;
+				return ExSort.compileAccessor(getDefinition().getAttribute().getExpression(), sortValue.getName(),
+					TypeTokens.getRawType(getSortType()), getDefaultEnv());
 			}
 		}
 
@@ -625,16 +853,39 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 			private final DocumentMap<ModelInstantiator> theLocalModel;
 			private final ModelComponentId theParentSortValue;
 			private final ModelValueInstantiator<SettableValue<IT>> theAttribute;
+			private final Function<? super OT, ? extends IT> theCompiledAttribute;
+			private final boolean isCachingKeys;
+			private final boolean isKeyedByIdentity;
 
 			SortByInstantiator(ModelComponentId sortValue, ModelComponentId sortCompareValue,
 				ModelValueInstantiator<SettableValue<Integer>> sortWith, List<SortInstantiator<IT, ?>> sortBy,
 				Comparator<? super IT> defaultSorting, boolean ascending, DocumentMap<ModelInstantiator> localModel,
 				ModelComponentId parentSortValue,
-				ModelValueInstantiator<SettableValue<IT>> attribute) {
+				ModelValueInstantiator<SettableValue<IT>> attribute, Function<? super OT, ? extends IT> compiledAttribute,
+				boolean cachingKeys, boolean keyedByIdentity) {
 				super(sortValue, sortCompareValue, sortWith, sortBy, defaultSorting, ascending);
 				theLocalModel = localModel;
 				theParentSortValue = parentSortValue;
 				theAttribute = attribute;
+				theCompiledAttribute = compiledAttribute;
+				isCachingKeys = cachingKeys;
+				isKeyedByIdentity = keyedByIdentity;
+			}
+
+			@Override
+			protected Comparator<? super OT> compile() {
+				// A compiled comparator is shared by all model instances, so the key cache would be too, and would never be released
+				if (theCompiledAttribute == null || isCachingKeys)
+					return null;
+				Comparator<? super IT> internal = compileInternal();
+				if (internal == null)
+					return null;
+				return keyComparator(theCompiledAttribute, internal);
+			}
+
+			private Comparator<OT> keyComparator(Function<? super OT, ? extends IT> key, Comparator<? super IT> internal) {
+				return FunctionUtils.<OT> printableComparator((v1, v2) -> internal.compare(key.apply(v1), key.apply(v2)),
+					() -> theAttribute + "(" + internal + ")", null);
 			}
 
 			@Override
@@ -644,8 +895,8 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 			}
 
 			@Override
-			protected Supplier<Integer> getExternalSorting(ModelSetInstance parentModels, SettableValue<OT> left, SettableValue<OT> right)
-				throws ModelInstantiationException {
+			protected Supplier<Integer> getExternalSorting(ModelSetInstance parentModels, SettableValue<OT> left, SettableValue<OT> right,
+				List<SortKeyCache<OT, ?>> keyCaches) throws ModelInstantiationException {
 				ModelSetInstance models = theLocalModel.operate(parentModels, (m, mi) -> mi.wrap(m));
 				ModelSetInstance leftCopy = models.copy().build();
 				ModelSetInstance rightCopy = models.copy().build();
@@ -653,11 +904,180 @@ public abstract class ExSort extends ExElement.Def.Abstract<ExElement> {
 				ExFlexibleElementModelAddOn.satisfyElementValue(theParentSortValue, rightCopy, right);
 				SettableValue<IT> internalLeft = theAttribute.get(leftCopy);
 				SettableValue<IT> internalRight = theAttribute.get(rightCopy);
-				return getInternalSorting(models, internalLeft, internalRight);
+				// Keys of mutable values can only be cached if something will invalidate them as the values are updated
+				if (isCachingKeys && (!isKeyedByIdentity || keyCaches != null))
+					return new DefaultSortSupplier<>(left, right, cachingComparator(models, left, internalLeft, keyCaches));
+				// The internal values are not collection elements, so their keys can't be invalidated by element
+				return getInternalSorting(models, internalLeft, internalRight, null);
+			}
+
+			/**
+			 * Creates a comparator which computes the attribute of each sorted value once, caching it by value
+			 *
+			 * @param models The local models of this sort-by
+			 * @param keySource A container for the sorted value
+			 * @param keyValue The attribute evaluated against the key source
+			 * @param keyCaches Receives the cache if it is keyed by identity
+			 * @return The key-caching comparator
+			 * @throws ModelInstantiationException If the internal sorting could not be instantiated
+			 */
+			private Comparator<OT> cachingComparator(ModelSetInstance models, SettableValue<OT> keySource, SettableValue<IT> keyValue,
+				List<SortKeyCache<OT, ?>> keyCaches) throws ModelInstantiationException {
+				Function<? super OT, ? extends IT> key;
+				if (theCompiledAttribute != null)
+					key = theCompiledAttribute;
+				else {
+					// The key source is shared by all evaluations, but the cache evaluates keys under its lock
+					SettableValue<OT> source = SettableValue.<OT> build().withDescription(theParentSortValue.getName()).build();
+					ModelSetInstance sourceModels = models.copy().build();
+					ExFlexibleElementModelAddOn.satisfyElementValue(theParentSortValue, sourceModels, source);
+					SettableValue<IT> sourceKey = theAttribute.get(sourceModels);
+					Function<OT, IT> evaluated = v -> {
+						source.set(v, null);
+						return sourceKey.get();
+					};
+					key = FunctionUtils.printableFn(evaluated, theAttribute::toString, null);
+				}
+				SortKeyCache<OT, IT> cache = new SortKeyCache<>(key, isKeyedByIdentity);
+				if (isKeyedByIdentity)
+					keyCaches.add(cache);
+				// Keys are cached by value, so they must be discarded when anything else the attribute depends on changes
+				Observable.CoreChangeSources external = keyValue.noInitChanges().getChangeSources()
+					.excluding(keySource.noInitChanges().getChangeSources());
+				if (!external.isEmpty())
+					external.takeUntil(models.getUntil()).act(__ -> cache.clear());
+
+				Comparator<? super IT> internal = compileInternal();
+				if (internal == null) {
+					SettableValue<IT> internalLeft = SettableValue.<IT> build().build();
+					SettableValue<IT> internalRight = SettableValue.<IT> build().build();
+					internal = new SortWithComparator<>(internalLeft, internalRight,
+						getInternalSorting(models, internalLeft, internalRight, null));
+				}
+				return keyComparator(cache, internal);
 			}
 		}
 	}
 
+	/**
+	 * Gets a sorting for the elements of a collection. Unlike {@link ModelValueInstantiator#get(ModelSetInstance)}, this allows
+	 * &lt;sort-by> elements with cache-keys specified to cache the keys of mutable values, by value identity. The caller must
+	 * {@link ExSortBy.SortKeyCache#invalidate(Object) invalidate} a value's keys in each of the caches whenever its element is updated,
+	 * before the sorting is used to re-position it.
+	 *
+	 * @param <T> The type of values to sort
+	 * @param sorting The sorting instantiator
+	 * @param models The model instance to get the sorting for
+	 * @param keyCaches Receives the identity-keyed caches of sort keys of mutable values
+	 * @return The sorting
+	 * @throws ModelInstantiationException If the sorting could not be instantiated
+	 */
+	public static <T> Comparator<? super T> getElementSorting(ModelValueInstantiator<Comparator<? super T>> sorting,
+		ModelSetInstance models, List<ExSortBy.SortKeyCache<T, ?>> keyCaches) throws ModelInstantiationException {
+		if (sorting instanceof SortInstantiator)
+			return ((SortInstantiator<T, ?>) sorting).getSorting(models, keyCaches);
+		return sorting.get(models);
+	}
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(//
+		String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+		BigInteger.class, BigDecimal.class, Class.class)));
+
+	/**
+	 * Determines whether values of a type can be relied upon not to change, e.g. so that information derived from them may be cached by
+	 * value. This is true of primitives and their wrappers, strings, enums, and final classes whose instance fields (including inherited
+	 * ones) are all final and themselves of immutable types.
+	 *
+	 * @param type The type to test
+	 * @return Whether values of the given type are immutable
+	 */
+	public static boolean isImmutableType(Class<?> type) {
+		return isImmutableType(type, new ArrayList<>());
+	}
+
+	private static boolean isImmutableType(Class<?> type, List<Class<?>> checking) {
+		if (type == null)
+			return false;
+		else if (type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type)
+			|| (type.getName().startsWith("java.time.") && Modifier.isFinal(type.getModifiers())))
+			return true;
+		else if (type.isArray() || type.isInterface() || !Modifier.isFinal(type.getModifiers()))
+			return false;
+		else if (checking.contains(type))
+			return true; // Recursive reference, which is immutable if the rest of the type is
+		checking.add(type);
+		for (Class<?> t = type; t != null && t != Object.class; t = t.getSuperclass()) {
+			for (Field field : t.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()))
+					continue;
+				else if (!Modifier.isFinal(field.getModifiers()) || !isImmutableType(field.getType(), checking))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Attempts to compile an expression of the form <code>value.field</code> or <code>value.getter()</code> into a direct accessor, so that
+	 * it may be evaluated against values without populating a model value and evaluating the expression.
+	 *
+	 * @param <V> The type of the values to evaluate against
+	 * @param <A> The type of the expression
+	 * @param expression The expression to compile
+	 * @param valueName The name of the variable which the values to evaluate against are available as
+	 * @param valueType The type of the values to evaluate against
+	 * @param env The expresso environment that the expression is evaluated in
+	 * @return A function which evaluates the expression directly against a value (and returns the default value of the expression's type
+	 *         for a null value, as the expression would), or null if the expression is not a public java field or no-argument method of
+	 *         the value
+	 */
+	public static <V, A> Function<V, A> compileAccessor(ObservableExpression expression, String valueName, Class<V> valueType,
+		CompiledExpressoEnv env) {
+		MethodHandle accessor;
+		try {
+			if (expression instanceof NameExpression) {
+				NameExpression name = (NameExpression) expression;
+				if (name.getContext() != null || name.getNames().size() != 2 || !name.getNames().get(0).getName().equals(valueName))
+					return null;
+				CompiledExpressoEnv.ResolvedField resolved = env.resolveField(valueType, name.getNames().get(1).getName());
+				// Synthetic fields must be evaluated by the expression
+				Field field = resolved.getField();
+				if (field == null || Modifier.isStatic(field.getModifiers()))
+					return null;
+				accessor = MethodHandles.publicLookup().unreflectGetter(field);
+			} else if (expression instanceof MethodInvocation) {
+				MethodInvocation invocation = (MethodInvocation) expression;
+				if (!(invocation.getContext() instanceof NameExpression) || !invocation.getArguments().isEmpty()
+					|| !invocation.getTypeArguments().isEmpty())
+					return null;
+				NameExpression ctx = (NameExpression) invocation.getContext();
+				if (ctx.getContext() != null || ctx.getNames().size() != 1 || !ctx.getNames().getFirst().getName().equals(valueName))
+					return null;
+				Method method = valueType.getMethod(invocation.getMethodName().getName());
+				if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class)
+					return null;
+				accessor = MethodHandles.publicLookup().unreflect(method);
+			} else
+				return null;
+		} catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+			return null;
+		}
+		// The expression evaluates to the default value of its type (e.g. 0 for an int field) when the value is null
+		A nullValue = (A) TypeTokens.get().getDefaultValue(accessor.type().returnType());
+		MethodHandle generic = accessor.asType(MethodType.methodType(Object.class, Object.class));
+		return FunctionUtils.printableFn(value -> {
+			if (value == null)
+				return nullValue;
+			try {
+				return (A) generic.invokeExact((Object) value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Could not evaluate " + expression, e);
+			}
+		}, expression::toString, null);
+	}
+
 	/**
 	 * @param <T> The type to sort
 	 * @param type The type to sort
@@ -2,8 +2,13 @@ package org.observe.expresso.qonfig;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -44,6 +49,7 @@ import org.observe.expresso.qonfig.ExElement.Def;
 import org.observe.util.TypeTokens;
 import org.qommons.Identifiable;
 import org.qommons.Named;
+import org.qommons.ThreadConstraint;
 import org.qommons.Transaction;
 import org.qommons.collect.BetterList;
 import org.qommons.config.AbstractQIS;
@@ -51,6 +57,7 @@ import org.qommons.config.QonfigAddOn;
 import org.qommons.config.QonfigElementOrAddOn;
 import org.qommons.config.QonfigInterpretationException;
 import org.qommons.config.QonfigInterpreterCore;
+import org.qommons.config.QonfigValueType;
 import org.qommons.fn.FunctionUtils;
 import org.qommons.fn.TriFunction;
 
@@ -1159,6 +1166,9 @@ public class ExpressoTransformations {
 		private boolean isNullToNull;
 		private boolean isManyToOne;
 		private boolean isOneToMany;
+		private boolean isParallel;
+		private int theMemoSize;
+		private MappingMemo.Policy theMemoPolicy;
 
 		/**
 		 * @param parent The parent element of this transformation
@@ -1221,6 +1231,27 @@ public class ExpressoTransformations {
 			return isOneToMany;
 		}
 
+		/**
+		 * @return Whether the initial population of a mapped collection should be evaluated in parallel, for expressions with no side
+		 *         effects
+		 */
+		@QonfigAttributeGetter(asType = "map-to", value = "parallel")
+		public boolean isParallel() {
+			return isParallel;
+		}
+
+		/** @return The maximum number of mapped values to {@link MappingMemo memoize} by source value, or 0 for no memo */
+		@QonfigAttributeGetter(asType = "map-to", value = "memo-size")
+		public int getMemoSize() {
+			return theMemoSize;
+		}
+
+		/** @return The eviction policy for the {@link MappingMemo memo} of mapped values */
+		@QonfigAttributeGetter(asType = "map-to", value = "memo-policy")
+		public MappingMemo.Policy getMemoPolicy() {
+			return theMemoPolicy;
+		}
+
 		/** @return The equivalence for the result value */
 		@QonfigAttributeGetter(asType = "map-to", value = "equivalence")
 		public CompiledExpression getEquivalence() {
@@ -1261,6 +1292,12 @@ public class ExpressoTransformations {
 			isNullToNull = session.getAttribute("null-to-null", boolean.class);
 			isManyToOne = session.getAttribute("many-to-one", boolean.class);
 			isOneToMany = session.getAttribute("one-to-many", boolean.class);
+			isParallel = session.getAttribute("parallel", boolean.class);
+			String memoSize = session.getAttributeText("memo-size");
+			theMemoSize = memoSize == null ? 0 : Integer.parseInt(memoSize);
+			if (theMemoSize < 0)
+				throw new QonfigInterpretationException("memo-size must not be negative", getElement().getPositionInFile(), 0);
+			theMemoPolicy = MappingMemo.Policy.parse(session.getAttribute("memo-policy", QonfigValueType.Literal.class).getValue());
 
 			theEquivalence = getAttributeExpression("equivalence", session);
 			syncChildren(CombineWith.class, theCombinedValues, session.forChildren("combined-value"));
@@ -1284,6 +1321,12 @@ public class ExpressoTransformations {
 				withElModel.<Interpreted<M1, ?, ?, ?, M2, ?, E>, SettableValue<?>> satisfyElementValueType(thePreviousResultAs,
 					ModelTypes.Value, interp -> ModelTypes.Value.forType(interp.getOrEvalTargetType()));
 			}
+			if (theMemoSize > 0 && (!theCombinedValues.isEmpty() || thePreviousResultAs != null))
+				reporting().at(session.attributes().get("memo-size").getContent())
+				.warn("Mapped values cannot be memoized when combined values or previous-result-as are used");
+			else if (theMemoSize > 0 && isReEvalOnUpdate)
+				reporting().at(session.attributes().get("memo-size").getContent())
+				.warn("Mapped values cannot be memoized unless re-eval-on-update is false");
 
 		}
 
@@ -1420,6 +1463,9 @@ public class ExpressoTransformations {
 		 * @param <MV2> The instance type of the transformed value
 		 */
 		public static abstract class Instantiator<S, T, MV1, MV2> implements CompiledTransformation.Instantiator<S, T, MV1, MV2> {
+			/** The minimum number of source values for each worker in a {@link #precompute(List, ModelSetInstance) precomputation} */
+			public static final int MIN_PARALLEL_CHUNK = 512;
+
 			private final DocumentMap<ModelInstantiator> theLocalModel;
 			private final List<CombineWith.Instantiator<?>> theCombinedValues;
 			private final ModelValueInstantiator<SettableValue<T>> theMap;
@@ -1435,6 +1481,8 @@ public class ExpressoTransformations {
 			private final boolean isOneToMany;
 			private final ModelValueInstantiator<SettableValue<Equivalence<? super T>>> theEquivalence;
 			private final boolean isTesting;
+			private final int theMemoSize;
+			private final MappingMemo.Policy theMemoPolicy;
 
 			/**
 			 * @param localModel The instantiator for the local model of the transformation
@@ -1462,6 +1510,38 @@ public class ExpressoTransformations {
 				boolean fireIfUnchanged, boolean nullToNull,
 				boolean manyToOne, boolean oneToMany, ModelValueInstantiator<SettableValue<Equivalence<? super T>>> equivalence,
 				boolean testing) {
+				this(localModel, map, defaultSource, combinedValues, reverse, sourceVariable, previousResultVariable, cached, reEvalOnUpdate,
+					fireIfUnchanged, nullToNull, manyToOne, oneToMany, equivalence, testing, 0, MappingMemo.Policy.LRU);
+			}
+
+			/**
+			 * @param localModel The instantiator for the local model of the transformation
+			 * @param map The instantiator for the map operation to produce transformed values from source values
+			 * @param defaultSource Default value for the source variable
+			 * @param combinedValues The instantiators for the &lt;combine-with> elements to combine with the source value to produce
+			 *        transformed values
+			 * @param reverse The instantiator for the &lt;map-reverse> element to allow modification of the transformed model value by
+			 *        operations on the source value
+			 * @param sourceVariable The model variable in which to publish the source value currently being transformed
+			 * @param previousResultVariable The model ID of the value containing the previous result of the transformation when it is
+			 *        available
+			 * @param cached See {@link XformDef#isCached()}
+			 * @param reEvalOnUpdate See {@link XformDef#isReEvalOnUpdate()}
+			 * @param fireIfUnchanged See {@link XformDef#isFireIfUnchanged()}
+			 * @param nullToNull See {@link XformDef#isNullToNull()}
+			 * @param manyToOne See {@link XformDef#isManyToOne()}
+			 * @param oneToMany See {@link XformDef#isOneToMany()}
+			 * @param equivalence The equivalence for the transformed model value
+			 * @param testing Whether this transformation is being instantiated in a testing environment
+			 * @param memoSize The maximum number of mapped values to {@link MappingMemo memoize} by source value, or 0 for no memo
+			 * @param memoPolicy The eviction policy for the memo
+			 */
+			protected Instantiator(DocumentMap<ModelInstantiator> localModel, ModelValueInstantiator<SettableValue<T>> map, S defaultSource,
+				List<CombineWith.Instantiator<?>> combinedValues, CompiledMapReverse.Instantiator<S, T> reverse,
+				ModelComponentId sourceVariable, ModelComponentId previousResultVariable, boolean cached, boolean reEvalOnUpdate,
+				boolean fireIfUnchanged, boolean nullToNull, boolean manyToOne, boolean oneToMany,
+				ModelValueInstantiator<SettableValue<Equivalence<? super T>>> equivalence, boolean testing, int memoSize,
+				MappingMemo.Policy memoPolicy) {
 				theLocalModel = localModel;
 				theMap = map;
 				theDefaultSource = defaultSource;
@@ -1477,6 +1557,8 @@ public class ExpressoTransformations {
 				isOneToMany = oneToMany;
 				theEquivalence = equivalence;
 				isTesting = testing;
+				theMemoSize = memoSize;
+				theMemoPolicy = memoPolicy;
 			}
 
 			/** @return Whether this transformation is reversible */
@@ -1484,6 +1566,70 @@ public class ExpressoTransformations {
 				return theReverse != null;
 			}
 
+			/**
+			 * @return Whether this transformation's mapped values depend only on the source value, so that they may be
+			 *         {@link #precompute(List, ModelSetInstance) precomputed}
+			 */
+			protected boolean isPrecomputable() {
+				return theCombinedValues.isEmpty() && thePreviousResultVariable == null;
+			}
+
+			/**
+			 * Evaluates this transformation's map expression for each of the given source values in parallel. Each worker evaluates a
+			 * contiguous chunk of the sources against its own copy of the models, so that workers do not share the source variable.
+			 * Callers must not hold locks that the map expression may need while this waits for the workers.
+			 *
+			 * @param sources The source values to map
+			 * @param models The model instance to evaluate the map expression in
+			 * @return The mapped value for each source value (by identity), or null if the map expression is constrained to a particular
+			 *         thread (e.g. the EDT) or any evaluation failed
+			 * @throws ModelInstantiationException If the worker models could not be created
+			 */
+			protected Map<S, T> precompute(List<? extends S> sources, ModelSetInstance models) throws ModelInstantiationException {
+				ModelSetInstance localModels = theLocalModel.operate(models, (m, mi) -> mi.wrap(m));
+				// The models may only be evaluated off of the invoking thread if they're not constrained to a thread.
+				// Check this before copying any models for the workers.
+				ExFlexibleElementModelAddOn.satisfyElementValue(theSourceVariable, localModels, SettableValue.<S> build()//
+					.withValue(theDefaultSource)//
+					.build(), ExFlexibleElementModelAddOn.ActionIfSatisfied.Ignore);
+				ThreadConstraint threading = theMap.get(localModels).getThreadConstraint();
+				if (threading != ThreadConstraint.ANY && threading != ThreadConstraint.NONE)
+					return null;
+				int workers = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), sources.size() / MIN_PARALLEL_CHUNK));
+				Object[] results = new Object[sources.size()];
+				List<ForkJoinTask<?>> tasks = new ArrayList<>(workers);
+				for (int w = 0; w < workers; w++) {
+					int start = (int) ((long) sources.size() * w / workers);
+					int end = (int) ((long) sources.size() * (w + 1) / workers);
+					ModelSetInstance workerModels = localModels.copy().build();
+					SettableValue<S> workerSource = SettableValue.<S> build()//
+						.withValue(theDefaultSource)//
+						.build();
+					ExFlexibleElementModelAddOn.satisfyElementValue(theSourceVariable, workerModels, workerSource);
+					SettableValue<T> workerMap = theMap.get(workerModels);
+					tasks.add(ForkJoinPool.commonPool().submit(() -> {
+						for (int i = start; i < end; i++) {
+							workerSource.set(sources.get(i), null);
+							results[i] = workerMap.get();
+						}
+					}));
+				}
+				for (ForkJoinTask<?> task : tasks) {
+					try {
+						task.get();
+					} catch (InterruptedException | ExecutionException e) {
+						// Give up on the precomputation. Errors will be reported as the values are mapped normally.
+						for (ForkJoinTask<?> t : tasks)
+							t.cancel(false);
+						return null;
+					}
+				}
+				Map<S, T> precomputed = new IdentityHashMap<>(sources.size() * 4 / 3 + 1);
+				for (int i = 0; i < results.length; i++)
+					precomputed.put(sources.get(i), (T) results[i]);
+				return precomputed;
+			}
+
 			@Override
 			public void instantiate() throws ModelInstantiationException {
 				theLocalModel.forEach(ModelInstantiator::instantiate);
@@ -1499,6 +1645,20 @@ public class ExpressoTransformations {
 			@Override
 			public Transformation<S, T> transform(Transformation.ReversibleTransformationPrecursor<S, T, ?> precursor,
 				ModelSetInstance models) throws ModelInstantiationException {
+				return transform(precursor, models, null);
+			}
+
+			/**
+			 * @param precursor The transformation precursor to configure
+			 * @param models The model instance to get model values from
+			 * @param precomputed Mapped values {@link #precompute(List, ModelSetInstance) computed} in advance for source values (by
+			 *        identity), each of which will be used instead of evaluating the map expression the first time its source value is
+			 *        mapped. May be null.
+			 * @return The transformation
+			 * @throws ModelInstantiationException If the transformation could not be configured
+			 */
+			public Transformation<S, T> transform(Transformation.ReversibleTransformationPrecursor<S, T, ?> precursor,
+				ModelSetInstance models, Map<S, T> precomputed) throws ModelInstantiationException {
 				models = theLocalModel.operate(models, (m, mi) -> mi.wrap(m));
 				SettableValue<S> sourceV = SettableValue.<S> build()//
 					.withValue(theDefaultSource)//
@@ -1521,7 +1681,7 @@ public class ExpressoTransformations {
 
 				SettableValue<T> targetV = theMap.get(models);
 				MaybeReversibleTransformation<S, T> transformation = buildTransformation(builder, sourceV, previousResultV, targetV,
-					modifications, models);
+					modifications, precomputed, models);
 
 				Transformation<S, T> finalTransformation;
 				if (theReverse != null)
@@ -1578,8 +1738,49 @@ public class ExpressoTransformations {
 				SettableValue<S> sourceValue, SettableValue<T> previousResultValue, SettableValue<T> mappedValue,
 				List<CombineWith.TransformationModification<S, T>> modifications, ModelSetInstance models)
 					throws ModelInstantiationException {
+				return buildTransformation(builder, sourceValue, previousResultValue, mappedValue, modifications, null, models);
+			}
+
+			/**
+			 * Creates a transformation
+			 *
+			 * @param builder The transformation builder
+			 * @param sourceValue The container for the source value to transform
+			 * @param previousResultValue The value containing the previous result of the transformation when it is available
+			 * @param mappedValue The container for the transformed value
+			 * @param modifications Modifications from {@link ExpressoTransformations.CombineWith}s to
+			 *        {@link ExpressoTransformations.CombineWith.TransformationModification#prepareTransformOperation(TransformationValues)
+			 *        prepare} before tranformation operations
+			 * @param precomputed Mapped values computed in advance for source values (by identity), each of which will be used instead of
+			 *        evaluating the map expression the first time its source value is mapped. May be null.
+			 * @param models The model instance to get model values from
+			 * @return The transformation
+			 * @throws ModelInstantiationException If the transformation could not be configured
+			 */
+			public MaybeReversibleTransformation<S, T> buildTransformation(ReversibleTransformationBuilder<S, T, ?> builder,
+				SettableValue<S> sourceValue, SettableValue<T> previousResultValue, SettableValue<T> mappedValue,
+				List<CombineWith.TransformationModification<S, T>> modifications, Map<S, T> precomputed, ModelSetInstance models)
+					throws ModelInstantiationException {
+				MappingMemo<S, T> memo = createMemo(sourceValue, mappedValue, models);
+				Function<S, T> memoized = memo == null ? null : source -> {
+					sourceValue.set(source, null);
+					return mappedValue.get();
+				};
 				BiFunction<S, Transformation.TransformationValues<? extends S, ? extends T>, T> mapFn = FunctionUtils
 					.printableBiFn((source, tvs) -> {
+						if (precomputed != null) {
+							synchronized (precomputed) {
+								if (precomputed.containsKey(source))
+									return precomputed.remove(source);
+							}
+						}
+						if (memo != null) {
+							// A re-evaluation for an existing element may be an update of a mutable source value, which the memo can't tell
+							// from an equal source, so its entry must be re-computed
+							if (tvs.hasPreviousResult())
+								memo.remove(source);
+							return memo.get(source, memoized);
+						}
 						sourceValue.set(source, null);
 						if (previousResultValue != null)
 							previousResultValue.set(tvs.getPreviousResult());
@@ -1590,6 +1791,25 @@ public class ExpressoTransformations {
 				return builder.build(mapFn).withTesting(isTesting);
 			}
 
+			/**
+			 * @param sourceValue The container for the source value to transform
+			 * @param mappedValue The container for the transformed value
+			 * @param models The model instance to get model values from
+			 * @return The memo for this transformation's mapped values, or null if they are not to be memoized
+			 */
+			protected MappingMemo<S, T> createMemo(SettableValue<S> sourceValue, SettableValue<T> mappedValue, ModelSetInstance models) {
+				// Memoized values would defeat re-evaluation on update, since an updated source value is equal to itself
+				if (theMemoSize <= 0 || isReEvalOnUpdate || !isPrecomputable())
+					return null;
+				MappingMemo<S, T> memo = MappingMemo.create(theMemoPolicy, theMemoSize);
+				// The memo is keyed only by source value, so it must be discarded when anything else the mapping depends on changes
+				Observable.CoreChangeSources external = mappedValue.noInitChanges().getChangeSources()
+					.excluding(sourceValue.noInitChanges().getChangeSources());
+				if (!external.isEmpty())
+					external.takeUntil(models.getUntil()).act(__ -> memo.clear());
+				return memo;
+			}
+
 			/**
 			 * Produces a default reverse for the transformation if no &lt;map-reverse> is specified
 			 *
@@ -0,0 +1,793 @@
+package org.observe.expresso.qonfig;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.observe.Observable;
+import org.observe.SettableValue;
+import org.observe.assoc.ObservableMap;
+import org.observe.collect.ObservableCollection;
+import org.qommons.Subscription;
+import org.qommons.Transaction;
+import org.qommons.collect.CollectionElement;
+import org.qommons.collect.ElementId;
+
+/**
+ * <p>
+ * An aggregate value over the elements of an {@link ObservableCollection} which is maintained incrementally as the collection changes,
+ * instead of being recomputed from all of the collection's values on each change.
+ * </p>
+ * <p>
+ * An aggregate which cannot apply a particular removal or update incrementally may decline it, in which case the aggregate is cleared and
+ * re-populated from the collection's current content.
+ * </p>
+ *
+ * @param <E> The type of elements in the collection
+ * @param <T> The type of the aggregate value
+ */
+public abstract class IncrementalAggregate<E, T> {
+	/**
+	 * Called when an element is added to the collection, including for each element present in the collection initially
+	 *
+	 * @param id The ID of the added element
+	 * @param value The value of the element
+	 */
+	protected abstract void added(ElementId id, E value);
+
+	/**
+	 * @param id The ID of the removed element
+	 * @param value The value of the element
+	 * @return Whether the removal could be applied to this aggregate incrementally
+	 */
+	protected abstract boolean removed(ElementId id, E value);
+
+	/**
+	 * @param id The ID of the updated element
+	 * @param oldValue The previous value of the element
+	 * @param newValue The new value of the element
+	 * @return Whether the update could be applied to this aggregate incrementally
+	 */
+	protected boolean updated(ElementId id, E oldValue, E newValue) {
+		if (!removed(id, oldValue))
+			return false;
+		added(id, newValue);
+		return true;
+	}
+
+	/** Resets this aggregate to its state for an empty collection */
+	protected abstract void clear();
+
+	/** @return The current value of this aggregate */
+	protected abstract T getResult();
+
+	/**
+	 * Clears this aggregate and re-populates it from the given collection's current content
+	 *
+	 * @param source The collection to populate this aggregate from
+	 */
+	protected void refold(ObservableCollection<? extends E> source) {
+		clear();
+		for (CollectionElement<? extends E> el = source.getTerminalElement(true); el != null; el = source
+			.getAdjacentElement(el.getElementId(), true))
+			added(el.getElementId(), el.get());
+	}
+
+	/**
+	 * @param <E> The type of elements in the collection
+	 * @param <T> The type of the aggregate value
+	 * @param source The collection to aggregate
+	 * @param aggregate The aggregate to maintain over the collection
+	 * @param until An observable which, when it fires, will release the aggregate's listener on the collection
+	 * @param description The description for the aggregate value
+	 * @return A value containing the aggregate over the collection, kept current as the collection changes
+	 */
+	public static <E, T> SettableValue<T> observe(ObservableCollection<E> source, IncrementalAggregate<? super E, T> aggregate,
+		Observable<?> until, String description) {
+		return observe(source, aggregate, null, until, description);
+	}
+
+	/**
+	 * @param <E> The type of elements in the collection
+	 * @param <T> The type of the aggregate value
+	 * @param source The collection to aggregate
+	 * @param aggregate The aggregate to maintain over the collection
+	 * @param refresh An observable which, when it fires, will cause the aggregate to be re-populated from the collection, e.g. when a
+	 *        value that the aggregate's terms depend on changes. May be null.
+	 * @param until An observable which, when it fires, will release the aggregate's listeners
+	 * @param description The description for the aggregate value
+	 * @return A value containing the aggregate over the collection, kept current as the collection changes
+	 */
+	public static <E, T> SettableValue<T> observe(ObservableCollection<E> source, IncrementalAggregate<? super E, T> aggregate,
+		Observable<?> refresh, Observable<?> until, String description) {
+		SettableValue<T> result = SettableValue.<T> build().withDescription(description).withValue(aggregate.getResult()).build();
+		Subscription sub = source.subscribe(evt -> {
+			boolean incremental;
+			switch (evt.getType()) {
+			case add:
+				aggregate.added(evt.getElementId(), evt.getNewValue());
+				incremental = true;
+				break;
+			case remove:
+				incremental = aggregate.removed(evt.getElementId(), evt.getOldValue());
+				break;
+			case set:
+				incremental = aggregate.updated(evt.getElementId(), evt.getOldValue(), evt.getNewValue());
+				break;
+			default:
+				incremental = false;
+				break;
+			}
+			if (!incremental)
+				aggregate.refold(source);
+			T newResult = aggregate.getResult();
+			if (!Objects.equals(newResult, result.get()))
+				result.set(newResult, evt);
+		}, true);
+		if (refresh != null) {
+			Subscription refreshSub = refresh.act(cause -> {
+				T newResult;
+				try (Transaction t = source.lock(false, cause)) {
+					aggregate.refold(source);
+					newResult = aggregate.getResult();
+				}
+				if (!Objects.equals(newResult, result.get()))
+					result.set(newResult, cause);
+			});
+			sub = Subscription.forAll(sub, refreshSub);
+		}
+		Subscription allSubs = sub;
+		until.take(1).act(__ -> allSubs.unsubscribe());
+		return SettableValue.asSettable(result.unsettable(), __ -> "Aggregate values are not modifiable");
+	}
+
+	/**
+	 * Groups a collection's elements by key, maintaining an aggregate over each group's elements incrementally. Keys are evaluated only for
+	 * elements as they are added or updated, and each element's key is indexed by element ID, so a change to one element affects only the
+	 * group(s) it is or was in.
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <K> The type of the group keys
+	 * @param <T> The type of the aggregate value for each group
+	 * @param source The collection to group
+	 * @param key Produces the group key for each element
+	 * @param groupAggregate Creates the aggregate for a new group
+	 * @param refresh An observable which, when it fires, will cause all groups to be re-populated from the collection, e.g. when a value
+	 *        that the keys or aggregate terms depend on changes. May be null.
+	 * @param until An observable which, when it fires, will release the grouping's listeners
+	 * @param description The description for the map
+	 * @return A map of each group key present in the collection to the aggregate value over the group's elements
+	 */
+	public static <E, K, T> ObservableMap<K, T> observeGroups(ObservableCollection<E> source, Function<? super E, ? extends K> key,
+		Supplier<? extends IncrementalAggregate<? super E, T>> groupAggregate, Observable<?> refresh, Observable<?> until,
+		String description) {
+		ObservableMap.Builder<K, T, ?> builder = ObservableMap.build();
+		builder.withDescription(description);
+		ObservableMap<K, T> result = builder.buildMap();
+		GroupIndex<E, K, T> index = new GroupIndex<>(key, groupAggregate, result);
+		Subscription sub = source.subscribe(evt -> {
+			try (Transaction t = result.lock(true, evt)) {
+				switch (evt.getType()) {
+				case add:
+					index.added(evt.getElementId(), evt.getNewValue());
+					break;
+				case remove:
+					index.removed(evt.getElementId());
+					break;
+				case set:
+					index.updated(evt.getElementId(), evt.getNewValue());
+					break;
+				default:
+					break;
+				}
+			}
+		}, true);
+		if (refresh != null) {
+			Subscription refreshSub = refresh.act(cause -> {
+				try (Transaction t = source.lock(false, cause); Transaction t2 = result.lock(true, cause)) {
+					index.rebuild(source);
+				}
+			});
+			sub = Subscription.forAll(sub, refreshSub);
+		}
+		Subscription allSubs = sub;
+		until.take(1).act(__ -> allSubs.unsubscribe());
+		return result;
+	}
+
+	/**
+	 * @param type The type of an aggregate value
+	 * @return A function to convert an accumulated number into the given type, or null if the type is not a supported number type
+	 */
+	public static Function<Number, ?> numberConverter(Class<?> type) {
+		if (type == Integer.class || type == int.class)
+			return Number::intValue;
+		else if (type == Long.class || type == long.class)
+			return Number::longValue;
+		else if (type == Double.class || type == double.class || type == Number.class)
+			return Number::doubleValue;
+		else if (type == Float.class || type == float.class)
+			return Number::floatValue;
+		else if (type == Short.class || type == short.class)
+			return Number::shortValue;
+		else if (type == Byte.class || type == byte.class)
+			return Number::byteValue;
+		else
+			return null;
+	}
+
+	/**
+	 * @param type The type of an aggregate value
+	 * @return Whether values of the given type should be accumulated as integers
+	 */
+	public static boolean isIntegral(Class<?> type) {
+		return type == Integer.class || type == int.class || type == Long.class || type == long.class//
+			|| type == Short.class || type == short.class || type == Byte.class || type == byte.class;
+	}
+
+	/**
+	 * A fold of each element into an accumulated value whose result does not depend on the order of the elements. Additions are applied
+	 * directly to the accumulated value. Removals and updates are applied by an inverse operation if one is given, or else by re-folding
+	 * the collection. Updates of an element in place (where the old and new values are the same instance) are always applied by re-folding,
+	 * since the element's previous contribution cannot be derived from its modified value.
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <T> The type of the aggregate value
+	 */
+	public static class Fold<E, T> extends IncrementalAggregate<E, T> {
+		private final T theSeed;
+		private final BiFunction<? super T, ? super E, ? extends T> theAccumulator;
+		private final BiFunction<? super T, ? super E, ? extends T> theInverse;
+		private T theValue;
+
+		/**
+		 * @param seed The value of the aggregate for an empty collection
+		 * @param accumulator Folds an element into the accumulated value
+		 * @param inverse Removes an element's contribution from the accumulated value, or null if the fold is not invertible
+		 */
+		public Fold(T seed, BiFunction<? super T, ? super E, ? extends T> accumulator,
+			BiFunction<? super T, ? super E, ? extends T> inverse) {
+			theSeed = seed;
+			theAccumulator = accumulator;
+			theInverse = inverse;
+			theValue = seed;
+		}
+
+		@Override
+		protected void added(ElementId id, E value) {
+			theValue = theAccumulator.apply(theValue, value);
+		}
+
+		@Override
+		protected boolean removed(ElementId id, E value) {
+			if (theInverse == null)
+				return false;
+			theValue = theInverse.apply(theValue, value);
+			return true;
+		}
+
+		@Override
+		protected boolean updated(ElementId id, E oldValue, E newValue) {
+			if (oldValue == newValue)
+				return false; // Modified in place, so the old value is gone
+			return super.updated(id, oldValue, newValue);
+		}
+
+		@Override
+		protected void clear() {
+			theValue = theSeed;
+		}
+
+		@Override
+		protected T getResult() {
+			return theValue;
+		}
+	}
+
+	/**
+	 * An aggregate over a term derived from each element. If a term function is given, the term for each element is stored so that its
+	 * contribution can be removed exactly, even if the element was modified in place.
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <X> The type of the term aggregated for each element
+	 * @param <T> The type of the aggregate value
+	 */
+	public static abstract class Termed<E, X, T> extends IncrementalAggregate<E, T> {
+		private final Function<? super E, ? extends X> theTerm;
+		private final Map<ElementId, X> theTerms;
+
+		/** @param term The function to produce the aggregated term for each element, or null to aggregate the elements themselves */
+		protected Termed(Function<? super E, ? extends X> term) {
+			theTerm = term;
+			theTerms = term == null ? null : new HashMap<>();
+		}
+
+		/** @param term The term added to the aggregate */
+		protected abstract void termAdded(X term);
+
+		/**
+		 * @param term The term removed from the aggregate
+		 * @return Whether the removal could be applied to this aggregate incrementally
+		 */
+		protected abstract boolean termRemoved(X term);
+
+		/** Resets the aggregated state of this aggregate */
+		protected abstract void termsCleared();
+
+		@Override
+		protected void added(ElementId id, E value) {
+			X term;
+			if (theTerm == null)
+				term = (X) value;
+			else {
+				term = theTerm.apply(value);
+				theTerms.put(id, term);
+			}
+			termAdded(term);
+		}
+
+		@Override
+		protected boolean removed(ElementId id, E value) {
+			X term = theTerm == null ? (X) value : theTerms.remove(id);
+			return termRemoved(term);
+		}
+
+		@Override
+		protected void clear() {
+			if (theTerms != null)
+				theTerms.clear();
+			termsCleared();
+		}
+	}
+
+	/**
+	 * The sum of a numeric term over all elements. For integral result types, integral terms are accumulated exactly as a long and any
+	 * fractional terms as a double, so that fractional terms are not truncated one by one; the total is converted to the result type once.
+	 * For other result types, all terms are accumulated as a double. Null terms contribute nothing.
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <T> The type of the sum
+	 */
+	public static class Sum<E, T> extends Termed<E, Number, T> {
+		private final Number theSeed;
+		private final boolean isIntegral;
+		private final Function<Number, ? extends T> theConverter;
+		private long theLongSum;
+		private double theDoubleSum;
+		/** The number of fractional terms in {@link #theDoubleSum}, for integral sums */
+		private int theFractionalCount;
+
+		/**
+		 * @param term The function to produce the summed term for each element, or null to sum the elements themselves
+		 * @param seed The value to add the sum of the elements to
+		 * @param integral Whether the result type is integral
+		 * @param converter Converts the accumulated sum to the result type
+		 */
+		public Sum(Function<? super E, ? extends Number> term, Number seed, boolean integral, Function<Number, ? extends T> converter) {
+			super(term);
+			theSeed = seed;
+			isIntegral = integral;
+			theConverter = converter;
+			termsCleared();
+		}
+
+		@Override
+		protected void termAdded(Number term) {
+			if (term == null)
+				return;
+			else if (isIntegral && isIntegral(term.getClass()))
+				theLongSum += term.longValue();
+			else {
+				theDoubleSum += term.doubleValue();
+				theFractionalCount++;
+			}
+		}
+
+		@Override
+		protected boolean termRemoved(Number term) {
+			if (term == null)
+				return true;
+			else if (isIntegral && isIntegral(term.getClass()))
+				theLongSum -= term.longValue();
+			else {
+				// Infinities and NaNs cannot be subtracted back out of a sum
+				if (Double.isNaN(term.doubleValue()) || Double.isInfinite(term.doubleValue()))
+					return false;
+				theFractionalCount--;
+				if (theFractionalCount == 0)
+					theDoubleSum = isIntegral ? 0 : theSeed == null ? 0 : theSeed.doubleValue(); // Don't keep rounding error around
+				else
+					theDoubleSum -= term.doubleValue();
+			}
+			return true;
+		}
+
+		@Override
+		protected void termsCleared() {
+			theFractionalCount = 0;
+			if (isIntegral) {
+				theLongSum = theSeed == null ? 0 : theSeed.longValue();
+				theDoubleSum = 0;
+			} else
+				theDoubleSum = theSeed == null ? 0 : theSeed.doubleValue();
+		}
+
+		@Override
+		protected T getResult() {
+			if (!isIntegral)
+				return theConverter.apply(theDoubleSum);
+			else if (theFractionalCount == 0)
+				return theConverter.apply(theLongSum);
+			else
+				return theConverter.apply(theLongSum + theDoubleSum);
+		}
+	}
+
+	/**
+	 * The number of elements in the collection, or of those passing a filter
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <T> The type of the count
+	 */
+	public static class Count<E, T> extends Termed<E, Boolean, T> {
+		private final boolean isFiltered;
+		private final long theSeed;
+		private final Function<Number, ? extends T> theConverter;
+		private long theCount;
+
+		/**
+		 * @param filter The filter for elements to count, or null to count all elements
+		 * @param seed The value to add the count of the elements to
+		 * @param converter Converts the count to the result type
+		 */
+		public Count(Function<? super E, Boolean> filter, long seed, Function<Number, ? extends T> converter) {
+			super(filter);
+			isFiltered = filter != null;
+			theSeed = seed;
+			theConverter = converter;
+			theCount = seed;
+		}
+
+		@Override
+		protected void termAdded(Boolean term) {
+			if (!isFiltered || Boolean.TRUE.equals(term))
+				theCount++;
+		}
+
+		@Override
+		protected boolean termRemoved(Boolean term) {
+			if (!isFiltered || Boolean.TRUE.equals(term))
+				theCount--;
+			return true;
+		}
+
+		@Override
+		protected void termsCleared() {
+			theCount = theSeed;
+		}
+
+		@Override
+		protected T getResult() {
+			return theConverter.apply(theCount);
+		}
+	}
+
+	/**
+	 * The arithmetic mean of a numeric term over all elements. Null terms are not counted.
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <T> The type of the average
+	 */
+	public static class Average<E, T> extends Termed<E, Number, T> {
+		private final T theEmptyValue;
+		private final Function<Number, ? extends T> theConverter;
+		private double theSum;
+		private long theCount;
+
+		/**
+		 * @param term The function to produce the averaged term for each element, or null to average the elements themselves
+		 * @param emptyValue The value of the average for a collection with no non-null terms
+		 * @param converter Converts the average to the result type
+		 */
+		public Average(Function<? super E, ? extends Number> term, T emptyValue, Function<Number, ? extends T> converter) {
+			super(term);
+			theEmptyValue = emptyValue;
+			theConverter = converter;
+		}
+
+		@Override
+		protected void termAdded(Number term) {
+			if (term == null)
+				return;
+			theSum += term.doubleValue();
+			theCount++;
+		}
+
+		@Override
+		protected boolean termRemoved(Number term) {
+			if (term == null)
+				return true;
+			else if (Double.isNaN(term.doubleValue()) || Double.isInfinite(term.doubleValue()))
+				return false;
+			theSum -= term.doubleValue();
+			theCount--;
+			return true;
+		}
+
+		@Override
+		protected void termsCleared() {
+			theSum = 0;
+			theCount = 0;
+		}
+
+		@Override
+		protected T getResult() {
+			if (theCount == 0)
+				return theEmptyValue;
+			return theConverter.apply(theSum / theCount);
+		}
+	}
+
+	/**
+	 * The minimum or maximum element of a collection by a key derived from each element, backed by a binary heap indexed by element ID so
+	 * that additions, removals, and updates are each O(log n). Elements with null keys are ignored.
+	 *
+	 * @param <E> The type of elements in the collection
+	 * @param <K> The type of the key to compare elements by
+	 * @param <T> The type of the aggregate value
+	 */
+	public static class Extreme<E, K, T> extends IncrementalAggregate<E, T> {
+		private final Function<? super E, ? extends K> theKey;
+		private final Comparator<? super K> theCompare;
+		private final BiFunction<? super E, ? super K, ? extends T> theResult;
+		private final K theSeedKey;
+		private final T theSeedResult;
+		private final Map<ElementId, HeapEntry<E, K>> theIndex;
+		private HeapEntry<E, K>[] theHeap;
+		private int theSize;
+
+		/**
+		 * @param key The function to produce the key to compare each element by
+		 * @param compare The comparator for element keys
+		 * @param max Whether to find the maximum element instead of the minimum
+		 * @param seedKey The key of a seed which competes with the collection's elements, or null to use only the collection's elements
+		 * @param seedResult The value of the aggregate for an empty collection, or when the seed wins over all elements
+		 * @param result Produces the aggregate value from the minimum or maximum element and its key as it was stored when the element
+		 *        was added or last updated
+		 */
+		public Extreme(Function<? super E, ? extends K> key, Comparator<? super K> compare, boolean max, K seedKey, T seedResult,
+			BiFunction<? super E, ? super K, ? extends T> result) {
+			theKey = key;
+			theCompare = max ? (k1, k2) -> compare.compare(k2, k1) : compare;
+			theResult = result;
+			theSeedKey = seedKey;
+			theSeedResult = seedResult;
+			theIndex = new HashMap<>();
+			theHeap = new HeapEntry[16];
+		}
+
+		@Override
+		protected void added(ElementId id, E value) {
+			K key = theKey.apply(value);
+			if (key == null)
+				return;
+			HeapEntry<E, K> entry = new HeapEntry<>(id, key, value);
+			theIndex.put(id, entry);
+			if (theSize == theHeap.length)
+				theHeap = Arrays.copyOf(theHeap, theSize * 2);
+			entry.index = theSize++;
+			theHeap[entry.index] = entry;
+			siftUp(entry.index);
+		}
+
+		@Override
+		protected boolean removed(ElementId id, E value) {
+			HeapEntry<E, K> entry = theIndex.remove(id);
+			if (entry != null)
+				removeAt(entry.index);
+			return true;
+		}
+
+		@Override
+		protected boolean updated(ElementId id, E oldValue, E newValue) {
+			HeapEntry<E, K> entry = theIndex.get(id);
+			K key = theKey.apply(newValue);
+			if (entry == null || key == null) {
+				if (entry != null) {
+					theIndex.remove(id);
+					removeAt(entry.index);
+				}
+				added(id, newValue);
+				return true;
+			}
+			K oldKey = entry.key;
+			entry.key = key;
+			entry.value = newValue;
+			if (theCompare.compare(key, oldKey) < 0)
+				siftUp(entry.index);
+			else
+				siftDown(entry.index);
+			return true;
+		}
+
+		@Override
+		protected void clear() {
+			theIndex.clear();
+			Arrays.fill(theHeap, 0, theSize, null);
+			theSize = 0;
+		}
+
+		@Override
+		protected T getResult() {
+			if (theSize == 0)
+				return theSeedResult;
+			else if (theSeedKey != null && theCompare.compare(theSeedKey, theHeap[0].key) <= 0)
+				return theSeedResult;
+			return theResult.apply(theHeap[0].value, theHeap[0].key);
+		}
+
+		private void removeAt(int index) {
+			int last = --theSize;
+			if (index != last) {
+				HeapEntry<E, K> moved = theHeap[last];
+				theHeap[index] = moved;
+				moved.index = index;
+				theHeap[last] = null;
+				if (index > 0 && theCompare.compare(moved.key, theHeap[(index - 1) / 2].key) < 0)
+					siftUp(index);
+				else
+					siftDown(index);
+			} else
+				theHeap[last] = null;
+		}
+
+		private void siftUp(int index) {
+			HeapEntry<E, K> entry = theHeap[index];
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (theCompare.compare(entry.key, theHeap[parent].key) >= 0)
+					break;
+				theHeap[index] = theHeap[parent];
+				theHeap[index].index = index;
+				index = parent;
+			}
+			theHeap[index] = entry;
+			entry.index = index;
+		}
+
+		private void siftDown(int index) {
+			HeapEntry<E, K> entry = theHeap[index];
+			int half = theSize / 2;
+			while (index < half) {
+				int child = index * 2 + 1;
+				if (child + 1 < theSize && theCompare.compare(theHeap[child + 1].key, theHeap[child].key) < 0)
+					child++;
+				if (theCompare.compare(entry.key, theHeap[child].key) <= 0)
+					break;
+				theHeap[index] = theHeap[child];
+				theHeap[index].index = index;
+				index = child;
+			}
+			theHeap[index] = entry;
+			entry.index = index;
+		}
+
+		static class HeapEntry<E, K> {
+			final ElementId id;
+			K key;
+			E value;
+			int index;
+
+			HeapEntry(ElementId id, K key, E value) {
+				this.id = id;
+				this.key = key;
+				this.value = value;
+			}
+		}
+	}
+
+	private static class GroupIndex<E, K, T> {
+		private final Function<? super E, ? extends K> theKey;
+		private final Supplier<? extends IncrementalAggregate<? super E, T>> theGroupAggregate;
+		private final ObservableMap<K, T> theResult;
+		private final Map<ElementId, K> theElementKeys;
+		private final Map<K, Group<E, T>> theGroups;
+
+		GroupIndex(Function<? super E, ? extends K> key, Supplier<? extends IncrementalAggregate<? super E, T>> groupAggregate,
+			ObservableMap<K, T> result) {
+			theKey = key;
+			theGroupAggregate = groupAggregate;
+			theResult = result;
+			theElementKeys = new HashMap<>();
+			theGroups = new HashMap<>();
+		}
+
+		void added(ElementId id, E value) {
+			K key = theKey.apply(value);
+			theElementKeys.put(id, key);
+			Group<E, T> group = theGroups.computeIfAbsent(key, __ -> new Group<>(theGroupAggregate.get()));
+			group.add(id, value);
+			publish(key, group);
+		}
+
+		void removed(ElementId id) {
+			K key = theElementKeys.remove(id);
+			Group<E, T> group = theGroups.get(key);
+			if (group == null)
+				return;
+			group.remove(id);
+			if (group.theMembers.isEmpty()) {
+				theGroups.remove(key);
+				theResult.remove(key);
+			} else
+				publish(key, group);
+		}
+
+		void updated(ElementId id, E newValue) {
+			K oldKey = theElementKeys.get(id);
+			K newKey = theKey.apply(newValue);
+			Group<E, T> group = theGroups.get(oldKey);
+			if (group != null && Objects.equals(oldKey, newKey)) {
+				group.update(id, newValue);
+				publish(newKey, group);
+			} else {
+				removed(id);
+				added(id, newValue);
+			}
+		}
+
+		void rebuild(ObservableCollection<? extends E> source) {
+			theElementKeys.clear();
+			theGroups.clear();
+			theResult.clear();
+			for (CollectionElement<? extends E> el = source.getTerminalElement(true); el != null; el = source
+				.getAdjacentElement(el.getElementId(), true))
+				added(el.getElementId(), el.get());
+		}
+
+		private void publish(K key, Group<E, T> group) {
+			T value = group.theAggregate.getResult();
+			if (!theResult.containsKey(key) || !Objects.equals(theResult.get(key), value))
+				theResult.put(key, value);
+		}
+	}
+
+	private static class Group<E, T> {
+		final IncrementalAggregate<? super E, T> theAggregate;
+		final Map<ElementId, E> theMembers;
+
+		Group(IncrementalAggregate<? super E, T> aggregate) {
+			theAggregate = aggregate;
+			theMembers = new HashMap<>();
+		}
+
+		void add(ElementId id, E value) {
+			theMembers.put(id, value);
+			((IncrementalAggregate<E, T>) theAggregate).added(id, value);
+		}
+
+		void remove(ElementId id) {
+			E value = theMembers.remove(id);
+			if (!((IncrementalAggregate<E, T>) theAggregate).removed(id, value))
+				refold();
+		}
+
+		void update(ElementId id, E newValue) {
+			E oldValue = theMembers.put(id, newValue);
+			if (!((IncrementalAggregate<E, T>) theAggregate).updated(id, oldValue, newValue))
+				refold();
+		}
+
+		private void refold() {
+			IncrementalAggregate<E, T> aggregate = (IncrementalAggregate<E, T>) theAggregate;
+			aggregate.clear();
+			for (Map.Entry<ElementId, E> member : theMembers.entrySet())
+				aggregate.added(member.getKey(), member.getValue());
+		}
+	}
+}
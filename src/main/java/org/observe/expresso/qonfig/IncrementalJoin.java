@@ -0,0 +1,334 @@
+package org.observe.expresso.qonfig;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.observe.Observable;
+import org.observe.collect.ObservableCollection;
+import org.qommons.Subscription;
+import org.qommons.Transaction;
+import org.qommons.collect.CollectionElement;
+import org.qommons.collect.ElementId;
+
+/**
+ * <p>
+ * A keyed join between two {@link ObservableCollection}s, maintained incrementally as either collection changes.
+ * </p>
+ * <p>
+ * Each side's elements are indexed by element ID and by key in hash maps, so each change to either collection is applied in time
+ * proportional to the number of elements on the other side with the same key, instead of by comparing against every element of the
+ * other collection. Elements with null keys never match.
+ * </p>
+ * <p>
+ * The order of elements in the joined collection is unspecified.
+ * </p>
+ *
+ * @param <L> The type of elements in the left collection
+ * @param <R> The type of elements in the right collection
+ * @param <K> The type of the join key
+ * @param <T> The type of elements in the joined collection
+ */
+public class IncrementalJoin<L, R, K, T> {
+	/** The types of join that can be performed */
+	public enum JoinType {
+		/** Produces a result for each pair of left and right elements with equal keys */
+		INNER,
+		/** Like {@link #INNER}, but also produces a result (with a null right value) for each left element with no matching right element */
+		LEFT,
+		/** Produces each left element for which at least one right element has an equal key */
+		SEMI,
+		/** Produces each left element for which no right element has an equal key */
+		ANTI;
+
+		/**
+		 * @param name The name of the join type, as specified in Qonfig
+		 * @return The join type with the given name
+		 */
+		public static JoinType parse(String name) {
+			return valueOf(name.toUpperCase());
+		}
+
+		/** @return Whether this join type produces the left elements themselves, as opposed to combined results */
+		public boolean isFiltering() {
+			return this == SEMI || this == ANTI;
+		}
+	}
+
+	private final Function<? super L, ? extends K> theLeftKey;
+	private final Function<? super R, ? extends K> theRightKey;
+	private final JoinType theType;
+	private final BiFunction<? super L, ? super R, ? extends T> theCombination;
+	private final ObservableCollection<T> theResult;
+
+	private final Map<ElementId, LeftEntry<L, K>> theLeftEntries;
+	private final Map<K, Map<ElementId, LeftEntry<L, K>>> theLeftIndex;
+	private final Map<ElementId, RightEntry<R, K>> theRightEntries;
+	private final Map<K, Map<ElementId, RightEntry<R, K>>> theRightIndex;
+
+	private IncrementalJoin(Function<? super L, ? extends K> leftKey, Function<? super R, ? extends K> rightKey, JoinType type,
+		BiFunction<? super L, ? super R, ? extends T> combination, ObservableCollection<T> result) {
+		theLeftKey = leftKey;
+		theRightKey = rightKey;
+		theType = type;
+		theCombination = combination;
+		theResult = result;
+		theLeftEntries = new HashMap<>();
+		theLeftIndex = new HashMap<>();
+		theRightEntries = new HashMap<>();
+		theRightIndex = new HashMap<>();
+	}
+
+	/**
+	 * @param <L> The type of elements in the left collection
+	 * @param <R> The type of elements in the right collection
+	 * @param <K> The type of the join key
+	 * @param <T> The type of elements in the joined collection
+	 * @param left The left collection to join
+	 * @param right The right collection to join
+	 * @param leftKey Produces the join key for each left element
+	 * @param rightKey Produces the join key for each right element
+	 * @param type The type of the join
+	 * @param combination Produces a joined value from a left and a right element (the right element may be null for a
+	 *        {@link JoinType#LEFT left} join). Ignored for {@link JoinType#isFiltering() filtering} joins.
+	 * @param refresh An observable which, when it fires, will cause the join to be re-populated from the collections, e.g. when a value
+	 *        that the keys or combination depend on changes. May be null.
+	 * @param until An observable which, when it fires, will release the join's listeners
+	 * @return An unmodifiable collection containing the join's results, kept current as either collection changes
+	 */
+	public static <L, R, K, T> ObservableCollection<T> observe(ObservableCollection<L> left, ObservableCollection<R> right,
+		Function<? super L, ? extends K> leftKey, Function<? super R, ? extends K> rightKey, JoinType type,
+		BiFunction<? super L, ? super R, ? extends T> combination, Observable<?> refresh, Observable<?> until) {
+		ObservableCollection<T> result = ObservableCollection.<T> build().build();
+		IncrementalJoin<L, R, K, T> join = new IncrementalJoin<>(leftKey, rightKey, type,
+			type.isFiltering() ? (l, r) -> (T) l : combination, result);
+		Subscription rightSub = right.subscribe(evt -> {
+			try (Transaction t = result.lock(true, evt)) {
+				switch (evt.getType()) {
+				case add:
+					join.rightAdded(evt.getElementId(), evt.getNewValue());
+					break;
+				case remove:
+					join.rightRemoved(evt.getElementId());
+					break;
+				case set:
+					join.rightUpdated(evt.getElementId(), evt.getNewValue());
+					break;
+				default:
+					break;
+				}
+			}
+		}, true);
+		Subscription leftSub = left.subscribe(evt -> {
+			try (Transaction t = result.lock(true, evt)) {
+				switch (evt.getType()) {
+				case add:
+					join.leftAdded(evt.getElementId(), evt.getNewValue());
+					break;
+				case remove:
+					join.leftRemoved(evt.getElementId());
+					break;
+				case set:
+					join.leftUpdated(evt.getElementId(), evt.getNewValue());
+					break;
+				default:
+					break;
+				}
+			}
+		}, true);
+		Subscription sub = Subscription.forAll(rightSub, leftSub);
+		if (refresh != null) {
+			Subscription refreshSub = refresh.act(cause -> {
+				try (Transaction lt = left.lock(false, cause); //
+					Transaction rt = right.lock(false, cause); //
+					Transaction t = result.lock(true, cause)) {
+					join.rebuild(left, right);
+				}
+			});
+			sub = Subscription.forAll(sub, refreshSub);
+		}
+		Subscription allSubs = sub;
+		until.take(1).act(__ -> allSubs.unsubscribe());
+		return result.flow().unmodifiable(false).collectPassive();
+	}
+
+	void leftAdded(ElementId id, L value) {
+		K key = theLeftKey.apply(value);
+		LeftEntry<L, K> entry = new LeftEntry<>(key, value);
+		theLeftEntries.put(id, entry);
+		if (key != null)
+			theLeftIndex.computeIfAbsent(key, __ -> new LinkedHashMap<>()).put(id, entry);
+		if (theType.isFiltering())
+			updateFiltered(entry);
+		else {
+			for (Map.Entry<ElementId, RightEntry<R, K>> match : getMatches(key).entrySet())
+				entry.results.put(match.getKey(), addResult(theCombination.apply(value, match.getValue().value)));
+			if (theType == JoinType.LEFT && entry.results.isEmpty())
+				entry.unmatched = addResult(theCombination.apply(value, null));
+		}
+	}
+
+	void leftRemoved(ElementId id) {
+		LeftEntry<L, K> entry = theLeftEntries.remove(id);
+		if (entry == null)
+			return;
+		if (entry.key != null) {
+			Map<ElementId, LeftEntry<L, K>> group = theLeftIndex.get(entry.key);
+			group.remove(id);
+			if (group.isEmpty())
+				theLeftIndex.remove(entry.key);
+		}
+		for (ElementId resultId : entry.results.values())
+			removeResult(resultId);
+		entry.results.clear();
+		if (entry.unmatched != null) {
+			removeResult(entry.unmatched);
+			entry.unmatched = null;
+		}
+	}
+
+	void leftUpdated(ElementId id, L value) {
+		LeftEntry<L, K> entry = theLeftEntries.get(id);
+		K key = theLeftKey.apply(value);
+		if (entry == null || !Objects.equals(entry.key, key)) {
+			leftRemoved(id);
+			leftAdded(id, value);
+			return;
+		}
+		entry.value = value;
+		for (Map.Entry<ElementId, ElementId> result : entry.results.entrySet())
+			setResult(result.getValue(), theCombination.apply(value, theRightEntries.get(result.getKey()).value));
+		if (entry.unmatched != null)
+			setResult(entry.unmatched, theCombination.apply(value, null));
+	}
+
+	void rightAdded(ElementId id, R value) {
+		K key = theRightKey.apply(value);
+		RightEntry<R, K> entry = new RightEntry<>(key, value);
+		theRightEntries.put(id, entry);
+		if (key == null)
+			return;
+		theRightIndex.computeIfAbsent(key, __ -> new LinkedHashMap<>()).put(id, entry);
+		for (LeftEntry<L, K> left : theLeftIndex.getOrDefault(key, Collections.emptyMap()).values()) {
+			if (theType.isFiltering())
+				updateFiltered(left);
+			else {
+				if (left.unmatched != null) {
+					removeResult(left.unmatched);
+					left.unmatched = null;
+				}
+				left.results.put(id, addResult(theCombination.apply(left.value, value)));
+			}
+		}
+	}
+
+	void rightRemoved(ElementId id) {
+		RightEntry<R, K> entry = theRightEntries.remove(id);
+		if (entry == null || entry.key == null)
+			return;
+		Map<ElementId, RightEntry<R, K>> group = theRightIndex.get(entry.key);
+		group.remove(id);
+		if (group.isEmpty())
+			theRightIndex.remove(entry.key);
+		for (LeftEntry<L, K> left : theLeftIndex.getOrDefault(entry.key, Collections.emptyMap()).values()) {
+			if (theType.isFiltering())
+				updateFiltered(left);
+			else {
+				ElementId resultId = left.results.remove(id);
+				if (resultId != null)
+					removeResult(resultId);
+				if (theType == JoinType.LEFT && left.results.isEmpty())
+					left.unmatched = addResult(theCombination.apply(left.value, null));
+			}
+		}
+	}
+
+	void rightUpdated(ElementId id, R value) {
+		RightEntry<R, K> entry = theRightEntries.get(id);
+		K key = theRightKey.apply(value);
+		if (entry == null || !Objects.equals(entry.key, key)) {
+			rightRemoved(id);
+			rightAdded(id, value);
+			return;
+		}
+		entry.value = value;
+		if (key == null || theType.isFiltering())
+			return;
+		for (LeftEntry<L, K> left : theLeftIndex.getOrDefault(key, Collections.emptyMap()).values())
+			setResult(left.results.get(id), theCombination.apply(left.value, value));
+	}
+
+	void rebuild(ObservableCollection<? extends L> left, ObservableCollection<? extends R> right) {
+		theLeftEntries.clear();
+		theLeftIndex.clear();
+		theRightEntries.clear();
+		theRightIndex.clear();
+		theResult.clear();
+		// Index the right side first, so each left element is joined once, as it is added
+		for (CollectionElement<? extends R> el = right.getTerminalElement(true); el != null; el = right
+			.getAdjacentElement(el.getElementId(), true))
+			rightAdded(el.getElementId(), el.get());
+		for (CollectionElement<? extends L> el = left.getTerminalElement(true); el != null; el = left
+			.getAdjacentElement(el.getElementId(), true))
+			leftAdded(el.getElementId(), el.get());
+	}
+
+	private Map<ElementId, RightEntry<R, K>> getMatches(K key) {
+		if (key == null)
+			return Collections.emptyMap();
+		return theRightIndex.getOrDefault(key, Collections.emptyMap());
+	}
+
+	/** For {@link JoinType#isFiltering() filtering} joins, makes the left element present in the result or not as it should be */
+	private void updateFiltered(LeftEntry<L, K> entry) {
+		boolean matched = !getMatches(entry.key).isEmpty();
+		boolean present = theType == JoinType.SEMI ? matched : !matched;
+		if (present && entry.unmatched == null)
+			entry.unmatched = addResult(theCombination.apply(entry.value, null));
+		else if (!present && entry.unmatched != null) {
+			removeResult(entry.unmatched);
+			entry.unmatched = null;
+		}
+	}
+
+	private ElementId addResult(T value) {
+		return theResult.addElement(value, false).getElementId();
+	}
+
+	private void removeResult(ElementId resultId) {
+		theResult.mutableElement(resultId).remove();
+	}
+
+	private void setResult(ElementId resultId, T value) {
+		theResult.mutableElement(resultId).set(value);
+	}
+
+	static class LeftEntry<L, K> {
+		final K key;
+		L value;
+		/** Result element IDs by the ID of the matching right element */
+		final Map<ElementId, ElementId> results;
+		/** The result for an unmatched left join element, or for a present element of a filtering join */
+		ElementId unmatched;
+
+		LeftEntry(K key, L value) {
+			this.key = key;
+			this.value = value;
+			results = new LinkedHashMap<>();
+		}
+	}
+
+	static class RightEntry<R, K> {
+		final K key;
+		R value;
+
+		RightEntry(K key, R value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package org.observe.expresso.qonfig;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A size-bounded memo of the results of a mapping function, keyed by source value (by {@link Object#equals(Object) equality}), so that
+ * expensive mappings are evaluated once for equal source values instead of once per element.
+ * </p>
+ * <p>
+ * When the memo is full, the least-recently-used ({@link Policy#LRU}) or least-frequently-used ({@link Policy#LFU}) entry is evicted to
+ * make room for a new one.
+ * </p>
+ *
+ * @param <S> The type of source values
+ * @param <T> The type of mapped values
+ */
+public abstract class MappingMemo<S, T> {
+	/** Eviction policies for a memo */
+	public enum Policy {
+		/** Evicts the entry which was used longest ago */
+		LRU,
+		/** Evicts the entry which has been used the fewest times, the oldest first among ties */
+		LFU;
+
+		/**
+		 * @param name The name of the policy, as specified in Qonfig
+		 * @return The policy with the given name
+		 */
+		public static Policy parse(String name) {
+			return valueOf(name.toUpperCase());
+		}
+	}
+
+	private final int theMaxSize;
+
+	MappingMemo(int maxSize) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("Memo size must be positive, not " + maxSize);
+		theMaxSize = maxSize;
+	}
+
+	/**
+	 * @param <S> The type of source values
+	 * @param <T> The type of mapped values
+	 * @param policy The eviction policy for the memo
+	 * @param maxSize The maximum number of entries to keep
+	 * @return The new memo
+	 */
+	public static <S, T> MappingMemo<S, T> create(Policy policy, int maxSize) {
+		switch (policy) {
+		case LRU:
+			return new LruMemo<>(maxSize);
+		case LFU:
+			return new LfuMemo<>(maxSize);
+		}
+		throw new IllegalStateException("Unrecognized memo policy: " + policy);
+	}
+
+	/** @return The maximum number of entries this memo keeps */
+	public int getMaxSize() {
+		return theMaxSize;
+	}
+
+	/** @return The number of entries currently in this memo */
+	public abstract int size();
+
+	/**
+	 * Gets the memoized result for the given source value, or evaluates and memoizes it if it is not present. The mapping is evaluated
+	 * outside of this memo's lock.
+	 *
+	 * @param source The source value
+	 * @param map The mapping function
+	 * @return The mapped value
+	 */
+	public T get(S source, Function<? super S, ? extends T> map) {
+		synchronized (this) {
+			Object found = lookup(source);
+			if (found != null)
+				return found == NULL ? null : (T) found;
+		}
+		T result = map.apply(source);
+		synchronized (this) {
+			if (lookup(source) == null) {
+				if (size() >= theMaxSize)
+					evict();
+				store(source, result == null ? NULL : result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the entry for a source value, e.g. when the value may have been modified in place
+	 *
+	 * @param source The source value to remove the entry for
+	 */
+	public synchronized void remove(S source) {
+		doRemove(source);
+	}
+
+	/** Removes all entries from this memo, e.g. when something the mapping depends on besides the source value changes */
+	public synchronized void clear() {
+		doClear();
+	}
+
+	/**
+	 * @param source The source value to look up
+	 * @return The stored value (or {@link #NULL}) for the source, or null if there is none. Marks the entry as used.
+	 */
+	protected abstract Object lookup(S source);
+
+	/**
+	 * @param source The source value to store a result for
+	 * @param result The result to store (or {@link #NULL})
+	 */
+	protected abstract void store(S source, Object result);
+
+	/** Removes an entry according to this memo's policy */
+	protected abstract void evict();
+
+	/** @param source The source value to remove the entry for */
+	protected abstract void doRemove(S source);
+
+	/** Removes all entries */
+	protected abstract void doClear();
+
+	@Override
+	public synchronized String toString() {
+		return "memo(" + size() + "/" + theMaxSize + ")";
+	}
+
+	/** Stands in for null mapped values in the memo */
+	protected static final Object NULL = new Object();
+
+	static class LruMemo<S, T> extends MappingMemo<S, T> {
+		private final LinkedHashMap<S, Object> theEntries;
+
+		LruMemo(int maxSize) {
+			super(maxSize);
+			theEntries = new LinkedHashMap<>(16, 0.75f, true);
+		}
+
+		@Override
+		public int size() {
+			return theEntries.size();
+		}
+
+		@Override
+		protected Object lookup(S source) {
+			return theEntries.get(source);
+		}
+
+		@Override
+		protected void store(S source, Object result) {
+			theEntries.put(source, result);
+		}
+
+		@Override
+		protected void evict() {
+			Iterator<S> iter = theEntries.keySet().iterator();
+			iter.next();
+			iter.remove();
+		}
+
+		@Override
+		protected void doRemove(S source) {
+			theEntries.remove(source);
+		}
+
+		@Override
+		protected void doClear() {
+			theEntries.clear();
+		}
+	}
+
+	static class LfuMemo<S, T> extends MappingMemo<S, T> {
+		private final Map<S, LfuEntry> theEntries;
+		/** Keys by use count, each in order of insertion into that count */
+		private final Map<Integer, LinkedHashSet<S>> theFrequencies;
+		private int theMinFrequency;
+
+		LfuMemo(int maxSize) {
+			super(maxSize);
+			theEntries = new HashMap<>();
+			theFrequencies = new HashMap<>();
+		}
+
+		@Override
+		public int size() {
+			return theEntries.size();
+		}
+
+		@Override
+		protected Object lookup(S source) {
+			LfuEntry entry = theEntries.get(source);
+			if (entry == null)
+				return null;
+			LinkedHashSet<S> bucket = theFrequencies.get(entry.frequency);
+			bucket.remove(source);
+			if (bucket.isEmpty()) {
+				theFrequencies.remove(entry.frequency);
+				if (theMinFrequency == entry.frequency)
+					theMinFrequency++;
+			}
+			entry.frequency++;
+			theFrequencies.computeIfAbsent(entry.frequency, __ -> new LinkedHashSet<>()).add(source);
+			return entry.value;
+		}
+
+		@Override
+		protected void store(S source, Object result) {
+			theEntries.put(source, new LfuEntry(result));
+			theFrequencies.computeIfAbsent(1, __ -> new LinkedHashSet<>()).add(source);
+			theMinFrequency = 1;
+		}
+
+		@Override
+		protected void evict() {
+			LinkedHashSet<S> bucket = theFrequencies.get(theMinFrequency);
+			Iterator<S> iter = bucket.iterator();
+			S evicted = iter.next();
+			iter.remove();
+			if (bucket.isEmpty())
+				theFrequencies.remove(theMinFrequency);
+			theEntries.remove(evicted);
+		}
+
+		@Override
+		protected void doRemove(S source) {
+			LfuEntry entry = theEntries.remove(source);
+			if (entry == null)
+				return;
+			LinkedHashSet<S> bucket = theFrequencies.get(entry.frequency);
+			bucket.remove(source);
+			if (bucket.isEmpty()) {
+				theFrequencies.remove(entry.frequency);
+				if (theMinFrequency == entry.frequency)
+					theMinFrequency = theFrequencies.isEmpty() ? 0 : Collections.min(theFrequencies.keySet());
+			}
+		}
+
+		@Override
+		protected void doClear() {
+			theEntries.clear();
+			theFrequencies.clear();
+			theMinFrequency = 0;
+		}
+
+		static class LfuEntry {
+			final Object value;
+			int frequency;
+
+			LfuEntry(Object value) {
+				this.value = value;
+				frequency = 1;
+			}
+		}
+	}
+}
@@ -1,12 +1,20 @@
 package org.observe.expresso.qonfig;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.observe.Equivalence;
 import org.observe.Observable;
@@ -14,6 +22,7 @@ import org.observe.ObservableValue;
 import org.observe.Observer;
 import org.observe.SettableValue;
 import org.observe.Transformation;
+import org.observe.assoc.ObservableMap;
 import org.observe.assoc.ObservableMultiMap;
 import org.observe.assoc.ObservableMultiMap.MultiMapFlow;
 import org.observe.collect.FlatMapOptions;
@@ -46,6 +55,7 @@ import org.qommons.Causable;
 import org.qommons.Identifiable;
 import org.qommons.QommonsUtils;
 import org.qommons.Subscription;
+import org.qommons.Transaction;
 import org.qommons.collect.BetterList;
 import org.qommons.config.QonfigElement.QonfigValue;
 import org.qommons.config.QonfigElementOrAddOn;
@@ -309,14 +319,32 @@ public class ObservableCollectionTransformations {
 		interpreter.createWith(CrossCollectionTransform.CROSS, CollectionTransform.class, ExElement.creator(CrossCollectionTransform::new));
 		interpreter.createWith(WhereContainedCollectionTransform.WHERE_CONTAINED, CollectionTransform.class,
 			ExElement.creator(WhereContainedCollectionTransform::new));
+		interpreter.createWith(JoinCollectionTransform.JOIN, CollectionTransform.class,
+			ExElement.creator(JoinCollectionTransform::new));
 		interpreter.createWith(SizeCollectionTransform.SIZE, CollectionTransform.class, ExElement.creator(SizeCollectionTransform::new));
 		interpreter.createWith(ReducedCollectionTransform.REDUCE, CollectionTransform.class,
 			ExElement.creator(ReducedCollectionTransform::new));
+		interpreter.createWith(AggregateCollectionTransform.SUM, CollectionTransform.class,
+			ExElement.creator(AggregateCollectionTransform::new));
+		interpreter.createWith(AggregateCollectionTransform.COUNT_WHERE, CollectionTransform.class,
+			ExElement.creator(AggregateCollectionTransform::new));
+		interpreter.createWith(AggregateCollectionTransform.MIN_BY, CollectionTransform.class,
+			ExElement.creator(AggregateCollectionTransform::new));
+		interpreter.createWith(AggregateCollectionTransform.MAX_BY, CollectionTransform.class,
+			ExElement.creator(AggregateCollectionTransform::new));
+		interpreter.createWith(AggregateCollectionTransform.AVERAGE, CollectionTransform.class,
+			ExElement.creator(AggregateCollectionTransform::new));
 		interpreter.createWith(TerminalCollectionTransform.TERMINAL, CollectionTransform.class,
 			ExElement.creator(TerminalCollectionTransform::new));
 		interpreter.createWith(GroupByTransform.GROUP_BY, CollectionTransform.class, ExElement.creator(GroupByTransform::new));
+		interpreter.createWith(GroupAggregateTransform.GROUP_AGGREGATE, CollectionTransform.class,
+			ExElement.creator(GroupAggregateTransform::new));
 		interpreter.createWith(CollectCollectionTransform.COLLECT, CollectionTransform.class,
 			ExElement.creator(CollectCollectionTransform::new));
+		interpreter.createWith(WindowCollectionTransform.WINDOW, CollectionTransform.class,
+			ExElement.creator(WindowCollectionTransform::new));
+		interpreter.createWith(WindowCollectionTransform.PAGE, CollectionTransform.class,
+			ExElement.creator(WindowCollectionTransform::new));
 
 		// TODO Probably should support value-set transformations here, just grabbing the values and returning a collection
 		// This can always be overridden later
@@ -501,41 +529,113 @@ public class ObservableCollectionTransformations {
 					getReverse() == null ? null : getReverse().instantiate(), getDefinition().getSourceName(),
 						getDefinition().getPreviousResultAs(), getDefinition().isCached(), getDefinition().isReEvalOnUpdate(),
 						getDefinition().isFireIfUnchanged(), getDefinition().isNullToNull(), getDefinition().isManyToOne(),
-						getDefinition().isOneToMany(), getEquivalence() == null ? null : getEquivalence().instantiate(), isTesting());
+						getDefinition().isOneToMany(), getEquivalence() == null ? null : getEquivalence().instantiate(), isTesting(),
+							getDefinition().isParallel(), getDefinition().getMemoSize(), getDefinition().getMemoPolicy());
 			}
 		}
 
 		static class Instantiator<S, T, CV1 extends ObservableCollection<?>, CV2 extends ObservableCollection<?>>
 		extends ExpressoTransformations.AbstractCompiledTransformation.Instantiator<S, T, CV1, CV2>
 		implements CollectionFlowToFlowTransformInstantiator<CV1, CV2, S, T> {
+			/** The minimum size of a source collection for its initial mapping to be evaluated in parallel */
+			static final int PARALLEL_THRESHOLD = 2 * MIN_PARALLEL_CHUNK;
+
+			private final boolean isParallel;
 
 			Instantiator(DocumentMap<ModelInstantiator> localModel, ModelValueInstantiator<SettableValue<T>> map, S defaultSource,
 				List<ExpressoTransformations.CombineWith.Instantiator<?>> combinedValues,
 				ExpressoTransformations.CompiledMapReverse.Instantiator<S, T> reverse, ModelComponentId sourceVariable,
 				ModelComponentId previousResultVariable, boolean cached, boolean reEvalOnUpdate, boolean fireIfUnchanged,
 				boolean nullToNull, boolean manyToOne, boolean oneToMany,
-				ModelValueInstantiator<SettableValue<Equivalence<? super T>>> equivalence, boolean testing) {
+				ModelValueInstantiator<SettableValue<Equivalence<? super T>>> equivalence, boolean testing, boolean parallel, int memoSize,
+				MappingMemo.Policy memoPolicy) {
 				super(localModel, map, defaultSource, combinedValues, reverse, sourceVariable, previousResultVariable, cached,
-					reEvalOnUpdate, fireIfUnchanged, nullToNull, manyToOne, oneToMany, equivalence, testing);
+					reEvalOnUpdate, fireIfUnchanged, nullToNull, manyToOne, oneToMany, equivalence, testing, memoSize, memoPolicy);
+				isParallel = parallel;
 			}
 
 			@Override
 			public CV2 transform(CV1 source, ModelSetInstance models) throws ModelInstantiationException {
-				CollectionDataFlow<?, ?, T> flow = transformToFlow(source, models);
+				// Only the initial mapping is precomputed. Values added to the source later, even in bulk, are mapped as they are added.
+				Map<S, T> precomputed = (isParallel && isPrecomputable() && source.size() >= PARALLEL_THRESHOLD) ? new IdentityHashMap<>()
+					: null;
+				CollectionDataFlow<?, ?, T> flow = transformFlow((CollectionDataFlow<?, ?, S>) source.flow(), models, precomputed);
 				if (flow.prefersPassive())
-					return (CV2) flow.collectPassive();
-				else
+					return (CV2) flow.collectPassive(); // Passive results don't evaluate values in advance
+				if (precomputed == null)
 					return (CV2) flow.collectActive(models.getUntil());
+				return (CV2) collectPrecomputed((ObservableCollection<S>) source, flow, models, precomputed);
+			}
+
+			/**
+			 * Evaluates the initial mapping of a source collection in parallel, then collects the result actively with the precomputed values
+			 *
+			 * @param source The source collection
+			 * @param flow The transformed flow, whose transformation consumes values from <code>precomputed</code>
+			 * @param models The model instance to evaluate the map expression in
+			 * @param precomputed The (empty) map to populate with the precomputed values
+			 * @return The collected result
+			 * @throws ModelInstantiationException If the transformation could not be configured
+			 */
+			private ObservableCollection<T> collectPrecomputed(ObservableCollection<S> source, CollectionDataFlow<?, ?, T> flow,
+				ModelSetInstance models, Map<S, T> precomputed) throws ModelInstantiationException {
+				// Source values changed after the snapshot must not use values precomputed from their previous state
+				Set<Object> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+				boolean[] populated = new boolean[1];
+				List<S> snapshot;
+				Subscription changeSub;
+				try (Transaction t = source.lock(false, null)) {
+					snapshot = new ArrayList<>(source);
+					changeSub = source.onChange(evt -> {
+						synchronized (changed) {
+							changed.add(evt.getOldValue());
+							changed.add(evt.getNewValue());
+							if (populated[0]) {
+								synchronized (precomputed) {
+									precomputed.remove(evt.getOldValue());
+									precomputed.remove(evt.getNewValue());
+								}
+							}
+						}
+					});
+				}
+				try {
+					// The source's lock is released while the workers evaluate, in case the map expression needs it
+					Map<S, T> computed = precompute(snapshot, models);
+					if (computed != null) {
+						synchronized (changed) {
+							synchronized (precomputed) {
+								precomputed.putAll(computed);
+								for (Object value : changed)
+									precomputed.remove(value);
+							}
+							populated[0] = true;
+						}
+					}
+					// Collect actively so that the precomputed values are consumed now
+					ObservableCollection<T> result = flow.collectActive(models.getUntil());
+					synchronized (precomputed) {
+						precomputed.clear();
+					}
+					return result;
+				} finally {
+					changeSub.unsubscribe();
+				}
 			}
 
 			@Override
 			public CollectionDataFlow<?, ?, T> transformFlow(CollectionDataFlow<?, ?, S> source, ModelSetInstance models)
 				throws ModelInstantiationException {
+				return transformFlow(source, models, null);
+			}
+
+			private CollectionDataFlow<?, ?, T> transformFlow(CollectionDataFlow<?, ?, S> source, ModelSetInstance models,
+				Map<S, T> precomputed) throws ModelInstantiationException {
 				try {
 					if (isReversible() && source instanceof ObservableCollection.SortedDataFlow) {
 						return ((ObservableCollection.SortedDataFlow<?, ?, S>) source).transformEquivalent(tx -> {
 							try {
-								return (Transformation.ReversibleTransformation<S, T>) transform(tx, models);
+								return (Transformation.ReversibleTransformation<S, T>) transform(tx, models, precomputed);
 							} catch (ModelInstantiationException e) {
 								throw new CheckedExceptionWrapper(e);
 							}
@@ -543,7 +643,7 @@ public class ObservableCollectionTransformations {
 					} else {
 						return source.transform(tx -> {
 							try {
-								return transform(tx, models);
+								return transform(tx, models, precomputed);
 							} catch (ModelInstantiationException e) {
 								throw new CheckedExceptionWrapper(e);
 							}
@@ -1113,9 +1213,11 @@ public class ObservableCollectionTransformations {
 				ExFlexibleElementModelAddOn.satisfyElementValue(theSourceVariable, models, sourceV);
 				SettableValue<Observable<?>> refresh = theRefresh.get(models);
 				String print = theRefresh.toString();
+				// Elements with the same refresh observable share a single subscription to it
+				SharedRefresh shared = new SharedRefresh();
 				Function<T, Observable<?>> refreshFn = FunctionUtils.printableFn(v -> {
 					sourceV.set(v, null);
-					return refresh.get();
+					return shared.share(refresh.get());
 				}, () -> print);
 				return source.refreshEach(refreshFn);
 			}
@@ -1379,7 +1481,17 @@ public class ObservableCollectionTransformations {
 			@Override
 			public CollectionDataFlow<?, ?, T> transformFlow(CollectionDataFlow<?, ?, T> source, ModelSetInstance models)
 				throws ModelInstantiationException {
-				Comparator<? super T> sorting = theSorting.get(models);
+				List<ExSort.ExSortBy.SortKeyCache<T, ?>> keyCaches = new ArrayList<>();
+				Comparator<? super T> sorting = ExSort.getElementSorting(theSorting, models, keyCaches);
+				if (!keyCaches.isEmpty()) {
+					// Sort keys of mutable values are cached by identity,
+					// so they must be discarded each time an element is updated, before the sorted flow re-positions it
+					source = source.<T> transform(tx -> tx.cache(true).reEvalOnUpdate(true).map(value -> {
+						for (ExSort.ExSortBy.SortKeyCache<T, ?> cache : keyCaches)
+							cache.invalidate(value);
+						return value;
+					}).withReverse(FunctionUtils.identity()));
+				}
 				return source.sorted(sorting);
 			}
 
@@ -2447,7 +2559,11 @@ public class ObservableCollectionTransformations {
 			public CollectionDataFlow<?, ?, T> transformFlow(CollectionDataFlow<?, ?, T> source, ModelSetInstance models)
 				throws ModelInstantiationException {
 				ObservableCollection<?> filter = theFilter.get(models);
-				return source.whereContained(filter.flow(), isInclusive);
+				CollectionDataFlow<?, ?, ?> filterFlow = filter.flow();
+				// Containment tests against a list are linear in its size. Test against a hash set of the filter's values instead.
+				if (!(filter instanceof ObservableSet))
+					filterFlow = filterFlow.distinct();
+				return source.whereContained(filterFlow, isInclusive);
 			}
 
 			@Override
@@ -2463,6 +2579,275 @@ public class ObservableCollectionTransformations {
 		}
 	}
 
+	@ExMultiElementTraceable({ //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+			qonfigType = JoinCollectionTransform.JOIN,
+			interpretation = JoinCollectionTransform.Interpreted.class), //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+		qonfigType = "complex-operation",
+		interpretation = JoinCollectionTransform.Interpreted.class)//
+	})
+	static class JoinCollectionTransform<C extends ObservableCollection<?>> extends ExElement.Def.Abstract<ExElement>
+	implements CollectionTransform<C, ObservableCollection<?>, ExElement> {
+		/** The XML name of this element */
+		public static final String JOIN = "join";
+
+		private ModelComponentId theSourceAs;
+		private ModelComponentId theJoinedAs;
+		private CompiledExpression theWith;
+		private IncrementalJoin.JoinType theType;
+		private CompiledExpression theLeftKey;
+		private CompiledExpression theRightKey;
+		private CompiledExpression theValue;
+
+		JoinCollectionTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType);
+		}
+
+		@QonfigAttributeGetter(asType = "complex-operation", value = "source-as")
+		public ModelComponentId getSourceAs() {
+			return theSourceAs;
+		}
+
+		@QonfigAttributeGetter(asType = JOIN, value = "joined-as")
+		public ModelComponentId getJoinedAs() {
+			return theJoinedAs;
+		}
+
+		@QonfigAttributeGetter(asType = JOIN, value = "with")
+		public CompiledExpression getWith() {
+			return theWith;
+		}
+
+		@QonfigAttributeGetter(asType = JOIN, value = "type")
+		public IncrementalJoin.JoinType getType() {
+			return theType;
+		}
+
+		@QonfigAttributeGetter(asType = JOIN, value = "left-key")
+		public CompiledExpression getLeftKey() {
+			return theLeftKey;
+		}
+
+		@QonfigAttributeGetter(asType = JOIN, value = "right-key")
+		public CompiledExpression getRightKey() {
+			return theRightKey;
+		}
+
+		@Override
+		@QonfigAttributeGetter(asType = JOIN)
+		public CompiledExpression getElementValue() {
+			return theValue;
+		}
+
+		@Override
+		public ModelType<? extends ObservableCollection<?>> getTargetModelType() {
+			return ModelTypes.Collection;
+		}
+
+		@Override
+		public void update(ExpressoQIS session, ModelType<C> sourceModelType) throws QonfigInterpretationException {
+			super.update(session);
+			ExWithElementModel.Def elModels = getAddOn(ExWithElementModel.Def.class);
+			theSourceAs = elModels.getElementValueModelId(session.getAttributeText("source-as"));
+			theJoinedAs = elModels.getElementValueModelId(session.getAttributeText("joined-as"));
+			theWith = getAttributeExpression("with", session);
+			theType = IncrementalJoin.JoinType.parse(session.getAttribute("type", QonfigValueType.Literal.class).getValue());
+			theLeftKey = getAttributeExpression("left-key", session);
+			theRightKey = getAttributeExpression("right-key", session);
+			theValue = getValueExpression(session);
+			if (theValue == null && !theType.isFiltering())
+				throw new QonfigInterpretationException("A value expression is required for " + theType + " joins",
+					getElement().getPositionInFile(), 0);
+			elModels.<Interpreted<C, ?, ?, ?, ?, ?>, SettableValue<?>> satisfyElementSingleValueType(theSourceAs, ModelTypes.Value,
+				Interpreted::getSourceType);
+			elModels.<Interpreted<C, ?, ?, ?, ?, ?>, SettableValue<?>> satisfyElementSingleValueType(theJoinedAs, ModelTypes.Value,
+				Interpreted::getJoinedType);
+		}
+
+		@Override
+		public Operation.Interpreted<C, ?, ObservableCollection<?>, ?, ? extends ExElement> interpret(ExElement.Interpreted<?> parent)
+			throws ExpressoInterpretationException {
+			return new Interpreted<>(this, parent);
+		}
+
+		static class Interpreted<C extends ObservableCollection<?>, CV extends C, S, R, K, T>
+		extends ExElement.Interpreted.Abstract<ExElement>
+		implements Operation.Interpreted<C, CV, ObservableCollection<?>, ObservableCollection<T>, ExElement> {
+			private TypeToken<S> theSourceType;
+			private InterpretedValueSynth<ObservableCollection<?>, ObservableCollection<R>> theWith;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<K>> theLeftKey;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<K>> theRightKey;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<T>> theValue;
+
+			Interpreted(JoinCollectionTransform<C> definition, ExElement.Interpreted<?> parent) {
+				super(definition, parent);
+			}
+
+			@Override
+			public JoinCollectionTransform<C> getDefinition() {
+				return (JoinCollectionTransform<C>) super.getDefinition();
+			}
+
+			public TypeToken<S> getSourceType() {
+				return theSourceType;
+			}
+
+			public TypeToken<R> getJoinedType() {
+				return (TypeToken<R>) theWith.getType().getType(0);
+			}
+
+			public InterpretedValueSynth<ObservableCollection<?>, ObservableCollection<R>> getWith() {
+				return theWith;
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<K>> getLeftKey() {
+				return theLeftKey;
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<K>> getRightKey() {
+				return theRightKey;
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<T>> getElementValue() {
+				return theValue;
+			}
+
+			@Override
+			public void update(ModelInstanceType<C, CV> sourceType) throws ExpressoInterpretationException {
+				theSourceType = (TypeToken<S>) sourceType.getType(0);
+				theWith = interpret(getDefinition().getWith(), ModelTypes.Collection.anyAsV());
+				super.update();
+				theLeftKey = interpret(getDefinition().getLeftKey(), ModelTypes.Value.anyAsV());
+				theRightKey = interpret(getDefinition().getRightKey(), theLeftKey.getType());
+				theValue = getDefinition().getElementValue() == null ? null
+					: interpret(getDefinition().getElementValue(), ModelTypes.Value.anyAsV());
+			}
+
+			@Override
+			public ModelInstanceType<? extends ObservableCollection<?>, ? extends ObservableCollection<T>> getTargetType() {
+				if (getDefinition().getType().isFiltering())
+					return ModelTypes.Collection.forType((TypeToken<T>) theSourceType);
+				return ModelTypes.Collection.forType((TypeToken<T>) theValue.getType().getType(0));
+			}
+
+			@Override
+			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
+				return BetterList.of(Stream.of(theWith, theLeftKey, theRightKey, theValue).filter(Objects::nonNull));
+			}
+
+			@Override
+			public Operation.Instantiator<CV, ObservableCollection<T>> instantiate() throws ModelInstantiationException {
+				return new Instantiator<>(this);
+			}
+
+			@Override
+			public String toString() {
+				return getDefinition().getType().name().toLowerCase() + "Join(" + theWith + ")";
+			}
+		}
+
+		static class Instantiator<C extends ObservableCollection<?>, S, R, K, T>
+		implements Operation.Instantiator<C, ObservableCollection<T>> {
+			private final DocumentMap<ModelInstantiator> theModels;
+			private final ModelComponentId theSourceAs;
+			private final ModelComponentId theJoinedAs;
+			private final ModelValueInstantiator<ObservableCollection<R>> theWith;
+			private final IncrementalJoin.JoinType theType;
+			private final ModelValueInstantiator<SettableValue<K>> theLeftKey;
+			private final ModelValueInstantiator<SettableValue<K>> theRightKey;
+			private final ModelValueInstantiator<SettableValue<T>> theValue;
+
+			Instantiator(Interpreted<?, C, S, R, K, T> interpreted) throws ModelInstantiationException {
+				theModels = interpreted.instantiateLocalModels();
+				theSourceAs = interpreted.getDefinition().getSourceAs();
+				theJoinedAs = interpreted.getDefinition().getJoinedAs();
+				theWith = interpreted.getWith().instantiate();
+				theType = interpreted.getDefinition().getType();
+				theLeftKey = interpreted.getLeftKey().instantiate();
+				theRightKey = interpreted.getRightKey().instantiate();
+				theValue = interpreted.getElementValue() == null ? null : interpreted.getElementValue().instantiate();
+			}
+
+			@Override
+			public void instantiate() throws ModelInstantiationException {
+				theModels.forEach(ModelInstantiator::instantiate);
+				theWith.instantiate();
+				theLeftKey.instantiate();
+				theRightKey.instantiate();
+				if (theValue != null)
+					theValue.instantiate();
+			}
+
+			@Override
+			public ObservableCollection<T> transform(C source, ModelSetInstance models) throws ModelInstantiationException {
+				ObservableCollection<R> with = theWith.get(models);
+				models = theModels.operate(models, (m, mi) -> mi.wrap(m));
+				SettableValue<S> sourceAs = SettableValue.<S> build().build();
+				SettableValue<R> joinedAs = SettableValue.<R> build().build();
+				ExFlexibleElementModelAddOn.satisfyElementValue(theSourceAs, models, sourceAs);
+				ExFlexibleElementModelAddOn.satisfyElementValue(theJoinedAs, models, joinedAs);
+				Observable.CoreChangeSources sourceChanges = ((SettableValue<S>) models.get(theSourceAs)).noInitChanges()
+					.getChangeSources();
+				Observable.CoreChangeSources joinedChanges = ((SettableValue<R>) models.get(theJoinedAs)).noInitChanges()
+					.getChangeSources();
+				List<Observable<?>> refresh = new ArrayList<>(3);
+
+				SettableValue<K> leftKeyV = theLeftKey.get(models);
+				SettableValue<K> rightKeyV = theRightKey.get(models);
+				Function<S, K> leftKey = v -> {
+					sourceAs.set(v, null);
+					return leftKeyV.get();
+				};
+				Function<R, K> rightKey = v -> {
+					joinedAs.set(v, null);
+					return rightKeyV.get();
+				};
+				addRefresh(refresh, leftKeyV, sourceChanges, joinedChanges);
+				addRefresh(refresh, rightKeyV, sourceChanges, joinedChanges);
+				BiFunction<S, R, T> combination;
+				if (theValue != null) {
+					SettableValue<T> valueV = theValue.get(models);
+					combination = (l, r) -> {
+						sourceAs.set(l, null);
+						joinedAs.set(r, null);
+						return valueV.get();
+					};
+					addRefresh(refresh, valueV, sourceChanges, joinedChanges);
+				} else
+					combination = null;
+				return IncrementalJoin.observe((ObservableCollection<S>) source, with, leftKey, rightKey, theType, combination,
+					refresh.isEmpty() ? null : Observable.or(refresh.toArray(new Observable[refresh.size()])), models.getUntil());
+			}
+
+			private static void addRefresh(List<Observable<?>> refresh, SettableValue<?> value, Observable.CoreChangeSources sourceChanges,
+				Observable.CoreChangeSources joinedChanges) {
+				// Keys and results are indexed per element, so re-populate the join if anything else they depend on changes
+				Observable.CoreChangeSources changes = value.noInitChanges().getChangeSources().excluding(sourceChanges)
+					.excluding(joinedChanges);
+				if (!changes.isEmpty())
+					refresh.add(changes);
+			}
+
+			@Override
+			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				ObservableCollection<R> with = theWith.get(sourceModels);
+				if (theWith.forModelCopy(with, sourceModels, newModels) != with)
+					return true;
+				sourceModels = theModels.operate(sourceModels, (m, mi) -> mi.wrap(m));
+				newModels = theModels.operate(newModels, (m, mi) -> mi.wrap(m));
+				for (ModelValueInstantiator<? extends SettableValue<?>> component : Arrays.asList(theLeftKey, theRightKey, theValue)) {
+					if (component == null)
+						continue;
+					SettableValue<Object> value = ((ModelValueInstantiator<SettableValue<Object>>) component).get(sourceModels);
+					if (((ModelValueInstantiator<SettableValue<Object>>) component).forModelCopy(value, sourceModels, newModels) != value)
+						return true;
+				}
+				return false;
+			}
+		}
+	}
+
 	@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
 		qonfigType = SizeCollectionTransform.SIZE,
 		interpretation = SizeCollectionTransform.Interpreted.class)
@@ -2603,6 +2988,9 @@ public class ObservableCollectionTransformations {
 		private ModelComponentId theTempAs;
 		private CompiledExpression theSeed;
 		private CompiledExpression theValue;
+		private CompiledExpression theUnValue;
+		private boolean isCommutative;
+		private String theAggregate;
 
 		public ReducedCollectionTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
 			super(parent, qonfigType);
@@ -2634,6 +3022,21 @@ public class ObservableCollectionTransformations {
 			return theValue;
 		}
 
+		@QonfigAttributeGetter(asType = REDUCE, value = "un-value")
+		public CompiledExpression getUnValue() {
+			return theUnValue;
+		}
+
+		@QonfigAttributeGetter(asType = REDUCE, value = "commutative")
+		public boolean isCommutative() {
+			return isCommutative;
+		}
+
+		@QonfigAttributeGetter(asType = REDUCE, value = "aggregate")
+		public String getAggregate() {
+			return theAggregate;
+		}
+
 		@Override
 		public void update(ExpressoQIS session, ModelType<C> sourceModelType) throws QonfigInterpretationException {
 			super.update(session);
@@ -2649,6 +3052,10 @@ public class ObservableCollectionTransformations {
 				Interpreted::getValueType);
 			theSeed = getAttributeExpression("seed", session);
 			theValue = getValueExpression(session);
+			theUnValue = getAttributeExpression("un-value", session);
+			isCommutative = session.getAttribute("commutative", boolean.class);
+			QonfigValueType.Literal aggregate = session.getAttribute("aggregate", QonfigValueType.Literal.class);
+			theAggregate = aggregate == null ? null : aggregate.getValue();
 		}
 
 		@Override
@@ -2662,6 +3069,7 @@ public class ObservableCollectionTransformations {
 			private TypeToken<S> theSourceType;
 			private InterpretedValueSynth<SettableValue<?>, SettableValue<T>> theSeed;
 			private InterpretedValueSynth<SettableValue<?>, SettableValue<T>> theValue;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<T>> theUnValue;
 
 			Interpreted(ReducedCollectionTransform<C> definition, ExElement.Interpreted<?> parent) {
 				super(definition, parent);
@@ -2692,12 +3100,49 @@ public class ObservableCollectionTransformations {
 				return theValue;
 			}
 
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<T>> getUnValue() {
+				return theUnValue;
+			}
+
 			@Override
 			public void update(ModelInstanceType<C, CV> sourceType) throws ExpressoInterpretationException {
 				theSourceType = (TypeToken<S>) sourceType.getType(0);
 				theSeed = interpret(getDefinition().getSeed(), ModelTypes.Value.anyAsV());
 				super.update();
 				theValue = interpret(getDefinition().getElementValue(), theSeed.getType());
+				theUnValue = getDefinition().getUnValue() == null ? null : interpret(getDefinition().getUnValue(), theSeed.getType());
+				if (getDefinition().getAggregate() != null)
+					checkAggregate(getDefinition().getAggregate());
+			}
+
+			private void checkAggregate(String aggregate) throws ExpressoInterpretationException {
+				Class<?> sourceClass = TypeTokens.getRawType(TypeTokens.get().wrap(theSourceType));
+				Class<?> valueClass = TypeTokens.getRawType(TypeTokens.get().wrap(getValueType()));
+				String error = null;
+				switch (aggregate) {
+				case "sum":
+				case "avg":
+					if (!Number.class.isAssignableFrom(sourceClass))
+						error = "Cannot " + aggregate + " non-numeric values of type " + theSourceType;
+					else if (IncrementalAggregate.numberConverter(valueClass) == null)
+						error = "Unsupported result type for " + aggregate + ": " + getValueType();
+					break;
+				case "count":
+					if (IncrementalAggregate.numberConverter(valueClass) == null)
+						error = "Unsupported result type for count: " + getValueType();
+					break;
+				case "min":
+				case "max":
+					if (!Comparable.class.isAssignableFrom(sourceClass))
+						error = "Cannot find the " + aggregate + " of non-comparable values of type " + theSourceType;
+					else if (!valueClass.isAssignableFrom(sourceClass))
+						error = "Values of type " + theSourceType + " cannot be the " + aggregate + " result of type " + getValueType();
+					break;
+				default:
+					error = "Unrecognized aggregate: " + aggregate;
+				}
+				if (error != null)
+					throw new ExpressoInterpretationException(error, reporting().getFileLocation().getPosition(0), 0);
 			}
 
 			@Override
@@ -2707,7 +3152,7 @@ public class ObservableCollectionTransformations {
 
 			@Override
 			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
-				return BetterList.of(theSeed, theValue);
+				return BetterList.of(Stream.of(theSeed, theValue, theUnValue).filter(Objects::nonNull));
 			}
 
 			@Override
@@ -2722,6 +3167,11 @@ public class ObservableCollectionTransformations {
 			private final ModelComponentId theTempAs;
 			private final ModelValueInstantiator<SettableValue<T>> theSeed;
 			private final ModelValueInstantiator<SettableValue<T>> theValue;
+			private final ModelValueInstantiator<SettableValue<T>> theUnValue;
+			private final boolean isCommutative;
+			private final String theAggregate;
+			private final Class<T> theValueClass;
+			private final String theAlias;
 
 			Instantiator(Interpreted<?, C, S, T> interpreted) throws ModelInstantiationException {
 				theModels = interpreted.instantiateLocalModels();
@@ -2729,6 +3179,11 @@ public class ObservableCollectionTransformations {
 				theTempAs = interpreted.getDefinition().getTempAs();
 				theSeed = interpreted.getSeed().instantiate();
 				theValue = interpreted.getElementValue().instantiate();
+				theUnValue = interpreted.getUnValue() == null ? null : interpreted.getUnValue().instantiate();
+				isCommutative = interpreted.getDefinition().isCommutative();
+				theAggregate = interpreted.getDefinition().getAggregate();
+				theValueClass = TypeTokens.getRawType(TypeTokens.get().wrap(interpreted.getValueType()));
+				theAlias = interpreted.toString();
 			}
 
 			@Override
@@ -2736,43 +3191,64 @@ public class ObservableCollectionTransformations {
 				theModels.forEach(ModelInstantiator::instantiate);
 				theSeed.instantiate();
 				theValue.instantiate();
+				if (theUnValue != null)
+					theUnValue.instantiate();
 			}
 
 			@Override
 			public SettableValue<T> transform(C source, ModelSetInstance models) throws ModelInstantiationException {
 				SettableValue<T> seed = theSeed.get(models);
+				if (theAggregate != null)
+					return IncrementalAggregate.observe((ObservableCollection<S>) source, createAggregate(seed.get()), models.getUntil(),
+						theAlias);
 				models = theModels.operate(models, (m, mi) -> mi.wrap(m));
 				SettableValue<S> sourceAs = SettableValue.<S> build().build();
 				SettableValue<T> tempAs = SettableValue.<T> build().build();
 				ExFlexibleElementModelAddOn.satisfyElementValue(theSourceAs, models, sourceAs);
 				ExFlexibleElementModelAddOn.satisfyElementValue(theTempAs, models, tempAs);
 				SettableValue<T> value = theValue.get(models);
-				ObservableValue<T> reduced;
-				/*
-				 * I was trying to be clever here.  If the value was reversible, I'd use the efficient version of reduce.
-				 * I tested this with addition and it seemed to work.
-				 * But this is invalid if the operation doesn't preserve enough information.
-				 * E.g. for an OR operation among booleans, this fails on modification.
-				if (value.isEnabled() == null) {
-					reduced = ((ObservableCollection<S>) source).reduce(seed.get(), (temp, newValue) -> {
-						tempAs.set(temp, null);
-						sourceAs.set(newValue, null);
-						return value.get();
-					}, (temp, oldValue) -> {
-						sourceAs.set(oldValue, null);
-						value.set(temp, null);
-						return tempAs.get();
-					});
-				} else {*/
-				reduced = ((ObservableCollection<S>) source).reduce(seed.get(), (temp, newValue) -> {
+				if (theUnValue != null || isCommutative) {
+					/* The operation is declared to be order-independent (and possibly invertible), so it can be maintained incrementally.
+					 * Without such a declaration, this is invalid for operations that don't preserve enough information,
+					 * e.g. an OR operation among booleans fails on modification. */
+					SettableValue<T> unValue = theUnValue == null ? null : theUnValue.get(models);
+					return IncrementalAggregate.observe((ObservableCollection<S>) source,
+						new IncrementalAggregate.Fold<S, T>(seed.get(), (temp, newValue) -> {
+							tempAs.set(temp, null);
+							sourceAs.set(newValue, null);
+							return value.get();
+						}, unValue == null ? null : (temp, oldValue) -> {
+							tempAs.set(temp, null);
+							sourceAs.set(oldValue, null);
+							return unValue.get();
+						}), models.getUntil(), theAlias);
+				}
+				ObservableValue<T> reduced = ((ObservableCollection<S>) source).reduce(seed.get(), (temp, newValue) -> {
 					tempAs.set(temp, null);
 					sourceAs.set(newValue, null);
 					return value.get();
 				});
-				// }
 				return SettableValue.asSettable(reduced, __ -> "Reduced values are not modifiable");
 			}
 
+			private IncrementalAggregate<S, T> createAggregate(T seed) {
+				Function<Number, T> converter = (Function<Number, T>) IncrementalAggregate.numberConverter(theValueClass);
+				switch (theAggregate) {
+				case "sum":
+					return new IncrementalAggregate.Sum<>(null, (Number) seed, IncrementalAggregate.isIntegral(theValueClass), converter);
+				case "count":
+					return new IncrementalAggregate.Count<>(null, seed == null ? 0 : ((Number) seed).longValue(), converter);
+				case "avg":
+					return new IncrementalAggregate.Average<>(null, seed, converter);
+				case "min":
+				case "max":
+					return new IncrementalAggregate.Extreme<S, Object, T>(v -> v,
+						(v1, v2) -> ((Comparable<Object>) v1).compareTo(v2), "max".equals(theAggregate), seed, seed, (v, k) -> (T) v);
+				default:
+					throw new IllegalStateException("Unrecognized aggregate: " + theAggregate);
+				}
+			}
+
 			@Override
 			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
 				sourceModels = theModels.operate(sourceModels, (m, mi) -> mi.wrap(m));
@@ -2783,22 +3259,59 @@ public class ObservableCollectionTransformations {
 				SettableValue<T> value = theValue.get(sourceModels);
 				if (theValue.forModelCopy(value, sourceModels, newModels) != value)
 					return true;
+				if (theUnValue != null) {
+					SettableValue<T> unValue = theUnValue.get(sourceModels);
+					if (theUnValue.forModelCopy(unValue, sourceModels, newModels) != unValue)
+						return true;
+				}
 				return false;
 			}
 		}
 	}
 
-	@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
-		qonfigType = TerminalCollectionTransform.TERMINAL,
-		interpretation = TerminalCollectionTransform.Interpreted.class) //
-	static class TerminalCollectionTransform<C extends ObservableCollection<?>> extends ExElement.Def.Abstract<ExElement>
+	@ExMultiElementTraceable({ //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+			qonfigType = AggregateCollectionTransform.AGGREGATE,
+			interpretation = AggregateCollectionTransform.Interpreted.class), //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+		qonfigType = "complex-operation",
+		interpretation = AggregateCollectionTransform.Interpreted.class)//
+	})
+	static class AggregateCollectionTransform<C extends ObservableCollection<?>> extends ExElement.Def.Abstract<ExElement>
 	implements CollectionTransform<C, SettableValue<?>, ExElement> {
-		public static final String TERMINAL = "terminal";
-
-		private boolean isFirst;
+		public static final String AGGREGATE = "aggregate";
+		public static final String SUM = "sum";
+		public static final String COUNT_WHERE = "count-where";
+		public static final String MIN_BY = "min-by";
+		public static final String MAX_BY = "max-by";
+		public static final String AVERAGE = "average";
+
+		private final String theAggregateType;
+		private ModelComponentId theSourceAs;
+		private CompiledExpression theTerm;
 
-		public TerminalCollectionTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+		public AggregateCollectionTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
 			super(parent, qonfigType);
+			theAggregateType = qonfigType.getName();
+		}
+
+		/** @return The type of the aggregate, e.g. {@link #SUM} */
+		public String getAggregateType() {
+			return theAggregateType;
+		}
+
+		/**
+		 * @param termType The (numeric) type of the terms to sum
+		 * @return The type of the sum of the terms
+		 */
+		static TypeToken<?> getSumType(TypeToken<?> termType) {
+			Class<?> termClass = TypeTokens.getRawType(TypeTokens.get().wrap(termType));
+			if (termClass == Integer.class || termClass == Short.class || termClass == Byte.class)
+				return TypeTokens.get().INT;
+			else if (termClass == Long.class || termClass == Float.class || termClass == Double.class)
+				return TypeTokens.get().wrap(termType);
+			else
+				return TypeTokens.get().DOUBLE;
 		}
 
 		@Override
@@ -2806,16 +3319,27 @@ public class ObservableCollectionTransformations {
 			return ModelTypes.Value;
 		}
 
-		@QonfigAttributeGetter("first")
-		public boolean isFirst() {
-			return isFirst;
+		@QonfigAttributeGetter(asType = "complex-operation", value = "source-as")
+		public ModelComponentId getSourceAs() {
+			return theSourceAs;
+		}
+
+		@Override
+		@QonfigAttributeGetter(asType = AGGREGATE)
+		public CompiledExpression getElementValue() {
+			return theTerm;
 		}
 
 		@Override
 		public void update(ExpressoQIS session, ModelType<C> sourceModelType) throws QonfigInterpretationException {
 			super.update(session);
 
-			isFirst = session.getAttribute("first", boolean.class);
+			ExWithElementModel.Def withElModel = getAddOn(ExWithElementModel.Def.class);
+			String sourceAs = session.getAttributeText("source-as");
+			theSourceAs = withElModel.getElementValueModelId(sourceAs);
+			withElModel.<Interpreted<?, ?, ?, ?, ?>, SettableValue<?>> satisfyElementSingleValueType(theSourceAs, ModelTypes.Value,
+				Interpreted::getSourceType);
+			theTerm = getValueExpression(session);
 		}
 
 		@Override
@@ -2824,37 +3348,89 @@ public class ObservableCollectionTransformations {
 			return new Interpreted<>(this, parent);
 		}
 
-		static class Interpreted<C extends ObservableCollection<?>, CV extends C, T> extends ExElement.Interpreted.Abstract<ExElement>
+		static class Interpreted<C extends ObservableCollection<?>, CV extends C, S, X, T> extends ExElement.Interpreted.Abstract<ExElement>
 		implements Operation.Interpreted<C, CV, SettableValue<?>, SettableValue<T>, ExElement> {
-			private TypeToken<T> theValueType;
+			private TypeToken<S> theSourceType;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<X>> theTerm;
+			private TypeToken<X> theTermType;
+			private TypeToken<T> theTargetType;
 
-			Interpreted(TerminalCollectionTransform<C> definition, ExElement.Interpreted<?> parent) {
+			Interpreted(AggregateCollectionTransform<C> definition, ExElement.Interpreted<?> parent) {
 				super(definition, parent);
 			}
 
 			@Override
-			public TerminalCollectionTransform<C> getDefinition() {
-				return (TerminalCollectionTransform<C>) super.getDefinition();
+			public AggregateCollectionTransform<C> getDefinition() {
+				return (AggregateCollectionTransform<C>) super.getDefinition();
 			}
 
-			public TypeToken<T> getValueType() {
-				return theValueType;
+			public TypeToken<S> getSourceType() {
+				return theSourceType;
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<X>> getTerm() {
+				return theTerm;
+			}
+
+			/** @return The type of the aggregated terms--the term expression's type, or the source type if no term was specified */
+			public TypeToken<X> getTermType() {
+				return theTermType;
 			}
 
 			@Override
 			public void update(ModelInstanceType<C, CV> sourceType) throws ExpressoInterpretationException {
-				theValueType = (TypeToken<T>) sourceType.getType(0);
+				theSourceType = (TypeToken<S>) sourceType.getType(0);
 				super.update();
+				String aggregate = getDefinition().getAggregateType();
+				if (getDefinition().getElementValue() == null) {
+					theTerm = null;
+					theTermType = (TypeToken<X>) theSourceType;
+				} else {
+					if (COUNT_WHERE.equals(aggregate))
+						theTerm = (InterpretedValueSynth<SettableValue<?>, SettableValue<X>>) (InterpretedValueSynth<?, ?>) interpret(
+							getDefinition().getElementValue(), ModelTypes.Value.BOOLEAN);
+					else
+						theTerm = interpret(getDefinition().getElementValue(), ModelTypes.Value.anyAsV());
+					theTermType = (TypeToken<X>) theTerm.getType().getType(0);
+				}
+				Class<?> termClass = TypeTokens.getRawType(TypeTokens.get().wrap(theTermType));
+				switch (aggregate) {
+				case SUM:
+					if (!Number.class.isAssignableFrom(termClass))
+						throw new ExpressoInterpretationException("Cannot sum non-numeric values of type " + theTermType,
+							reporting().getFileLocation().getPosition(0), 0);
+					theTargetType = (TypeToken<T>) getSumType(theTermType);
+					break;
+				case COUNT_WHERE:
+					theTargetType = (TypeToken<T>) TypeTokens.get().INT;
+					break;
+				case MIN_BY:
+				case MAX_BY:
+					if (!Comparable.class.isAssignableFrom(termClass))
+						throw new ExpressoInterpretationException("Cannot compare values of type " + theTermType,
+							reporting().getFileLocation().getPosition(0), 0);
+					theTargetType = (TypeToken<T>) theSourceType;
+					break;
+				case AVERAGE:
+					if (!Number.class.isAssignableFrom(termClass))
+						throw new ExpressoInterpretationException("Cannot average non-numeric values of type " + theTermType,
+							reporting().getFileLocation().getPosition(0), 0);
+					theTargetType = (TypeToken<T>) TypeTokens.get().DOUBLE;
+					break;
+				default:
+					throw new ExpressoInterpretationException("Unrecognized aggregate: " + aggregate,
+						reporting().getFileLocation().getPosition(0), 0);
+				}
 			}
 
 			@Override
 			public ModelInstanceType<? extends SettableValue<?>, ? extends SettableValue<T>> getTargetType() {
-				return ModelTypes.Value.forType(theValueType);
+				return ModelTypes.Value.forType(theTargetType);
 			}
 
 			@Override
 			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
-				return BetterList.empty();
+				return theTerm == null ? BetterList.empty() : BetterList.of(theTerm);
 			}
 
 			@Override
@@ -2863,20 +3439,177 @@ public class ObservableCollectionTransformations {
 			}
 		}
 
-		static class Instantiator<C extends ObservableCollection<?>, T> implements Operation.Instantiator<C, SettableValue<T>> {
-			private final boolean isFirst;
+		static class Instantiator<C extends ObservableCollection<?>, S, X, T> implements Operation.Instantiator<C, SettableValue<T>> {
+			private final DocumentMap<ModelInstantiator> theModels;
+			private final ModelComponentId theSourceAs;
+			private final ModelValueInstantiator<SettableValue<X>> theTerm;
+			private final String theAggregateType;
+			private final Class<T> theTargetClass;
+			private final String theAlias;
 
-			Instantiator(Interpreted<?, C, T> interpreted) throws ModelInstantiationException {
-				isFirst = interpreted.getDefinition().isFirst();
+			Instantiator(Interpreted<?, C, S, X, T> interpreted) throws ModelInstantiationException {
+				theModels = interpreted.instantiateLocalModels();
+				theSourceAs = interpreted.getDefinition().getSourceAs();
+				theTerm = interpreted.getTerm() == null ? null : interpreted.getTerm().instantiate();
+				theAggregateType = interpreted.getDefinition().getAggregateType();
+				theTargetClass = TypeTokens.getRawType(TypeTokens.get().wrap(interpreted.theTargetType));
+				theAlias = interpreted.toString();
 			}
 
 			@Override
 			public void instantiate() throws ModelInstantiationException {
+				theModels.forEach(ModelInstantiator::instantiate);
+				if (theTerm != null)
+					theTerm.instantiate();
 			}
 
 			@Override
 			public SettableValue<T> transform(C source, ModelSetInstance models) throws ModelInstantiationException {
-				return ((ObservableCollection<T>) source).observeTerminal().at(isFirst).find();
+				Function<S, X> term;
+				Observable<?> refresh;
+				if (theTerm != null) {
+					models = theModels.operate(models, (m, mi) -> mi.wrap(m));
+					SettableValue<S> sourceAs = SettableValue.<S> build().build();
+					ExFlexibleElementModelAddOn.satisfyElementValue(theSourceAs, models, sourceAs);
+					SettableValue<S> flatSourceAs = (SettableValue<S>) models.get(theSourceAs);
+					SettableValue<X> termV = theTerm.get(models);
+					String print = theTerm.toString();
+					term = FunctionUtils.printableFn(v -> {
+						sourceAs.set(v, null);
+						return termV.get();
+					}, () -> print);
+					// Terms are stored per element, so re-populate the aggregate if anything else the term depends on changes
+					Observable.CoreChangeSources termChanges = termV.noInitChanges().getChangeSources()
+						.excluding(flatSourceAs.noInitChanges().getChangeSources());
+					refresh = termChanges.isEmpty() ? null : termChanges;
+				} else {
+					term = null;
+					refresh = null;
+				}
+				return IncrementalAggregate.observe((ObservableCollection<S>) source, createAggregate(term), refresh, models.getUntil(),
+					theAlias);
+			}
+
+			private IncrementalAggregate<S, T> createAggregate(Function<S, X> term) {
+				Function<Number, T> converter = (Function<Number, T>) IncrementalAggregate.numberConverter(theTargetClass);
+				switch (theAggregateType) {
+				case SUM:
+					return new IncrementalAggregate.Sum<>((Function<S, Number>) term, null, IncrementalAggregate.isIntegral(theTargetClass),
+						converter);
+				case COUNT_WHERE:
+					return new IncrementalAggregate.Count<>((Function<S, Boolean>) term, 0, converter);
+				case MIN_BY:
+				case MAX_BY:
+					return new IncrementalAggregate.Extreme<S, Object, T>(term == null ? v -> v : term,
+						(k1, k2) -> ((Comparable<Object>) k1).compareTo(k2), MAX_BY.equals(theAggregateType), null, null, (v, k) -> (T) v);
+				case AVERAGE:
+					return new IncrementalAggregate.Average<>((Function<S, Number>) term, null, converter);
+				default:
+					throw new IllegalStateException("Unrecognized aggregate: " + theAggregateType);
+				}
+			}
+
+			@Override
+			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				if (theTerm == null)
+					return false;
+				sourceModels = theModels.operate(sourceModels, (m, mi) -> mi.wrap(m));
+				newModels = theModels.operate(newModels, (m, mi) -> mi.wrap(m));
+				SettableValue<X> term = theTerm.get(sourceModels);
+				return theTerm.forModelCopy(term, sourceModels, newModels) != term;
+			}
+		}
+	}
+
+	@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+		qonfigType = TerminalCollectionTransform.TERMINAL,
+		interpretation = TerminalCollectionTransform.Interpreted.class) //
+	static class TerminalCollectionTransform<C extends ObservableCollection<?>> extends ExElement.Def.Abstract<ExElement>
+	implements CollectionTransform<C, SettableValue<?>, ExElement> {
+		public static final String TERMINAL = "terminal";
+
+		private boolean isFirst;
+
+		public TerminalCollectionTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType);
+		}
+
+		@Override
+		public ModelType<? extends SettableValue<?>> getTargetModelType() {
+			return ModelTypes.Value;
+		}
+
+		@QonfigAttributeGetter("first")
+		public boolean isFirst() {
+			return isFirst;
+		}
+
+		@Override
+		public void update(ExpressoQIS session, ModelType<C> sourceModelType) throws QonfigInterpretationException {
+			super.update(session);
+
+			isFirst = session.getAttribute("first", boolean.class);
+		}
+
+		@Override
+		public Operation.Interpreted<C, ?, SettableValue<?>, ?, ? extends ExElement> interpret(ExElement.Interpreted<?> parent)
+			throws ExpressoInterpretationException {
+			return new Interpreted<>(this, parent);
+		}
+
+		static class Interpreted<C extends ObservableCollection<?>, CV extends C, T> extends ExElement.Interpreted.Abstract<ExElement>
+		implements Operation.Interpreted<C, CV, SettableValue<?>, SettableValue<T>, ExElement> {
+			private TypeToken<T> theValueType;
+
+			Interpreted(TerminalCollectionTransform<C> definition, ExElement.Interpreted<?> parent) {
+				super(definition, parent);
+			}
+
+			@Override
+			public TerminalCollectionTransform<C> getDefinition() {
+				return (TerminalCollectionTransform<C>) super.getDefinition();
+			}
+
+			public TypeToken<T> getValueType() {
+				return theValueType;
+			}
+
+			@Override
+			public void update(ModelInstanceType<C, CV> sourceType) throws ExpressoInterpretationException {
+				theValueType = (TypeToken<T>) sourceType.getType(0);
+				super.update();
+			}
+
+			@Override
+			public ModelInstanceType<? extends SettableValue<?>, ? extends SettableValue<T>> getTargetType() {
+				return ModelTypes.Value.forType(theValueType);
+			}
+
+			@Override
+			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
+				return BetterList.empty();
+			}
+
+			@Override
+			public Operation.Instantiator<CV, SettableValue<T>> instantiate() throws ModelInstantiationException {
+				return new Instantiator<>(this);
+			}
+		}
+
+		static class Instantiator<C extends ObservableCollection<?>, T> implements Operation.Instantiator<C, SettableValue<T>> {
+			private final boolean isFirst;
+
+			Instantiator(Interpreted<?, C, T> interpreted) throws ModelInstantiationException {
+				isFirst = interpreted.getDefinition().isFirst();
+			}
+
+			@Override
+			public void instantiate() throws ModelInstantiationException {
+			}
+
+			@Override
+			public SettableValue<T> transform(C source, ModelSetInstance models) throws ModelInstantiationException {
+				return ((ObservableCollection<T>) source).observeTerminal().at(isFirst).find();
 			}
 
 			@Override
@@ -3046,6 +3779,274 @@ public class ObservableCollectionTransformations {
 		}
 	}
 
+	@ExMultiElementTraceable({ //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+			qonfigType = GroupAggregateTransform.GROUP_AGGREGATE,
+			interpretation = GroupAggregateTransform.Interpreted.class), //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+		qonfigType = "complex-operation",
+		interpretation = GroupAggregateTransform.Interpreted.class)//
+	})
+	static class GroupAggregateTransform<C extends ObservableCollection<?>> extends ExElement.Def.Abstract<ExElement>
+	implements CollectionTransform<C, ObservableMap<?, ?>, ExElement> {
+		/** The XML name of this element */
+		public static final String GROUP_AGGREGATE = "group-aggregate";
+
+		private ModelComponentId theSourceAs;
+		private CompiledExpression theKey;
+		private String theAggregate;
+		private CompiledExpression theTerm;
+
+		public GroupAggregateTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType);
+		}
+
+		/**
+		 * @return The ID of the model value that will hold the value of elements in the source collection to be grouped by the
+		 *         {@link #getKey() key} expression and aggregated by the {@link #getElementValue() term}
+		 */
+		@QonfigAttributeGetter(asType = "complex-operation", value = "source-as")
+		public ModelComponentId getSourceAs() {
+			return theSourceAs;
+		}
+
+		/** @return The expression determining the key group that each element in the collection belongs to */
+		@QonfigAttributeGetter(asType = GROUP_AGGREGATE, value = "key")
+		public CompiledExpression getKey() {
+			return theKey;
+		}
+
+		/** @return The built-in aggregate to maintain for each group */
+		@QonfigAttributeGetter(asType = GROUP_AGGREGATE, value = "aggregate")
+		public String getAggregate() {
+			return theAggregate;
+		}
+
+		/** @return The term to aggregate for each element, or null to aggregate the elements themselves */
+		@Override
+		@QonfigAttributeGetter(asType = GROUP_AGGREGATE)
+		public CompiledExpression getElementValue() {
+			return theTerm;
+		}
+
+		@Override
+		public ModelType<? extends ObservableMap<?, ?>> getTargetModelType() {
+			return ModelTypes.Map;
+		}
+
+		@Override
+		public void update(ExpressoQIS session, ModelType<C> sourceModelType) throws QonfigInterpretationException {
+			super.update(session);
+			String sourceAs = session.getAttributeText("source-as");
+			ExWithElementModel.Def elModels = getAddOn(ExWithElementModel.Def.class);
+			theSourceAs = elModels.getElementValueModelId(sourceAs);
+			theKey = getAttributeExpression("key", session);
+			theAggregate = session.getAttribute("aggregate", QonfigValueType.Literal.class).getValue();
+			theTerm = getValueExpression(session);
+			elModels.<Interpreted<C, ?, ?, ?, ?, ?>, SettableValue<?>> satisfyElementSingleValueType(theSourceAs, ModelTypes.Value,
+				Interpreted::getSourceType);
+		}
+
+		@Override
+		public ExpressoTransformations.Operation.Interpreted<C, ?, ObservableMap<?, ?>, ?, ? extends ExElement> interpret(
+			ExElement.Interpreted<?> parent) throws ExpressoInterpretationException {
+			return new Interpreted<>(this, parent);
+		}
+
+		static class Interpreted<C extends ObservableCollection<?>, S, CV extends C, K, X, T>
+		extends ExElement.Interpreted.Abstract<ExElement>
+		implements Operation.Interpreted<C, CV, ObservableMap<?, ?>, ObservableMap<K, T>, ExElement> {
+			private TypeToken<S> theSourceType;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<K>> theKey;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<X>> theTerm;
+			private ModelInstanceType<ObservableMap<?, ?>, ObservableMap<K, T>> theTargetType;
+
+			Interpreted(GroupAggregateTransform<C> definition, ExElement.Interpreted<?> parent) {
+				super(definition, parent);
+			}
+
+			@Override
+			public GroupAggregateTransform<C> getDefinition() {
+				return (GroupAggregateTransform<C>) super.getDefinition();
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<K>> getKey() {
+				return theKey;
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<X>> getTerm() {
+				return theTerm;
+			}
+
+			public TypeToken<S> getSourceType() {
+				return theSourceType;
+			}
+
+			@Override
+			public void update(ModelInstanceType<C, CV> sourceType) throws ExpressoInterpretationException {
+				theSourceType = (TypeToken<S>) sourceType.getType(0);
+				super.update();
+				theKey = interpret(getDefinition().getKey(), ModelTypes.Value.anyAs());
+				String aggregate = getDefinition().getAggregate();
+				TypeToken<X> termType;
+				if (getDefinition().getElementValue() == null) {
+					theTerm = null;
+					termType = (TypeToken<X>) theSourceType;
+				} else {
+					if ("count".equals(aggregate))
+						theTerm = (InterpretedValueSynth<SettableValue<?>, SettableValue<X>>) (InterpretedValueSynth<?, ?>) interpret(
+							getDefinition().getElementValue(), ModelTypes.Value.BOOLEAN);
+					else
+						theTerm = interpret(getDefinition().getElementValue(), ModelTypes.Value.anyAsV());
+					termType = (TypeToken<X>) theTerm.getType().getType(0);
+				}
+				Class<?> termClass = TypeTokens.getRawType(TypeTokens.get().wrap(termType));
+				TypeToken<T> valueType;
+				switch (aggregate) {
+				case "sum":
+				case "avg":
+					if (!Number.class.isAssignableFrom(termClass))
+						throw new ExpressoInterpretationException("Cannot " + aggregate + " non-numeric values of type " + termType,
+							reporting().getFileLocation().getPosition(0), 0);
+					valueType = (TypeToken<T>) ("sum".equals(aggregate) ? AggregateCollectionTransform.getSumType(termType)
+						: TypeTokens.get().DOUBLE);
+					break;
+				case "count":
+					valueType = (TypeToken<T>) TypeTokens.get().INT;
+					break;
+				case "min":
+				case "max":
+					if (!Comparable.class.isAssignableFrom(termClass))
+						throw new ExpressoInterpretationException("Cannot compare values of type " + termType,
+							reporting().getFileLocation().getPosition(0), 0);
+					valueType = (TypeToken<T>) termType;
+					break;
+				default:
+					throw new ExpressoInterpretationException("Unrecognized aggregate: " + aggregate,
+						reporting().getFileLocation().getPosition(0), 0);
+				}
+				theTargetType = ModelTypes.Map.forType((TypeToken<K>) theKey.getType().getType(0), valueType);
+			}
+
+			@Override
+			public ModelInstanceType<? extends ObservableMap<?, ?>, ? extends ObservableMap<K, T>> getTargetType() {
+				return theTargetType;
+			}
+
+			@Override
+			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
+				return BetterList.of(Stream.of(theKey, theTerm).filter(Objects::nonNull));
+			}
+
+			@Override
+			public Operation.Instantiator<CV, ObservableMap<K, T>> instantiate() throws ModelInstantiationException {
+				return new Instantiator<>(this);
+			}
+		}
+
+		static class Instantiator<C extends ObservableCollection<?>, S, K, X, T> implements Operation.Instantiator<C, ObservableMap<K, T>> {
+			private final DocumentMap<ModelInstantiator> theModels;
+			private final ModelComponentId theSourceAs;
+			private final ModelValueInstantiator<SettableValue<K>> theKey;
+			private final ModelValueInstantiator<SettableValue<X>> theTerm;
+			private final String theAggregate;
+			private final Class<T> theValueClass;
+			private final String theAlias;
+
+			Instantiator(Interpreted<?, S, C, K, X, T> interpreted) throws ModelInstantiationException {
+				theModels = interpreted.instantiateLocalModels();
+				theSourceAs = interpreted.getDefinition().getSourceAs();
+				theKey = interpreted.getKey().instantiate();
+				theTerm = interpreted.getTerm() == null ? null : interpreted.getTerm().instantiate();
+				theAggregate = interpreted.getDefinition().getAggregate();
+				theValueClass = TypeTokens.getRawType(TypeTokens.get().wrap((TypeToken<T>) interpreted.getTargetType().getType(1)));
+				theAlias = interpreted.toString();
+			}
+
+			@Override
+			public void instantiate() throws ModelInstantiationException {
+				theModels.forEach(ModelInstantiator::instantiate);
+				theKey.instantiate();
+				if (theTerm != null)
+					theTerm.instantiate();
+			}
+
+			@Override
+			public ObservableMap<K, T> transform(C source, ModelSetInstance models) throws ModelInstantiationException {
+				models = theModels.operate(models, (m, mi) -> mi.wrap(m));
+				SettableValue<S> sourceAs = SettableValue.<S> build().build();
+				ExFlexibleElementModelAddOn.satisfyElementValue(theSourceAs, models, sourceAs);
+				SettableValue<S> flatSourceAs = (SettableValue<S>) models.get(theSourceAs);
+				Observable.CoreChangeSources sourceChanges = flatSourceAs.noInitChanges().getChangeSources();
+				SettableValue<K> keyV = theKey.get(models);
+				String keyPrint = theKey.toString();
+				Function<S, K> key = FunctionUtils.printableFn(v -> {
+					sourceAs.set(v, null);
+					return keyV.get();
+				}, () -> keyPrint);
+				List<Observable<?>> refresh = new ArrayList<>(2);
+				// Keys and terms are indexed per element, so re-populate the groups if anything else they depend on changes
+				Observable.CoreChangeSources keyChanges = keyV.noInitChanges().getChangeSources().excluding(sourceChanges);
+				if (!keyChanges.isEmpty())
+					refresh.add(keyChanges);
+				Function<S, X> term;
+				if (theTerm != null) {
+					SettableValue<X> termV = theTerm.get(models);
+					String termPrint = theTerm.toString();
+					term = FunctionUtils.printableFn(v -> {
+						sourceAs.set(v, null);
+						return termV.get();
+					}, () -> termPrint);
+					Observable.CoreChangeSources termChanges = termV.noInitChanges().getChangeSources().excluding(sourceChanges);
+					if (!termChanges.isEmpty())
+						refresh.add(termChanges);
+				} else
+					term = null;
+				Function<Number, T> converter = (Function<Number, T>) IncrementalAggregate.numberConverter(theValueClass);
+				Supplier<IncrementalAggregate<S, T>> groupAggregate;
+				switch (theAggregate) {
+				case "sum":
+					groupAggregate = () -> new IncrementalAggregate.Sum<>((Function<S, Number>) term, null,
+						IncrementalAggregate.isIntegral(theValueClass), converter);
+					break;
+				case "count":
+					groupAggregate = () -> new IncrementalAggregate.Count<>((Function<S, Boolean>) term, 0, converter);
+					break;
+				case "avg":
+					groupAggregate = () -> new IncrementalAggregate.Average<>((Function<S, Number>) term, null, converter);
+					break;
+				case "min":
+				case "max":
+					boolean max = "max".equals(theAggregate);
+					Function<S, Object> key2 = term == null ? v -> v : (Function<S, Object>) term;
+					// The result is the least/greatest term, which is stored in the heap, so it needn't be evaluated again
+					groupAggregate = () -> new IncrementalAggregate.Extreme<S, Object, T>(key2,
+						(k1, k2) -> ((Comparable<Object>) k1).compareTo(k2), max, null, null, (v, k) -> (T) k);
+					break;
+				default:
+					throw new IllegalStateException("Unrecognized aggregate: " + theAggregate);
+				}
+				return IncrementalAggregate.observeGroups((ObservableCollection<S>) source, key, groupAggregate,
+					refresh.isEmpty() ? null : Observable.or(refresh.toArray(new Observable[refresh.size()])), models.getUntil(), theAlias);
+			}
+
+			@Override
+			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				sourceModels = theModels.operate(sourceModels, (m, mi) -> mi.wrap(m));
+				newModels = theModels.operate(newModels, (m, mi) -> mi.wrap(m));
+				SettableValue<K> sourceKey = theKey.get(sourceModels);
+				if (theKey.forModelCopy(sourceKey, sourceModels, newModels) != sourceKey)
+					return true;
+				if (theTerm != null) {
+					SettableValue<X> sourceTerm = theTerm.get(sourceModels);
+					if (theTerm.forModelCopy(sourceTerm, sourceModels, newModels) != sourceTerm)
+						return true;
+				}
+				return false;
+			}
+		}
+	}
+
 	@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
 		qonfigType = CollectCollectionTransform.COLLECT,
 		interpretation = CollectCollectionTransform.Interpreted.class)
@@ -3143,4 +4144,178 @@ public class ObservableCollectionTransformations {
 			}
 		}
 	}
+
+	@ExMultiElementTraceable({ //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+			qonfigType = WindowCollectionTransform.WINDOWED,
+			interpretation = WindowCollectionTransform.Interpreted.class), //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+		qonfigType = WindowCollectionTransform.WINDOW,
+		interpretation = WindowCollectionTransform.Interpreted.class), //
+		@ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
+		qonfigType = WindowCollectionTransform.PAGE,
+		interpretation = WindowCollectionTransform.Interpreted.class)//
+	})
+	static class WindowCollectionTransform<C extends ObservableCollection<?>> extends ExElement.Def.Abstract<ExElement>
+	implements CollectionTransform<C, ObservableCollection<?>, ExElement> {
+		/** The XML name of the abstract element that &lt;window> and &lt;page> extend */
+		public static final String WINDOWED = "windowed";
+		/** The XML name of the &lt;window> element */
+		public static final String WINDOW = "window";
+		/** The XML name of the &lt;page> element */
+		public static final String PAGE = "page";
+
+		private final boolean isPaged;
+		private CompiledExpression theOffset;
+		private CompiledExpression thePage;
+		private CompiledExpression theSize;
+
+		WindowCollectionTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType);
+			isPaged = PAGE.equals(qonfigType.getName());
+		}
+
+		/** @return Whether this window is specified by page number, as opposed to by element index */
+		public boolean isPaged() {
+			return isPaged;
+		}
+
+		/** @return The index of the first element in the window, or null for a &lt;page> */
+		@QonfigAttributeGetter(asType = WINDOW, value = "offset")
+		public CompiledExpression getOffset() {
+			return theOffset;
+		}
+
+		/** @return The page number of the window for a &lt;page>, or null for a &lt;window> */
+		@QonfigAttributeGetter(asType = PAGE, value = "page")
+		public CompiledExpression getPage() {
+			return thePage;
+		}
+
+		/** @return The maximum number of elements in the window */
+		@QonfigAttributeGetter(asType = WINDOWED, value = "size")
+		public CompiledExpression getSize() {
+			return theSize;
+		}
+
+		@Override
+		public ModelType<? extends ObservableCollection<?>> getTargetModelType() {
+			return ModelTypes.Collection;
+		}
+
+		@Override
+		public void update(ExpressoQIS session, ModelType<C> sourceModelType) throws QonfigInterpretationException {
+			super.update(session);
+			if (isPaged) {
+				theOffset = null;
+				thePage = getAttributeExpression("page", session);
+			} else {
+				theOffset = getAttributeExpression("offset", session);
+				thePage = null;
+			}
+			theSize = getAttributeExpression("size", session);
+		}
+
+		@Override
+		public Interpreted<C, ?, ?> interpret(ExElement.Interpreted<?> parent) throws ExpressoInterpretationException {
+			return new Interpreted<>(this, parent);
+		}
+
+		static class Interpreted<C extends ObservableCollection<?>, CV extends C, T> extends ExElement.Interpreted.Abstract<ExElement>
+		implements Operation.Interpreted<C, CV, ObservableCollection<?>, ObservableCollection<T>, ExElement> {
+			private TypeToken<T> theValueType;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> theOffset;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> theSize;
+
+			Interpreted(WindowCollectionTransform<C> definition, ExElement.Interpreted<?> parent) {
+				super(definition, parent);
+			}
+
+			@Override
+			public WindowCollectionTransform<C> getDefinition() {
+				return (WindowCollectionTransform<C>) super.getDefinition();
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> getOffset() {
+				return theOffset;
+			}
+
+			public InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> getSize() {
+				return theSize;
+			}
+
+			@Override
+			public void update(ModelInstanceType<C, CV> sourceType) throws ExpressoInterpretationException {
+				theValueType = (TypeToken<T>) sourceType.getType(0);
+				super.update();
+				theOffset = interpret(getDefinition().isPaged() ? getDefinition().getPage() : getDefinition().getOffset(),
+					ModelTypes.Value.INT);
+				theSize = interpret(getDefinition().getSize(), ModelTypes.Value.INT);
+			}
+
+			@Override
+			public ModelInstanceType<? extends ObservableCollection<?>, ? extends ObservableCollection<T>> getTargetType() {
+				return ModelTypes.Collection.forType(theValueType);
+			}
+
+			@Override
+			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
+				return BetterList.of(theOffset, theSize);
+			}
+
+			@Override
+			public Operation.Instantiator<CV, ObservableCollection<T>> instantiate() throws ModelInstantiationException {
+				return new Instantiator<>(getDefinition().isPaged(), theOffset.instantiate(), theSize.instantiate());
+			}
+
+			@Override
+			public String toString() {
+				return (getDefinition().isPaged() ? "page(" : "window(") + theOffset + ", " + theSize + ")";
+			}
+		}
+
+		static class Instantiator<C extends ObservableCollection<?>, T> implements Operation.Instantiator<C, ObservableCollection<T>> {
+			private final boolean isPaged;
+			private final ModelValueInstantiator<SettableValue<Integer>> theOffset;
+			private final ModelValueInstantiator<SettableValue<Integer>> theSize;
+
+			Instantiator(boolean paged, ModelValueInstantiator<SettableValue<Integer>> offset,
+				ModelValueInstantiator<SettableValue<Integer>> size) {
+				isPaged = paged;
+				theOffset = offset;
+				theSize = size;
+			}
+
+			@Override
+			public void instantiate() throws ModelInstantiationException {
+				theOffset.instantiate();
+				theSize.instantiate();
+			}
+
+			@Override
+			public ObservableCollection<T> transform(C source, ModelSetInstance models) throws ModelInstantiationException {
+				SettableValue<Integer> offset = theOffset.get(models);
+				SettableValue<Integer> size = theSize.get(models);
+				ObservableValue<Integer> start;
+				if (isPaged) {
+					start = offset.transform(tx -> tx.combineWith(size).combine((page, sz) -> {
+						if (page == null || sz == null)
+							return 0;
+						return page.intValue() * sz.intValue();
+					}));
+				} else
+					start = offset;
+				return WindowedCollection.observe((ObservableCollection<T>) source, start, size, models.getUntil());
+			}
+
+			@Override
+			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				SettableValue<Integer> offset = theOffset.get(sourceModels);
+				if (theOffset.forModelCopy(offset, sourceModels, newModels) != offset)
+					return true;
+				SettableValue<Integer> size = theSize.get(sourceModels);
+				return theSize.forModelCopy(size, sourceModels, newModels) != size;
+			}
+		}
+	}
 }
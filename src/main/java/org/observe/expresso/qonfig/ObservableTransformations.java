@@ -1,6 +1,10 @@
 package org.observe.expresso.qonfig;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.observe.Observable;
 import org.observe.Observer;
@@ -23,6 +27,7 @@ import org.observe.util.TypeTokens;
 import org.qommons.Causable;
 import org.qommons.Identifiable;
 import org.qommons.Subscription;
+import org.qommons.ThreadConstraint;
 import org.qommons.collect.BetterList;
 import org.qommons.config.QonfigElement.QonfigValue;
 import org.qommons.config.QonfigElementOrAddOn;
@@ -52,6 +57,10 @@ public class ObservableTransformations {
 		interpreter.createWith("map-to", ObservableTransform.class, ExElement.creator(MappedObservableTransform::new));
 		interpreter.createWith("filter", ObservableTransform.class, ExElement.creator(FilteredObservableTransform::new));
 		interpreter.createWith("filter-by-type", ObservableTransform.class, ExElement.creator(TypeFilteredObservableTransform::new));
+		interpreter.createWith("throttle", ObservableTransform.class, ExElement.creator(ThrottleObservableTransform::new));
+		interpreter.createWith("debounce", ObservableTransform.class, ExElement.creator(DebounceObservableTransform::new));
+		interpreter.createWith("sample", ObservableTransform.class, ExElement.creator(SampleObservableTransform::new));
+		interpreter.createWith("buffer", ObservableTransform.class, ExElement.creator(BufferObservableTransform::new));
 	}
 
 	static class NoInitObservableTransform extends TypePreservingTransform<Observable<?>>
@@ -991,4 +1000,325 @@ public class ObservableTransformations {
 			}
 		}
 	}
+
+	abstract static class TimedObservableTransform extends TypePreservingTransform<Observable<?>>
+	implements ObservableTransform<Observable<?>, ExElement> {
+		private final TimedEvents.Mode theMode;
+		private final String theIntervalAttribute;
+		private CompiledExpression theInterval;
+		private CompiledExpression onThread;
+
+		TimedObservableTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType, TimedEvents.Mode mode,
+			String intervalAttribute) {
+			super(parent, qonfigType);
+			theMode = mode;
+			theIntervalAttribute = intervalAttribute;
+		}
+
+		public TimedEvents.Mode getMode() {
+			return theMode;
+		}
+
+		public CompiledExpression getInterval() {
+			return theInterval;
+		}
+
+		public CompiledExpression getOnThread() {
+			return onThread;
+		}
+
+		@Override
+		public void update(ExpressoQIS session, ModelType<Observable<?>> sourceModelType) throws QonfigInterpretationException {
+			super.update(session, sourceModelType);
+			theInterval = getAttributeExpression(theIntervalAttribute, session);
+			onThread = getAttributeExpression("on-thread", session);
+		}
+
+		@Override
+		protected Interpreted<?> tppInterpret(ExElement.Interpreted<?> parent) {
+			return new Interpreted<>(this, parent);
+		}
+
+		static class Interpreted<T> extends TypePreservingTransform.Interpreted<Observable<?>, Observable<T>> {
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<Duration>> theInterval;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<ThreadConstraint>> onThread;
+
+			Interpreted(TimedObservableTransform definition, ExElement.Interpreted<?> parent) {
+				super(definition, parent);
+			}
+
+			@Override
+			public TimedObservableTransform getDefinition() {
+				return (TimedObservableTransform) super.getDefinition();
+			}
+
+			@Override
+			public void update(ModelInstanceType<Observable<?>, Observable<T>> sourceType) throws ExpressoInterpretationException {
+				super.update(sourceType);
+				theInterval = interpret(getDefinition().getInterval(), ModelTypes.Value.forType(Duration.class));
+				onThread = interpret(getDefinition().getOnThread(), ModelTypes.Value.forType(ThreadConstraint.class));
+			}
+
+			@Override
+			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
+				return BetterList.of(Stream.<InterpretedValueSynth<?, ?>> of(theInterval, onThread).filter(Objects::nonNull));
+			}
+
+			@Override
+			public Instantiator<T> instantiate() throws ModelInstantiationException {
+				return new Instantiator<>(getDefinition().getMode(), theInterval.instantiate(),
+					onThread == null ? null : onThread.instantiate());
+			}
+
+			@Override
+			public String toString() {
+				return getDefinition().getMode().name().toLowerCase() + "(" + theInterval + ")";
+			}
+		}
+
+		static class Instantiator<T> implements Operation.EfficientCopyingInstantiator<Observable<T>, Observable<T>> {
+			private final TimedEvents.Mode theMode;
+			private final ModelValueInstantiator<SettableValue<Duration>> theInterval;
+			private final ModelValueInstantiator<SettableValue<ThreadConstraint>> onThread;
+
+			Instantiator(TimedEvents.Mode mode, ModelValueInstantiator<SettableValue<Duration>> interval,
+				ModelValueInstantiator<SettableValue<ThreadConstraint>> onThread) {
+				theMode = mode;
+				theInterval = interval;
+				this.onThread = onThread;
+			}
+
+			@Override
+			public boolean isEfficientCopy() {
+				return true;
+			}
+
+			@Override
+			public void instantiate() throws ModelInstantiationException {
+				theInterval.instantiate();
+				if (onThread != null)
+					onThread.instantiate();
+			}
+
+			@Override
+			public Observable<T> transform(Observable<T> source, ModelSetInstance models) throws ModelInstantiationException {
+				return new TimedEvents.TimedObservable<>(source, theMode, theInterval.get(models),
+					onThread == null ? null : onThread.get(models));
+			}
+
+			@Override
+			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				SettableValue<Duration> interval = theInterval.get(sourceModels);
+				if (interval != theInterval.forModelCopy(interval, sourceModels, newModels))
+					return true;
+				else if (onThread == null)
+					return false;
+				SettableValue<ThreadConstraint> threading = onThread.get(sourceModels);
+				return threading != onThread.forModelCopy(threading, sourceModels, newModels);
+			}
+
+			@Override
+			public Observable<T> getSource(Observable<T> value) {
+				return ((TimedEvents.TimedObservable<T>) value).getWrapped();
+			}
+
+			@Override
+			public Observable<T> forModelCopy(Observable<T> prevValue, Observable<T> newSource, ModelSetInstance sourceModels,
+				ModelSetInstance newModels) throws ModelInstantiationException {
+				TimedEvents.TimedObservable<T> timed = (TimedEvents.TimedObservable<T>) prevValue;
+				SettableValue<Duration> interval = theInterval.forModelCopy(timed.getInterval(), sourceModels, newModels);
+				SettableValue<ThreadConstraint> threading = onThread == null ? null
+					: onThread.forModelCopy(timed.getOnThread(), sourceModels, newModels);
+				if (newSource == timed.getWrapped() && interval == timed.getInterval() && threading == timed.getOnThread())
+					return prevValue;
+				else
+					return new TimedEvents.TimedObservable<>(newSource, theMode, interval, threading);
+			}
+		}
+	}
+
+	static class ThrottleObservableTransform extends TimedObservableTransform {
+		public ThrottleObservableTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType, TimedEvents.Mode.THROTTLE, "interval");
+		}
+	}
+
+	static class DebounceObservableTransform extends TimedObservableTransform {
+		public DebounceObservableTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType, TimedEvents.Mode.DEBOUNCE, "delay");
+		}
+	}
+
+	static class SampleObservableTransform extends TimedObservableTransform {
+		public SampleObservableTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType, TimedEvents.Mode.SAMPLE, "interval");
+		}
+	}
+
+	static class BufferObservableTransform extends ExElement.Def.Abstract<ExElement>
+	implements ObservableTransform<Observable<?>, ExElement> {
+		private int theCount;
+		private CompiledExpression theDuration;
+		private CompiledExpression onThread;
+
+		public BufferObservableTransform(ExElement.Def<?> parent, QonfigElementOrAddOn qonfigType) {
+			super(parent, qonfigType);
+		}
+
+		@Override
+		public ModelType<? extends Observable<?>> getTargetModelType() {
+			return ModelTypes.Event;
+		}
+
+		public int getCount() {
+			return theCount;
+		}
+
+		public CompiledExpression getDuration() {
+			return theDuration;
+		}
+
+		public CompiledExpression getOnThread() {
+			return onThread;
+		}
+
+		@Override
+		public void update(ExpressoQIS session, ModelType<Observable<?>> sourceModelType) throws QonfigInterpretationException {
+			super.update(session);
+			String countText = session.getAttributeText("count");
+			theCount = countText == null ? 0 : Integer.parseInt(countText);
+			theDuration = getAttributeExpression("duration", session);
+			onThread = getAttributeExpression("on-thread", session);
+			if (theCount < 0)
+				throw new QonfigInterpretationException("Buffer count may not be negative", getElement().getPositionInFile(), 0);
+			else if (theCount == 0 && theDuration == null)
+				throw new QonfigInterpretationException("Either a count or a duration must be specified for a buffer",
+					getElement().getPositionInFile(), 0);
+		}
+
+		@Override
+		public Operation.Interpreted<Observable<?>, ?, Observable<?>, ?, ? extends ExElement> interpret(ExElement.Interpreted<?> parent)
+			throws ExpressoInterpretationException {
+			return new Interpreted<>(this, parent);
+		}
+
+		static class Interpreted<T> extends ExElement.Interpreted.Abstract<ExElement>
+		implements Operation.Interpreted<Observable<?>, Observable<T>, Observable<?>, Observable<List<T>>, ExElement> {
+			private ModelInstanceType<Observable<?>, Observable<List<T>>> theType;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<Duration>> theDuration;
+			private InterpretedValueSynth<SettableValue<?>, SettableValue<ThreadConstraint>> onThread;
+
+			Interpreted(BufferObservableTransform definition, ExElement.Interpreted<?> parent) {
+				super(definition, parent);
+			}
+
+			@Override
+			public BufferObservableTransform getDefinition() {
+				return (BufferObservableTransform) super.getDefinition();
+			}
+
+			@Override
+			public void update(ModelInstanceType<Observable<?>, Observable<T>> sourceType) throws ExpressoInterpretationException {
+				super.update();
+				theType = ModelTypes.Event.forType(TypeTokens.get().keyFor(List.class).<List<T>> parameterized(sourceType.getType(0)));
+				theDuration = interpret(getDefinition().getDuration(), ModelTypes.Value.forType(Duration.class));
+				onThread = interpret(getDefinition().getOnThread(), ModelTypes.Value.forType(ThreadConstraint.class));
+			}
+
+			@Override
+			public ModelInstanceType<? extends Observable<?>, ? extends Observable<List<T>>> getTargetType() {
+				return theType;
+			}
+
+			@Override
+			public BetterList<InterpretedValueSynth<?, ?>> getComponents() {
+				return BetterList.of(Stream.<InterpretedValueSynth<?, ?>> of(theDuration, onThread).filter(Objects::nonNull));
+			}
+
+			@Override
+			public Instantiator<T> instantiate() throws ModelInstantiationException {
+				return new Instantiator<>(getDefinition().getCount(), theDuration == null ? null : theDuration.instantiate(),
+					onThread == null ? null : onThread.instantiate());
+			}
+
+			@Override
+			public String toString() {
+				StringBuilder str = new StringBuilder("buffer(");
+				if (getDefinition().getCount() > 0)
+					str.append(getDefinition().getCount());
+				if (theDuration != null) {
+					if (getDefinition().getCount() > 0)
+						str.append(", ");
+					str.append(theDuration);
+				}
+				return str.append(')').toString();
+			}
+		}
+
+		static class Instantiator<T> implements Operation.EfficientCopyingInstantiator<Observable<T>, Observable<List<T>>> {
+			private final int theCount;
+			private final ModelValueInstantiator<SettableValue<Duration>> theDuration;
+			private final ModelValueInstantiator<SettableValue<ThreadConstraint>> onThread;
+
+			Instantiator(int count, ModelValueInstantiator<SettableValue<Duration>> duration,
+				ModelValueInstantiator<SettableValue<ThreadConstraint>> onThread) {
+				theCount = count;
+				theDuration = duration;
+				this.onThread = onThread;
+			}
+
+			@Override
+			public boolean isEfficientCopy() {
+				return true;
+			}
+
+			@Override
+			public void instantiate() throws ModelInstantiationException {
+				if (theDuration != null)
+					theDuration.instantiate();
+				if (onThread != null)
+					onThread.instantiate();
+			}
+
+			@Override
+			public Observable<List<T>> transform(Observable<T> source, ModelSetInstance models) throws ModelInstantiationException {
+				return new TimedEvents.BufferedObservable<>(source, theCount, theDuration == null ? null : theDuration.get(models),
+					onThread == null ? null : onThread.get(models));
+			}
+
+			@Override
+			public boolean isDifferent(ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				if (theDuration != null) {
+					SettableValue<Duration> duration = theDuration.get(sourceModels);
+					if (duration != theDuration.forModelCopy(duration, sourceModels, newModels))
+						return true;
+				}
+				if (onThread != null) {
+					SettableValue<ThreadConstraint> threading = onThread.get(sourceModels);
+					if (threading != onThread.forModelCopy(threading, sourceModels, newModels))
+						return true;
+				}
+				return false;
+			}
+
+			@Override
+			public Observable<T> getSource(Observable<List<T>> value) {
+				return ((TimedEvents.BufferedObservable<T>) value).getWrapped();
+			}
+
+			@Override
+			public Observable<List<T>> forModelCopy(Observable<List<T>> prevValue, Observable<T> newSource,
+				ModelSetInstance sourceModels, ModelSetInstance newModels) throws ModelInstantiationException {
+				TimedEvents.BufferedObservable<T> buffered = (TimedEvents.BufferedObservable<T>) prevValue;
+				SettableValue<Duration> duration = theDuration == null ? null
+					: theDuration.forModelCopy(buffered.getDuration(), sourceModels, newModels);
+				SettableValue<ThreadConstraint> threading = onThread == null ? null
+					: onThread.forModelCopy(buffered.getOnThread(), sourceModels, newModels);
+				if (newSource == buffered.getWrapped() && duration == buffered.getDuration() && threading == buffered.getOnThread())
+					return prevValue;
+				else
+					return new TimedEvents.BufferedObservable<>(newSource, theCount, duration, threading);
+			}
+		}
+	}
 }
@@ -0,0 +1,205 @@
+package org.observe.expresso.qonfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.observe.Observable;
+import org.observe.Observer;
+import org.qommons.Causable;
+import org.qommons.Identifiable;
+import org.qommons.Subscription;
+
+/**
+ * <p>
+ * De-duplicates the per-element refresh observables of a &lt;refresh-each> operation.
+ * </p>
+ * <p>
+ * It is common for many elements of a collection to return the same refresh observable, e.g. a shared entity-changed event. Without
+ * de-duplication, each element subscribes to the observable separately, so a collection of N elements holds N subscriptions to it and
+ * handles N separate refresh events each time it fires.
+ * </p>
+ * <p>
+ * Instead, each distinct source observable (by {@link Identifiable#getIdentity() identity}) is replaced by a single shared stand-in. The
+ * shared observable holds one subscription to its source for as long as any element is subscribed to it, and keeps the element
+ * observers affected by it as a reverse index. When the source fires, all the affected elements are refreshed together under a single
+ * root {@link Causable cause}.
+ * </p>
+ * <p>
+ * A stand-in is only registered while it is subscribed to, so observables that are shared but never subscribed to (or no longer) are not
+ * retained.
+ * </p>
+ */
+public class SharedRefresh {
+	/** Placeholder for a shared observable's source subscription while it is being made */
+	private static final Subscription SUBSCRIBING = () -> {
+	};
+
+	private final Map<Object, SharedObservable> theSources;
+
+	/** Creates a refresh de-duplicator */
+	public SharedRefresh() {
+		theSources = new HashMap<>();
+	}
+
+	/**
+	 * @param source The refresh observable for an element
+	 * @return An observable which fires when the source does, shared by all elements whose refresh observable has the same identity
+	 */
+	public Observable<?> share(Observable<?> source) {
+		if (source == null)
+			return null;
+		synchronized (this) {
+			// Registered when subscribed to
+			SharedObservable shared = theSources.get(source.getIdentity());
+			return shared != null ? shared : new SharedObservable(source);
+		}
+	}
+
+	/** @return The number of distinct refresh observables currently subscribed to, each with a single subscription to its source */
+	public synchronized int getSubscribedCount() {
+		return theSources.size();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "sharedRefresh(" + theSources.size() + ")";
+	}
+
+	/** Stands in for all the elements' refresh observables with a given identity */
+	class SharedObservable extends Observable.WrappingObservable<Object, Object> {
+		/** The elements' observers, the reverse index of the elements to refresh when the source fires */
+		private final LinkedHashSet<Observer<? super Object>> theObservers;
+		private Subscription theSubscription;
+
+		SharedObservable(Observable<?> source) {
+			super((Observable<Object>) source);
+			theObservers = new LinkedHashSet<>();
+		}
+
+		@Override
+		protected Object createIdentity() {
+			return Identifiable.wrap(getWrapped().getIdentity(), "shared");
+		}
+
+		@Override
+		public Subscription subscribe(Observer<? super Object> observer) {
+			ElementObserver elementObserver = new ElementObserver(observer);
+			SharedObservable target;
+			boolean subscribe;
+			synchronized (SharedRefresh.this) {
+				// If another stand-in for the same source was subscribed to since this one was shared, use that one
+				target = theSources.computeIfAbsent(getWrapped().getIdentity(), __ -> this);
+				target.theObservers.add(elementObserver);
+				subscribe = target.theSubscription == null;
+				if (subscribe)
+					target.theSubscription = SUBSCRIBING; // Placeholder, so no other thread subscribes
+			}
+			if (subscribe)
+				target.subscribeSource();
+			return () -> target.remove(elementObserver);
+		}
+
+		private void subscribeSource() {
+			Subscription sub = getWrapped().subscribe(new SourceObserver());
+			synchronized (SharedRefresh.this) {
+				if (theSubscription == SUBSCRIBING && !theObservers.isEmpty())
+					theSubscription = sub;
+				else if (theSubscription == SUBSCRIBING) { // Unsubscribed while we were subscribing
+					theSubscription = null;
+					sub.unsubscribe();
+				}
+			}
+		}
+
+		private void remove(Observer<? super Object> observer) {
+			Subscription sub = null;
+			synchronized (SharedRefresh.this) {
+				if (!theObservers.remove(observer) || !theObservers.isEmpty())
+					return;
+				// No more elements depend on this source
+				theSources.remove(getWrapped().getIdentity(), this);
+				if (theSubscription != SUBSCRIBING) {
+					sub = theSubscription;
+					theSubscription = null;
+				}
+			}
+			if (sub != null)
+				sub.unsubscribe();
+		}
+
+		private List<Observer<? super Object>> getObservers() {
+			synchronized (SharedRefresh.this) {
+				return new ArrayList<>(theObservers);
+			}
+		}
+
+		/** Wraps each subscription so that an element subscribing twice is still refreshed (and unsubscribed) twice */
+		class ElementObserver implements Observer<Object> {
+			private final Observer<? super Object> theObserver;
+
+			ElementObserver(Observer<? super Object> observer) {
+				theObserver = observer;
+			}
+
+			@Override
+			public void onNext(Object value) {
+				theObserver.onNext(value);
+			}
+
+			@Override
+			public void onCompleted(Supplier<Causable> cause) {
+				theObserver.onCompleted(cause);
+			}
+
+			@Override
+			public boolean tryLock() {
+				return theObserver.tryLock();
+			}
+
+			@Override
+			public void unlock() {
+				theObserver.unlock();
+			}
+		}
+
+		class SourceObserver implements Observer<Object> {
+			@Override
+			public void onNext(Object value) {
+				List<Observer<? super Object>> observers = getObservers();
+				if (observers.isEmpty())
+					return;
+				// Refresh all the affected elements under one root cause
+				try (Causable.CausableInUse cause = Causable.cause(value)) {
+					for (Observer<? super Object> observer : observers)
+						observer.onNext(cause);
+				}
+			}
+
+			@Override
+			public void onCompleted(Supplier<Causable> cause) {
+				List<Observer<? super Object>> observers;
+				synchronized (SharedRefresh.this) {
+					observers = new ArrayList<>(theObservers);
+					theObservers.clear();
+					theSubscription = null;
+					theSources.remove(getWrapped().getIdentity(), SharedObservable.this);
+				}
+				for (Observer<? super Object> observer : observers)
+					observer.onCompleted(cause);
+			}
+
+			@Override
+			public boolean tryLock() {
+				return true;
+			}
+
+			@Override
+			public void unlock() {
+			}
+		}
+	}
+}
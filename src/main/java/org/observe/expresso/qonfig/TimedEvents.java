@@ -0,0 +1,448 @@
+package org.observe.expresso.qonfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.observe.Observable;
+import org.observe.Observer;
+import org.observe.SettableValue;
+import org.qommons.Causable;
+import org.qommons.Identifiable;
+import org.qommons.Subscription;
+import org.qommons.ThreadConstraint;
+import org.qommons.threading.QommonsTimer;
+
+/**
+ * <p>
+ * Event transformations that re-time the events of a source observable, so that expensive listeners of high-frequency events (e.g.
+ * mouse motion or entity updates) are not notified for every event.
+ * </p>
+ * <p>
+ * Events delivered on a timer are delivered on the {@link QommonsTimer#getCommonInstance() common timer}'s thread, or via a given
+ * {@link ThreadConstraint}, e.g. the UI thread. Events are delivered in the order they are decided upon, regardless of the thread
+ * that decides them.
+ * </p>
+ */
+public class TimedEvents {
+	private TimedEvents() {
+	}
+
+	/** The ways a {@link TimedObservable} can re-time events */
+	public enum Mode {
+		/**
+		 * Fires the first event immediately, then at most one event (the latest) per interval. Events received within an interval after an
+		 * event fires are delivered together at the end of the interval as the latest of them.
+		 */
+		THROTTLE,
+		/** Fires the latest event once no events have been received for the interval */
+		DEBOUNCE,
+		/** Fires the latest event at each tick of the interval, if any event has been received since the last tick */
+		SAMPLE;
+	}
+
+	/**
+	 * Delivers events to an observer in the order they are queued, even when they are queued from different threads, e.g. a leading
+	 * event from the source's thread and a trailing event from the timer's. Events delivered on a thread other than the one they were
+	 * received on are delivered under a {@link Causable#broken(Object) broken} cause, since the source's cause may have finished.
+	 *
+	 * @param <T> The type of the events
+	 */
+	static class OrderedEmitter<T> {
+		private final Observer<? super T> theObserver;
+		private final SettableValue<ThreadConstraint> onThread;
+		private final LinkedList<Pending<T>> theQueue;
+		private boolean isEmitting;
+
+		OrderedEmitter(Observer<? super T> observer, SettableValue<ThreadConstraint> onThread) {
+			theObserver = observer;
+			this.onThread = onThread;
+			theQueue = new LinkedList<>();
+		}
+
+		Observer<? super T> getObserver() {
+			return theObserver;
+		}
+
+		/**
+		 * Queues an event. To preserve the order in which events are decided upon, this should be called under the lock that decided it.
+		 *
+		 * @param value The event to deliver
+		 * @param cause The source event that caused it
+		 * @param receivedOn The thread the source event was received on, or null if it was not received on any thread it may be
+		 *        delivered on
+		 */
+		synchronized void queue(T value, Object cause, Thread receivedOn) {
+			theQueue.add(new Pending<>(value, cause, receivedOn, null));
+		}
+
+		/**
+		 * Queues completion, to be delivered after all events queued before it
+		 *
+		 * @param cause The cause of the completion
+		 */
+		synchronized void queueCompletion(Supplier<Causable> cause) {
+			theQueue.add(new Pending<>(null, null, Thread.currentThread(), cause));
+		}
+
+		/** Delivers queued events, unless another thread is already delivering them, in which case that thread will deliver them */
+		void emit() {
+			while (true) {
+				Pending<T> next;
+				synchronized (this) {
+					if (isEmitting || theQueue.isEmpty())
+						return;
+					isEmitting = true;
+					next = theQueue.removeFirst();
+				}
+				try {
+					ThreadConstraint threading = onThread == null ? null : onThread.get();
+					if (threading == null || !threading.supportsInvoke())
+						next.deliver(theObserver);
+					else
+						threading.invoke(() -> next.deliver(theObserver));
+				} finally {
+					synchronized (this) {
+						isEmitting = false;
+					}
+				}
+			}
+		}
+	}
+
+	static class Pending<T> {
+		private final T theValue;
+		private final Object theCause;
+		private final Thread theReceivingThread;
+		private final Supplier<Causable> theCompletion;
+
+		Pending(T value, Object cause, Thread receivedOn, Supplier<Causable> completion) {
+			theValue = value;
+			theCause = cause;
+			theReceivingThread = receivedOn;
+			theCompletion = completion;
+		}
+
+		void deliver(Observer<? super T> observer) {
+			if (theCompletion != null) {
+				if (Thread.currentThread() == theReceivingThread)
+					observer.onCompleted(theCompletion);
+				else
+					observer.onCompleted(() -> {
+						Causable cause = theCompletion.get();
+						return cause == null ? null : Causable.broken(cause);
+					});
+			} else if (Thread.currentThread() == theReceivingThread || !(theCause instanceof Causable))
+				observer.onNext(theValue);
+			else {
+				try (Causable.CausableInUse cause = Causable.cause(Causable.broken(theCause))) {
+					observer.onNext(theValue);
+				}
+			}
+		}
+	}
+
+	static long toMillis(SettableValue<Duration> duration) {
+		Duration d = duration == null ? null : duration.get();
+		return d == null || d.isNegative() ? 0 : d.toMillis();
+	}
+
+	/**
+	 * An observable that throttles, debounces, or samples the events of a source
+	 *
+	 * @param <T> The type of the events
+	 */
+	public static class TimedObservable<T> extends Observable.WrappingObservable<T, T> {
+		private final Mode theMode;
+		private final SettableValue<Duration> theInterval;
+		private final SettableValue<ThreadConstraint> onThread;
+
+		/**
+		 * @param source The source observable
+		 * @param mode How to re-time the source's events
+		 * @param interval The interval for the timing
+		 * @param onThread The threading to deliver events on, or null to deliver them on whatever thread they are fired on
+		 */
+		public TimedObservable(Observable<T> source, Mode mode, SettableValue<Duration> interval, SettableValue<ThreadConstraint> onThread) {
+			super(source);
+			theMode = mode;
+			theInterval = interval;
+			this.onThread = onThread;
+		}
+
+		@Override
+		protected Observable<T> getWrapped() {
+			return super.getWrapped();
+		}
+
+		/** @return How this observable re-times its source's events */
+		public Mode getMode() {
+			return theMode;
+		}
+
+		/** @return The interval for the timing */
+		public SettableValue<Duration> getInterval() {
+			return theInterval;
+		}
+
+		/** @return The threading to deliver events on, or null to deliver them on whatever thread they are fired on */
+		public SettableValue<ThreadConstraint> getOnThread() {
+			return onThread;
+		}
+
+		@Override
+		protected Object createIdentity() {
+			return Identifiable.wrap(getWrapped().getIdentity(), theMode.name().toLowerCase(), theInterval.getIdentity());
+		}
+
+		@Override
+		public Subscription subscribe(Observer<? super T> observer) {
+			TimedObserver timed = new TimedObserver(observer);
+			Subscription sourceSub = getWrapped().subscribe(timed);
+			return Subscription.forAll(sourceSub, timed::stop);
+		}
+
+		class TimedObserver implements Observer<T> {
+			private final OrderedEmitter<T> theEmitter;
+			private final QommonsTimer.TaskHandle theHandle;
+			private final Subscription theIntervalSub;
+			private Pending<T> theLatest;
+			/** For {@link Mode#THROTTLE throttling}, the time before which events must wait for the end of the interval */
+			private long theWindowEnd;
+			private boolean isStopped;
+
+			TimedObserver(Observer<? super T> observer) {
+				theEmitter = new OrderedEmitter<>(observer, onThread);
+				theHandle = QommonsTimer.getCommonInstance().build(this::timed, null, false);
+				if (theMode == Mode.SAMPLE) // Sample at the current interval, even as it changes
+					theIntervalSub = theInterval.changes().act(__ -> resample());
+				else
+					theIntervalSub = null;
+			}
+
+			private synchronized void resample() {
+				if (isStopped)
+					return;
+				long interval = toMillis(theInterval);
+				if (interval > 0) {
+					theHandle.setFrequency(Duration.ofMillis(interval), true);
+					theHandle.setActive(true);
+				} else
+					theHandle.setActive(false);
+			}
+
+			@Override
+			public void onNext(T value) {
+				synchronized (this) {
+					if (isStopped)
+						return;
+					switch (theMode) {
+					case THROTTLE:
+						long now = System.currentTimeMillis();
+						if (now >= theWindowEnd) {
+							long interval = toMillis(theInterval);
+							theWindowEnd = now + interval;
+							if (interval > 0)
+								theHandle.runNextIn(Duration.ofMillis(interval));
+							// Queued under this lock, so a trailing event fired by the timer cannot be delivered ahead of this one
+							theEmitter.queue(value, value, Thread.currentThread());
+						} else
+							theLatest = new Pending<>(value, value, Thread.currentThread(), null);
+						break;
+					case DEBOUNCE:
+						theLatest = new Pending<>(value, value, Thread.currentThread(), null);
+						theHandle.runNextIn(Duration.ofMillis(toMillis(theInterval)));
+						break;
+					case SAMPLE:
+						theLatest = new Pending<>(value, value, Thread.currentThread(), null);
+						break;
+					}
+				}
+				theEmitter.emit();
+			}
+
+			private void timed() {
+				synchronized (this) {
+					if (isStopped || theLatest == null)
+						return;
+					// Delivered on the timer's thread, not the one the event was received on
+					theEmitter.queue(theLatest.theValue, theLatest.theCause, null);
+					theLatest = null;
+					if (theMode == Mode.THROTTLE) { // The trailing event begins a new interval
+						long interval = toMillis(theInterval);
+						theWindowEnd = System.currentTimeMillis() + interval;
+						if (interval > 0)
+							theHandle.runNextIn(Duration.ofMillis(interval));
+					}
+				}
+				theEmitter.emit();
+			}
+
+			@Override
+			public void onCompleted(Supplier<Causable> cause) {
+				synchronized (this) {
+					if (theLatest != null && !isStopped) // Don't lose the last event
+						theEmitter.queue(theLatest.theValue, theLatest.theCause, theLatest.theReceivingThread);
+					theLatest = null;
+					theEmitter.queueCompletion(cause);
+				}
+				stop();
+				theEmitter.emit();
+			}
+
+			@Override
+			public boolean tryLock() {
+				return theEmitter.getObserver().tryLock();
+			}
+
+			@Override
+			public void unlock() {
+				theEmitter.getObserver().unlock();
+			}
+
+			void stop() {
+				synchronized (this) {
+					isStopped = true;
+					theLatest = null;
+					theHandle.setActive(false);
+				}
+				if (theIntervalSub != null)
+					theIntervalSub.unsubscribe();
+			}
+		}
+	}
+
+	/**
+	 * An observable that collects the events of a source into lists, fired when a number of events have been collected or when a time
+	 * has elapsed since the first event in the list
+	 *
+	 * @param <T> The type of the source events
+	 */
+	public static class BufferedObservable<T> extends Observable.WrappingObservable<T, List<T>> {
+		private final int theCount;
+		private final SettableValue<Duration> theDuration;
+		private final SettableValue<ThreadConstraint> onThread;
+
+		/**
+		 * @param source The source observable
+		 * @param count The number of events to fire a list at, or 0 to fire only on the duration
+		 * @param duration The time after the first event in a list to fire the list at, or null to fire only on the count
+		 * @param onThread The threading to deliver events on, or null to deliver them on whatever thread they are fired on
+		 */
+		public BufferedObservable(Observable<T> source, int count, SettableValue<Duration> duration,
+			SettableValue<ThreadConstraint> onThread) {
+			super(source);
+			theCount = count;
+			theDuration = duration;
+			this.onThread = onThread;
+		}
+
+		@Override
+		protected Observable<T> getWrapped() {
+			return super.getWrapped();
+		}
+
+		/** @return The number of events to fire a list at, or 0 to fire only on the duration */
+		public int getCount() {
+			return theCount;
+		}
+
+		/** @return The time after the first event in a list to fire the list at, or null to fire only on the count */
+		public SettableValue<Duration> getDuration() {
+			return theDuration;
+		}
+
+		/** @return The threading to deliver events on, or null to deliver them on whatever thread they are fired on */
+		public SettableValue<ThreadConstraint> getOnThread() {
+			return onThread;
+		}
+
+		@Override
+		protected Object createIdentity() {
+			return Identifiable.wrap(getWrapped().getIdentity(), "buffer", theCount, theDuration == null ? null : theDuration.getIdentity());
+		}
+
+		@Override
+		public Subscription subscribe(Observer<? super List<T>> observer) {
+			BufferingObserver buffering = new BufferingObserver(observer);
+			Subscription sourceSub = getWrapped().subscribe(buffering);
+			return Subscription.forAll(sourceSub, buffering::stop);
+		}
+
+		class BufferingObserver implements Observer<T> {
+			private final OrderedEmitter<List<T>> theEmitter;
+			private final QommonsTimer.TaskHandle theHandle;
+			private List<T> theBuffer;
+			private boolean isStopped;
+
+			BufferingObserver(Observer<? super List<T>> observer) {
+				theEmitter = new OrderedEmitter<>(observer, onThread);
+				theHandle = theDuration == null ? null : QommonsTimer.getCommonInstance().build(this::flush, null, false);
+				theBuffer = new ArrayList<>();
+			}
+
+			@Override
+			public void onNext(T value) {
+				synchronized (this) {
+					if (isStopped)
+						return;
+					theBuffer.add(value);
+					if (theCount > 0 && theBuffer.size() >= theCount)
+						queue(Thread.currentThread());
+					else if (theBuffer.size() == 1 && theHandle != null)
+						theHandle.runNextIn(Duration.ofMillis(toMillis(theDuration)));
+				}
+				theEmitter.emit();
+			}
+
+			/** @param receivedOn The thread the last event in the buffer was received on, if the buffer is being delivered on it */
+			private void queue(Thread receivedOn) {
+				List<T> buffer = Collections.unmodifiableList(theBuffer);
+				theBuffer = new ArrayList<>();
+				if (theHandle != null)
+					theHandle.setActive(false);
+				theEmitter.queue(buffer, buffer.get(buffer.size() - 1), receivedOn);
+			}
+
+			private void flush() {
+				synchronized (this) {
+					if (isStopped || theBuffer.isEmpty())
+						return;
+					queue(null); // Delivered on the timer's thread
+				}
+				theEmitter.emit();
+			}
+
+			@Override
+			public void onCompleted(Supplier<Causable> cause) {
+				synchronized (this) {
+					if (!isStopped && !theBuffer.isEmpty()) // Don't lose the last events
+						queue(Thread.currentThread());
+					theEmitter.queueCompletion(cause);
+				}
+				stop();
+				theEmitter.emit();
+			}
+
+			@Override
+			public boolean tryLock() {
+				return theEmitter.getObserver().tryLock();
+			}
+
+			@Override
+			public void unlock() {
+				theEmitter.getObserver().unlock();
+			}
+
+			synchronized void stop() {
+				isStopped = true;
+				theBuffer.clear();
+				if (theHandle != null)
+					theHandle.setActive(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package org.observe.expresso.qonfig;
+
+import org.observe.Observable;
+import org.observe.ObservableValue;
+import org.observe.collect.ObservableCollection;
+import org.observe.collect.ObservableCollectionEvent;
+import org.qommons.Subscription;
+import org.qommons.Transaction;
+import org.qommons.collect.CollectionElement;
+
+/**
+ * <p>
+ * A view of a contiguous range of an {@link ObservableCollection}, whose bounds are themselves observable.
+ * </p>
+ * <p>
+ * The window only retrieves the source's elements within it, and moving the window only retrieves the elements newly within it. So
+ * for a passively-derived source (e.g. an un-cached mapping), scrolling the window evaluates the values scrolled into view, not the whole
+ * source. Changes to the source after the window do not affect it.
+ * </p>
+ * <p>
+ * The window does listen to all of the source's changes, however, and a passive source evaluates the values for its change events
+ * wherever they occur. So a change to the source outside the window may still evaluate the changed value, even though it is ignored.
+ * </p>
+ *
+ * @param <T> The type of elements in the collection
+ */
+public class WindowedCollection<T> {
+	private final ObservableCollection<? extends T> theSource;
+	private final ObservableCollection<T> theResult;
+	private int theOffset;
+	private int theSize;
+
+	private WindowedCollection(ObservableCollection<? extends T> source, ObservableCollection<T> result) {
+		theSource = source;
+		theResult = result;
+	}
+
+	/**
+	 * @param <T> The type of elements in the collection
+	 * @param source The source collection to view a range of
+	 * @param offset The index in the source of the first element in the window
+	 * @param size The maximum number of elements in the window
+	 * @param until An observable which, when it fires, will release the window's listeners
+	 * @return An unmodifiable collection containing the elements of the source within the window, kept current as the source and the
+	 *         window's bounds change
+	 */
+	public static <T> ObservableCollection<T> observe(ObservableCollection<? extends T> source, ObservableValue<Integer> offset,
+		ObservableValue<Integer> size, Observable<?> until) {
+		ObservableCollection<T> result = ObservableCollection.<T> build().build();
+		WindowedCollection<T> window = new WindowedCollection<>(source, result);
+		Subscription sourceSub;
+		try (Transaction t = source.lock(false, null)) {
+			window.theOffset = Math.max(0, offset.get() == null ? 0 : offset.get().intValue());
+			window.theSize = Math.max(0, size.get() == null ? 0 : size.get().intValue());
+			window.sync(null);
+			sourceSub = source.onChange(window::changed);
+		}
+		Subscription boundsSub = Observable.or(offset.noInitChanges(), size.noInitChanges())
+			.act(cause -> window.setBounds(offset.get(), size.get(), cause));
+		Subscription allSubs = Subscription.forAll(sourceSub, boundsSub);
+		until.take(1).act(__ -> allSubs.unsubscribe());
+		return result.flow().unmodifiable(false).collectPassive();
+	}
+
+	void setBounds(Integer offset, Integer size, Object cause) {
+		try (Transaction t = theSource.lock(false, cause)) {
+			synchronized (this) {
+				move(offset == null ? 0 : Math.max(0, offset.intValue()), size == null ? 0 : Math.max(0, size.intValue()), cause);
+			}
+		}
+	}
+
+	private void move(int offset, int size, Object cause) {
+		// The result always contains the source elements from the previous offset
+		int oldStart = theOffset;
+		int oldEnd = theOffset + theResult.size();
+		theOffset = offset;
+		theSize = size;
+		int sourceSize = theSource.size();
+		int newStart = Math.min(offset, sourceSize);
+		int newEnd = newStart + Math.min(sourceSize - newStart, size);
+		int overlapStart = Math.max(oldStart, newStart);
+		int overlapEnd = Math.min(oldEnd, newEnd);
+		if (overlapStart >= overlapEnd) {
+			sync(cause);
+			return;
+		}
+		try (Transaction t = theResult.lock(true, cause)) {
+			// Drop what is no longer in the window, then retrieve only what is newly in it
+			for (int i = overlapEnd; i < oldEnd; i++)
+				theResult.remove(theResult.size() - 1);
+			for (int i = oldStart; i < overlapStart; i++)
+				theResult.remove(0);
+			addRange(0, newStart, overlapStart);
+			addRange(theResult.size(), overlapEnd, newEnd);
+		}
+	}
+
+	private void addRange(int resultIndex, int from, int to) {
+		if (from >= to)
+			return;
+		CollectionElement<? extends T> el = theSource.getElement(from);
+		for (int i = from; i < to; i++) {
+			theResult.add(resultIndex++, el.get());
+			if (i < to - 1)
+				el = theSource.getAdjacentElement(el.getElementId(), true);
+		}
+	}
+
+	synchronized void changed(ObservableCollectionEvent<? extends T> evt) {
+		int index = evt.getIndex();
+		if (index >= theOffset + theSize)
+			return; // Changes after the window don't affect it
+		try (Transaction t = theResult.lock(true, evt)) {
+			switch (evt.getType()) {
+			case set:
+				if (index >= theOffset)
+					theResult.set(index - theOffset, evt.getNewValue());
+				break;
+			case add:
+				// Additions within the window or before it shift the content of the window
+				if (index >= theOffset)
+					theResult.add(index - theOffset, evt.getNewValue());
+				else if (theOffset < theSource.size())
+					theResult.add(0, theSource.get(theOffset));
+				if (theResult.size() > theSize)
+					theResult.remove(theResult.size() - 1);
+				break;
+			case remove:
+				if (index >= theOffset)
+					theResult.remove(index - theOffset);
+				else if (!theResult.isEmpty())
+					theResult.remove(0);
+				int next = theOffset + theResult.size();
+				if (theResult.size() < theSize && next < theSource.size())
+					theResult.add(theSource.get(next));
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	private void sync(Object cause) {
+		int sourceSize = theSource.size();
+		int start = Math.min(theOffset, sourceSize);
+		int count = Math.min(sourceSize - start, theSize);
+		try (Transaction t = theResult.lock(true, cause)) {
+			CollectionElement<? extends T> el = count == 0 ? null : theSource.getElement(start);
+			for (int i = 0; i < count; i++) {
+				T value = el.get();
+				if (i < theResult.size()) {
+					if (theResult.get(i) != value)
+						theResult.set(i, value);
+				} else
+					theResult.add(value);
+				if (i < count - 1)
+					el = theSource.getAdjacentElement(el.getElementId(), true);
+			}
+			while (theResult.size() > count)
+				theResult.remove(theResult.size() - 1);
+		}
+	}
+}
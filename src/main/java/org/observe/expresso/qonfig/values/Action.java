@@ -1,7 +1,9 @@
 package org.observe.expresso.qonfig.values;
 
+import java.awt.EventQueue;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.observe.ObservableAction;
 import org.observe.ObservableValue;
@@ -28,6 +30,8 @@ import org.qommons.config.QonfigInterpretationException;
 import org.qommons.io.ErrorReporting;
 import org.qommons.threading.QommonsTimer;
 
+import com.google.common.reflect.TypeToken;
+
 /** A simple action to perform */
 @ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
 	qonfigType = "action",
@@ -38,6 +42,13 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 	private CompiledExpression theAction;
 	private CompiledExpression onThread;
 	private boolean isAlwaysEnabled;
+	private BackgroundExecution.Background theBackground;
+	private BackgroundExecution.Overlap theOverlap;
+	private CompiledExpression isRunning;
+	private CompiledExpression theResult;
+	private CompiledExpression theError;
+	private CompiledExpression onComplete;
+	private CompiledExpression onError;
 
 	/**
 	 * @param parent The parent element of this value element
@@ -52,7 +63,10 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 		return theAction;
 	}
 
-	/** @return The threading to delegate the action to (if asynchronous) */
+	/**
+	 * @return The threading to delegate the action to (if asynchronous), or for {@link #getBackground() background} actions, the
+	 *         threading to complete the action on
+	 */
 	@QonfigAttributeGetter("on-thread")
 	public CompiledExpression getOnThread() {
 		return onThread;
@@ -64,12 +78,61 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 		return isAlwaysEnabled;
 	}
 
+	/** @return Whether and how this action runs in the background instead of inline */
+	@QonfigAttributeGetter("background")
+	public BackgroundExecution.Background getBackground() {
+		return theBackground;
+	}
+
+	/** @return What to do when this background action is invoked while a previous invocation is still running */
+	@QonfigAttributeGetter("overlap")
+	public BackgroundExecution.Overlap getOverlap() {
+		return theOverlap;
+	}
+
+	/** @return The value to assign to true while the action is running */
+	@QonfigAttributeGetter("running")
+	public CompiledExpression isRunning() {
+		return isRunning;
+	}
+
+	/** @return The value to assign the result of the action's expression to when it completes successfully */
+	@QonfigAttributeGetter("result")
+	public CompiledExpression getResult() {
+		return theResult;
+	}
+
+	/** @return The value to assign the exception thrown by the action to, or null when it completes successfully */
+	@QonfigAttributeGetter("error")
+	public CompiledExpression getError() {
+		return theError;
+	}
+
+	/** @return An action to perform after this action completes successfully */
+	@QonfigAttributeGetter("on-complete")
+	public CompiledExpression getOnComplete() {
+		return onComplete;
+	}
+
+	/** @return An action to perform after this action throws an exception */
+	@QonfigAttributeGetter("on-error")
+	public CompiledExpression getOnError() {
+		return onError;
+	}
+
 	@Override
 	protected void doUpdate(ExpressoQIS session) throws QonfigInterpretationException {
 		super.doUpdate(session);
 		theAction = getValueExpression(session);
 		onThread = getAttributeExpression("on-thread", session);
 		isAlwaysEnabled = session.getAttribute("always-enabled", boolean.class);
+		theBackground = BackgroundExecution.Background.parse(session.getAttributeText("background"));
+		theOverlap = BackgroundExecution.Overlap.parse(session.getAttributeText("overlap"));
+		isRunning = getAttributeExpression("running", session);
+		theResult = getAttributeExpression("result", session);
+		theError = getAttributeExpression("error", session);
+		onComplete = getAttributeExpression("on-complete", session);
+		onError = getAttributeExpression("on-error", session);
 	}
 
 	@Override
@@ -86,6 +149,12 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 	extends ModelValueElement.Interpreted.Abstract<ObservableAction, ObservableAction, ModelValueElement<ObservableAction>>
 	implements ModelValueElement.InterpretedSynth<ObservableAction, ObservableAction, ModelValueElement<ObservableAction>> {
 		private InterpretedValueSynth<SettableValue<?>, SettableValue<ThreadConstraint>> onThread;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> isRunning;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Object>> theResultSource;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Object>> theResult;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Throwable>> theError;
+		private InterpretedValueSynth<ObservableAction, ObservableAction> onComplete;
+		private InterpretedValueSynth<ObservableAction, ObservableAction> onError;
 
 		/**
 		 * @param definition The definition to interpret
@@ -107,7 +176,8 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 
 		@Override
 		public List<? extends InterpretedValueSynth<?, ?>> getComponents() {
-			return BetterList.of(getElementValue());
+			return BetterList.of(Stream.of(getElementValue(), isRunning, theResultSource, theResult, theError, onComplete, onError)
+				.filter(Objects::nonNull));
 		}
 
 		/** @return The threading to delegate the action to (if asynchronous) */
@@ -115,10 +185,53 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 			return onThread;
 		}
 
+		/** @return The value to assign to true while the action is running */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> isRunning() {
+			return isRunning;
+		}
+
+		/** @return The action's expression, evaluated as a value, if the result is used */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Object>> getResultSource() {
+			return theResultSource;
+		}
+
+		/** @return The value to assign the result of the action's expression to when it completes successfully */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Object>> getResult() {
+			return theResult;
+		}
+
+		/** @return The value to assign the exception thrown by the action to, or null when it completes successfully */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Throwable>> getError() {
+			return theError;
+		}
+
+		/** @return An action to perform after this action completes successfully */
+		public InterpretedValueSynth<ObservableAction, ObservableAction> getOnComplete() {
+			return onComplete;
+		}
+
+		/** @return An action to perform after this action throws an exception */
+		public InterpretedValueSynth<ObservableAction, ObservableAction> getOnError() {
+			return onError;
+		}
+
 		@Override
 		protected void doUpdate() throws ExpressoInterpretationException {
 			super.doUpdate();
 			onThread = interpret(getDefinition().getOnThread(), ModelTypes.Value.forType(ThreadConstraint.class));
+			isRunning = interpret(getDefinition().isRunning(), ModelTypes.Value.BOOLEAN);
+			if (getDefinition().getResult() != null) {
+				// To capture the result, the action's expression is also evaluated as a value
+				theResultSource = interpret(getDefinition().getAction(), ModelTypes.Value.anyAsV());
+				theResult = interpret(getDefinition().getResult(),
+					ModelTypes.Value.forType((TypeToken<Object>) theResultSource.getType().getType(0)));
+			} else {
+				theResultSource = null;
+				theResult = null;
+			}
+			theError = interpret(getDefinition().getError(), ModelTypes.Value.forType(Throwable.class));
+			onComplete = interpret(getDefinition().getOnComplete(), ModelTypes.Action.instance());
+			onError = interpret(getDefinition().getOnError(), ModelTypes.Action.instance());
 		}
 
 		@Override
@@ -131,12 +244,28 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 	public static class Instantiator extends ModelValueElement.Abstract<ObservableAction> {
 		private ModelValueInstantiator<SettableValue<ThreadConstraint>> onThread;
 		private boolean isAlwaysEnabled;
+		private final BackgroundExecution.Background theBackground;
+		private final BackgroundExecution.Overlap theOverlap;
+		private final ModelValueInstantiator<SettableValue<Boolean>> isRunning;
+		private final ModelValueInstantiator<SettableValue<Object>> theResultSource;
+		private final ModelValueInstantiator<SettableValue<Object>> theResult;
+		private final ModelValueInstantiator<SettableValue<Throwable>> theError;
+		private final ModelValueInstantiator<ObservableAction> onComplete;
+		private final ModelValueInstantiator<ObservableAction> onError;
 		private final ErrorReporting theReporting;
 
 		Instantiator(Action.Interpreted interpreted) throws ModelInstantiationException {
 			super(interpreted);
 			onThread = interpreted.getOnThread() == null ? null : interpreted.getOnThread().instantiate();
 			isAlwaysEnabled = interpreted.getDefinition().isAlwaysEnabled();
+			theBackground = interpreted.getDefinition().getBackground();
+			theOverlap = interpreted.getDefinition().getOverlap();
+			isRunning = interpreted.isRunning() == null ? null : interpreted.isRunning().instantiate();
+			theResultSource = interpreted.getResultSource() == null ? null : interpreted.getResultSource().instantiate();
+			theResult = interpreted.getResult() == null ? null : interpreted.getResult().instantiate();
+			theError = interpreted.getError() == null ? null : interpreted.getError().instantiate();
+			onComplete = interpreted.getOnComplete() == null ? null : interpreted.getOnComplete().instantiate();
+			onError = interpreted.getOnError() == null ? null : interpreted.getOnError().instantiate();
 			theReporting = interpreted.reporting();
 		}
 
@@ -155,36 +284,118 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 			return isAlwaysEnabled;
 		}
 
+		/** @return Whether and how this action runs in the background instead of inline */
+		public BackgroundExecution.Background getBackground() {
+			return theBackground;
+		}
+
+		/** @return What to do when this background action is invoked while a previous invocation is still running */
+		public BackgroundExecution.Overlap getOverlap() {
+			return theOverlap;
+		}
+
+		/** @return The value to assign to true while the action is running */
+		public ModelValueInstantiator<SettableValue<Boolean>> isRunning() {
+			return isRunning;
+		}
+
+		/** @return The value to assign the result of the action's expression to when it completes successfully */
+		public ModelValueInstantiator<SettableValue<Object>> getResult() {
+			return theResult;
+		}
+
+		/** @return The value to assign the exception thrown by the action to, or null when it completes successfully */
+		public ModelValueInstantiator<SettableValue<Throwable>> getError() {
+			return theError;
+		}
+
+		/** @return An action to perform after this action completes successfully */
+		public ModelValueInstantiator<ObservableAction> getOnComplete() {
+			return onComplete;
+		}
+
+		/** @return An action to perform after this action throws an exception */
+		public ModelValueInstantiator<ObservableAction> getOnError() {
+			return onError;
+		}
+
+		private boolean isModified() {
+			return onThread != null || isAlwaysEnabled || theBackground != BackgroundExecution.Background.NONE || isCompleted();
+		}
+
+		private boolean isCompleted() {
+			return isRunning != null || theResult != null || theError != null || onComplete != null || onError != null;
+		}
+
 		@Override
 		public void instantiate() throws ModelInstantiationException {
 			getElementValue().instantiate();
 			if (onThread != null)
 				onThread.instantiate();
+			if (isRunning != null)
+				isRunning.instantiate();
+			if (theResultSource != null)
+				theResultSource.instantiate();
+			if (theResult != null)
+				theResult.instantiate();
+			if (theError != null)
+				theError.instantiate();
+			if (onComplete != null)
+				onComplete.instantiate();
+			if (onError != null)
+				onError.instantiate();
 		}
 
 		@Override
 		public ObservableAction evaluate(ModelSetInstance models) throws ModelInstantiationException, IllegalStateException {
 			instantiate(models);
 			ObservableAction action = getElementValue().get(models);
-			if (onThread != null || isAlwaysEnabled)
-				return new ModifiedAction(action, onThread == null ? null : onThread.get(models), isAlwaysEnabled, getModelPath(),
-					theReporting);
-			else
+			if (isModified()) {
+				Completion completion;
+				if (isCompleted()) {
+					completion = new Completion(//
+						isRunning == null ? null : isRunning.get(models), //
+						theResultSource == null ? null : theResultSource.get(models), //
+						theResult == null ? null : theResult.get(models), //
+						theError == null ? null : theError.get(models), //
+						onComplete == null ? null : onComplete.get(models), //
+						onError == null ? null : onError.get(models));
+				} else
+					completion = null;
+				return new ModifiedAction(action, onThread == null ? null : onThread.get(models), isAlwaysEnabled, theBackground,
+					theOverlap, completion, getModelPath(), theReporting);
+			} else
 				return action;
 		}
 
 		@Override
 		public ObservableAction forModelCopy(ObservableAction value, ModelSetInstance sourceModels, ModelSetInstance newModels)
 			throws ModelInstantiationException {
-			if (onThread != null || isAlwaysEnabled) {
+			if (isModified()) {
 				if (value instanceof Action.ModifiedAction) {
 					Action.ModifiedAction async = (Action.ModifiedAction) value;
 					ObservableAction newWrapped = getElementValue().forModelCopy(async.theWrapped, sourceModels, newModels);
 					SettableValue<ThreadConstraint> newOnThread = getOnThread() == null ? null
 						: getOnThread().forModelCopy(((Action.ModifiedAction) value).onThread, sourceModels, newModels);
-					if (async.theWrapped == newWrapped && async.onThread == newOnThread)
+					Completion oldCompletion = async.theCompletion;
+					Completion newCompletion;
+					if (oldCompletion != null) {
+						newCompletion = new Completion(//
+							isRunning == null ? null : isRunning.forModelCopy(oldCompletion.isRunning, sourceModels, newModels), //
+							theResultSource == null ? null
+								: theResultSource.forModelCopy(oldCompletion.theResultSource, sourceModels, newModels), //
+							theResult == null ? null : theResult.forModelCopy(oldCompletion.theResult, sourceModels, newModels), //
+							theError == null ? null : theError.forModelCopy(oldCompletion.theError, sourceModels, newModels), //
+							onComplete == null ? null : onComplete.forModelCopy(oldCompletion.onComplete, sourceModels, newModels), //
+							onError == null ? null : onError.forModelCopy(oldCompletion.onError, sourceModels, newModels));
+						if (newCompletion.equals(oldCompletion))
+							newCompletion = oldCompletion;
+					} else
+						newCompletion = null;
+					if (async.theWrapped == newWrapped && async.onThread == newOnThread && async.theCompletion == newCompletion)
 						return async;
-					return new ModifiedAction(newWrapped, newOnThread, isAlwaysEnabled, getModelPath(), theReporting);
+					return new ModifiedAction(newWrapped, newOnThread, isAlwaysEnabled, theBackground, theOverlap, newCompletion,
+						getModelPath(), theReporting);
 				} else
 					return get(newModels);
 			} else if (value instanceof Action.ModifiedAction)
@@ -194,31 +405,113 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 		}
 	}
 
+	/** The values and actions that track the completion of an action */
+	static class Completion {
+		final SettableValue<Boolean> isRunning;
+		final SettableValue<Object> theResultSource;
+		final SettableValue<Object> theResult;
+		final SettableValue<Throwable> theError;
+		final ObservableAction onComplete;
+		final ObservableAction onError;
+
+		Completion(SettableValue<Boolean> running, SettableValue<Object> resultSource, SettableValue<Object> result,
+			SettableValue<Throwable> error, ObservableAction onComplete, ObservableAction onError) {
+			isRunning = running;
+			theResultSource = resultSource;
+			theResult = result;
+			theError = error;
+			this.onComplete = onComplete;
+			this.onError = onError;
+		}
+
+		/** @return Whether errors thrown by the action are handled by the document, so they needn't be reported */
+		boolean handlesErrors() {
+			return theError != null || onError != null;
+		}
+
+		void setRunning(boolean running, Object cause) {
+			if (isRunning != null && isRunning.isAcceptable(running) == null)
+				isRunning.set(running, cause);
+		}
+
+		void complete(Object result, Throwable error, Object cause) {
+			if (error == null) {
+				if (theResult != null && theResult.isAcceptable(result) == null)
+					theResult.set(result, cause);
+				if (theError != null && theError.get() != null && theError.isAcceptable(null) == null)
+					theError.set(null, cause);
+				if (onComplete != null)
+					onComplete.act(cause);
+			} else {
+				if (theError != null && theError.isAcceptable(error) == null)
+					theError.set(error, cause);
+				if (onError != null)
+					onError.act(cause);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(isRunning, theResultSource, theResult, theError, onComplete, onError);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof Completion))
+				return false;
+			Completion other = (Completion) obj;
+			return isRunning == other.isRunning && theResultSource == other.theResultSource && theResult == other.theResult
+				&& theError == other.theError && onComplete == other.onComplete && onError == other.onError;
+		}
+	}
+
 	static class ModifiedAction implements ObservableAction {
 		final ObservableAction theWrapped;
 		final SettableValue<ThreadConstraint> onThread;
 		final boolean isAlwaysEnabled;
+		final BackgroundExecution theExecution;
+		final Completion theCompletion;
 		private final String theModelPath;
 		private final ErrorReporting theReporting;
+		/** The threading to complete background executions on, from the most recent invocation */
+		private volatile ThreadConstraint theCompletionThreading;
 
-		ModifiedAction(ObservableAction wrapped, SettableValue<ThreadConstraint> onThread, boolean alwaysEnabled, String modelPath,
+		ModifiedAction(ObservableAction wrapped, SettableValue<ThreadConstraint> onThread, boolean alwaysEnabled,
+			BackgroundExecution.Background background, BackgroundExecution.Overlap overlap, Completion completion, String modelPath,
 			ErrorReporting reporting) {
 			theWrapped = wrapped;
 			this.onThread = onThread;
 			isAlwaysEnabled = alwaysEnabled;
+			theExecution = background == BackgroundExecution.Background.NONE ? null
+				: new BackgroundExecution(background, overlap, completion == null ? null : this::idle, reporting);
+			theCompletion = completion;
 			theModelPath = modelPath;
 			theReporting = reporting;
 		}
 
 		@Override
 		public void act(Object cause) throws IllegalStateException {
-			ThreadConstraint threading = onThread == null ? null : onThread.get();
-			if (threading == null) {
-				theWrapped.act(cause);
+			if (theCompletion != null)
+				theCompletion.setRunning(true, cause);
+			if (theExecution != null) {
+				Object backgroundCause = cause instanceof Causable ? Causable.broken(cause) : cause;
+				ThreadConstraint completionThreading = getCompletionThreading();
+				theCompletionThreading = completionThreading;
+				theExecution.execute(() -> perform(backgroundCause, completionThreading));
 				return;
-			} else if (!threading.supportsInvoke()) {
+			}
+			ThreadConstraint threading = onThread == null ? null : onThread.get();
+			if (threading != null && !threading.supportsInvoke()) {
 				theReporting.warn("on-thread returned " + threading + ", which does not support invocation");
-				theWrapped.act(cause);
+				threading = null;
+			}
+			if (threading == null) {
+				if (theCompletion != null)
+					perform(cause, null);
+				else
+					theWrapped.act(cause);
 				return;
 			}
 
@@ -236,17 +529,81 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 					handle[0].runImmediately();
 					return;
 				}
+				if (cause instanceof Causable)
+					perform(Causable.broken(cause), null);
+				else
+					perform(cause, null);
+			};
+			handle[0] = QommonsTimer.getCommonInstance().build(task, null, false)//
+				.withThreading(threading)//
+				.runImmediately();
+		}
+
+		/**
+		 * @return The threading to complete a background execution on: the on-thread value if given, else the UI thread if the action was
+		 *         invoked on it, else the background thread itself
+		 */
+		private ThreadConstraint getCompletionThreading() {
+			if (theCompletion == null)
+				return null;
+			ThreadConstraint threading = onThread == null ? null : onThread.get();
+			if (threading != null && threading.supportsInvoke())
+				return threading;
+			return EventQueue.isDispatchThread() ? ThreadConstraint.EDT : null;
+		}
+
+		/**
+		 * Performs the action and completes it
+		 *
+		 * @param cause The cause of the action
+		 * @param completionThreading The threading to complete the action on, or null to complete it on the current thread
+		 */
+		private void perform(Object cause, ThreadConstraint completionThreading) {
+			Object result = null;
+			Throwable error = null;
+			try {
+				if (theCompletion != null && theCompletion.theResultSource != null)
+					result = theCompletion.theResultSource.get();
+				else
+					theWrapped.act(cause);
+			} catch (RuntimeException e) {
+				error = e;
+				if (!isAlwaysEnabled && (theCompletion == null || !theCompletion.handlesErrors()))
+					theReporting.error("Error executing action", e);
+			}
+			if (theCompletion == null)
+				return;
+			else if (theExecution != null && Thread.currentThread().isInterrupted())
+				return; // Cancelled by a newer invocation, which will complete instead
+			Object fResult = result;
+			Throwable fError = error;
+			complete(completionThreading, () -> {
+				theCompletion.complete(fResult, fError, cause);
+				if (theExecution == null)
+					theCompletion.setRunning(false, cause);
+			});
+		}
+
+		/** Called when the last background execution finishes */
+		private void idle() {
+			complete(theCompletionThreading, () -> {
+				if (!theExecution.isBusy()) // Not if the action was invoked again before this could run
+					theCompletion.setRunning(false, null);
+			});
+		}
+
+		private void complete(ThreadConstraint threading, Runnable completion) {
+			Runnable task = () -> {
 				try {
-					if (cause instanceof Causable)
-						theWrapped.act(Causable.broken(cause));
-					else
-						theWrapped.act(cause);
+					completion.run();
 				} catch (RuntimeException e) {
-					if (!isAlwaysEnabled)
-						theReporting.error("Error executing action", e);
+					theReporting.error("Error completing action", e);
 				}
 			};
-			handle[0] = QommonsTimer.getCommonInstance().build(task, null, false)//
+			if (threading == null)
+				task.run();
+			else
+				QommonsTimer.getCommonInstance().build(task, null, false)//
 				.withThreading(threading)//
 				.runImmediately();
 		}
@@ -266,7 +623,7 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 
 		@Override
 		public int hashCode() {
-			return Objects.hash(theWrapped, onThread, isAlwaysEnabled);
+			return Objects.hash(theWrapped, onThread, isAlwaysEnabled, theCompletion);
 		}
 
 		@Override
@@ -277,7 +634,7 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 				return false;
 			Action.ModifiedAction other = (Action.ModifiedAction) obj;
 			return theWrapped.equals(other.theWrapped) && Objects.equals(onThread, other.onThread)
-				&& isAlwaysEnabled == other.isAlwaysEnabled;
+				&& isAlwaysEnabled == other.isAlwaysEnabled && Objects.equals(theCompletion, other.theCompletion);
 		}
 
 		@Override
@@ -285,4 +642,4 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<?
 			return theModelPath + ":" + theReporting;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,11 +1,18 @@
 package org.observe.expresso.qonfig.values;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 import org.observe.ObservableAction;
 import org.observe.ObservableValue;
+import org.observe.SettableValue;
 import org.observe.expresso.ExpressoInterpretationException;
 import org.observe.expresso.ModelInstantiationException;
 import org.observe.expresso.ModelType.ModelInstanceType;
@@ -13,19 +20,26 @@ import org.observe.expresso.ModelTypes;
 import org.observe.expresso.ObservableModelSet.InterpretedValueSynth;
 import org.observe.expresso.ObservableModelSet.ModelSetInstance;
 import org.observe.expresso.ObservableModelSet.ModelValueInstantiator;
+import org.observe.expresso.qonfig.CompiledExpression;
 import org.observe.expresso.qonfig.ExElement;
 import org.observe.expresso.qonfig.ExElementTraceable;
 import org.observe.expresso.qonfig.ExpressoBaseV0_1;
 import org.observe.expresso.qonfig.ExpressoQIS;
 import org.observe.expresso.qonfig.ModelValueElement;
+import org.observe.expresso.qonfig.QonfigAttributeGetter;
 import org.observe.expresso.qonfig.QonfigChildGetter;
+import org.qommons.Causable;
 import org.qommons.QommonsUtils;
 import org.qommons.Transaction;
+import org.qommons.collect.BetterList;
 import org.qommons.config.QonfigElementOrAddOn;
 import org.qommons.config.QonfigInterpretationException;
 import org.qommons.fn.FunctionUtils;
+import org.qommons.io.ErrorReporting;
 
-/** A group of actions to perform in sequence */
+/**
+ * A group of actions to perform in sequence, or in {@link #isParallel() parallel}, respecting the dependencies declared between them
+ */
 @ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
 	qonfigType = "action-group",
 	interpretation = ActionGroup.Interpreted.class,
@@ -33,6 +47,10 @@ import org.qommons.fn.FunctionUtils;
 public class ActionGroup extends ModelValueElement.Def.Abstract<ObservableAction, ModelValueElement<ObservableAction>>
 implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<ObservableAction>> {
 	private final List<Action> theActions;
+	private boolean isParallel;
+	private boolean isAwaited;
+	private CompiledExpression theExecutor;
+	private int[][] theDependencies;
 
 	/**
 	 * @param parent The parent element of this value element
@@ -49,10 +67,124 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		return Collections.unmodifiableList(theActions);
 	}
 
+	/** @return Whether the actions are performed in parallel, as opposed to one after another */
+	@QonfigAttributeGetter("parallel")
+	public boolean isParallel() {
+		return isParallel;
+	}
+
+	/**
+	 * @return For {@link #isParallel() parallel} groups, whether the invoking thread waits for (and helps perform) the actions, as
+	 *         opposed to returning as soon as they are dispatched to the executor
+	 */
+	@QonfigAttributeGetter("await")
+	public boolean isAwaited() {
+		return isAwaited;
+	}
+
+	/** @return The executor to perform parallel actions on */
+	@QonfigAttributeGetter("executor")
+	public CompiledExpression getExecutor() {
+		return theExecutor;
+	}
+
+	/**
+	 * @return For each action, the indexes of the actions that must finish before it may be performed in a {@link #isParallel()
+	 *         parallel} group
+	 */
+	public int[][] getDependencies() {
+		return theDependencies;
+	}
+
 	@Override
 	protected void doUpdate(ExpressoQIS session) throws QonfigInterpretationException {
 		super.doUpdate(session);
-		syncChildren(ModelValueElement.CompiledSynth.class, theActions, session.forChildren("action"));
+		isParallel = session.getAttribute("parallel", boolean.class);
+		isAwaited = session.getAttribute("await", boolean.class);
+		theExecutor = getAttributeExpression("executor", session);
+		List<ExpressoQIS> actionSessions = session.forChildren("action");
+		syncChildren(ModelValueElement.CompiledSynth.class, theActions, actionSessions);
+		theDependencies = parseDependencies(actionSessions);
+		if (!isParallel) {
+			if (theExecutor != null)
+				reporting().warn("executor is only used for parallel groups");
+			if (!isAwaited)
+				reporting().warn("await is only used for parallel groups");
+			for (int[] deps : theDependencies) {
+				if (deps.length > 0) {
+					reporting().warn("'after' is only used for parallel groups");
+					break;
+				}
+			}
+		}
+	}
+
+	private int[][] parseDependencies(List<ExpressoQIS> actionSessions) throws QonfigInterpretationException {
+		Map<String, Integer> ids = new HashMap<>();
+		for (int i = 0; i < actionSessions.size(); i++) {
+			ExpressoQIS groupSession = actionSessions.get(i).asElement("group-action");
+			String id = groupSession.getAttributeText("id");
+			if (id != null && ids.put(id, i) != null)
+				throw new QonfigInterpretationException("Multiple actions in the group with id '" + id + "'",
+					groupSession.getElement().getPositionInFile(), 0);
+		}
+		int[][] dependencies = new int[actionSessions.size()][];
+		for (int i = 0; i < actionSessions.size(); i++) {
+			ExpressoQIS groupSession = actionSessions.get(i).asElement("group-action");
+			String after = groupSession.getAttributeText("after");
+			if (after == null || after.trim().isEmpty()) {
+				dependencies[i] = new int[0];
+				continue;
+			}
+			String[] afterIds = after.trim().split("\\s*,\\s*|\\s+");
+			dependencies[i] = new int[afterIds.length];
+			for (int d = 0; d < afterIds.length; d++) {
+				Integer dep = ids.get(afterIds[d]);
+				if (dep == null)
+					throw new QonfigInterpretationException("No action in the group with id '" + afterIds[d] + "'",
+						groupSession.getElement().getPositionInFile(), 0);
+				else if (dep.intValue() == i)
+					throw new QonfigInterpretationException("An action cannot be performed after itself",
+						groupSession.getElement().getPositionInFile(), 0);
+				dependencies[i][d] = dep.intValue();
+			}
+		}
+		int cycle = findCycle(dependencies);
+		if (cycle >= 0)
+			throw new QonfigInterpretationException("The 'after' dependencies of the group's actions form a cycle",
+				actionSessions.get(cycle).getElement().getPositionInFile(), 0);
+		return dependencies;
+	}
+
+	/**
+	 * @param dependencies The dependencies of each action
+	 * @return The index of an action in a dependency cycle, or -1 if there is none
+	 */
+	private static int findCycle(int[][] dependencies) {
+		// Kahn's algorithm: repeatedly remove actions with no remaining dependencies. Any left over are in or behind a cycle.
+		int[] waiting = new int[dependencies.length];
+		List<List<Integer>> dependents = new ArrayList<>(dependencies.length);
+		for (int i = 0; i < dependencies.length; i++)
+			dependents.add(new ArrayList<>());
+		ArrayDeque<Integer> ready = new ArrayDeque<>();
+		for (int i = 0; i < dependencies.length; i++) {
+			waiting[i] = dependencies[i].length;
+			for (int dep : dependencies[i])
+				dependents.get(dep).add(i);
+			if (waiting[i] == 0)
+				ready.add(i);
+		}
+		while (!ready.isEmpty()) {
+			for (int dependent : dependents.get(ready.poll())) {
+				if (--waiting[dependent] == 0)
+					ready.add(dependent);
+			}
+		}
+		for (int i = 0; i < waiting.length; i++) {
+			if (waiting[i] > 0)
+				return i;
+		}
+		return -1;
 	}
 
 	@Override
@@ -73,6 +205,7 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 	extends ModelValueElement.Interpreted.Abstract<ObservableAction, ObservableAction, ModelValueElement<ObservableAction>>
 	implements ModelValueElement.InterpretedSynth<ObservableAction, ObservableAction, ModelValueElement<ObservableAction>> {
 		private final List<Action.Interpreted> theActions;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Executor>> theExecutor;
 
 		Interpreted(ActionGroup definition, ExElement.Interpreted<?> parent) {
 			super(definition, parent);
@@ -89,6 +222,11 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			return Collections.unmodifiableList(theActions);
 		}
 
+		/** @return The executor to perform parallel actions on */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Executor>> getExecutor() {
+			return theExecutor;
+		}
+
 		@Override
 		protected ModelInstanceType<ObservableAction, ObservableAction> getTargetType() {
 			return ModelTypes.Action.instance(); // Not actually used, since getType() is overridden
@@ -102,6 +240,7 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		@Override
 		protected void doUpdate() throws ExpressoInterpretationException {
 			super.doUpdate();
+			theExecutor = interpret(getDefinition().getExecutor(), ModelTypes.Value.forType(Executor.class));
 			try (Transaction t = ModelValueElement.INTERPRETING_PARENTS.installParent(this)) {
 				syncChildren(getDefinition().getActions(), theActions,
 					d -> (Action.Interpreted) d.interpret(getExpressoEnv(d.getDocument())), i -> i.update());
@@ -110,7 +249,9 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 
 		@Override
 		public List<? extends InterpretedValueSynth<?, ?>> getComponents() {
-			return Collections.unmodifiableList(theActions);
+			if (theExecutor == null)
+				return Collections.unmodifiableList(theActions);
+			return BetterList.of(Stream.concat(Stream.of(theExecutor), theActions.stream()));
 		}
 
 		@Override
@@ -122,12 +263,20 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 	/** {@link ActionGroup} instantiator */
 	public static class Instantiator extends ModelValueElement.Abstract<ObservableAction> {
 		private final List<Action.Instantiator> theActions;
+		private final int[][] theDependencies;
+		private final boolean isAwaited;
+		private final ModelValueInstantiator<SettableValue<Executor>> theExecutor;
 		private final String thePrint;
+		private final ErrorReporting theReporting;
 
 		Instantiator(ActionGroup.Interpreted interpreted) throws ModelInstantiationException, RuntimeException {
 			super(interpreted);
 			theActions = QommonsUtils.filterMapE(interpreted.getActions(), null, a -> a.create());
+			theDependencies = interpreted.getDefinition().isParallel() ? interpreted.getDefinition().getDependencies() : null;
+			theExecutor = interpreted.getExecutor() == null ? null : interpreted.getExecutor().instantiate();
 			thePrint = getModelPath() + ":" + interpreted;
+			isAwaited = interpreted.getDefinition().isAwaited();
+			theReporting = interpreted.reporting();
 		}
 
 		/** @return The actions to perform */
@@ -135,6 +284,21 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			return theActions;
 		}
 
+		/** @return Whether the actions are performed in parallel, as opposed to one after another */
+		public boolean isParallel() {
+			return theDependencies != null;
+		}
+
+		/** @return For parallel groups, whether the invoking thread waits for the actions to finish */
+		public boolean isAwaited() {
+			return isAwaited;
+		}
+
+		/** @return The executor to perform parallel actions on */
+		public ModelValueInstantiator<SettableValue<Executor>> getExecutor() {
+			return theExecutor;
+		}
+
 		@Override
 		protected void doUpdate(ExElement.Interpreted<?> interpreted) throws ModelInstantiationException {
 			super.doUpdate(interpreted);
@@ -148,6 +312,8 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		public void instantiate() throws ModelInstantiationException {
 			for (ModelValueInstantiator<?> action : theActions)
 				action.instantiate();
+			if (theExecutor != null)
+				theExecutor.instantiate();
 		}
 
 		@Override
@@ -156,7 +322,8 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			ObservableAction[] actions = new ObservableAction[theActions.size()];
 			for (int i = 0; i < actions.length; i++)
 				actions[i] = theActions.get(i).get(models);
-			return new GroupAction(actions, thePrint);
+			return new GroupAction(actions, theDependencies, isAwaited, theExecutor == null ? null : theExecutor.get(models), thePrint,
+				theReporting);
 		}
 
 		@Override
@@ -171,8 +338,12 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 				if (actionCopies[i] != action.getActions()[i])
 					different = true;
 			}
+			SettableValue<Executor> executorCopy = theExecutor == null ? null
+				: theExecutor.forModelCopy(action.getExecutor(), sourceModels, newModels);
+			if (executorCopy != action.getExecutor())
+				different = true;
 			if (different)
-				return new GroupAction(actionCopies, thePrint);
+				return new GroupAction(actionCopies, theDependencies, isAwaited, executorCopy, thePrint, theReporting);
 			else
 				return value;
 		}
@@ -180,11 +351,36 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 
 	static class GroupAction implements ObservableAction {
 		private final ObservableAction[] theActions;
+		private final int[][] theDependencies;
+		private final int[][] theDependents;
+		private final boolean isAwaited;
+		private final SettableValue<Executor> theExecutor;
 		private final ObservableValue<String> theEnabled;
 		private final String thePrint;
+		private final ErrorReporting theReporting;
 
-		GroupAction(ObservableAction[] actions, String print) {
+		GroupAction(ObservableAction[] actions, int[][] dependencies, boolean await, SettableValue<Executor> executor, String print,
+			ErrorReporting reporting) {
 			theActions = actions;
+			theDependencies = dependencies;
+			isAwaited = await;
+			theExecutor = executor;
+			theReporting = reporting;
+			if (dependencies != null) {
+				int[] dependentCounts = new int[actions.length];
+				for (int[] deps : dependencies) {
+					for (int dep : deps)
+						dependentCounts[dep]++;
+				}
+				theDependents = new int[actions.length][];
+				for (int i = 0; i < actions.length; i++)
+					theDependents[i] = new int[dependentCounts[i]];
+				for (int i = 0; i < actions.length; i++) {
+					for (int dep : dependencies[i])
+						theDependents[dep][--dependentCounts[dep]] = i;
+				}
+			} else
+				theDependents = null;
 			ObservableValue<String>[] actionsEnabled = new ObservableValue[actions.length];
 			for (int i = 0; i < actions.length; i++)
 				actionsEnabled[i] = actions[i].isEnabled();
@@ -196,14 +392,22 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			return theActions;
 		}
 
+		SettableValue<Executor> getExecutor() {
+			return theExecutor;
+		}
+
 		@Override
 		public void act(Object cause) throws IllegalStateException {
 			// Don't do any actions if any are disabled
 			String msg = theEnabled.get();
 			if (msg != null)
 				throw new IllegalStateException(msg);
-			for (ObservableAction action : theActions)
-				action.act(cause);
+			if (theDependencies != null && theActions.length > 1)
+				new ParallelRun(cause).run();
+			else {
+				for (ObservableAction action : theActions)
+					action.act(cause);
+			}
 		}
 
 		@Override
@@ -224,5 +428,165 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		public String toString() {
 			return thePrint;
 		}
+
+		/**
+		 * <p>
+		 * A single parallel execution of the group. Actions whose dependencies have all finished are ready, and are performed by the
+		 * executor's threads.
+		 * </p>
+		 * <p>
+		 * If the group is {@link Instantiator#isAwaited() awaited}, the invoking thread also performs actions, and doesn't return until
+		 * every action has finished. So the cause of the group's execution finishes after all of its actions, and an executor that runs
+		 * tasks on the invoking thread can't deadlock, but the invoking thread is blocked, which will freeze the UI if it is the UI
+		 * thread. Otherwise, the invoking thread returns as soon as the ready actions are dispatched.
+		 * </p>
+		 * <p>
+		 * If an action throws an exception, the actions that depend on it are skipped. After the other actions finish, the exception is
+		 * re-thrown from an awaited group, or reported for one that is not.
+		 * </p>
+		 */
+		class ParallelRun {
+			private final Object theCause;
+			/** The cause for actions performed on other threads */
+			private final Object theBrokenCause;
+			private final int[] theWaiting;
+			private final ArrayDeque<Integer> theReady;
+			private int theUnfinished;
+			private Throwable theError;
+			private boolean isReported;
+
+			ParallelRun(Object cause) {
+				theCause = cause;
+				theBrokenCause = cause instanceof Causable ? Causable.broken(cause) : cause;
+				theWaiting = new int[theActions.length];
+				theReady = new ArrayDeque<>();
+				for (int i = 0; i < theActions.length; i++) {
+					theWaiting[i] = theDependencies[i].length;
+					if (theWaiting[i] == 0)
+						theReady.add(i);
+				}
+				theUnfinished = theActions.length;
+			}
+
+			void run() {
+				Executor executor = theExecutor == null ? null : theExecutor.get();
+				if (executor == null)
+					executor = BackgroundExecution.getExecutor(BackgroundExecution.Background.COMMON);
+				if (!isAwaited) {
+					// Only perform actions on this thread if the executor won't take them
+					if (!dispatch(executor, theReady.size()))
+						help(executor, theBrokenCause);
+					return;
+				}
+				// This thread will take one of the ready actions itself
+				dispatch(executor, theReady.size() - 1);
+				boolean interrupted = false;
+				while (true) {
+					help(executor, theCause);
+					synchronized (this) {
+						if (theUnfinished == 0)
+							break;
+						else if (theReady.isEmpty()) {
+							try {
+								wait();
+							} catch (InterruptedException e) {
+								interrupted = true; // Can't abandon the running actions, so just keep the flag for the caller
+							}
+						}
+					}
+				}
+				if (interrupted)
+					Thread.currentThread().interrupt();
+				if (theError instanceof RuntimeException)
+					throw (RuntimeException) theError;
+				else if (theError instanceof Error)
+					throw (Error) theError;
+				else if (theError != null)
+					throw new IllegalStateException("Action failed", theError);
+			}
+
+			/**
+			 * @param executor The executor to dispatch the helpers to
+			 * @param helpers The number of helpers to dispatch
+			 * @return False if the executor rejected a helper, so the dispatching thread must perform the actions
+			 */
+			private boolean dispatch(Executor executor, int helpers) {
+				for (int i = 0; i < helpers; i++) {
+					try {
+						executor.execute(() -> help(executor, theBrokenCause));
+					} catch (RejectedExecutionException e) {
+						return false; // The dispatching thread will perform them
+					}
+				}
+				return true;
+			}
+
+			/**
+			 * Performs ready actions until there are none
+			 *
+			 * @param executor The executor to dispatch helpers for newly-ready actions to
+			 * @param cause The cause for the actions--the invoking cause on an awaiting invoking thread, or a broken one otherwise
+			 */
+			private void help(Executor executor, Object cause) {
+				Integer next;
+				while ((next = poll()) != null) {
+					Throwable error = null;
+					try {
+						theActions[next].act(cause);
+					} catch (Throwable e) { // Anything not recorded here would leave the invoking thread waiting forever
+						error = e;
+					}
+					int newlyReady = finished(next, error);
+					// This thread will take one of the newly ready actions itself
+					dispatch(executor, newlyReady - 1);
+				}
+				Throwable unreported = takeUnreported();
+				if (unreported != null)
+					theReporting.error("Action failed in " + thePrint, unreported);
+			}
+
+			/** @return The error to report for an un-awaited group, if all the actions have finished and it has not been reported */
+			private synchronized Throwable takeUnreported() {
+				if (isAwaited || theUnfinished > 0 || isReported)
+					return null;
+				isReported = true;
+				return theError;
+			}
+
+			private synchronized Integer poll() {
+				return theReady.poll();
+			}
+
+			private synchronized int finished(int action, Throwable error) {
+				theUnfinished--;
+				int newlyReady = 0;
+				if (error != null) {
+					if (theError == null)
+						theError = error;
+					else
+						theError.addSuppressed(error);
+					skipDependents(action);
+				} else {
+					for (int dependent : theDependents[action]) {
+						if (theWaiting[dependent] > 0 && --theWaiting[dependent] == 0) {
+							theReady.add(dependent);
+							newlyReady++;
+						}
+					}
+				}
+				notifyAll();
+				return newlyReady;
+			}
+
+			private void skipDependents(int action) {
+				for (int dependent : theDependents[action]) {
+					if (theWaiting[dependent] > 0) {
+						theWaiting[dependent] = -1;
+						theUnfinished--;
+						skipDependents(dependent);
+					}
+				}
+			}
+		}
 	}
-}
\ No newline at end of file
+}
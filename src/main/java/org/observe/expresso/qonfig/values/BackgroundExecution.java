@@ -0,0 +1,247 @@
+package org.observe.expresso.qonfig.values;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.qommons.io.ErrorReporting;
+import org.qommons.threading.QommonsTimer;
+
+/**
+ * <p>
+ * Runs the executions of a timer or action off of the thread that invokes it, handling executions requested while a previous one is
+ * still running according to an {@link Overlap} policy.
+ * </p>
+ * <p>
+ * In {@link Background#VIRTUAL virtual} mode, each execution runs on its own thread: a virtual thread when the JVM supports them, or a
+ * thread from a cached pool otherwise. So executions that block (e.g. on I/O) don't hold up other timers or actions.
+ * </p>
+ */
+public class BackgroundExecution {
+	/** Where executions are run */
+	public enum Background {
+		/** Executions run inline, on the invoking thread */
+		NONE,
+		/** Executions are offloaded to the {@link QommonsTimer#getCommonInstance() common timer}'s threads */
+		COMMON,
+		/** Each execution runs on its own (virtual, if supported) thread */
+		VIRTUAL;
+
+		/**
+		 * @param text The text of a background attribute: "false", "true", or "virtual"
+		 * @return The background mode for the text
+		 */
+		public static Background parse(String text) {
+			switch (text) {
+			case "false":
+				return NONE;
+			case "true":
+				return COMMON;
+			case "virtual":
+				return VIRTUAL;
+			default:
+				throw new IllegalArgumentException("Unrecognized background mode: " + text);
+			}
+		}
+	}
+
+	/** Policies for handling an execution requested while a previous one is still running */
+	public enum Overlap {
+		/** The new execution is not performed */
+		SKIP,
+		/**
+		 * The new execution is performed after the running one finishes. At most one execution is kept pending: one requested while
+		 * another is already pending replaces it, so executions requested faster than they run don't accumulate.
+		 */
+		QUEUE,
+		/**
+		 * The running execution is cancelled and the new execution starts immediately. The running execution's thread is only
+		 * interrupted in {@link Background#VIRTUAL virtual} mode, where each execution has its own thread. The common timer's threads are
+		 * shared, so an execution running on one is left to finish.
+		 */
+		CANCEL;
+
+		/**
+		 * @param name The name of the policy, as specified in Qonfig
+		 * @return The policy with the given name
+		 */
+		public static Overlap parse(String name) {
+			return valueOf(name.toUpperCase());
+		}
+	}
+
+	private static class ThreadPerTask {
+		static final Executor EXECUTOR = create();
+
+		private static Executor create() {
+			try {
+				return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) { // Virtual threads are not available before Java 21
+				AtomicInteger threadCount = new AtomicInteger();
+				return Executors.newCachedThreadPool(r -> {
+					Thread thread = new Thread(r, "Expresso Background " + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+	}
+
+	/**
+	 * @param background The background mode
+	 * @return The executor for the mode, or null for {@link Background#NONE}
+	 */
+	public static Executor getExecutor(Background background) {
+		switch (background) {
+		case NONE:
+			return null;
+		case COMMON:
+			return QommonsTimer.getCommonInstance()::offload;
+		case VIRTUAL:
+			return ThreadPerTask.EXECUTOR;
+		}
+		throw new IllegalStateException("Unrecognized background mode: " + background);
+	}
+
+	private final Executor theExecutor;
+	/** Whether executions' threads belong to this class's executor, so that they may be interrupted to cancel them */
+	private final boolean isInterruptible;
+	private final Overlap theOverlap;
+	private final Runnable onIdle;
+	private final ErrorReporting theReporting;
+	/** The {@link Overlap#QUEUE queued} execution to perform when the running one finishes */
+	private Runnable thePending;
+	private Execution theCurrent;
+	private int theActive;
+
+	/**
+	 * @param background The background mode to run executions in (not {@link Background#NONE NONE})
+	 * @param overlap The policy for executions requested while a previous one is running
+	 * @param idle Called (on the last execution's thread) each time the last running execution finishes. May be null.
+	 * @param reporting The error reporting for executions which could not be started
+	 */
+	public BackgroundExecution(Background background, Overlap overlap, Runnable idle, ErrorReporting reporting) {
+		theExecutor = getExecutor(background);
+		if (theExecutor == null)
+			throw new IllegalArgumentException("Background mode required");
+		isInterruptible = background == Background.VIRTUAL;
+		theOverlap = overlap;
+		onIdle = idle;
+		theReporting = reporting;
+	}
+
+	/** @return The policy for executions requested while a previous one is running */
+	public Overlap getOverlap() {
+		return theOverlap;
+	}
+
+	/** @return Whether any execution is currently running */
+	public synchronized boolean isBusy() {
+		return theActive > 0;
+	}
+
+	/** @return Whether a new execution would be {@link Overlap#SKIP skipped} if it were requested now */
+	public synchronized boolean isSkipping() {
+		return theOverlap == Overlap.SKIP && theActive > 0;
+	}
+
+	/**
+	 * @param task The task to execute
+	 * @return False if the execution was {@link Overlap#SKIP skipped}, true if it was started or queued (possibly replacing a previously
+	 *         queued execution)
+	 */
+	public boolean execute(Runnable task) {
+		Execution execution;
+		synchronized (this) {
+			Execution previous = null;
+			if (theActive > 0) {
+				switch (theOverlap) {
+				case SKIP:
+					return false;
+				case QUEUE:
+					thePending = task;
+					return true;
+				case CANCEL:
+					previous = theCurrent;
+					break;
+				}
+			}
+			execution = start(task);
+			// Cancel after starting the new execution, so this doesn't appear idle in between
+			if (previous != null)
+				previous.cancel(isInterruptible);
+		}
+		submit(execution);
+		return true;
+	}
+
+	private Execution start(Runnable task) {
+		theActive++;
+		theCurrent = new Execution(task);
+		return theCurrent;
+	}
+
+	private void submit(Execution execution) {
+		try {
+			theExecutor.execute(execution);
+		} catch (RejectedExecutionException e) {
+			theReporting.error("Could not start background execution", e);
+			execution.cancel(false);
+		}
+	}
+
+	void finished() {
+		Execution next = null;
+		boolean idle;
+		synchronized (this) {
+			theActive--;
+			Runnable queued = thePending;
+			thePending = null;
+			if (queued != null)
+				next = start(queued);
+			idle = theActive == 0;
+		}
+		if (next != null)
+			submit(next);
+		else if (idle && onIdle != null)
+			onIdle.run();
+	}
+
+	@Override
+	public String toString() {
+		return "background(" + theOverlap + ")";
+	}
+
+	/** An execution that keeps track of whether it is still active, whether it runs or is cancelled first */
+	class Execution extends FutureTask<Void> {
+		private final AtomicBoolean isClaimed;
+
+		Execution(Runnable task) {
+			super(task, null);
+			isClaimed = new AtomicBoolean();
+		}
+
+		@Override
+		public void run() {
+			if (!isClaimed.compareAndSet(false, true))
+				return;
+			try {
+				super.run();
+			} finally {
+				// Don't let an interrupt from cancellation leak into whatever the thread does next
+				if (isCancelled())
+					Thread.interrupted();
+				finished();
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (isClaimed.compareAndSet(false, true)) // Cancelled before running
+				finished();
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package org.observe.expresso.qonfig.values;
 
+import java.awt.EventQueue;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,11 +30,13 @@ import org.observe.expresso.qonfig.QonfigAttributeGetter;
 import org.observe.expresso.qonfig.QonfigChildGetter;
 import org.qommons.Causable;
 import org.qommons.QommonsUtils;
+import org.qommons.ThreadConstraint;
 import org.qommons.Transaction;
 import org.qommons.collect.BetterList;
 import org.qommons.config.QonfigElementOrAddOn;
 import org.qommons.config.QonfigInterpretationException;
 import org.qommons.io.ErrorReporting;
+import org.qommons.threading.QommonsTimer;
 
 /** A set of actions that occur as long as a condition remains true */
 @ExElementTraceable(toolkit = ExpressoBaseV0_1.BASE,
@@ -46,6 +50,14 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 	private CompiledExpression theWhile;
 	private CompiledExpression theFinally;
 	private final List<Action> theBody;
+	private BackgroundExecution.Background theBackground;
+	private BackgroundExecution.Overlap theOverlap;
+	private CompiledExpression theSliceTime;
+	private CompiledExpression theSliceCount;
+	private CompiledExpression onThread;
+	private CompiledExpression theProgress;
+	private CompiledExpression isRunning;
+	private CompiledExpression isCancelled;
 
 	/**
 	 * @param parent The parent element of this value element
@@ -86,6 +98,54 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		return Collections.unmodifiableList(theBody);
 	}
 
+	/** @return Whether and how this loop runs in the background instead of inline */
+	@QonfigAttributeGetter("background")
+	public BackgroundExecution.Background getBackground() {
+		return theBackground;
+	}
+
+	/** @return What to do when this background loop is executed while a previous execution is still running */
+	@QonfigAttributeGetter("overlap")
+	public BackgroundExecution.Overlap getOverlap() {
+		return theOverlap;
+	}
+
+	/** @return The maximum time for each slice of iterations before the loop yields its thread */
+	@QonfigAttributeGetter("slice-time")
+	public CompiledExpression getSliceTime() {
+		return theSliceTime;
+	}
+
+	/** @return The maximum number of iterations in each slice before the loop yields its thread */
+	@QonfigAttributeGetter("slice-count")
+	public CompiledExpression getSliceCount() {
+		return theSliceCount;
+	}
+
+	/** @return The threading to run the slices of the loop after the first on */
+	@QonfigAttributeGetter("on-thread")
+	public CompiledExpression getOnThread() {
+		return onThread;
+	}
+
+	/** @return The value to assign the number of iterations completed to after each slice */
+	@QonfigAttributeGetter("progress")
+	public CompiledExpression getProgress() {
+		return theProgress;
+	}
+
+	/** @return The value to assign to true while the loop is running */
+	@QonfigAttributeGetter("running")
+	public CompiledExpression isRunning() {
+		return isRunning;
+	}
+
+	/** @return The value which, when true, stops the loop before its next iteration */
+	@QonfigAttributeGetter("cancel")
+	public CompiledExpression isCancelled() {
+		return isCancelled;
+	}
+
 	@Override
 	protected void doUpdate(ExpressoQIS session) throws QonfigInterpretationException {
 		super.doUpdate(session);
@@ -93,6 +153,18 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		theBefore = getAttributeExpression("before-while", session);
 		theWhile = getAttributeExpression("while", session);
 		theFinally = getAttributeExpression("finally", session);
+		theBackground = BackgroundExecution.Background.parse(session.getAttributeText("background"));
+		theOverlap = BackgroundExecution.Overlap.parse(session.getAttributeText("overlap"));
+		theSliceTime = getAttributeExpression("slice-time", session);
+		theSliceCount = getAttributeExpression("slice-count", session);
+		onThread = getAttributeExpression("on-thread", session);
+		theProgress = getAttributeExpression("progress", session);
+		isRunning = getAttributeExpression("running", session);
+		isCancelled = getAttributeExpression("cancel", session);
+		if ((theSliceTime != null || theSliceCount != null) && theBackground != BackgroundExecution.Background.NONE)
+			reporting().warn("Background loops don't block the UI thread, so slice-time and slice-count are ignored");
+		else if (onThread != null && theSliceTime == null && theSliceCount == null)
+			reporting().warn("on-thread is only used for loops with slice-time or slice-count");
 		syncChildren(Action.class, theBody, session.forChildren("body"));
 	}
 
@@ -118,6 +190,12 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		private InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> theWhile;
 		private InterpretedValueSynth<ObservableAction, ObservableAction> theFinally;
 		private final List<Action.Interpreted> theBody;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Duration>> theSliceTime;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> theSliceCount;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<ThreadConstraint>> onThread;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> theProgress;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> isRunning;
+		private InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> isCancelled;
 
 		Interpreted(Loop definition, ExElement.Interpreted<?> parent) {
 			super(definition, parent);
@@ -154,6 +232,36 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			return Collections.unmodifiableList(theBody);
 		}
 
+		/** @return The maximum time for each slice of iterations before the loop yields its thread */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Duration>> getSliceTime() {
+			return theSliceTime;
+		}
+
+		/** @return The maximum number of iterations in each slice before the loop yields its thread */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> getSliceCount() {
+			return theSliceCount;
+		}
+
+		/** @return The threading to run the slices of the loop after the first on */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<ThreadConstraint>> getOnThread() {
+			return onThread;
+		}
+
+		/** @return The value to assign the number of iterations completed to after each slice */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Integer>> getProgress() {
+			return theProgress;
+		}
+
+		/** @return The value to assign to true while the loop is running */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> isRunning() {
+			return isRunning;
+		}
+
+		/** @return The value which, when true, stops the loop before its next iteration */
+		public InterpretedValueSynth<SettableValue<?>, SettableValue<Boolean>> isCancelled() {
+			return isCancelled;
+		}
+
 		@Override
 		protected ModelInstanceType<ObservableAction, ObservableAction> getTargetType() {
 			return getType(); // Not actually used, since getType() is overridden
@@ -172,6 +280,12 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			theWhile = interpret(getDefinition().getWhile(), ModelTypes.Value.forType(boolean.class));
 			theFinally = interpret(getDefinition().getFinally() == null ? null : getDefinition().getFinally(),
 				ModelTypes.Action.instance());
+			theSliceTime = interpret(getDefinition().getSliceTime(), ModelTypes.Value.forType(Duration.class));
+			theSliceCount = interpret(getDefinition().getSliceCount(), ModelTypes.Value.INT);
+			onThread = interpret(getDefinition().getOnThread(), ModelTypes.Value.forType(ThreadConstraint.class));
+			theProgress = interpret(getDefinition().getProgress(), ModelTypes.Value.INT);
+			isRunning = interpret(getDefinition().isRunning(), ModelTypes.Value.BOOLEAN);
+			isCancelled = interpret(getDefinition().isCancelled(), ModelTypes.Value.BOOLEAN);
 			try (Transaction t = ModelValueElement.INTERPRETING_PARENTS.installParent(this)) {
 				this.syncChildren(getDefinition().getBody(), theBody,
 					def -> def.interpretValue(this), b -> b.updateValue());
@@ -181,7 +295,8 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		@Override
 		public List<? extends InterpretedValueSynth<?, ?>> getComponents() {
 			return BetterList.of(Stream.<InterpretedValueSynth<?, ?>> concat(//
-				Stream.of(theInit, theBefore, theWhile, theFinally), //
+				Stream.of(theInit, theBefore, theWhile, theFinally, theSliceTime, theSliceCount, onThread, theProgress, isRunning,
+					isCancelled), //
 				theBody.stream()).filter(Objects::nonNull));
 		}
 
@@ -200,6 +315,15 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		private final List<Action.Instantiator> theBody;
 		private final ModelValueInstantiator<? extends ObservableAction> theFinally;
 		private final ErrorReporting theWhileReporting;
+		private final ErrorReporting theReporting;
+		private final BackgroundExecution.Background theBackground;
+		private final BackgroundExecution.Overlap theOverlap;
+		private final ModelValueInstantiator<SettableValue<Duration>> theSliceTime;
+		private final ModelValueInstantiator<SettableValue<Integer>> theSliceCount;
+		private final ModelValueInstantiator<SettableValue<ThreadConstraint>> onThread;
+		private final ModelValueInstantiator<SettableValue<Integer>> theProgress;
+		private final ModelValueInstantiator<SettableValue<Boolean>> isRunning;
+		private final ModelValueInstantiator<SettableValue<Boolean>> isCancelled;
 
 		Instantiator(Loop.Interpreted interpreted) throws ModelInstantiationException {
 			super(interpreted);
@@ -210,6 +334,15 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			theBody = QommonsUtils.filterMapE(interpreted.getBody(), null, e -> e.create());
 			theFinally = interpreted.getFinally() == null ? null : interpreted.getFinally().instantiate();
 			theWhileReporting = interpreted.reporting().at(interpreted.getDefinition().getWhile().getFilePosition());
+			theReporting = interpreted.reporting();
+			theBackground = interpreted.getDefinition().getBackground();
+			theOverlap = interpreted.getDefinition().getOverlap();
+			theSliceTime = interpreted.getSliceTime() == null ? null : interpreted.getSliceTime().instantiate();
+			theSliceCount = interpreted.getSliceCount() == null ? null : interpreted.getSliceCount().instantiate();
+			onThread = interpreted.getOnThread() == null ? null : interpreted.getOnThread().instantiate();
+			theProgress = interpreted.getProgress() == null ? null : interpreted.getProgress().instantiate();
+			isRunning = interpreted.isRunning() == null ? null : interpreted.isRunning().instantiate();
+			isCancelled = interpreted.isCancelled() == null ? null : interpreted.isCancelled().instantiate();
 		}
 
 		/** @return An action to perform as soon as this loop begins execution */
@@ -237,6 +370,55 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			return theFinally;
 		}
 
+		/** @return Whether and how this loop runs in the background instead of inline */
+		public BackgroundExecution.Background getBackground() {
+			return theBackground;
+		}
+
+		/** @return What to do when this background loop is executed while a previous execution is still running */
+		public BackgroundExecution.Overlap getOverlap() {
+			return theOverlap;
+		}
+
+		/** @return The maximum time for each slice of iterations before the loop yields its thread */
+		public ModelValueInstantiator<SettableValue<Duration>> getSliceTime() {
+			return theSliceTime;
+		}
+
+		/** @return The maximum number of iterations in each slice before the loop yields its thread */
+		public ModelValueInstantiator<SettableValue<Integer>> getSliceCount() {
+			return theSliceCount;
+		}
+
+		/** @return The threading to run the slices of the loop after the first on */
+		public ModelValueInstantiator<SettableValue<ThreadConstraint>> getOnThread() {
+			return onThread;
+		}
+
+		/** @return The value to assign the number of iterations completed to after each slice */
+		public ModelValueInstantiator<SettableValue<Integer>> getProgress() {
+			return theProgress;
+		}
+
+		/** @return The value to assign to true while the loop is running */
+		public ModelValueInstantiator<SettableValue<Boolean>> isRunning() {
+			return isRunning;
+		}
+
+		/** @return The value which, when true, stops the loop before its next iteration */
+		public ModelValueInstantiator<SettableValue<Boolean>> isCancelled() {
+			return isCancelled;
+		}
+
+		private boolean isControlled() {
+			return theSliceTime != null || theSliceCount != null || theProgress != null || isRunning != null || isCancelled != null;
+		}
+
+		private BackgroundExecution createExecution() {
+			return theBackground == BackgroundExecution.Background.NONE ? null
+				: new BackgroundExecution(theBackground, theOverlap, null, theReporting);
+		}
+
 		@Override
 		public void instantiate() throws ModelInstantiationException {
 			theLocalModels.forEach(ModelInstantiator::instantiate);
@@ -249,6 +431,18 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 				body.instantiate();
 			if (theFinally != null)
 				theFinally.instantiate();
+			if (theSliceTime != null)
+				theSliceTime.instantiate();
+			if (theSliceCount != null)
+				theSliceCount.instantiate();
+			if (onThread != null)
+				onThread.instantiate();
+			if (theProgress != null)
+				theProgress.instantiate();
+			if (isRunning != null)
+				isRunning.instantiate();
+			if (isCancelled != null)
+				isCancelled.instantiate();
 		}
 
 		@Override
@@ -262,7 +456,19 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			for (Action.Instantiator b : theBody)
 				body.add(b.get(models));
 			ObservableAction last = theFinally == null ? null : theFinally.get(models);
-			return new LoopAction(init, before, condition, Collections.unmodifiableList(body), last, theWhileReporting);
+			LoopControl control;
+			if (isControlled()) {
+				control = new LoopControl(//
+					theSliceTime == null ? null : theSliceTime.get(models), //
+					theSliceCount == null ? null : theSliceCount.get(models), //
+					onThread == null ? null : onThread.get(models), //
+					theProgress == null ? null : theProgress.get(models), //
+					isRunning == null ? null : isRunning.get(models), //
+					isCancelled == null ? null : isCancelled.get(models));
+			} else
+				control = null;
+			return new LoopAction(init, before, condition, Collections.unmodifiableList(body), last, theWhileReporting,
+				createExecution(), control);
 		}
 
 		@Override
@@ -291,13 +497,107 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			ObservableAction finallyA = theFinally == null ? null
 				: ((ModelValueInstantiator<ObservableAction>) theFinally).forModelCopy(finallyS, sourceModels, newModels);
 			different |= finallyS != finallyA;
+			LoopControl controlS = loop.getControl();
+			LoopControl controlA;
+			if (controlS != null) {
+				controlA = new LoopControl(//
+					theSliceTime == null ? null : theSliceTime.forModelCopy(controlS.theSliceTime, sourceModels, newModels), //
+					theSliceCount == null ? null : theSliceCount.forModelCopy(controlS.theSliceCount, sourceModels, newModels), //
+					onThread == null ? null : onThread.forModelCopy(controlS.onThread, sourceModels, newModels), //
+					theProgress == null ? null : theProgress.forModelCopy(controlS.theProgress, sourceModels, newModels), //
+					isRunning == null ? null : isRunning.forModelCopy(controlS.isRunning, sourceModels, newModels), //
+					isCancelled == null ? null : isCancelled.forModelCopy(controlS.isCancelled, sourceModels, newModels));
+				if (controlA.equals(controlS))
+					controlA = controlS;
+				else
+					different = true;
+			} else
+				controlA = null;
 			if (different)
-				return new LoopAction(initA, beforeA, whileA, execAs, finallyA, theWhileReporting);
+				return new LoopAction(initA, beforeA, whileA, execAs, finallyA, theWhileReporting, createExecution(), controlA);
 			else
 				return value;
 		}
 	}
 
+	static class LoopControl {
+		final SettableValue<Duration> theSliceTime;
+		final SettableValue<Integer> theSliceCount;
+		final SettableValue<ThreadConstraint> onThread;
+		final SettableValue<Integer> theProgress;
+		final SettableValue<Boolean> isRunning;
+		final SettableValue<Boolean> isCancelled;
+
+		LoopControl(SettableValue<Duration> sliceTime, SettableValue<Integer> sliceCount, SettableValue<ThreadConstraint> onThread,
+			SettableValue<Integer> progress, SettableValue<Boolean> running, SettableValue<Boolean> cancelled) {
+			theSliceTime = sliceTime;
+			theSliceCount = sliceCount;
+			this.onThread = onThread;
+			theProgress = progress;
+			isRunning = running;
+			isCancelled = cancelled;
+		}
+
+		long getSliceMillis() {
+			Duration time = theSliceTime == null ? null : theSliceTime.get();
+			return time == null || time.isNegative() || time.isZero() ? 0 : Math.max(1, time.toMillis());
+		}
+
+		long getSliceCount() {
+			Integer count = theSliceCount == null ? null : theSliceCount.get();
+			return count == null || count <= 0 ? 0 : count;
+		}
+
+		/** @return The threading to run slices after the first on: the on-thread value, or else the thread the loop was started on */
+		ThreadConstraint getThreading() {
+			ThreadConstraint threading = onThread == null ? null : onThread.get();
+			if (threading == null || !threading.supportsInvoke())
+				threading = EventQueue.isDispatchThread() ? ThreadConstraint.EDT : ThreadConstraint.ANY;
+			return threading;
+		}
+
+		void setProgress(long iterations, Object cause) {
+			if (theProgress == null)
+				return;
+			Integer progress = (int) Math.min(iterations, Integer.MAX_VALUE);
+			if (!progress.equals(theProgress.get()) && theProgress.isAcceptable(progress) == null)
+				theProgress.set(progress, cause);
+		}
+
+		void setRunning(boolean running, Object cause) {
+			if (isRunning != null && isRunning.isAcceptable(running) == null)
+				isRunning.set(running, cause);
+		}
+
+		/**
+		 * @param cause The cause to reset the cancel value with
+		 * @return Whether the loop has been cancelled. If so, the cancel value is reset to false so the loop may be run again.
+		 */
+		boolean checkCancelled(Object cause) {
+			if (isCancelled == null || !Boolean.TRUE.equals(isCancelled.get()))
+				return false;
+			if (isCancelled.isAcceptable(false) == null)
+				isCancelled.set(false, cause);
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(theSliceTime, theSliceCount, onThread, theProgress, isRunning, isCancelled);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof LoopControl))
+				return false;
+			LoopControl other = (LoopControl) obj;
+			return theSliceTime == other.theSliceTime && theSliceCount == other.theSliceCount && onThread == other.onThread
+				&& theProgress == other.theProgress && isRunning == other.isRunning && isCancelled == other.isCancelled;
+		}
+	}
+
 	static class LoopAction implements ObservableAction {
 		private final ObservableAction theInit;
 		private final ObservableAction theBeforeCondition;
@@ -305,15 +605,21 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 		private final List<ObservableAction> theBody;
 		private final ObservableAction theFinally;
 		private final ErrorReporting theWhileReporting;
+		private final BackgroundExecution theExecution;
+		private final LoopControl theControl;
+		private boolean isSlicing;
 
 		public LoopAction(ObservableAction init, ObservableAction before, ObservableValue<Boolean> condition,
-			List<ObservableAction> body, ObservableAction finallly, ErrorReporting whileReporting) {
+			List<ObservableAction> body, ObservableAction finallly, ErrorReporting whileReporting, BackgroundExecution execution,
+			LoopControl control) {
 			theInit = init;
 			theBeforeCondition = before;
 			theCondition = condition;
 			theBody = body;
 			theFinally = finallly;
 			theWhileReporting = whileReporting;
+			theExecution = execution;
+			theControl = control;
 		}
 
 		public ObservableAction getInit() {
@@ -336,6 +642,10 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 			return theFinally;
 		}
 
+		public LoopControl getControl() {
+			return theControl;
+		}
+
 		@Override
 		public ObservableValue<String> isEnabled() {
 			// TODO This isn't right, but it seems hard to figure out, so leaving this for now
@@ -344,50 +654,171 @@ implements ModelValueElement.CompiledSynth<ObservableAction, ModelValueElement<O
 
 		@Override
 		public void act(Object cause) throws IllegalStateException {
-			try (Causable.CausableInUse cause2 = Causable.cause(cause)) {
-				if (theInit != null)
-					theInit.act(cause2);
+			if (theExecution != null) {
+				Object backgroundCause = cause instanceof Causable ? Causable.broken(cause) : cause;
+				theExecution.execute(() -> {
+					try {
+						loop(backgroundCause);
+					} catch (RuntimeException e) {
+						theWhileReporting.error("Error executing loop", e);
+					}
+				});
+			} else
+				loop(cause);
+		}
+
+		private void loop(Object cause) {
+			LoopRun run;
+			// Background loops don't hold up the UI thread, so there's no need to slice them
+			if (theControl != null && theExecution == null)
+				run = new LoopRun(theControl.getSliceMillis(), theControl.getSliceCount());
+			else
+				run = new LoopRun(0, 0);
+			if (run.isSliced()) {
+				synchronized (this) {
+					if (isSlicing)
+						return; // Already running in slices
+					isSlicing = true;
+				}
+			}
+			run.start(cause);
+		}
+
+		synchronized void endSlicing() {
+			isSlicing = false;
+		}
+
+		@Override
+		public boolean isEventing() {
+			if (theInit != null && theInit.isEventing())
+				return true;
+			else if (theBeforeCondition != null && theBeforeCondition.isEventing())
+				return true;
+			for (ObservableAction body : theBody) {
+				if (body.isEventing())
+					return true;
+			}
+			return theFinally != null && theFinally.isEventing();
+		}
 
+		/**
+		 * A single execution of the loop. If the loop is sliced, its iterations are performed in slices, each limited by time and/or
+		 * iteration count, yielding the thread between slices so that e.g. the UI can handle other events.
+		 */
+		class LoopRun {
+			private final long theSliceMillis;
+			private final long theSliceCount;
+			private Object theContinueCause;
+			private QommonsTimer.TaskHandle theHandle;
+			private long theCount;
+			private long theConditionStamp;
+
+			LoopRun(long sliceMillis, long sliceCount) {
+				theSliceMillis = sliceMillis;
+				theSliceCount = sliceCount;
+			}
+
+			boolean isSliced() {
+				return theSliceMillis > 0 || theSliceCount > 0;
+			}
+
+			void start(Object cause) {
+				try (Causable.CausableInUse cause2 = Causable.cause(cause)) {
+					try {
+						if (theInit != null)
+							theInit.act(cause2);
+					} catch (RuntimeException | Error e) {
+						if (isSliced())
+							endSlicing();
+						throw e;
+					}
+					if (theControl != null) {
+						theControl.setProgress(0, cause2);
+						theControl.setRunning(true, cause2);
+					}
+					theConditionStamp = theCondition.getStamp();
+					if (!slice(cause2))
+						return;
+				}
+				// Yield the thread, continuing with the next slice when it is free
+				theContinueCause = cause instanceof Causable ? Causable.broken(cause) : cause;
+				theHandle = QommonsTimer.getCommonInstance().build(this::resume, null, false)//
+					.withThreading(theControl.getThreading());
+				theHandle.runImmediately();
+			}
+
+			private void resume() {
+				boolean more;
+				try (Causable.CausableInUse cause = Causable.cause(theContinueCause)) {
+					more = slice(cause);
+				} catch (RuntimeException e) {
+					theWhileReporting.error("Error executing loop", e);
+					return;
+				}
+				if (more)
+					theHandle.runImmediately();
+			}
+
+			/**
+			 * Performs iterations of the loop until it finishes or the slice's budget is used up
+			 *
+			 * @param cause The cause of the loop's execution
+			 * @return Whether there are more iterations to perform in another slice
+			 */
+			private boolean slice(Object cause) {
+				long sliceStart = theSliceMillis > 0 ? System.currentTimeMillis() : 0;
+				long iterations = 0;
+				boolean more = false;
 				try {
-					// Prevent infinite loops. This structure isn't terribly efficient, so I think this should be sufficient.
-					long count = 0;
-					long conditionStamp = theCondition.getStamp();
 					while (true) {
+						if (theControl != null && theControl.checkCancelled(cause))
+							break;
 						if (theBeforeCondition != null)
-							theBeforeCondition.act(cause2);
+							theBeforeCondition.act(cause);
 						if (!Boolean.TRUE.equals(theCondition.get()))
 							break;
+						else if (theExecution != null && Thread.currentThread().isInterrupted())
+							break; // Cancelled by a newer execution
 						for (ObservableAction body : theBody)
-							body.act(cause2);
-						count++;
-						if (count % 10_000 == 0) {
+							body.act(cause);
+						theCount++;
+						iterations++;
+						// Prevent infinite loops. This structure isn't terribly efficient, so I think this should be sufficient.
+						if (theCount % 10_000 == 0) {
 							long newConditionStamp = theCondition.getStamp();
-							if (conditionStamp == newConditionStamp) {
+							if (theConditionStamp == newConditionStamp) {
 								theWhileReporting
 								.error("This loop seems to be infinite--the 'while' condition is not affected by the body");
 								break;
 							} else
-								conditionStamp = newConditionStamp;
+								theConditionStamp = newConditionStamp;
+						}
+						if ((theSliceCount > 0 && iterations >= theSliceCount)
+							|| (theSliceMillis > 0 && System.currentTimeMillis() - sliceStart >= theSliceMillis)) {
+							more = true;
+							break;
 						}
 					}
 				} finally {
-					if (theFinally != null)
-						theFinally.act(cause2);
+					if (theControl != null)
+						theControl.setProgress(theCount, cause);
+					if (!more)
+						finish(cause);
 				}
+				return more;
 			}
-		}
 
-		@Override
-		public boolean isEventing() {
-			if (theInit != null && theInit.isEventing())
-				return true;
-			else if (theBeforeCondition != null && theBeforeCondition.isEventing())
-				return true;
-			for (ObservableAction body : theBody) {
-				if (body.isEventing())
-					return true;
+			private void finish(Object cause) {
+				try {
+					if (theFinally != null)
+						theFinally.act(cause);
+				} finally {
+					if (theControl != null)
+						theControl.setRunning(false, cause);
+					if (isSliced())
+						endSlicing();
+				}
 			}
-			return theFinally != null && theFinally.isEventing();
 		}
 	}
-}
\ No newline at end of file
+}
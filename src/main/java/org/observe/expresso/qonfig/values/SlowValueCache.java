@@ -0,0 +1,298 @@
+package org.observe.expresso.qonfig.values;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.observe.util.TypeTokens;
+import org.qommons.io.ErrorReporting;
+import org.qommons.threading.QommonsTimer;
+
+import com.google.common.reflect.TypeToken;
+
+/**
+ * <p>
+ * A cache of the results of &lt;slow-value> loads, shared by all instances of a slow value, so that a value can be shown immediately
+ * from the cache while it is re-loaded in the background.
+ * </p>
+ * <p>
+ * Entries are keyed by an optional key value, so a slow value whose load depends on some parameter can cache its result for each
+ * parameter value. The cache keeps its most recently used entries up to a maximum size, and does not serve entries older than its
+ * time-to-live.
+ * </p>
+ * <p>
+ * A cache may be persisted to a file, so that its entries survive application restarts. Only entries whose key and value are
+ * {@link Serializable} are persisted. The file is stamped with the key and value types of the slow value, and is discarded if they
+ * no longer match. To guard against tampered files, only classes from the core java.lang, java.util, java.time, and java.math
+ * packages, and classes related to the declared key and value types, may be read from the file.
+ * </p>
+ * <p>
+ * Cached values that are not instances of the value type (e.g. after the type of a re-loaded document's slow value has changed) are
+ * never served.
+ * </p>
+ */
+public class SlowValueCache {
+	private static final Map<String, SlowValueCache> CACHES = new ConcurrentHashMap<>();
+	private static final Duration PERSIST_DELAY = Duration.ofSeconds(1);
+	/**
+	 * Stands in for the key of a cache with no key expression, and for null keys. An enum, so that it is distinct from any real key and is
+	 * still the same instance when read back from a persisted cache.
+	 */
+	private enum NoKey {
+		NO_KEY
+	}
+
+	/** Packages whose classes may always be read from a persisted cache */
+	private static final Set<String> READABLE_PACKAGES = Collections
+		.unmodifiableSet(new HashSet<>(Arrays.asList("java.lang", "java.util", "java.time", "java.math")));
+
+	private String theSignature;
+	private TypeToken<?> theValueType;
+	private Class<?> theValueClass;
+	private Class<?> theKeyClass;
+	private int theMaxSize;
+	private long theTtl;
+	private final File theFile;
+	private ErrorReporting theReporting;
+	private final LinkedHashMap<Object, Entry> theEntries;
+
+	private SlowValueCache(TypeToken<?> valueType, TypeToken<?> keyType, int maxSize, Duration ttl, File file, ErrorReporting reporting) {
+		theFile = file;
+		theEntries = new LinkedHashMap<>(16, 0.75f, true);
+		configure(valueType, keyType, maxSize, ttl, reporting);
+		if (theFile != null && theFile.exists())
+			read();
+	}
+
+	/**
+	 * @param id The identity of the slow value the cache is for
+	 * @param valueType The type of the slow value
+	 * @param keyType The type of the slow value's cache key, or null if it has none
+	 * @param maxSize The maximum number of entries to keep
+	 * @param ttl The age after which entries are no longer served, or null to serve entries of any age
+	 * @param file The file to persist the cache to, or null to keep the cache only in memory
+	 * @param reporting The error reporting for problems reading or writing the file
+	 * @return The cache for the slow value with the given identity. It is shared by all instances of the value. If the cache already
+	 *         existed, it is re-configured with the given settings, e.g. for a re-loaded document whose settings have changed.
+	 */
+	public static SlowValueCache get(String id, TypeToken<?> valueType, TypeToken<?> keyType, int maxSize, Duration ttl, File file,
+		ErrorReporting reporting) {
+		String key = file == null ? id : id + "@" + file.getAbsolutePath();
+		boolean[] created = new boolean[1];
+		SlowValueCache cache = CACHES.computeIfAbsent(key, __ -> {
+			created[0] = true;
+			return new SlowValueCache(valueType, keyType, maxSize, ttl, file, reporting);
+		});
+		if (!created[0])
+			cache.configure(valueType, keyType, maxSize, ttl, reporting);
+		return cache;
+	}
+
+	private synchronized void configure(TypeToken<?> valueType, TypeToken<?> keyType, int maxSize, Duration ttl,
+		ErrorReporting reporting) {
+		String signature = valueType + "|" + keyType;
+		if (theSignature != null && !theSignature.equals(signature))
+			theEntries.clear(); // The entries are for a different value, e.g. of a re-loaded document
+		theSignature = signature;
+		theValueType = TypeTokens.get().wrap(valueType);
+		theValueClass = TypeTokens.getRawType(theValueType);
+		theKeyClass = keyType == null ? null : TypeTokens.getRawType(TypeTokens.get().wrap(keyType));
+		theMaxSize = maxSize;
+		theTtl = ttl == null ? 0 : ttl.toMillis();
+		theReporting = reporting;
+		trim();
+	}
+
+	/** Removes the least recently used entries beyond the maximum size */
+	private void trim() {
+		Iterator<Entry> iter = theEntries.values().iterator();
+		while (theEntries.size() > theMaxSize) {
+			iter.next();
+			iter.remove();
+		}
+	}
+
+	/**
+	 * @param key The cache key
+	 * @return The cached entry for the key, or null if there is none, it has expired, or its value is not of the value type
+	 */
+	public synchronized Entry get(Object key) {
+		Object k = key == null ? NoKey.NO_KEY : key;
+		Entry entry = theEntries.get(k);
+		if (entry == null)
+			return null;
+		else if (theTtl > 0 && System.currentTimeMillis() - entry.getTime() > theTtl) {
+			theEntries.remove(k);
+			return null;
+		} else if (entry.getValue() != null && !TypeTokens.get().isInstance(theValueType, entry.getValue())) {
+			theEntries.remove(k);
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * @param key The cache key
+	 * @param value The newly loaded value for the key
+	 */
+	public void put(Object key, Object value) {
+		synchronized (this) {
+			theEntries.put(key == null ? NoKey.NO_KEY : key, new Entry(value, System.currentTimeMillis()));
+			trim();
+		}
+		if (theFile != null)
+			QommonsTimer.getCommonInstance().doAfterInactivity(this, this::write, PERSIST_DELAY);
+	}
+
+	private void read() {
+		try (ObjectInputStream in = new CacheInputStream(new BufferedInputStream(new FileInputStream(theFile)))) {
+			if (!theSignature.equals(in.readUTF()))
+				return; // The file was written for a different value, e.g. before the document changed
+			int count = in.readInt();
+			long now = System.currentTimeMillis();
+			for (int i = 0; i < count; i++) {
+				Object key = in.readObject();
+				Object value = in.readObject();
+				long time = in.readLong();
+				if (theTtl <= 0 || now - time <= theTtl)
+					theEntries.put(key, new Entry(value, time));
+			}
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			theReporting.warn("Could not read slow value cache from " + theFile.getAbsolutePath() + ": " + e);
+			theEntries.clear();
+		}
+	}
+
+	private void write() {
+		List<Map.Entry<Object, Entry>> entries;
+		String signature;
+		ErrorReporting reporting;
+		synchronized (this) {
+			signature = theSignature;
+			reporting = theReporting;
+			entries = new ArrayList<>(theEntries.size());
+			for (Map.Entry<Object, Entry> entry : theEntries.entrySet()) {
+				if (entry.getKey() instanceof Serializable
+					&& (entry.getValue().getValue() == null || entry.getValue().getValue() instanceof Serializable))
+					entries.add(entry);
+			}
+		}
+		File dir = theFile.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.exists() && !dir.mkdirs()) {
+			reporting.warn("Could not create directory for slow value cache " + theFile.getAbsolutePath());
+			return;
+		}
+		// Write to a temporary file first, so a failure doesn't corrupt the existing cache
+		File temp = new File(theFile.getPath() + ".tmp");
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeUTF(signature);
+			out.writeInt(entries.size());
+			for (Map.Entry<Object, Entry> entry : entries) {
+				out.writeObject(entry.getKey());
+				out.writeObject(entry.getValue().getValue());
+				out.writeLong(entry.getValue().getTime());
+			}
+		} catch (IOException e) {
+			reporting.warn("Could not write slow value cache to " + theFile.getAbsolutePath() + ": " + e);
+			temp.delete();
+			return;
+		}
+		if ((theFile.exists() && !theFile.delete()) || !temp.renameTo(theFile))
+			reporting.warn("Could not replace slow value cache " + theFile.getAbsolutePath());
+	}
+
+	/**
+	 * @param type The class of an object in a persisted cache
+	 * @return Whether instances of the class may be read from the cache
+	 */
+	boolean isReadable(Class<?> type) {
+		while (type.isArray())
+			type = type.getComponentType();
+		if (type.isPrimitive() || type == NoKey.class)
+			return true;
+		String name = type.getName();
+		int lastDot = name.lastIndexOf('.');
+		if (lastDot >= 0 && READABLE_PACKAGES.contains(name.substring(0, lastDot)))
+			return true;
+		// Classes of the value or key, including super classes whose fields are serialized along with them
+		return isRelated(type, theValueClass) || isRelated(type, theKeyClass);
+	}
+
+	private static boolean isRelated(Class<?> type, Class<?> declared) {
+		if (declared == null || declared == Object.class || declared == Serializable.class)
+			return false; // Too general to restrict anything
+		return declared.isAssignableFrom(type) || (type != Object.class && type.isAssignableFrom(declared));
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "slow-value cache(" + theEntries.size() + "/" + theMaxSize + (theFile == null ? "" : ", " + theFile.getPath()) + ")";
+	}
+
+	/** Reads a persisted cache, refusing any classes that are not {@link SlowValueCache#isReadable(Class) readable} */
+	private class CacheInputStream extends ObjectInputStream {
+		CacheInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			Class<?> type = super.resolveClass(desc);
+			if (!isReadable(type))
+				throw new InvalidClassException(desc.getName(), "Not permitted in a slow value cache");
+			return type;
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			throw new InvalidClassException("Proxy classes are not permitted in a slow value cache");
+		}
+	}
+
+	/** A cached value */
+	public static class Entry {
+		private final Object theValue;
+		private final long theTime;
+
+		Entry(Object value, long time) {
+			theValue = value;
+			theTime = time;
+		}
+
+		/** @return The cached value */
+		public Object getValue() {
+			return theValue;
+		}
+
+		/** @return The time (millis since epoch) at which the value was loaded */
+		public long getTime() {
+			return theTime;
+		}
+
+		@Override
+		public String toString() {
+			return Objects.toString(theValue);
+		}
+	}
+}
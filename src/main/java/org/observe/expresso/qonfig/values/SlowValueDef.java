@@ -1,7 +1,20 @@
 package org.observe.expresso.qonfig.values;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.observe.Observable;
 import org.observe.ObservableValue;
@@ -27,6 +40,7 @@ import org.observe.expresso.qonfig.ExpressoBaseV0_1;
 import org.observe.expresso.qonfig.ExpressoQIS;
 import org.observe.expresso.qonfig.ModelValueElement;
 import org.observe.expresso.qonfig.ModelValueElement.InterpretedSynth;
+import org.observe.expresso.qonfig.QonfigAttributeGetter;
 import org.observe.expresso.qonfig.TraceabilityConfiguration;
 import org.qommons.CausalLock;
 import org.qommons.DefaultCausalLock;
@@ -54,9 +68,20 @@ public class SlowValueDef extends AbstractCompiledValue {
 	public static final String SLOW_VALUE = "slow-value";
 	public static final ExElementType.ExElementModelValue<SettableValue<?>, SettableValue<Integer>> LOAD_ID = ExElementType
 		.modelAttributeValue("load-id-as", int.class);
+	public static final ExElementType.ExElementModelValue<SettableValue<?>, SettableValue<Long>> LOAD_TIME = ExElementType
+		.modelAttributeValue("load-time-as", long.class);
 	public static final ExElementType.ExElementModelValue<SettableValue<?>, SettableValue<?>> PREVIOUS_VALUE//
 	= ExElementType.singleTypedModelAttributeValue("previous-value-as", ModelTypes.Value,
 		interpreted -> ((SlowValueDef.Interpreted<?>) interpreted).getValueType());
+	public static final ExElementType.ValueExpression<Executor, ?> EXECUTOR = ExElementType.valueExpression("executor", Executor.class,
+		null);
+	public static final ExElementType.ValueExpression<Duration, ?> DEBOUNCE = ExElementType.valueExpression("debounce", Duration.class,
+		null);
+	public static final ExElementType.ValueExpression<Duration, ?> MIN_INTERVAL = ExElementType.valueExpression("min-interval",
+		Duration.class, null);
+	public static final ExElementType.ValueExpression<?, ?> CACHE_KEY = ExElementType.valueExpression("cache-key", Object.class, null);
+	public static final ExElementType.ValueExpression<Duration, ?> CACHE_TTL = ExElementType.valueExpression("cache-ttl", Duration.class,
+		null);
 	public static final ExElementType.ValueExpression<ThreadConstraint, ?> ON_THREAD = ExElementType.valueExpression("on-thread",
 		ThreadConstraint.class, null);
 	public static final ExElementType.EventExpression<?, ?> REFRESH = ExElementType.eventExpression("refresh", Object.class);
@@ -65,7 +90,13 @@ public class SlowValueDef extends AbstractCompiledValue {
 		interpreted -> ((SlowValueDef.Interpreted<?>) interpreted).getValueType(), null);
 	public static final ExElementType SLOW_VALUE_TYPE = ExElementType.build(ExpressoBaseV0_1.NAME, ExpressoBaseV0_1.VERSION, SLOW_VALUE)//
 		.withModelValue(LOAD_ID)//
+		.withModelValue(LOAD_TIME)//
 		.withModelValue(PREVIOUS_VALUE)//
+		.withValue(EXECUTOR)//
+		.withValue(DEBOUNCE)//
+		.withValue(MIN_INTERVAL)//
+		.withValue(CACHE_KEY)//
+		.withValue(CACHE_TTL)//
 		.withValue(ON_THREAD)//
 		.withValue(REFRESH)//
 		.withValue(VALUE)//
@@ -80,6 +111,12 @@ public class SlowValueDef extends AbstractCompiledValue {
 	}
 
 	private final ExElementType.DefTypeData theTypeData;
+	private String thePool;
+	private int thePoolSize;
+	private int theMaxInFlight;
+	private boolean isCaching;
+	private int theCacheSize;
+	private String theCacheFile;
 
 	/**
 	 * @param parent The parent element of this value element
@@ -98,11 +135,67 @@ public class SlowValueDef extends AbstractCompiledValue {
 		return theTypeData;
 	}
 
+	/** @return The name of the dedicated thread pool to load this value in, or null if it is not loaded in a named pool */
+	@QonfigAttributeGetter(asType = SLOW_VALUE, value = "pool")
+	public String getPool() {
+		return thePool;
+	}
+
+	/** @return The maximum number of threads in the {@link #getPool() named pool}, i.e. the number of loads it may run concurrently */
+	@QonfigAttributeGetter(asType = SLOW_VALUE, value = "pool-size")
+	public int getPoolSize() {
+		return thePoolSize;
+	}
+
+	/** @return The maximum number of loads of this value that may run at once, or 0 for no limit */
+	@QonfigAttributeGetter(asType = SLOW_VALUE, value = "max-in-flight")
+	public int getMaxInFlight() {
+		return theMaxInFlight;
+	}
+
+	/** @return Whether loaded values are cached and served while re-loading */
+	@QonfigAttributeGetter(asType = SLOW_VALUE, value = "cache")
+	public boolean isCaching() {
+		return isCaching;
+	}
+
+	/** @return The maximum number of values to cache */
+	@QonfigAttributeGetter(asType = SLOW_VALUE, value = "cache-size")
+	public int getCacheSize() {
+		return theCacheSize;
+	}
+
+	/** @return The path of the file to persist the cache to, or null to keep the cache only in memory */
+	@QonfigAttributeGetter(asType = SLOW_VALUE, value = "cache-file")
+	public String getCacheFile() {
+		return theCacheFile;
+	}
+
 	@Override
 	protected void doUpdate(ExpressoQIS session) throws QonfigInterpretationException {
 		super.doUpdate(session.asElement(session.getFocusType().getSuperElement()));
 
 		theTypeData.update(this, session);
+		thePool = session.getAttributeText("pool");
+		thePoolSize = Integer.parseInt(session.getAttributeText("pool-size"));
+		String maxInFlight = session.getAttributeText("max-in-flight");
+		theMaxInFlight = maxInFlight == null ? 0 : Integer.parseInt(maxInFlight);
+		isCaching = session.getAttribute("cache", boolean.class);
+		theCacheSize = Integer.parseInt(session.getAttributeText("cache-size"));
+		theCacheFile = session.getAttributeText("cache-file");
+		if (thePool != null && theTypeData.getValue(EXECUTOR) != null)
+			throw new QonfigInterpretationException("Only one of 'executor' and 'pool' may be specified",
+				getElement().getPositionInFile(), 0);
+		else if (thePoolSize <= 0)
+			throw new QonfigInterpretationException("pool-size must be positive, not " + thePoolSize, getElement().getPositionInFile(),
+				0);
+		else if (theMaxInFlight < 0)
+			throw new QonfigInterpretationException("max-in-flight may not be negative", getElement().getPositionInFile(), 0);
+		else if (theCacheSize <= 0)
+			throw new QonfigInterpretationException("cache-size must be positive, not " + theCacheSize, getElement().getPositionInFile(),
+				0);
+		if (!isCaching && (theCacheFile != null || theTypeData.getValue(CACHE_KEY) != null || theTypeData.getValue(CACHE_TTL) != null))
+			reporting().warn("Cache attributes are ignored unless cache=\"true\"");
 	}
 
 	@Override
@@ -176,12 +269,32 @@ public class SlowValueDef extends AbstractCompiledValue {
 		private final DocumentMap<ModelInstantiator> theLocalModels;
 		private ExElementType.InstanceTypeData theTypeData;
 		private final ErrorReporting theReporting;
+		private final String thePool;
+		private final int thePoolSize;
+		private final int theMaxInFlight;
+		private final boolean isCaching;
+		private final String theCacheId;
+		private final TypeToken<T> theValueType;
+		private final TypeToken<?> theCacheKeyType;
+		private final int theCacheSize;
+		private final String theCacheFile;
 
 		Instantiator(SlowValueDef.Interpreted<T> interpreted) throws ModelInstantiationException {
 			super(interpreted);
 			theTypeData = interpreted.getTypeData().instantiate(this);
 			theLocalModels = interpreted.instantiateLocalModels();
 			theReporting = interpreted.reporting();
+			thePool = interpreted.getDefinition().getPool();
+			thePoolSize = interpreted.getDefinition().getPoolSize();
+			theMaxInFlight = interpreted.getDefinition().getMaxInFlight();
+			isCaching = interpreted.getDefinition().isCaching();
+			theCacheId = interpreted.getDefinition().getElement().getPositionInFile().toString();
+			// The cache is identified by position in the file, so it must also be checked against the types of the value and key
+			theValueType = (TypeToken<T>) interpreted.getTargetType().getType(0);
+			InterpretedValueSynth<?, ?> cacheKey = interpreted.getTypeData().getValue(CACHE_KEY);
+			theCacheKeyType = cacheKey == null ? null : cacheKey.getType().getType(0);
+			theCacheSize = interpreted.getDefinition().getCacheSize();
+			theCacheFile = interpreted.getDefinition().getCacheFile();
 		}
 
 		protected ExElementType.InstanceTypeData getTypeData() {
@@ -199,13 +312,24 @@ public class SlowValueDef extends AbstractCompiledValue {
 		public SettableValue<T> evaluate(ModelSetInstance models) throws ModelInstantiationException, IllegalStateException {
 			models = theLocalModels.operate(models, (m, mi) -> mi.wrap(m));
 			theTypeData.instantiate(models, this);
+			LoadPolicy policy = new LoadPolicy(//
+				thePool != null ? LoadPools.get(thePool, thePoolSize) : theTypeData.getValue(EXECUTOR).get(), //
+				theTypeData.getValue(DEBOUNCE).get(), theTypeData.getValue(MIN_INTERVAL).get(), theMaxInFlight);
+			SlowValueCache cache = !isCaching ? null : SlowValueCache.get(theCacheId, theValueType, theCacheKeyType, theCacheSize,
+				theTypeData.getValue(CACHE_TTL).get(), theCacheFile == null ? null : new File(theCacheFile), theReporting);
+			SettableValue<?> cacheKey = !isCaching || theTypeData.getInstantiator(CACHE_KEY) == null ? null
+				: theTypeData.getValue(CACHE_KEY);
 			return new SlowValueDef.SlowValue<>(//
 				theTypeData.satisfyModelValue(LOAD_ID, () -> SettableValue.create(0)), //
+				theTypeData.satisfyModelValue(LOAD_TIME, () -> SettableValue.create(0L)), //
 				(SettableValue<T>) theTypeData.satisfyModelValue(PREVIOUS_VALUE, SettableValue::create), //
 				(SettableValue<T>) theTypeData.getValue(VALUE), //
 				theTypeData.getValue(REFRESH), //
 				(SettableValue<T>) theTypeData.getValue(WHILE_LOADING), //
 				theTypeData.getValue(ON_THREAD).get(), //
+				policy, //
+				cache, //
+				cacheKey, //
 				theReporting);
 		}
 
@@ -218,12 +342,85 @@ public class SlowValueDef extends AbstractCompiledValue {
 		}
 	}
 
+	/**
+	 * Named, bounded thread pools that slow values may be loaded in, so that values loading from a slow backend can be kept from starving
+	 * the loads of other values
+	 */
+	public static class LoadPools {
+		private static final Map<String, ThreadPoolExecutor> POOLS = new ConcurrentHashMap<>();
+
+		private LoadPools() {
+		}
+
+		/**
+		 * @param name The name of the pool
+		 * @param size The maximum number of threads for the pool. If the pool already exists with fewer threads, it will be enlarged.
+		 * @return The pool with the given name
+		 */
+		public static Executor get(String name, int size) {
+			ThreadPoolExecutor pool = POOLS.computeIfAbsent(name, __ -> {
+				ThreadPoolExecutor newPool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					new LoadThreadFactory(name));
+				newPool.allowCoreThreadTimeOut(true);
+				return newPool;
+			});
+			synchronized (pool) {
+				if (pool.getMaximumPoolSize() < size) {
+					pool.setMaximumPoolSize(size);
+					pool.setCorePoolSize(size);
+				}
+			}
+			return pool;
+		}
+
+		static class LoadThreadFactory implements ThreadFactory {
+			private final String thePoolName;
+			private final AtomicInteger theThreadCount;
+
+			LoadThreadFactory(String poolName) {
+				thePoolName = poolName;
+				theThreadCount = new AtomicInteger();
+			}
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "slow-value-" + thePoolName + "-" + theThreadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		}
+	}
+
+	/** Determines where and when a {@link SlowValue} loads */
+	static class LoadPolicy {
+		/** The executor to load in, or null to offload to the common timer */
+		final Executor executor;
+		/** The time (in milliseconds) after the last refresh request to wait for more before loading */
+		final long debounce;
+		/** The minimum time (in milliseconds) between the starts of consecutive loads */
+		final long minInterval;
+		/** The maximum number of loads that may be running at once, or 0 for no limit */
+		final int maxInFlight;
+
+		LoadPolicy(Executor executor, Duration debounce, Duration minInterval, int maxInFlight) {
+			this.executor = executor;
+			this.debounce = debounce == null ? 0 : debounce.toMillis();
+			this.minInterval = minInterval == null ? 0 : minInterval.toMillis();
+			this.maxInFlight = maxInFlight;
+		}
+	}
+
 	static class SlowValue<T> extends AbstractIdentifiable implements SettableValue<T> {
 		private final SettableValue<Integer> theLoadId;
+		private final SettableValue<Long> theLoadTime;
 		private final SettableValue<T> thePreviousValue;
 		private final SettableValue<T> theValue;
 		private final Observable<?> theRefresh;
 		private final SettableValue<T> theWhileLoading;
+		private final LoadPolicy thePolicy;
+		private final SlowValueCache theCache;
+		private final SettableValue<?> theCacheKey;
+		private final ErrorReporting theReporting;
 
 		private T theCurrentValue;
 		private long theRefreshingStamp;
@@ -231,14 +428,27 @@ public class SlowValueDef extends AbstractCompiledValue {
 		private final CausalLock theLock;
 		private final ListenerList<Observer<? super ObservableValueEvent<T>>> theListeners;
 		private Subscription theWhileLoadingSub;
-
-		public SlowValue(SettableValue<Integer> loadId, SettableValue<T> previousValue, SettableValue<T> value, Observable<?> refresh,
-			SettableValue<T> whileLoading, ThreadConstraint threading, ErrorReporting reporting) {
+		private Load theLoading;
+		private boolean isLoadPending;
+		private long theLastRequest;
+		private long theLastLoadStart;
+		private int theInFlight;
+		/** Whether the current value came from the cache, in which case it is shown instead of the while-loading value */
+		private boolean isServingCached;
+
+		public SlowValue(SettableValue<Integer> loadId, SettableValue<Long> loadTime, SettableValue<T> previousValue, SettableValue<T> value,
+			Observable<?> refresh, SettableValue<T> whileLoading, ThreadConstraint threading, LoadPolicy policy, SlowValueCache cache,
+			SettableValue<?> cacheKey, ErrorReporting reporting) {
 			theLoadId = loadId;
+			theLoadTime = loadTime;
 			thePreviousValue = previousValue;
 			theValue = value;
 			theRefresh = refresh;
 			theWhileLoading = whileLoading;
+			thePolicy = policy;
+			theCache = cache;
+			theCacheKey = cacheKey;
+			theReporting = reporting;
 
 			initIdentity(Identifiable.baseId(reporting.toString(), this));
 			theLock = new DefaultCausalLock(ThreadConstrainedLockingStrategy.get(threading));
@@ -264,33 +474,168 @@ public class SlowValueDef extends AbstractCompiledValue {
 		}
 
 		void refresh(long refreshStamp, Object cause) {
-			int thisLoadId;
 			synchronized (this) {
 				theRefreshingStamp = refreshStamp;
-				thisLoadId = theLoadId.get() + 1;
-				theLoadId.set(thisLoadId, cause);
-				if(thePreviousValue!=null)
-					thePreviousValue.set(theCurrentValue, cause);
-				if (theWhileLoadingSub == null && theWhileLoading != null)
-					theWhileLoadingSub = theWhileLoading.changes().act(this::whileLoading);
+				theLastRequest = System.currentTimeMillis();
+				isLoadPending = true;
+				if (theCache != null)
+					serveCached(cause);
+			}
+			startPending(cause);
+		}
+
+		/**
+		 * Shows the cached value for the current cache key, if there is one, while the value is re-loaded
+		 *
+		 * @param cause The cause of the refresh
+		 */
+		private void serveCached(Object cause) {
+			SlowValueCache.Entry cached = theCache.get(getCacheKey());
+			isServingCached = cached != null;
+			if (cached != null && cached.getValue() != theCurrentValue) {
+				T oldValue = theCurrentValue;
+				theCurrentValue = (T) cached.getValue();
+				theValueStamp++;
+				fireNewValue(oldValue, theCurrentValue, cause);
+			}
+		}
+
+		private Object getCacheKey() {
+			return theCacheKey == null ? null : theCacheKey.get();
+		}
+
+		/**
+		 * Starts a load for the latest refresh request if the policy's debounce, minimum interval, and in-flight limit allow. If the
+		 * timing doesn't allow it yet, the load is scheduled. If too many loads are in flight, it is started when one finishes. Requests
+		 * made in the meantime are coalesced into the pending one.
+		 *
+		 * @param cause The cause of the load
+		 */
+		void startPending(Object cause) {
+			Load load;
+			long delay;
+			synchronized (this) {
+				if (!isLoadPending)
+					return;
+				long now = System.currentTimeMillis();
+				delay = Math.max(theLastRequest + thePolicy.debounce, theLastLoadStart + thePolicy.minInterval) - now;
+				if (delay > 0)
+					load = null;
+				else {
+					// The previous load's result would be discarded, so don't let it occupy a thread.
+					// Only interrupt threads we were given, not the common timer's.
+					if (theLoading != null)
+						theLoading.cancel(thePolicy.executor != null);
+					if (thePolicy.maxInFlight > 0 && theInFlight >= thePolicy.maxInFlight)
+						return; // Will be started when a load finishes
+					isLoadPending = false;
+					theLastLoadStart = now;
+					theInFlight++;
+					int thisLoadId = theLoadId.get() + 1;
+					theLoadId.set(thisLoadId, cause);
+					if(thePreviousValue!=null)
+						thePreviousValue.set(theCurrentValue, cause);
+					if (theWhileLoadingSub == null && theWhileLoading != null && !isServingCached)
+						theWhileLoadingSub = theWhileLoading.changes().act(this::whileLoading);
+					load = new Load(thisLoadId, theRefreshingStamp, theCache == null ? null : getCacheKey());
+					theLoading = load;
+				}
+			}
+
+			if (load == null) {
+				QommonsTimer.getCommonInstance().doAfterInactivity(this, () -> startPending(null), Duration.ofMillis(delay));
+				return;
+			}
+			try {
+				if (thePolicy.executor != null)
+					thePolicy.executor.execute(load);
+				else
+					QommonsTimer.getCommonInstance().offload(load);
+			} catch (RejectedExecutionException e) {
+				theReporting.error("Load rejected by " + thePolicy.executor, e);
+				load.cancel(false);
+			}
+		}
+
+		void loadFinished(boolean ran) {
+			synchronized (this) {
+				theInFlight--;
 			}
+			// A load cancelled before it ran was superseded by one that is already being started
+			if (ran)
+				startPending(null);
+		}
 
-			QommonsTimer.getCommonInstance().offload(() -> {
-				T newValue = theValue.get();
-				T oldValue;
+		void load(int loadId, long refreshStamp, Object cacheKey) {
+			long start = System.nanoTime();
+			T newValue;
+			try {
+				newValue = theValue.get();
+			} catch (RuntimeException e) {
+				boolean current;
 				synchronized (this) {
-					if (thisLoadId != theLoadId.get())
-						return;
-					oldValue = theCurrentValue;
-					theValueStamp = refreshStamp;
-					theCurrentValue = newValue;
-					if (theWhileLoadingSub != null) {
-						theWhileLoadingSub.unsubscribe();
-						theWhileLoadingSub = null;
+					// Failures of superseded (and possibly interrupted) loads don't matter.
+					// A load is superseded as soon as a newer refresh is requested, even if its load has not started yet.
+					current = loadId == theLoadId.get() && !isLoadPending;
+					if (current) {
+						// Stop following the while-loading value, which will be shown until the next successful load
+						theLoading = null;
+						if (theWhileLoadingSub != null) {
+							theWhileLoadingSub.unsubscribe();
+							theWhileLoadingSub = null;
+						}
 					}
-					fireNewValue(oldValue, theCurrentValue, null);
 				}
-			});
+				if (current)
+					theReporting.error("Load failed", e);
+				return;
+			}
+			long loadTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			if (theCache != null) // Even if superseded, the value is still good for its key
+				theCache.put(cacheKey, newValue);
+			T oldValue;
+			synchronized (this) {
+				if (loadId != theLoadId.get())
+					return;
+				theLoading = null;
+				if (theLoadTime != null)
+					theLoadTime.set(loadTime, null);
+				oldValue = theCurrentValue;
+				theValueStamp = refreshStamp;
+				theCurrentValue = newValue;
+				if (theWhileLoadingSub != null) {
+					theWhileLoadingSub.unsubscribe();
+					theWhileLoadingSub = null;
+				}
+				fireNewValue(oldValue, theCurrentValue, null);
+			}
+		}
+
+		/** A load of the value, which keeps track of whether it is still in flight, whether it runs or is cancelled first */
+		class Load extends FutureTask<Void> {
+			private final AtomicBoolean isClaimed;
+
+			Load(int loadId, long refreshStamp, Object cacheKey) {
+				super(() -> load(loadId, refreshStamp, cacheKey), null);
+				isClaimed = new AtomicBoolean();
+			}
+
+			@Override
+			public void run() {
+				if (!isClaimed.compareAndSet(false, true))
+					return;
+				try {
+					super.run();
+				} finally {
+					loadFinished(true);
+				}
+			}
+
+			@Override
+			protected void done() {
+				if (isClaimed.compareAndSet(false, true)) // Cancelled before running
+					loadFinished(false);
+			}
 		}
 
 		synchronized void whileLoading(ObservableValueEvent<T> evt) {
@@ -428,15 +773,22 @@ public class SlowValueDef extends AbstractCompiledValue {
 			SettableValue<T> newWhileLoading = theWhileLoading == null ? null
 				: ((ModelValueInstantiator<SettableValue<T>>) (Object) typeData.getInstantiator(WHILE_LOADING))//
 				.forModelCopy(theWhileLoading, sourceModels, newModels);
-			if (newValue != theValue || newRefresh != theRefresh || newWhileLoading != theWhileLoading) {
+			SettableValue<?> newCacheKey = theCacheKey == null ? null
+				: ((ModelValueInstantiator<SettableValue<?>>) (Object) typeData.getInstantiator(CACHE_KEY))//
+				.forModelCopy(theCacheKey, sourceModels, newModels);
+			if (newValue != theValue || newRefresh != theRefresh || newWhileLoading != theWhileLoading || newCacheKey != theCacheKey) {
 				SettableValue<Integer> newLoadId = SettableValue.create(0);
 				ExWithElementModel.satisfyElementValue(typeData.getValueId(LOAD_ID), newModels, newLoadId, ActionIfSatisfied.Replace);
+				SettableValue<Long> newLoadTime = theLoadTime == null ? null : SettableValue.create(0L);
+				if (newLoadTime != null)
+					ExWithElementModel.satisfyElementValue(typeData.getValueId(LOAD_TIME), newModels, newLoadTime,
+						ActionIfSatisfied.Replace);
 				SettableValue<T> newPreviousValue = thePreviousValue==null ? null : SettableValue.create();
 				if(newPreviousValue!=null)
 					ExWithElementModel.satisfyElementValue(typeData.getValueId(PREVIOUS_VALUE), newModels, newPreviousValue,
 						ActionIfSatisfied.Replace);
-				return new SlowValueDef.SlowValue<>(newLoadId, newPreviousValue, newValue, newRefresh, newWhileLoading,
-					theLock.getThreadConstraint(), reporting);
+				return new SlowValueDef.SlowValue<>(newLoadId, newLoadTime, newPreviousValue, newValue, newRefresh, newWhileLoading,
+					theLock.getThreadConstraint(), thePolicy, theCache, newCacheKey, reporting);
 			} else
 				return this;
 		}
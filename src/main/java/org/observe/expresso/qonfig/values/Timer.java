@@ -43,11 +43,17 @@ public class Timer extends ModelValueElement.Def.SingleTyped<SettableValue<?>, M
 implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<SettableValue<Instant>>> {
 	/** The XML name of this type */
 	public static final String TIMER = "timer";
+	/** The {@link #getScheduler() scheduler} value for the common {@link QommonsTimer} */
+	public static final String COMMON_SCHEDULER = "common";
+	/** The {@link #getScheduler() scheduler} value for the common {@link TimerWheel} */
+	public static final String WHEEL_SCHEDULER = "wheel";
 
 	private CompiledExpression isActive;
 	private CompiledExpression theFrequency;
 	private boolean isStrictTiming;
-	private boolean isBackground;
+	private BackgroundExecution.Background theBackground;
+	private BackgroundExecution.Overlap theOverlap;
+	private String theScheduler;
 	private CompiledExpression theRemainingExecutions;
 	private CompiledExpression theUntil;
 	private CompiledExpression theRunNextIn;
@@ -87,9 +93,35 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 	}
 
 	/** @return Whether this timer executes in the background (not on the UI thread) */
-	@QonfigAttributeGetter("background")
 	public boolean isBackground() {
-		return isBackground;
+		return theBackground != BackgroundExecution.Background.NONE;
+	}
+
+	/**
+	 * @return Where this timer executes: on the UI thread, on the common timer's thread, or each execution on its own (virtual, if
+	 *         supported) thread
+	 */
+	@QonfigAttributeGetter("background")
+	public BackgroundExecution.Background getBackgroundMode() {
+		return theBackground;
+	}
+
+	/**
+	 * @return What to do when this timer comes due while its previous execution is still running. Only used for
+	 *         {@link BackgroundExecution.Background#VIRTUAL virtual} background execution.
+	 */
+	@QonfigAttributeGetter("overlap")
+	public BackgroundExecution.Overlap getOverlap() {
+		return theOverlap;
+	}
+
+	/**
+	 * @return The scheduler that executes this timer: {@value #COMMON_SCHEDULER} for the common {@link QommonsTimer}, or
+	 *         {@value #WHEEL_SCHEDULER} for the common {@link TimerWheel}, which scales better to large numbers of timers
+	 */
+	@QonfigAttributeGetter("scheduler")
+	public String getScheduler() {
+		return theScheduler;
 	}
 
 	/** @return The number of executions left before the timer stops (not set (null) by default) */
@@ -133,7 +165,9 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 		isActive = getAttributeExpression("active", session);
 		theFrequency = getAttributeExpression("frequency", session);
 		isStrictTiming = session.getAttribute("strict-timing", boolean.class);
-		isBackground = session.getAttribute("background", boolean.class);
+		theBackground = BackgroundExecution.Background.parse(session.getAttributeText("background"));
+		theOverlap = BackgroundExecution.Overlap.parse(session.getAttributeText("overlap"));
+		theScheduler = session.getAttributeText("scheduler");
 		theRemainingExecutions = getAttributeExpression("remaining-executions", session);
 		theUntil = getAttributeExpression("until", session);
 		theRunNextIn = getAttributeExpression("run-next-in", session);
@@ -254,7 +288,9 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 		private final ModelValueInstantiator<SettableValue<Boolean>> isActive;
 		private final ModelValueInstantiator<SettableValue<Duration>> theFrequency;
 		private final boolean isStrictTiming;
-		private final boolean isBackground;
+		private final BackgroundExecution.Background theBackground;
+		private final BackgroundExecution.Overlap theOverlap;
+		private final boolean isWheelScheduled;
 		private final ModelValueInstantiator<SettableValue<Integer>> theRemainingExecutions;
 		private final ModelValueInstantiator<SettableValue<Instant>> theUntil;
 		private final ModelValueInstantiator<SettableValue<Duration>> theRunNextIn;
@@ -262,13 +298,16 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 		private final ModelValueInstantiator<SettableValue<Integer>> theExecutionCount;
 		private final ModelValueInstantiator<SettableValue<Boolean>> isExecuting;
 		private final ErrorReporting theActionReporting;
+		private final ErrorReporting theReporting;
 
 		Instantiator(Timer.Interpreted interpreted) throws ModelInstantiationException {
 			super(interpreted);
 			isActive = interpreted.isActive().instantiate();
 			theFrequency = interpreted.getFrequency().instantiate();
 			isStrictTiming = interpreted.getDefinition().isStrictTiming();
-			isBackground = interpreted.getDefinition().isBackground();
+			theBackground = interpreted.getDefinition().getBackgroundMode();
+			theOverlap = interpreted.getDefinition().getOverlap();
+			isWheelScheduled = WHEEL_SCHEDULER.equals(interpreted.getDefinition().getScheduler());
 			theRemainingExecutions = interpreted.getRemainingExecutions() == null ? null
 				: interpreted.getRemainingExecutions().instantiate();
 			theUntil = interpreted.getUntil() == null ? null : interpreted.getUntil().instantiate();
@@ -278,6 +317,7 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 			isExecuting = interpreted.isExecuting() == null ? null : interpreted.isExecuting().instantiate();
 			theActionReporting = getElementValue() == null ? null
 				: interpreted.reporting().at(interpreted.getDefinition().getElementValue().getFilePosition());
+			theReporting = interpreted.reporting();
 		}
 
 		/** @return Controls when the timer is active */
@@ -297,7 +337,22 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 
 		/** @return Whether this timer executes in the background (not on the UI thread) */
 		public boolean isBackground() {
-			return isBackground;
+			return theBackground != BackgroundExecution.Background.NONE;
+		}
+
+		/** @return Where this timer executes */
+		public BackgroundExecution.Background getBackgroundMode() {
+			return theBackground;
+		}
+
+		/** @return What to do when this timer comes due while its previous execution is still running */
+		public BackgroundExecution.Overlap getOverlap() {
+			return theOverlap;
+		}
+
+		/** @return Whether this timer is executed by the common {@link TimerWheel}, as opposed to the common {@link QommonsTimer} */
+		public boolean isWheelScheduled() {
+			return isWheelScheduled;
 		}
 
 		/** @return The number of executions left before the timer stops (not set (null) by default) */
@@ -370,8 +425,8 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 			SettableValue<Integer> executionCount = theExecutionCount == null ? null : theExecutionCount.get(models);
 			SettableValue<Boolean> executing = isExecuting == null ? null : isExecuting.get(models);
 			ObservableAction action = getElementValue() == null ? null : getElementValue().get(models);
-			return new TimerInstance(active, frequency, isStrictTiming, isBackground, remainingExecutions, until, runNextIn,
-				nextExecution, executionCount, executing, action, theActionReporting);
+			return new TimerInstance(active, frequency, isStrictTiming, theBackground, theOverlap, isWheelScheduled, remainingExecutions,
+				until, runNextIn, nextExecution, executionCount, executing, action, theActionReporting, theReporting);
 		}
 
 		@Override
@@ -397,18 +452,113 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 			if (active != timer.isActive || frequency != timer.theFrequency || remainingExecutions != timer.theRemainingExecutions
 				|| until != timer.theUntil || runNextIn != timer.theRunNextIn || nextExecution != timer.theNextExecution
 				|| executionCount != timer.theExecutionCount || executing != timer.isExecuting || action != timer.theAction)
-				return new TimerInstance(active, frequency, isStrictTiming, isBackground, remainingExecutions, until, runNextIn,
-					nextExecution, executionCount, executing, action, theActionReporting);
+				return new TimerInstance(active, frequency, isStrictTiming, theBackground, theOverlap, isWheelScheduled, remainingExecutions,
+					until, runNextIn, nextExecution, executionCount, executing, action, theActionReporting, theReporting);
 			else
 				return timer;
 		}
 	}
 
+	/** The scheduling of a {@link TimerInstance}'s executions */
+	interface TimerSchedule {
+		void setFrequency(Duration frequency, boolean strict);
+
+		void setActive(boolean active);
+
+		void runNextIn(Duration delay);
+
+		void runNextAt(Instant time);
+
+		Instant getPreviousExecution();
+
+		Instant getNextExecution();
+	}
+
+	/** Schedules a timer with the common {@link QommonsTimer} */
+	static class CommonTimerSchedule implements TimerSchedule {
+		private final QommonsTimer.TaskHandle theHandle;
+
+		CommonTimerSchedule(QommonsTimer.TaskHandle handle) {
+			theHandle = handle;
+		}
+
+		@Override
+		public void setFrequency(Duration frequency, boolean strict) {
+			theHandle.setFrequency(frequency, strict);
+		}
+
+		@Override
+		public void setActive(boolean active) {
+			theHandle.setActive(active);
+		}
+
+		@Override
+		public void runNextIn(Duration delay) {
+			theHandle.runNextIn(delay);
+		}
+
+		@Override
+		public void runNextAt(Instant time) {
+			theHandle.runNextAt(time);
+		}
+
+		@Override
+		public Instant getPreviousExecution() {
+			return theHandle.getPreviousExecution();
+		}
+
+		@Override
+		public Instant getNextExecution() {
+			return theHandle.getNextExecution();
+		}
+	}
+
+	/** Schedules a timer with a {@link TimerWheel} */
+	static class WheelSchedule implements TimerSchedule {
+		private final TimerWheel.Task theTask;
+
+		WheelSchedule(TimerWheel.Task task) {
+			theTask = task;
+		}
+
+		@Override
+		public void setFrequency(Duration frequency, boolean strict) {
+			theTask.setFrequency(frequency, strict);
+		}
+
+		@Override
+		public void setActive(boolean active) {
+			theTask.setActive(active);
+		}
+
+		@Override
+		public void runNextIn(Duration delay) {
+			theTask.runNextIn(delay);
+		}
+
+		@Override
+		public void runNextAt(Instant time) {
+			theTask.runNextAt(time);
+		}
+
+		@Override
+		public Instant getPreviousExecution() {
+			return theTask.getPreviousExecution();
+		}
+
+		@Override
+		public Instant getNextExecution() {
+			return theTask.getNextExecution();
+		}
+	}
+
 	static class TimerInstance extends WrappingSettableValue<Instant> {
 		final SettableValue<Boolean> isActive;
 		final SettableValue<Duration> theFrequency;
 		final boolean isStrictTiming;
 		final boolean isBackground;
+		/** Runs the action for virtual background execution, null otherwise */
+		final BackgroundExecution theExecution;
 		final SettableValue<Integer> theRemainingExecutions;
 		final SettableValue<Instant> theUntil;
 		final SettableValue<Duration> theRunNextIn;
@@ -418,20 +568,23 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 		final ObservableAction theAction;
 		final ErrorReporting theActionReporting;
 
-		final QommonsTimer.TaskHandle theHandle;
+		final TimerSchedule theHandle;
 		private final Causable.CausableKey theExecuteFinish;
 
 		private volatile boolean theCallbackLock;
 
-		TimerInstance(SettableValue<Boolean> active, SettableValue<Duration> frequency, boolean strictTiming, boolean background,
+		TimerInstance(SettableValue<Boolean> active, SettableValue<Duration> frequency, boolean strictTiming,
+			BackgroundExecution.Background background, BackgroundExecution.Overlap overlap, boolean wheelScheduled,
 			SettableValue<Integer> remainingExecutions, SettableValue<Instant> until, SettableValue<Duration> runNextIn,
 			SettableValue<Instant> nextExecution, SettableValue<Integer> executionCount, SettableValue<Boolean> executing,
-			ObservableAction action, ErrorReporting actionReporting) {
+			ObservableAction action, ErrorReporting actionReporting, ErrorReporting reporting) {
 			super(SettableValue.<Instant> build().withDescription("timer").build());
 			isActive = active;
 			theFrequency = frequency;
 			isStrictTiming = strictTiming;
-			isBackground = background;
+			isBackground = background != BackgroundExecution.Background.NONE;
+			theExecution = background == BackgroundExecution.Background.VIRTUAL && action != null
+				? new BackgroundExecution(background, overlap, this::executionsFinished, reporting) : null;
 			theRemainingExecutions = remainingExecutions;
 			theUntil = until;
 			theRunNextIn = runNextIn;
@@ -441,10 +594,17 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 			theAction = action;
 			theActionReporting = actionReporting;
 
-			QommonsTimer.TaskHandle task = QommonsTimer.getCommonInstance().build(this::executeIfAllowed, theFrequency.get(),
-				isStrictTiming);
-			if (!isBackground)
-				task.onEDT();
+			TimerSchedule task;
+			if (wheelScheduled)
+				task = new WheelSchedule(TimerWheel.getCommonInstance().build(this::executeIfAllowed, !isBackground, reporting)//
+					.setFrequency(theFrequency.get(), isStrictTiming));
+			else {
+				QommonsTimer.TaskHandle handle = QommonsTimer.getCommonInstance().build(this::executeIfAllowed, theFrequency.get(),
+					isStrictTiming);
+				if (!isBackground)
+					handle.onEDT();
+				task = new CommonTimerSchedule(handle);
+			}
 			theHandle = task;
 			theExecuteFinish = Causable.key((cause, data) -> {
 			}, (cause, data) -> {
@@ -508,22 +668,48 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 		}
 
 		private void execute(ObservableValueEvent<Instant> event) {
+			if (theExecution != null && theExecution.isSkipping())
+				return; // The previous execution is still running
 			if (isExecuting != null && isExecuting.isAcceptable(true) == null) {
 				isExecuting.set(true, event);
-				event.onFinish(theExecuteFinish);
+				// For virtual background execution, executing is reset when the executions finish
+				if (theExecution == null)
+					event.onFinish(theExecuteFinish);
 			}
+			if (theExecution != null) {
+				// Executions are only counted as they start, since queued executions may be replaced and cancelled ones never run
+				Causable cause = Causable.broken(event);
+				theExecution.execute(() -> {
+					if (countExecution(cause))
+						executeAction(cause);
+				});
+			} else if (countExecution(event) && theAction != null)
+				executeAction(event);
+		}
+
+		/**
+		 * Updates the remaining executions, next execution, and execution count for an execution that is starting
+		 *
+		 * @param cause The cause of the execution
+		 * @return False if the timer has no executions remaining, so the execution should not be performed
+		 */
+		private synchronized boolean countExecution(Object cause) {
 			if (theRemainingExecutions != null) {
 				Integer remaining = theRemainingExecutions.get();
-				if (remaining != null && remaining > 0) {
+				if (remaining != null) {
+					if (remaining <= 0) {
+						deactivate();
+						return false;
+					}
 					remaining = remaining - 1;
 					if (theRemainingExecutions.isAcceptable(remaining) == null)
-						theRemainingExecutions.set(remaining, event);
+						theRemainingExecutions.set(remaining, cause);
 				}
 			}
 			if (theNextExecution != null && theNextExecution.isAcceptable(theHandle.getNextExecution()) == null) {
 				theCallbackLock = true;
 				try {
-					theNextExecution.set(theHandle.getNextExecution(), event);
+					theNextExecution.set(theHandle.getNextExecution(), cause);
 				} finally {
 					theCallbackLock = false;
 				}
@@ -532,17 +718,24 @@ implements ModelValueElement.CompiledSynth<SettableValue<?>, ModelValueElement<S
 				Integer count = theExecutionCount.get();
 				count = count == null ? 1 : count + 1;
 				if (theExecutionCount.isAcceptable(count) == null)
-					theExecutionCount.set(count, event);
+					theExecutionCount.set(count, cause);
 			}
-			if (theAction != null) {
-				try {
-					theAction.act(event);
-				} catch (Throwable e) {
-					theActionReporting.error("Timer action throw an exception", e);
-				}
+			return true;
+		}
+
+		private void executeAction(Object cause) {
+			try {
+				theAction.act(cause);
+			} catch (Throwable e) {
+				theActionReporting.error("Timer action throw an exception", e);
 			}
 		}
 
+		private void executionsFinished() {
+			if (isExecuting != null && isExecuting.isAcceptable(false) == null)
+				isExecuting.set(false, null);
+		}
+
 		private void activate(Instant nextRun, Object cause, boolean activateTask) {
 			if (nextRun == null)
 				nextRun = Instant.now();
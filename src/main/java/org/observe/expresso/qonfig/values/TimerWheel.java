@@ -0,0 +1,370 @@
+package org.observe.expresso.qonfig.values;
+
+import java.awt.EventQueue;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.qommons.io.ErrorReporting;
+import org.qommons.threading.QommonsTimer;
+
+/**
+ * <p>
+ * A scheduler for large numbers of timed tasks, backed by a hierarchical timing wheel.
+ * </p>
+ * <p>
+ * Time is divided into ticks. Tasks due within the next {@link #getWheelSize() wheel size} ticks are kept in the slot for their tick of
+ * the lowest wheel. Tasks due later are kept in coarser slots of higher wheels, and are cascaded down as their time approaches. So
+ * scheduling, re-scheduling, and cancelling a task are constant-time, and the wheel's single thread only wakes up for ticks that have
+ * tasks due. It sleeps indefinitely while the wheel is empty.
+ * </p>
+ * <p>
+ * All the tasks due in a tick are executed together as a batch: one batch on the AWT event queue for tasks that execute there, and one
+ * batch offloaded to the {@link QommonsTimer#getCommonInstance() common timer} for the others. Strictly-timed periodic tasks are
+ * scheduled on a grid of their frequency, so tasks with the same frequency are due in the same tick and are executed in the same batch.
+ * A task that is cancelled or re-scheduled after its batch is collected, e.g. by another task in the batch, is skipped.
+ * </p>
+ * <p>
+ * Ticks are counted on the monotonic {@link System#nanoTime() nano clock}, so adjustments to the system clock neither fire tasks early
+ * nor stall them. Execution times are reported as instants measured from the wheel's creation on that clock.
+ * </p>
+ */
+public class TimerWheel {
+	private static final TimerWheel COMMON = new TimerWheel("Expresso Timer Wheel", Duration.ofMillis(10), 256);
+
+	/** @return The shared timer wheel */
+	public static TimerWheel getCommonInstance() {
+		return COMMON;
+	}
+
+	private final String theName;
+	private final long theTickMillis;
+	private final int theWheelSize;
+	private final long theOriginMillis;
+	private final long theOriginNanos;
+	/** Slots for each wheel. Each slot of wheel <code>w</code> spans <code>wheelSize^w</code> ticks. */
+	private final List<LinkedHashSet<Task>[]> theWheels;
+	private long theCurrentTick;
+	private int theTaskCount;
+	private Thread theThread;
+
+	/**
+	 * @param name The name for the wheel's thread
+	 * @param tick The resolution of the wheel
+	 * @param wheelSize The number of slots in each wheel
+	 */
+	public TimerWheel(String name, Duration tick, int wheelSize) {
+		if (tick.toMillis() <= 0)
+			throw new IllegalArgumentException("Tick must be at least a millisecond");
+		else if (wheelSize < 2)
+			throw new IllegalArgumentException("Wheel size must be at least 2");
+		theName = name;
+		theTickMillis = tick.toMillis();
+		theWheelSize = wheelSize;
+		theWheels = new ArrayList<>();
+		theOriginMillis = System.currentTimeMillis();
+		theOriginNanos = System.nanoTime();
+		theCurrentTick = now() / theTickMillis;
+	}
+
+	/** @return The current time in epoch milliseconds, as measured by the monotonic clock from this wheel's creation */
+	private long now() {
+		return theOriginMillis + (System.nanoTime() - theOriginNanos) / 1_000_000;
+	}
+
+	/** @return The resolution of this wheel */
+	public Duration getTick() {
+		return Duration.ofMillis(theTickMillis);
+	}
+
+	/** @return The number of slots in each wheel */
+	public int getWheelSize() {
+		return theWheelSize;
+	}
+
+	/** @return The number of tasks currently scheduled in this wheel */
+	public synchronized int getTaskCount() {
+		return theTaskCount;
+	}
+
+	/**
+	 * @param action The action for the task to perform
+	 * @param onEdt Whether the task should execute on the AWT event queue, as opposed to in the background
+	 * @param reporting The error reporting for exceptions thrown by the action
+	 * @return The new task, which is inactive until {@link Task#setActive(boolean) activated} or {@link Task#runNextIn(Duration)
+	 *         scheduled}
+	 */
+	public Task build(Runnable action, boolean onEdt, ErrorReporting reporting) {
+		return new Task(action, onEdt, reporting);
+	}
+
+	private void schedule(Task task, long atMillis) {
+		if (theTaskCount == 0) // Nothing to process in the time we were idle
+			theCurrentTick = Math.max(theCurrentTick, now() / theTickMillis - 1);
+		long tick = Math.max((atMillis + theTickMillis - 1) / theTickMillis, theCurrentTick + 1);
+		task.theNextExecution = tick * theTickMillis;
+		insert(task, tick);
+		theTaskCount++;
+		if (theThread == null) {
+			theThread = new Thread(this::run, theName);
+			theThread.setDaemon(true);
+			theThread.start();
+		} else
+			notify();
+	}
+
+	private void insert(Task task, long tick) {
+		long delta = tick - theCurrentTick;
+		int wheel = 0;
+		long span = 1;
+		while (delta >= span * theWheelSize) {
+			span *= theWheelSize;
+			wheel++;
+		}
+		while (theWheels.size() <= wheel)
+			theWheels.add(new LinkedHashSet[theWheelSize]);
+		LinkedHashSet<Task>[] slots = theWheels.get(wheel);
+		int index = (int) ((tick / span) % theWheelSize);
+		if (slots[index] == null)
+			slots[index] = new LinkedHashSet<>();
+		slots[index].add(task);
+		task.theSlot = slots[index];
+		task.theTick = tick;
+	}
+
+	private void unschedule(Task task) {
+		task.theNextExecution = 0; // Also clears the pending next execution of a running non-strict task
+		task.isDue = false; // Skip it if its batch hasn't executed it yet
+		if (task.theSlot == null)
+			return;
+		task.theSlot.remove(task);
+		task.theSlot = null;
+		theTaskCount--;
+	}
+
+	private void run() {
+		List<Task> edtBatch = new ArrayList<>();
+		List<Task> backgroundBatch = new ArrayList<>();
+		while (true) {
+			synchronized (this) {
+				try {
+					if (theTaskCount == 0) {
+						wait();
+						continue;
+					}
+					long nowTick = now() / theTickMillis;
+					if (nowTick <= theCurrentTick) {
+						wait(Math.max(1, getNextDueTick() * theTickMillis - now()));
+						continue;
+					}
+					while (theCurrentTick < nowTick)
+						advance(edtBatch, backgroundBatch);
+				} catch (InterruptedException e) {
+					continue;
+				}
+			}
+			if (!edtBatch.isEmpty()) {
+				Task[] batch = edtBatch.toArray(new Task[edtBatch.size()]);
+				edtBatch.clear();
+				EventQueue.invokeLater(() -> execute(batch));
+			}
+			if (!backgroundBatch.isEmpty()) {
+				Task[] batch = backgroundBatch.toArray(new Task[backgroundBatch.size()]);
+				backgroundBatch.clear();
+				QommonsTimer.getCommonInstance().offload(() -> execute(batch));
+			}
+		}
+	}
+
+	/** @return The next tick which may have tasks due: the next occupied slot of the lowest wheel, or the next cascade */
+	private long getNextDueTick() {
+		LinkedHashSet<Task>[] slots = theWheels.isEmpty() ? null : theWheels.get(0);
+		long tick = theCurrentTick + 1;
+		for (; tick % theWheelSize != 0; tick++) {
+			LinkedHashSet<Task> slot = slots == null ? null : slots[(int) (tick % theWheelSize)];
+			if (slot != null && !slot.isEmpty())
+				return tick;
+		}
+		return tick;
+	}
+
+	private void advance(List<Task> edtBatch, List<Task> backgroundBatch) {
+		theCurrentTick++;
+		// Cascade tasks from higher wheels whose slots are now within reach of the wheel below
+		long span = theWheelSize;
+		for (int w = 1; w < theWheels.size() && theCurrentTick % span == 0; w++, span *= theWheelSize) {
+			LinkedHashSet<Task>[] slots = theWheels.get(w);
+			int index = (int) ((theCurrentTick / span) % theWheelSize);
+			LinkedHashSet<Task> slot = slots[index];
+			if (slot == null || slot.isEmpty())
+				continue;
+			slots[index] = null;
+			for (Task task : slot)
+				insert(task, task.theTick);
+		}
+		if (theWheels.isEmpty())
+			return;
+		LinkedHashSet<Task>[] slots = theWheels.get(0);
+		int index = (int) (theCurrentTick % theWheelSize);
+		LinkedHashSet<Task> slot = slots[index];
+		if (slot == null || slot.isEmpty())
+			return;
+		slots[index] = null;
+		long now = theCurrentTick * theTickMillis;
+		for (Task task : slot) {
+			task.theSlot = null;
+			task.theNextExecution = 0;
+			task.thePreviousExecution = now;
+			task.isDue = true;
+			// Strictly-timed tasks are re-scheduled on their frequency's grid, regardless of how long they take to execute
+			if (task.theFrequency > 0 && task.isStrict)
+				schedule(task, (now / task.theFrequency + 1) * task.theFrequency);
+			else if (task.theFrequency > 0) // Re-scheduled after executing, but expose the pending time in the meantime
+				task.theNextExecution = now + task.theFrequency;
+			theTaskCount--; // After re-scheduling, so the wheel isn't seen as idle mid-advance
+			(task.isOnEdt ? edtBatch : backgroundBatch).add(task);
+		}
+	}
+
+	private void execute(Task[] batch) {
+		for (Task task : batch) {
+			synchronized (this) {
+				if (!task.isDue)
+					continue; // Cancelled or re-scheduled since the batch was collected
+				task.isDue = false;
+			}
+			try {
+				task.theAction.run();
+			} catch (RuntimeException | Error e) {
+				task.theReporting.error("Timer task threw an exception", e);
+			}
+			synchronized (this) {
+				// Non-strict tasks wait their frequency after the end of each execution
+				if (task.isActive && task.theFrequency > 0 && !task.isStrict && task.theSlot == null)
+					schedule(task, now() + task.theFrequency);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return theName;
+	}
+
+	/** A task scheduled in a {@link TimerWheel} */
+	public class Task {
+		final Runnable theAction;
+		final boolean isOnEdt;
+		final ErrorReporting theReporting;
+		boolean isActive;
+		long theFrequency;
+		boolean isStrict;
+		long thePreviousExecution;
+		long theNextExecution;
+		/** Whether this task is in a batch waiting to be executed */
+		boolean isDue;
+		LinkedHashSet<Task> theSlot;
+		long theTick;
+
+		Task(Runnable action, boolean onEdt, ErrorReporting reporting) {
+			theAction = action;
+			isOnEdt = onEdt;
+			theReporting = reporting;
+		}
+
+		/**
+		 * @param frequency The interval between executions of this task, or null to execute it only when explicitly scheduled
+		 * @param strict Whether the beginnings of executions are spaced by the frequency, as opposed to the end of one execution and
+		 *        the beginning of the next
+		 * @return This task
+		 */
+		public Task setFrequency(Duration frequency, boolean strict) {
+			synchronized (TimerWheel.this) {
+				theFrequency = frequency == null ? 0 : Math.max(1, frequency.toMillis());
+				isStrict = strict;
+				if (isActive && theFrequency > 0) {
+					unschedule(this);
+					schedule(this, nextPeriodic(now()));
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * @param active Whether this task should execute on its frequency
+		 * @return This task
+		 */
+		public Task setActive(boolean active) {
+			synchronized (TimerWheel.this) {
+				if (active == isActive)
+					return this;
+				isActive = active;
+				unschedule(this);
+				if (active && theFrequency > 0)
+					schedule(this, nextPeriodic(now()));
+			}
+			return this;
+		}
+
+		/** @return Whether this task is active */
+		public boolean isActive() {
+			return isActive;
+		}
+
+		/**
+		 * Activates this task and schedules its next execution
+		 *
+		 * @param delay The time from now at which to execute this task next
+		 * @return This task
+		 */
+		public Task runNextIn(Duration delay) {
+			return runNext(now() + delay.toMillis());
+		}
+
+		/**
+		 * Activates this task and schedules its next execution
+		 *
+		 * @param time The time at which to execute this task next
+		 * @return This task
+		 */
+		public Task runNextAt(Instant time) {
+			// The time is on the system clock, so it is measured from the current system time
+			return runNext(now() + time.toEpochMilli() - System.currentTimeMillis());
+		}
+
+		private Task runNext(long atMillis) {
+			synchronized (TimerWheel.this) {
+				isActive = true;
+				unschedule(this);
+				schedule(this, atMillis);
+			}
+			return this;
+		}
+
+		/** @return The time at which this task last began executing, or null if it has not executed */
+		public Instant getPreviousExecution() {
+			long previous = thePreviousExecution;
+			return previous == 0 ? null : Instant.ofEpochMilli(previous);
+		}
+
+		/** @return The time at which this task is next scheduled to execute, or null if it is not scheduled */
+		public Instant getNextExecution() {
+			long next = theNextExecution;
+			return next == 0 ? null : Instant.ofEpochMilli(next);
+		}
+
+		private long nextPeriodic(long now) {
+			if (isStrict)
+				return (now / theFrequency + 1) * theFrequency;
+			else
+				return now + theFrequency;
+		}
+
+		@Override
+		public String toString() {
+			return TimerWheel.this + " task(" + theAction + ")";
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package org.observe.expresso;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** A little java class used by some of the Expresso tests to count and control evaluations of expressions and actions */
+public class ExpressoTestCounter {
+	/** The amount of time, in milliseconds, that the waiting methods of this class will wait before failing */
+	public static final long TIMEOUT = 5000;
+
+	private final AtomicInteger theCount = new AtomicInteger();
+	private final AtomicInteger theInterrupts = new AtomicInteger();
+	private final Semaphore thePermits = new Semaphore(0);
+
+	/**
+	 * Increments this counter
+	 *
+	 * @param value The value to return
+	 * @return The given value
+	 */
+	public int count(int value) {
+		theCount.incrementAndGet();
+		return value;
+	}
+
+	/**
+	 * Increments this counter
+	 *
+	 * @param value Ignored, but may be used to cause an expression calling this method to be re-evaluated
+	 * @return The name of the current thread
+	 */
+	public String countThread(int value) {
+		theCount.incrementAndGet();
+		return Thread.currentThread().getName();
+	}
+
+	/** @return The number of times this counter has been incremented */
+	public int getCount() {
+		return theCount.get();
+	}
+
+	/**
+	 * Waits for this counter to reach the given count
+	 *
+	 * @param count The count to wait for
+	 * @throws AssertionError If the count is not reached within the {@link #TIMEOUT}
+	 */
+	public void awaitCount(int count) throws AssertionError {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (theCount.get() < count) {
+			if (System.currentTimeMillis() >= end)
+				throw new AssertionError("Expected count " + count + ", but was " + theCount.get());
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new AssertionError("Interrupted", e);
+			}
+		}
+	}
+
+	/**
+	 * Ensures that this counter keeps the given count for a time
+	 *
+	 * @param count The count that this counter should keep
+	 * @param duration The time, in milliseconds, for which to check the count
+	 * @throws AssertionError If the count is not as expected at any point during the duration
+	 */
+	public void assertCountStays(int count, long duration) throws AssertionError {
+		long end = System.currentTimeMillis() + duration;
+		do {
+			if (theCount.get() != count)
+				throw new AssertionError("Expected count " + count + ", but was " + theCount.get());
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new AssertionError("Interrupted", e);
+			}
+		} while (System.currentTimeMillis() < end);
+	}
+
+	/**
+	 * Increments this counter, then blocks until a permit is {@link #release(int) released}
+	 *
+	 * @throws IllegalStateException If no permit is released within the {@link #TIMEOUT}, or the thread is {@link #getInterrupts()
+	 *         interrupted} while waiting
+	 */
+	public void pass() throws IllegalStateException {
+		theCount.incrementAndGet();
+		try {
+			if (!thePermits.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS))
+				throw new IllegalStateException("No permit released");
+		} catch (InterruptedException e) {
+			theInterrupts.incrementAndGet();
+			throw new IllegalStateException("Interrupted", e);
+		}
+	}
+
+	/**
+	 * Increments this counter, then blocks until a permit is {@link #release(int) released}
+	 *
+	 * @param value The value to return
+	 * @return The given value
+	 * @throws IllegalStateException If no permit is released within the {@link #TIMEOUT}, or the thread is {@link #getInterrupts()
+	 *         interrupted} while waiting
+	 */
+	public int passValue(int value) throws IllegalStateException {
+		pass();
+		return value;
+	}
+
+	/** @return The number of times a thread has been interrupted while waiting in {@link #pass()} */
+	public int getInterrupts() {
+		return theInterrupts.get();
+	}
+
+	/** @param permits The number of calls to {@link #pass()} to allow through */
+	public void release(int permits) {
+		thePermits.release(permits);
+	}
+
+	@Override
+	public String toString() {
+		return "counter(" + theCount.get() + ")";
+	}
+}
@@ -1,17 +1,55 @@
 package org.observe.expresso;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.junit.Assert;
 import org.junit.Test;
+import org.observe.Observable;
+import org.observe.Observer;
 import org.observe.SettableValue;
 import org.observe.SimpleObservable;
+import org.observe.collect.ObservableCollection;
+import org.observe.collect.ObservableCollectionEvent;
+import org.observe.expresso.ObservableModelSet.ModelSetInstance;
+import org.observe.expresso.ObservableModelSet.ModelValueInstantiator;
+import org.observe.expresso.ops.FusedValueInstantiator;
 import org.observe.expresso.qonfig.ElementModelValue;
+import org.observe.expresso.qonfig.ExSort;
 import org.observe.expresso.qonfig.ExpressoHeadSection;
+import org.observe.expresso.qonfig.SharedRefresh;
+import org.observe.expresso.qonfig.values.SlowValueCache;
+import org.observe.expresso.qonfig.values.TimerWheel;
 import org.observe.expresso.tests.AbstractExpressoTest;
 import org.observe.util.TypeTokens;
+import org.qommons.Identifiable;
+import org.qommons.Subscription;
+import org.qommons.ex.ExceptionHandler;
+import org.qommons.io.ErrorReporting;
 import org.qommons.testing.TestUtil;
 
+import com.google.common.reflect.TypeToken;
+
 /** Some tests for Expresso functionality */
 public class ExpressoTests extends AbstractExpressoTest<ExpressoHeadSection> {
 	@Override
@@ -288,6 +326,927 @@ public class ExpressoTests extends AbstractExpressoTest<ExpressoHeadSection> {
 		executeTest("dynamicTypeInternalState2");
 	}
 
+	/**
+	 * Tests the hash-indexed join collection transformation
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testJoin() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("join");
+	}
+
+	/**
+	 * Tests memoization of mapped values
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testMemo() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("memo");
+	}
+
+	/**
+	 * Tests caching of sort keys
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSortKeyCaching() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("sortKeyCaching");
+	}
+
+	/**
+	 * Tests the window and page collection transformations
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testWindow() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("window");
+	}
+
+	/**
+	 * Tests loading slow values in a named thread pool
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValuePool() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValuePool");
+	}
+
+	/**
+	 * Tests loading slow values in an executor from the model
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValueExecutor() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValueExecutor");
+	}
+
+	/**
+	 * Tests debouncing loads of slow values
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValueDebounce() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValueDebounce");
+	}
+
+	/**
+	 * Tests the minimum interval between loads of slow values
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValueMinInterval() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValueMinInterval");
+	}
+
+	/**
+	 * Tests limiting the number of loads of slow values in flight, when superseded loads cannot be interrupted
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValueMaxInFlight() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValueMaxInFlight");
+	}
+
+	/**
+	 * Tests interruption of superseded loads of slow values blocked in an explicit executor
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValueCancelBlocked() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValueCancelBlocked");
+	}
+
+	/**
+	 * Tests caching of slow values
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSlowValueCache() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("slowValueCache");
+	}
+
+	/**
+	 * Tests timers scheduled in the shared timing wheel
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testTimerWheel() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("timerWheel");
+	}
+
+	/**
+	 * Tests actions run on their own threads, and their overlap policies
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testVirtualBackground() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("virtualBackground");
+	}
+
+	/**
+	 * Tests loops which run their iterations in slices
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testLoopSlicing() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("loopSlicing");
+	}
+
+	/**
+	 * Tests completion of background actions
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testAsyncCompletion() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("asyncCompletion");
+	}
+
+	/**
+	 * Tests parallel action groups
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testParallelGroup() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("parallelGroup");
+	}
+
+	/**
+	 * Tests the timed event transformations
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testEventTransforms() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("eventTransforms");
+	}
+
+	/**
+	 * Tests refreshing elements that share a refresh event
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSharedRefresh() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("sharedRefresh");
+	}
+
+	/**
+	 * Tests incremental maintenance of reduced values
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testReduce() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("reduce");
+	}
+
+	/**
+	 * Tests the built-in collection aggregates
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testAggregates() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("aggregates");
+	}
+
+	/**
+	 * Tests grouped aggregates
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testGroupAggregate() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("groupAggregate");
+	}
+
+	/**
+	 * Tests parallel evaluation of the initial mapping of a collection
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testParallelMap() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("parallelMap");
+	}
+
+	/** Tests interning of {@link ClassView}s */
+	@Test
+	public void testClassViewInterning() {
+		ClassLoader cl = ExpressoTests.class.getClassLoader();
+		ClassView view = ClassView.build().withClassLoader(cl)//
+			.withImport("java.util.List", null).withWildcardImport("java.time").build();
+		Assert.assertSame(view, ClassView.build().withClassLoader(cl)//
+			.withImport("java.util.List", null).withWildcardImport("java.time").build());
+		Assert.assertSame(view, view.copy().build());
+		Assert.assertEquals(List.class, view.getType("List"));
+		Assert.assertEquals(java.time.Instant.class, view.getType("Instant"));
+
+		Assert.assertNotSame(view, ClassView.build().withClassLoader(cl)//
+			.withImport("java.util.List", null).withWildcardImport("java.time").withWildcardImport("java.util").build());
+		// Imports are searched in order, so differently-ordered imports make different views
+		Assert.assertNotSame(ClassView.build().withClassLoader(cl).withWildcardImport("java.time").withWildcardImport("java.util").build(),
+			ClassView.build().withClassLoader(cl).withWildcardImport("java.util").withWildcardImport("java.time").build());
+		// Class loaders are compared by identity
+		URLClassLoader otherCL = new URLClassLoader(new URL[0], cl);
+		Assert.assertNotSame(view, ClassView.build().withClassLoader(otherCL)//
+			.withImport("java.util.List", null).withWildcardImport("java.time").build());
+
+		// The context class loader of the building thread is part of a view's identity
+		Thread thread = Thread.currentThread();
+		ClassLoader ccl = thread.getContextClassLoader();
+		thread.setContextClassLoader(otherCL);
+		ClassView otherContextView;
+		try {
+			otherContextView = ClassView.build().withClassLoader(cl)//
+				.withImport("java.util.List", null).withWildcardImport("java.time").build();
+		} finally {
+			thread.setContextClassLoader(ccl);
+		}
+		if (ccl != otherCL)
+			Assert.assertNotSame(view, otherContextView);
+
+		// Shared views cannot be modified
+		try {
+			view.addTypeRetriever(name -> null);
+			Assert.fail("Shared class view modified");
+		} catch (UnsupportedOperationException e) {
+		}
+		try {
+			view.removeTypeRetriever(name -> null);
+			Assert.fail("Shared class view modified");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	/**
+	 * Tests that timer executions are only counted as they start
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testTimerOverlap() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("timerOverlap");
+	}
+
+	/**
+	 * Tests cancellation of background actions
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testBackgroundCancel() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("backgroundCancel");
+	}
+
+	/**
+	 * Tests caching of the sort keys of mutable values by identity
+	 *
+	 * @throws ExpressoInterpretationException If an error occurs interpreting the test
+	 * @throws ModelInstantiationException If an error occurs instantiating the test values
+	 */
+	@Test
+	public void testSortKeyIdentityCaching() throws ExpressoInterpretationException, ModelInstantiationException {
+		executeTest("sortKeyIdentityCaching");
+	}
+
+	/**
+	 * Tests that a {@link SlowValueCache} only serves values of its value type, and only reads persisted entries written for its value
+	 * type and made of permitted classes
+	 *
+	 * @throws IOException If the cache file could not be written or read
+	 */
+	@Test
+	public void testSlowValueCacheSafety() throws IOException {
+		ErrorReporting reporting = new ErrorReporting.Default(null);
+		TypeToken<Integer> intType = TypeTokens.get().of(Integer.class);
+		TypeToken<String> stringType = TypeTokens.get().of(String.class);
+		SlowValueCache cache = SlowValueCache.get("cacheSafety", intType, null, 10, null, null, reporting);
+		cache.put("a", 5);
+		Assert.assertEquals(5, cache.get("a").getValue());
+		// A value not of the value type is never served
+		cache.put("b", "five");
+		Assert.assertNull(cache.get("b"));
+		// Re-configured for a different value type, e.g. for a re-loaded document, the old entries are discarded
+		Assert.assertSame(cache, SlowValueCache.get("cacheSafety", stringType, null, 10, null, null, reporting));
+		Assert.assertNull(cache.get("a"));
+
+		File file = File.createTempFile("slowValueCache", ".dat");
+		try {
+			// A file written for a different value type is ignored
+			writeSlowValueCache(file, intType + "|null", "a", 5);
+			Assert.assertNull(SlowValueCache.get("cacheSafety1", stringType, null, 10, null, file, reporting).get("a"));
+			Assert.assertEquals(5, SlowValueCache.get("cacheSafety2", intType, null, 10, null, file, reporting).get("a").getValue());
+
+			// Classes outside the permitted packages and unrelated to the value type are refused
+			TypeToken<Object> objectType = TypeTokens.get().of(Object.class);
+			writeSlowValueCache(file, objectType + "|null", "a", new ArrayList<>(Arrays.asList("x", "y")));
+			Assert.assertEquals(Arrays.asList("x", "y"),
+				SlowValueCache.get("cacheSafety3", objectType, null, 10, null, file, reporting).get("a").getValue());
+			writeSlowValueCache(file, objectType + "|null", "a", new URL("http://localhost/"));
+			Assert.assertNull(SlowValueCache.get("cacheSafety4", objectType, null, 10, null, file, reporting).get("a"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static void writeSlowValueCache(File file, String signature, Object key, Object value) throws IOException {
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+			out.writeUTF(signature);
+			out.writeInt(1);
+			out.writeObject(key);
+			out.writeObject(value);
+			out.writeLong(System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Tests that tasks due well beyond the range of the lowest wheel of a {@link TimerWheel} are cascaded down and executed in order
+	 *
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void testTimerWheelCascade() throws InterruptedException {
+		// With 4 slots per wheel, a task 300 ticks out starts in the 5th wheel and must be cascaded through all the ones below it
+		TimerWheel wheel = new TimerWheel("Test Timer Wheel", Duration.ofMillis(1), 4);
+		ErrorReporting reporting = new ErrorReporting.Default(null);
+		int[] delays = { 300, 3, 70, 17, 150 };
+		long[] elapsed = new long[delays.length];
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		long start = System.nanoTime();
+		for (int i = 0; i < delays.length; i++) {
+			int index = i;
+			wheel.build(() -> {
+				elapsed[index] = (System.nanoTime() - start) / 1_000_000;
+				order.add(delays[index]);
+			}, false, reporting).runNextIn(Duration.ofMillis(delays[i]));
+		}
+		Assert.assertEquals(delays.length, wheel.getTaskCount());
+		awaitTimerWheel(() -> order.size() == delays.length);
+		Assert.assertEquals(Arrays.asList(3, 17, 70, 150, 300), order);
+		for (int i = 0; i < delays.length; i++)
+			Assert.assertTrue("Executed " + delays[i] + "ms task after " + elapsed[i] + "ms", elapsed[i] >= delays[i] - 1);
+		Assert.assertEquals(0, wheel.getTaskCount());
+	}
+
+	/**
+	 * Tests that strictly-timed {@link TimerWheel} tasks with the same frequency are scheduled on the same grid, and so executed together
+	 *
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void testTimerWheelStrictGrid() throws InterruptedException {
+		TimerWheel wheel = new TimerWheel("Test Timer Wheel", Duration.ofMillis(1), 4);
+		ErrorReporting reporting = new ErrorReporting.Default(null);
+		TimerWheel.Task[] tasks = new TimerWheel.Task[2];
+		Instant[] executions = new Instant[tasks.length];
+		for (int i = 0; i < tasks.length; i++) {
+			int index = i;
+			tasks[i] = wheel.build(() -> {
+				synchronized (executions) {
+					if (executions[index] == null)
+						executions[index] = tasks[index].getPreviousExecution();
+				}
+			}, false, reporting).setFrequency(Duration.ofMillis(500), true);
+		}
+		activateTogether(tasks);
+		Assert.assertEquals(0, tasks[0].getNextExecution().toEpochMilli() % 500);
+		awaitTimerWheel(() -> {
+			synchronized (executions) {
+				return executions[0] != null && executions[1] != null;
+			}
+		});
+		Assert.assertEquals(executions[0], executions[1]);
+		for (TimerWheel.Task task : tasks)
+			task.setActive(false);
+		Assert.assertEquals(0, wheel.getTaskCount());
+	}
+
+	/**
+	 * Tests that a {@link TimerWheel} task cancelled by another task executing in the same batch is not executed
+	 *
+	 * @throws InterruptedException If the test is interrupted
+	 */
+	@Test
+	public void testTimerWheelCancelInBatch() throws InterruptedException {
+		TimerWheel wheel = new TimerWheel("Test Timer Wheel", Duration.ofMillis(1), 4);
+		ErrorReporting reporting = new ErrorReporting.Default(null);
+		AtomicInteger cancellerRuns = new AtomicInteger();
+		AtomicInteger cancelledRuns = new AtomicInteger();
+		TimerWheel.Task[] tasks = new TimerWheel.Task[2];
+		tasks[0] = wheel.build(() -> {
+			cancellerRuns.incrementAndGet();
+			tasks[0].setActive(false);
+			tasks[1].setActive(false);
+		}, false, reporting).setFrequency(Duration.ofMillis(500), true);
+		tasks[1] = wheel.build(cancelledRuns::incrementAndGet, false, reporting).setFrequency(Duration.ofMillis(500), true);
+		activateTogether(tasks); // The canceller is first in the batch
+		awaitTimerWheel(() -> cancellerRuns.get() > 0);
+		Thread.sleep(100);
+		Assert.assertEquals(1, cancellerRuns.get());
+		Assert.assertEquals(0, cancelledRuns.get());
+		Assert.assertNull(tasks[1].getNextExecution());
+		Assert.assertEquals(0, wheel.getTaskCount());
+	}
+
+	/**
+	 * Activates strictly-timed tasks with the same frequency so that they are due at the same time, retrying if the grid moves on
+	 * between activations
+	 *
+	 * @param tasks The tasks to activate
+	 */
+	private static void activateTogether(TimerWheel.Task... tasks) {
+		for (int attempt = 0; attempt < 5; attempt++) {
+			for (TimerWheel.Task task : tasks)
+				task.setActive(true);
+			boolean together = true;
+			for (TimerWheel.Task task : tasks)
+				together &= Objects.equals(task.getNextExecution(), tasks[0].getNextExecution());
+			if (together)
+				return;
+			for (TimerWheel.Task task : tasks)
+				task.setActive(false);
+		}
+		throw new AssertionError("Could not schedule the tasks on the same tick");
+	}
+
+	private static void awaitTimerWheel(BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + ExpressoTestCounter.TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() >= end)
+				throw new AssertionError("Timed out waiting for timer wheel tasks");
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * Tests that operator expressions evaluated with {@link FusedValueInstantiator#FUSE_EXPRESSIONS fusion} produce the same values as
+	 * un-fused ones, including for null inputs, boxing conversions, overflow, and errors, and that short-circuiting operators are not fused
+	 *
+	 * @throws ExpressoParseException If an expression could not be parsed
+	 * @throws ExpressoInterpretationException If an expression could not be interpreted
+	 * @throws TypeConversionException If an expression could not be evaluated as its type
+	 * @throws ModelInstantiationException If an expression could not be instantiated
+	 */
+	@Test
+	public void testFusedExpressions()
+		throws ExpressoParseException, ExpressoInterpretationException, TypeConversionException, ModelInstantiationException {
+		SettableValue<Integer> a = SettableValue.<Integer> build().withValue(7).build();
+		SettableValue<Long> b = SettableValue.<Long> build().withValue(3L).build();
+		SettableValue<Double> c = SettableValue.<Double> build().withValue(2.5).build();
+		SettableValue<Integer> divisor = SettableValue.<Integer> build().withValue(0).build();
+		SettableValue<Boolean> flag = SettableValue.<Boolean> build().withValue(true).build();
+		SettableValue<String> s = SettableValue.<String> build().withValue("x").build();
+		ObservableModelSet.Built oms = ObservableModelSet.build("models", ObservableModelSet.JAVA_NAME_CHECKER)//
+			.with("a", ModelTypes.Value.forType(Integer.class), ModelValueInstantiator.literal(a, "a"), null)//
+			.with("b", ModelTypes.Value.forType(Long.class), ModelValueInstantiator.literal(b, "b"), null)//
+			.with("c", ModelTypes.Value.forType(Double.class), ModelValueInstantiator.literal(c, "c"), null)//
+			.with("divisor", ModelTypes.Value.forType(Integer.class), ModelValueInstantiator.literal(divisor, "divisor"), null)//
+			.with("flag", ModelTypes.Value.forType(Boolean.class), ModelValueInstantiator.literal(flag, "flag"), null)//
+			.with("s", ModelTypes.Value.forType(String.class), ModelValueInstantiator.literal(s, "s"), null)//
+			.build();
+		InterpretedExpressoEnv plainEnv = CompiledExpressoEnv.STANDARD_JAVA.with(oms).interpret(null, null);
+		plainEnv.getModels().interpret(plainEnv);
+		plainEnv.getModels().instantiate();
+		ModelSetInstance models = plainEnv.getModels().createInstance(Observable.empty()).build();
+		InterpretedExpressoEnv fusedEnv = ((InterpretedExpressoEnv) plainEnv.copy()).put(FusedValueInstantiator.FUSE_EXPRESSIONS, true);
+
+		Map<String, SettableValue<?>[]> values = new LinkedHashMap<>();
+		values.put("a + b * 2", evaluatePlainAndFused("a + b * 2", Long.class, true, plainEnv, fusedEnv, models));
+		values.put("-a / 3 + c", evaluatePlainAndFused("-a / 3 + c", Double.class, true, plainEnv, fusedEnv, models));
+		values.put("s + a + c", evaluatePlainAndFused("s + a + c", String.class, true, plainEnv, fusedEnv, models));
+		values.put("a % divisor", evaluatePlainAndFused("a % divisor", Integer.class, true, plainEnv, fusedEnv, models));
+		values.put("!flag", evaluatePlainAndFused("!flag", Boolean.class, true, plainEnv, fusedEnv, models));
+		// Short-circuiting operators are not fused, but their operands may be
+		values.put("a > b && flag", evaluatePlainAndFused("a > b && flag", Boolean.class, false, plainEnv, fusedEnv, models));
+
+		Assert.assertEquals(Long.valueOf(13), values.get("a + b * 2")[1].get());
+		checkFused(values, "initial");
+		a.set(-4, null);
+		checkFused(values, "negative");
+		// Un-boxing a null input throws, which both modes report, evaluating to null
+		a.set(null, null);
+		flag.set(null, null);
+		checkFused(values, "null");
+		a.set(Integer.MAX_VALUE, null);
+		b.set(Long.MAX_VALUE, null);
+		flag.set(false, null);
+		checkFused(values, "overflow");
+		divisor.set(5, null);
+		checkFused(values, "divisor");
+	}
+
+	private static <T> SettableValue<?>[] evaluatePlainAndFused(String expression, Class<T> type, boolean fusible,
+		InterpretedExpressoEnv plainEnv, InterpretedExpressoEnv fusedEnv, ModelSetInstance models)
+			throws ExpressoParseException, ExpressoInterpretationException, TypeConversionException, ModelInstantiationException {
+		ObservableExpression parsed = new JavaExpressoParser().parse(expression);
+		ModelValueInstantiator<SettableValue<T>> plain = parsed
+			.evaluate(ModelTypes.Value.forType(type), plainEnv, 0, ExceptionHandler.thrower2()).instantiate();
+		ModelValueInstantiator<SettableValue<T>> fused = parsed
+			.evaluate(ModelTypes.Value.forType(type), fusedEnv, 0, ExceptionHandler.thrower2()).instantiate();
+		Assert.assertFalse(expression, plain instanceof FusedValueInstantiator);
+		Assert.assertEquals(expression, fusible, fused instanceof FusedValueInstantiator);
+		plain.instantiate();
+		fused.instantiate();
+		return new SettableValue<?>[] { plain.get(models), fused.get(models) };
+	}
+
+	private static void checkFused(Map<String, SettableValue<?>[]> values, String inputs) {
+		for (Map.Entry<String, SettableValue<?>[]> value : values.entrySet())
+			Assert.assertEquals(value.getKey() + " (" + inputs + ")", value.getValue()[0].get(), value.getValue()[1].get());
+	}
+
+	/** A class with fields and getters for the field access tests */
+	public static class FieldHolder {
+		/** A static field */
+		public static String staticValue = "static";
+
+		/** An instance field */
+		public int instanceValue = 5;
+		/** A final field */
+		public final String finalValue = "final";
+		/** A nullable field */
+		public String name;
+		/** A nullable field of a primitive wrapper type */
+		public Integer boxed;
+		@SuppressWarnings("unused")
+		private int privateValue;
+
+		/** @return The {@link #name} field */
+		public String getName() {
+			return name;
+		}
+
+		/** @return The {@link #instanceValue} field */
+		public int getInstanceValue() {
+			return instanceValue;
+		}
+
+		@Override
+		public String toString() {
+			return "holder(" + instanceValue + ", " + name + ", " + boxed + ")";
+		}
+	}
+
+	/**
+	 * Tests access to static, instance, final, and private java fields from expressions
+	 *
+	 * @throws ExpressoParseException If an expression could not be parsed
+	 * @throws ExpressoInterpretationException If an expression could not be interpreted
+	 * @throws TypeConversionException If an expression could not be evaluated as its type
+	 * @throws ModelInstantiationException If an expression could not be instantiated
+	 */
+	@Test
+	public void testFieldAccess()
+		throws ExpressoParseException, ExpressoInterpretationException, TypeConversionException, ModelInstantiationException {
+		FieldHolder holder = new FieldHolder();
+		ObservableModelSet.Built oms = ObservableModelSet.build("models", ObservableModelSet.JAVA_NAME_CHECKER)//
+			.with("holder", ModelTypes.Value.forType(FieldHolder.class),
+				ModelValueInstantiator.literal(SettableValue.<FieldHolder> build().withValue(holder).build(), "holder"), null)//
+			.build();
+		InterpretedExpressoEnv env = CompiledExpressoEnv.STANDARD_JAVA.with(oms).interpret(null, null);
+		env.getModels().interpret(env);
+		env.getModels().instantiate();
+		ModelSetInstance models = env.getModels().createInstance(Observable.empty()).build();
+
+		SettableValue<Integer> instanceValue = evaluateField("holder.instanceValue", Integer.class, env, models);
+		Assert.assertEquals(Integer.valueOf(5), instanceValue.get());
+		Assert.assertEquals(Integer.valueOf(5), instanceValue.set(8, null));
+		Assert.assertEquals(8, holder.instanceValue);
+		Assert.assertEquals(Integer.valueOf(8), instanceValue.get());
+		// Like reflective access, an unassignable value is an IllegalArgumentException
+		try {
+			instanceValue.set(null, null);
+			Assert.fail("Null assigned to a primitive field");
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals("Can not set int field " + FieldHolder.class.getName() + ".instanceValue to null value", e.getMessage());
+		}
+		Assert.assertEquals(8, holder.instanceValue);
+
+		SettableValue<String> staticValue = evaluateField("holder.staticValue", String.class, env, models);
+		try {
+			Assert.assertEquals("static", staticValue.get());
+			Assert.assertEquals("static", staticValue.set("changed", null));
+			Assert.assertEquals("changed", FieldHolder.staticValue);
+			FieldHolder.staticValue = "external";
+			Assert.assertEquals("external", staticValue.get());
+		} finally {
+			FieldHolder.staticValue = "static";
+		}
+
+		SettableValue<String> finalValue = evaluateField("holder.finalValue", String.class, env, models);
+		Assert.assertEquals("final", finalValue.get());
+		Assert.assertEquals("Final field cannot be assigned", finalValue.isAcceptable("other"));
+		Assert.assertEquals("Final field cannot be assigned", finalValue.isEnabled().get());
+		try {
+			finalValue.set("other", null);
+			Assert.fail("Final field assigned");
+		} catch (UnsupportedOperationException e) {
+			Assert.assertEquals("Final field cannot be assigned", e.getMessage());
+		}
+		Assert.assertEquals("final", holder.finalValue);
+
+		// Only public fields are accessible
+		try {
+			evaluateField("holder.privateValue", Integer.class, env, models);
+			Assert.fail("Private field resolved");
+		} catch (ExpressoInterpretationException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("cannot be resolved or is not a field"));
+		}
+	}
+
+	private static <T> SettableValue<T> evaluateField(String expression, Class<T> type, InterpretedExpressoEnv env,
+		ModelSetInstance models)
+			throws ExpressoParseException, ExpressoInterpretationException, TypeConversionException, ModelInstantiationException {
+		ModelValueInstantiator<SettableValue<T>> instantiator = new JavaExpressoParser().parse(expression)
+			.evaluate(ModelTypes.Value.forType(type), env, 0, ExceptionHandler.thrower2()).instantiate();
+		instantiator.instantiate();
+		return instantiator.get(models);
+	}
+
+	/**
+	 * Tests that {@link CompiledExpressoEnv#getSyntheticField(Class, String) synthetic field} lookups are memoized, including failed
+	 * lookups, without hiding fields added to a copied environment after a lookup failed in the environment it was copied from
+	 */
+	@Test
+	public void testSyntheticFieldMemo() {
+		SyntheticField.Def<Object, String> sizeField = new SyntheticField.Def<Object, String>() {
+			@Override
+			public <E2> SyntheticField<E2, ? extends String> get(TypeToken<E2> entityType) {
+				throw new UnsupportedOperationException("Not evaluated in this test");
+			}
+		};
+		CompiledExpressoEnv env = CompiledExpressoEnv.STANDARD_JAVA.copy();
+		// The failed lookups are memoized in the index shared with copies
+		Assert.assertNull(env.getSyntheticField(String.class, "size"));
+		Assert.assertNull(env.getSyntheticField(String.class, "size"));
+		Assert.assertFalse(env.resolveField(String.class, "size").isFound());
+		Assert.assertNotNull(env.resolveField(FieldHolder.class, "instanceValue").getField());
+
+		CompiledExpressoEnv copy = env.copy();
+		Assert.assertNull(copy.getSyntheticField(String.class, "size"));
+		copy.withSyntheticField(CharSequence.class, "size", sizeField);
+		copy.withSyntheticField(FieldHolder.class, "instanceValue", sizeField);
+		// Adding the fields to the copy must not be hidden by the failed lookups memoized before the addition
+		Assert.assertSame(sizeField, copy.getSyntheticField(String.class, "size"));
+		Assert.assertSame(sizeField, copy.resolveField(String.class, "size").getSyntheticField());
+		// Synthetic fields take precedence over java fields
+		Assert.assertSame(sizeField, copy.resolveField(FieldHolder.class, "instanceValue").getSyntheticField());
+		Assert.assertNull(copy.resolveField(FieldHolder.class, "instanceValue").getField());
+
+		// The environment the copy was made from is not affected
+		Assert.assertNull(env.getSyntheticField(String.class, "size"));
+		Assert.assertFalse(env.resolveField(String.class, "size").isFound());
+		Assert.assertNotNull(env.resolveField(FieldHolder.class, "instanceValue").getField());
+
+		CompiledExpressoEnv merged = env.copy().withAllSyntheticFields(copy);
+		Assert.assertSame(sizeField, merged.getSyntheticField(String.class, "size"));
+		Assert.assertNull(env.getSyntheticField(String.class, "size"));
+	}
+
+	/** Tests that the bounded {@link DispatchCache} keeps returning correct resolutions after it fills past its bound */
+	@Test
+	public void testDispatchCacheBound() {
+		DispatchCache<Integer, String> cache = new DispatchCache<>();
+		AtomicInteger computed = new AtomicInteger();
+		int count = DispatchCache.DEFAULT_MAX_SIZE * 2 + 10;
+		for (int i = 0; i < count; i++) {
+			Assert.assertEquals("v" + i, cache.computeIfAbsent(i, k -> {
+				computed.incrementAndGet();
+				return "v" + k;
+			}));
+			Assert.assertTrue(cache.size() <= DispatchCache.DEFAULT_MAX_SIZE);
+		}
+		Assert.assertEquals(count, computed.get());
+		// Early keys were dropped when the cache was cleared, so they are re-computed, but correctly
+		for (int i = 0; i < count; i += 97)
+			Assert.assertEquals("v" + i, cache.computeIfAbsent(i, k -> "v" + k));
+		// Recent keys are still cached
+		Assert.assertEquals("v" + (count - 1), cache.computeIfAbsent(count - 1, k -> {
+			throw new AssertionError("Recent key not cached");
+		}));
+
+		BinaryOperatorSet ops = BinaryOperatorSet.build()//
+			.with2("+", String.class, String.class, String.class, (s1, s2) -> s1 + s2, null, null, "Concatenation")//
+			.with2("+", Integer.class, String.class, String.class, (i, s) -> i + s, null, null, "Concatenation")//
+			.build();
+		BinaryOperatorSet.BinaryOp<String, String, ?> concat = ops.getOperator("+", String.class, String.class, String.class);
+		Assert.assertNotNull(concat);
+		// Fill the dispatch cache past its bound with misses
+		for (int i = 0; i < count; i++)
+			Assert.assertNull(ops.getOperator("op" + i, String.class, String.class, String.class));
+		Assert.assertSame(concat, ops.getOperator("+", String.class, String.class, String.class));
+		Assert.assertEquals("ab", concat.apply("a", "b"));
+		Assert.assertEquals("5a", ops.getOperator("+", String.class, Integer.class, String.class).apply(5, "a"));
+		Assert.assertNull(ops.getOperator("+", String.class, String.class, Integer.class));
+	}
+
+	/** Tests that the supported primary and secondary input type caches of a {@link BinaryOperatorSet} do not collide */
+	@Test
+	public void testSupportedInputTypeCaches() {
+		for (boolean primaryFirst : new boolean[] { true, false }) {
+			BinaryOperatorSet ops = BinaryOperatorSet.build()//
+				.with2("+", String.class, String.class, String.class, (s1, s2) -> s1 + s2, null, null, "Concatenation")//
+				.with2("+", Integer.class, Boolean.class, String.class, (i, b) -> i + "" + b, null, null, "Concatenation")//
+				.build();
+			if (primaryFirst)
+				checkTypes(ops.getSupportedPrimaryInputTypes("+", String.class), String.class, Integer.class);
+			checkTypes(ops.getSupportedSecondaryInputTypes("+", String.class, Integer.class), Boolean.class);
+			checkTypes(ops.getSupportedSecondaryInputTypes("+", String.class, String.class), String.class);
+			checkTypes(ops.getSupportedPrimaryInputTypes("+", String.class), String.class, Integer.class);
+			checkTypes(ops.getSupportedPrimaryInputTypes("-", String.class));
+			checkTypes(ops.getSupportedSecondaryInputTypes("+", String.class, Integer.class), Boolean.class);
+		}
+	}
+
+	private static void checkTypes(Iterable<Class<?>> types, Class<?>... expected) {
+		List<Class<?>> list = new ArrayList<>();
+		types.forEach(list::add);
+		Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(list));
+		Assert.assertEquals(expected.length, list.size());
+	}
+
+	/**
+	 * Tests that sort accessors {@link ExSort#compileAccessor(ObservableExpression, String, Class, CompiledExpressoEnv) compiled} from
+	 * field and getter expressions evaluate the same as the expressions, including for null values and null field values
+	 *
+	 * @throws ExpressoParseException If an expression could not be parsed
+	 * @throws ExpressoInterpretationException If an expression could not be interpreted
+	 * @throws TypeConversionException If an expression could not be evaluated as its type
+	 * @throws ModelInstantiationException If an expression could not be instantiated
+	 */
+	@Test
+	public void testCompiledSortAccessors()
+		throws ExpressoParseException, ExpressoInterpretationException, TypeConversionException, ModelInstantiationException {
+		SettableValue<FieldHolder> value = SettableValue.<FieldHolder> build().build();
+		ObservableModelSet.Built oms = ObservableModelSet.build("models", ObservableModelSet.JAVA_NAME_CHECKER)//
+			.with("value", ModelTypes.Value.forType(FieldHolder.class), ModelValueInstantiator.literal(value, "value"), null)//
+			.build();
+		InterpretedExpressoEnv env = CompiledExpressoEnv.STANDARD_JAVA.with(oms).interpret(null, null);
+		env.getModels().interpret(env);
+		env.getModels().instantiate();
+		ModelSetInstance models = env.getModels().createInstance(Observable.empty()).build();
+
+		Map<String, Function<FieldHolder, Object>> compiled = new LinkedHashMap<>();
+		Map<String, SettableValue<Object>> evaluated = new LinkedHashMap<>();
+		for (String expression : Arrays.asList("value.instanceValue", "value.name", "value.boxed", "value.finalValue", "value.getName()",
+			"value.getInstanceValue()")) {
+			ObservableExpression parsed = new JavaExpressoParser().parse(expression);
+			Function<FieldHolder, Object> accessor = ExSort.compileAccessor(parsed, "value", FieldHolder.class, env);
+			Assert.assertNotNull(expression, accessor);
+			compiled.put(expression, accessor);
+			evaluated.put(expression, evaluateField(expression, Object.class, env, models));
+		}
+		// Static fields, arguments, and unknown members are not compiled
+		for (String expression : Arrays.asList("value.staticValue", "value.toString(1)", "value.missing", "value.instanceValue + 1")) {
+			ObservableExpression parsed = new JavaExpressoParser().parse(expression);
+			Assert.assertNull(expression, ExSort.compileAccessor(parsed, "value", FieldHolder.class, env));
+		}
+
+		FieldHolder withValues = new FieldHolder();
+		withValues.instanceValue = 3;
+		withValues.name = "named";
+		withValues.boxed = 7;
+		for (FieldHolder holder : Arrays.asList(null, new FieldHolder(), withValues)) {
+			value.set(holder, null);
+			for (String expression : compiled.keySet())
+				Assert.assertEquals(expression + " of " + holder, evaluated.get(expression).get(), compiled.get(expression).apply(holder));
+		}
+		// A null value gives the default value of the expression's type
+		Assert.assertEquals(0, compiled.get("value.instanceValue").apply(null));
+		Assert.assertEquals(0, compiled.get("value.getInstanceValue()").apply(null));
+		Assert.assertNull(compiled.get("value.boxed").apply(null));
+	}
+
+	/**
+	 * Tests that a {@link SharedRefresh} subscribes once to each distinct refresh observable, and only registers observables while they are
+	 * subscribed to
+	 */
+	@Test
+	public void testSharedRefreshSubscriptions() {
+		SimpleObservable<Void> sourceA = new SimpleObservable<>();
+		SimpleObservable<Void> sourceB = new SimpleObservable<>();
+		SubscriptionCountingObservable countingA = new SubscriptionCountingObservable(sourceA);
+		SubscriptionCountingObservable countingB = new SubscriptionCountingObservable(sourceB);
+		SharedRefresh shared = new SharedRefresh();
+
+		List<Observable<?>> refreshes = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			refreshes.add(shared.share(i % 2 == 0 ? countingA : countingB));
+		// Sharing alone neither subscribes to nor retains anything
+		Assert.assertEquals(0, shared.getSubscribedCount());
+		Assert.assertEquals(0, countingA.getSubscriptions());
+		Assert.assertEquals(0, countingB.getSubscriptions());
+
+		int[] refreshCounts = new int[refreshes.size()];
+		List<Subscription> subs = new ArrayList<>();
+		for (int i = 0; i < refreshes.size(); i++) {
+			int index = i;
+			subs.add(refreshes.get(i).act(__ -> refreshCounts[index]++));
+		}
+		// One subscription per distinct source, however many elements use it
+		Assert.assertEquals(2, shared.getSubscribedCount());
+		Assert.assertEquals(1, countingA.getSubscriptions());
+		Assert.assertEquals(1, countingB.getSubscriptions());
+		sourceA.onNext(null);
+		for (int i = 0; i < refreshCounts.length; i++)
+			Assert.assertEquals("Element " + i, i % 2 == 0 ? 1 : 0, refreshCounts[i]);
+
+		// The source subscription is kept until the last element unsubscribes
+		for (int i = 0; i < subs.size(); i += 2)
+			subs.get(i).unsubscribe();
+		Assert.assertEquals(1, shared.getSubscribedCount());
+		Assert.assertEquals(0, countingA.getSubscriptions());
+		Assert.assertEquals(1, countingB.getSubscriptions());
+		sourceA.onNext(null);
+		sourceB.onNext(null);
+		for (int i = 0; i < refreshCounts.length; i++)
+			Assert.assertEquals("Element " + i, 1, refreshCounts[i]);
+		for (int i = 1; i < subs.size(); i += 2)
+			subs.get(i).unsubscribe();
+		Assert.assertEquals(0, shared.getSubscribedCount());
+		Assert.assertEquals(0, countingB.getSubscriptions());
+
+		// Sharing again after everything unsubscribed does not retain anything either
+		Observable<?> again = shared.share(countingA);
+		Assert.assertEquals(0, shared.getSubscribedCount());
+		Subscription sub = again.act(__ -> {
+		});
+		Assert.assertEquals(1, shared.getSubscribedCount());
+		Assert.assertEquals(1, countingA.getSubscriptions());
+		sub.unsubscribe();
+		Assert.assertEquals(0, shared.getSubscribedCount());
+		Assert.assertEquals(0, countingA.getSubscriptions());
+	}
+
+	/** An observable that keeps track of how many subscriptions to it are active */
+	static class SubscriptionCountingObservable extends Observable.WrappingObservable<Void, Void> {
+		private final AtomicInteger theSubscriptions = new AtomicInteger();
+
+		SubscriptionCountingObservable(Observable<Void> wrapped) {
+			super(wrapped);
+		}
+
+		int getSubscriptions() {
+			return theSubscriptions.get();
+		}
+
+		@Override
+		protected Object createIdentity() {
+			return Identifiable.wrap(getWrapped().getIdentity(), "counting");
+		}
+
+		@Override
+		public Subscription subscribe(Observer<? super Void> observer) {
+			theSubscriptions.incrementAndGet();
+			Subscription sub = getWrapped().subscribe(observer);
+			return () -> {
+				theSubscriptions.decrementAndGet();
+				sub.unsubscribe();
+			};
+		}
+	}
+
 	/**
 	 * Called by the sort test from Expresso. Ensures that all the entities are properly sorted.
 	 *
@@ -303,6 +1262,166 @@ public class ExpressoTests extends AbstractExpressoTest<ExpressoHeadSection> {
 		}
 	}
 
+	/**
+	 * Called by some tests from Expresso. Waits for a value, e.g. one loaded or modified on another thread, to have the given value.
+	 *
+	 * @param value The value to wait on
+	 * @param expected The value to wait for
+	 * @param timeout The maximum time, in milliseconds, to wait
+	 * @throws AssertionError If the value does not have the expected value within the timeout
+	 */
+	public static void waitFor(SettableValue<?> value, Object expected, long timeout) throws AssertionError {
+		long end = System.currentTimeMillis() + timeout;
+		Object current = value.get();
+		while (!Objects.equals(expected, current)) {
+			if (System.currentTimeMillis() >= end)
+				throw new AssertionError("Expected " + expected + " but was " + current);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new AssertionError("Interrupted", e);
+			}
+			current = value.get();
+		}
+	}
+
+	/**
+	 * Called by some tests from Expresso. Ensures that a value, e.g. one modified on another thread, keeps the given value for a time.
+	 *
+	 * @param value The value to check
+	 * @param expected The value that the value should keep
+	 * @param duration The time, in milliseconds, for which to check the value
+	 * @throws AssertionError If the value does not have the expected value at any point during the duration
+	 */
+	public static void assertStays(SettableValue<?> value, Object expected, long duration) throws AssertionError {
+		long end = System.currentTimeMillis() + duration;
+		do {
+			Object current = value.get();
+			if (!Objects.equals(expected, current))
+				throw new AssertionError("Expected " + expected + " but was " + current);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new AssertionError("Interrupted", e);
+			}
+		} while (System.currentTimeMillis() < end);
+	}
+
+	/**
+	 * Called by some tests from Expresso. Ensures that a list contains exactly the given values, in order.
+	 *
+	 * @param values The list to check
+	 * @param expected The expected content of the list
+	 * @throws AssertionError If the list does not contain the expected values
+	 */
+	public static void checkIntList(List<Integer> values, int... expected) throws AssertionError {
+		List<Integer> expectedList = new ArrayList<>(expected.length);
+		for (int value : expected)
+			expectedList.add(value);
+		if (!expectedList.equals(new ArrayList<>(values)))
+			throw new AssertionError("Expected " + expectedList + " but was " + values);
+	}
+
+	/**
+	 * Called by the shared refresh test from Expresso. Modifies the entities, then refreshes them all with their shared refresh
+	 * observable, ensuring that they are all updated under a single root cause.
+	 *
+	 * @param mapped The mapped values of the entities, refreshed by the refresher
+	 * @param entities The entities to modify
+	 * @param refresher The observable shared by all the entities to refresh them
+	 * @throws AssertionError If the entities are not refreshed as expected
+	 */
+	public static void checkSharedRefresh(ObservableCollection<Integer> mapped, List<ExpressoTestEntity> entities,
+		SimpleObservable<Void> refresher) throws AssertionError {
+		List<ObservableCollectionEvent<? extends Integer>> events = new ArrayList<>();
+		List<Object> rootCauses = new ArrayList<>();
+		Subscription sub = mapped.onChange(evt -> {
+			events.add(evt);
+			rootCauses.add(evt.getRootCausable());
+		});
+		try {
+			for (int i = 0; i < entities.size(); i++)
+				entities.get(i).setInt((i + 1) * 10);
+			if (!events.isEmpty())
+				throw new AssertionError("Elements updated before they were refreshed: " + events);
+			refresher.onNext(null);
+			if (events.size() != entities.size())
+				throw new AssertionError("Expected " + entities.size() + " updates, but got " + events);
+			for (Object rootCause : rootCauses) {
+				if (rootCause != rootCauses.get(0))
+					throw new AssertionError("Elements were refreshed under different causes");
+			}
+			for (int i = 0; i < entities.size(); i++) {
+				if (mapped.get(i).intValue() != (i + 1) * 10)
+					throw new AssertionError("Expected " + ((i + 1) * 10) + " at " + i + " but was " + mapped.get(i));
+			}
+		} finally {
+			sub.unsubscribe();
+		}
+	}
+
+	/**
+	 * Called by the slow value executor test from Expresso. Creates an executor whose threads have the given name.
+	 *
+	 * @param threadName The name for the executor's threads
+	 * @return The executor
+	 */
+	public static ExecutorService namedExecutor(String threadName) {
+		return Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Called by the parallel map test from Expresso. Populates a list with consecutive integers.
+	 *
+	 * @param values The list to populate
+	 * @param count The number of values to add, starting with zero
+	 */
+	public static void fillRange(List<Integer> values, int count) {
+		List<Integer> range = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			range.add(i);
+		values.addAll(range);
+	}
+
+	/**
+	 * Called by the parallel map test from Expresso. Ensures that a source collection's initial values were mapped correctly off of the
+	 * invoking thread, each only once, and that values added afterward are mapped as they are added.
+	 *
+	 * @param source The source collection, populated by {@link #fillRange(List, int)}
+	 * @param mapped The source values, each doubled by the mapping
+	 * @param threads The names of the threads that mapped each source value
+	 * @param counter The counter incremented by each evaluation of the doubling map
+	 * @throws AssertionError If the mappings were not evaluated as expected
+	 */
+	public static void checkParallelMap(List<Integer> source, List<Integer> mapped, List<String> threads, ExpressoTestCounter counter)
+		throws AssertionError {
+		for (int i = 0; i < source.size(); i++) {
+			if (mapped.get(i).intValue() != source.get(i) * 2)
+				throw new AssertionError("Expected " + (source.get(i) * 2) + " at " + i + " but was " + mapped.get(i));
+		}
+		String invoking = Thread.currentThread().getName();
+		for (String thread : threads) {
+			if (invoking.equals(thread))
+				throw new AssertionError("Initial value mapped on the invoking thread");
+		}
+		// Nothing precomputed should have been evaluated again when the values were collected
+		if (counter.getCount() >= 2 * source.size())
+			throw new AssertionError("Initial values mapped " + counter.getCount() + " times");
+
+		int count = counter.getCount();
+		source.add(source.size());
+		if (counter.getCount() != count + 1)
+			throw new AssertionError("Added value mapped " + (counter.getCount() - count) + " times");
+		if (!invoking.equals(threads.get(threads.size() - 1)))
+			throw new AssertionError("Added value mapped on " + threads.get(threads.size() - 1));
+		if (mapped.get(mapped.size() - 1).intValue() != (source.size() - 1) * 2)
+			throw new AssertionError("Expected " + ((source.size() - 1) * 2) + " but was " + mapped.get(mapped.size() - 1));
+	}
+
 	/**
 	 * A method called from some of the tests
 	 *
@@ -50,6 +50,7 @@
 		<imports>
 			<import>org.observe.expresso.ExpressoTestEntity</import>
 			<import>org.observe.expresso.ExpressoReflectTester</import>
+			<import>org.observe.expresso.ExpressoTestCounter</import>
 			<import>org.junit.Assert.*</import>
 			<import>org.observe.expresso.ExpressoTests.*</import>
 		</imports>
@@ -1931,4 +1932,922 @@
 		<action>assertEquals(true, struct3dv)</action>
 		<action>assertEquals("changedStr-derived", struct4dv)</action>
 	</test>
+	<test name="join">
+		<model>
+			<list name="left" type="int">
+				<element>1</element>
+				<element>2</element>
+				<element>3</element>
+				<element>4</element>
+			</list>
+			<list name="right" type="int">
+				<element>2</element>
+				<element>4</element>
+				<element>4</element>
+				<element>5</element>
+			</list>
+			<transform name="inner" source="left">
+				<join with="right" source-as="l" joined-as="r" left-key="l" right-key="r">l*100+r</join>
+			</transform>
+			<transform name="semi" source="left">
+				<join with="right" type="semi" source-as="l" joined-as="r" left-key="l" right-key="r" />
+			</transform>
+			<transform name="anti" source="left">
+				<join with="right" type="anti" source-as="l" joined-as="r" left-key="l" right-key="r" />
+			</transform>
+		</model>
+
+		<!-- The order of joined elements is unspecified, so only the content is checked -->
+		<action>assertEquals(3, inner.size())</action>
+		<action>assertTrue(inner.contains(202))</action>
+		<action>assertTrue(inner.contains(404))</action>
+		<action>assertEquals(2, semi.size())</action>
+		<action>assertTrue(semi.contains(2))</action>
+		<action>assertTrue(semi.contains(4))</action>
+		<action>assertEquals(2, anti.size())</action>
+		<action>assertTrue(anti.contains(1))</action>
+		<action>assertTrue(anti.contains(3))</action>
+
+		<!-- Changes to either collection are joined incrementally -->
+		<action>right.add(1)</action>
+		<action>assertEquals(4, inner.size())</action>
+		<action>assertTrue(inner.contains(101))</action>
+		<action>assertEquals(3, semi.size())</action>
+		<action>assertTrue(semi.contains(1))</action>
+		<action>assertFalse(anti.contains(1))</action>
+
+		<action>left.add(4)</action>
+		<action>assertEquals(6, inner.size())</action>
+		<action>assertEquals(4, semi.size())</action>
+		<action>assertEquals(1, anti.size())</action>
+
+		<action>right.set(0, 3)</action>
+		<action>assertEquals(6, inner.size())</action>
+		<action>assertFalse(inner.contains(202))</action>
+		<action>assertTrue(inner.contains(303))</action>
+		<action>assertTrue(anti.contains(2))</action>
+		<action>assertFalse(anti.contains(3))</action>
+	</test>
+	<test name="memo">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<list name="source" type="int">
+				<element>1</element>
+				<element>2</element>
+				<element>1</element>
+				<element>2</element>
+				<element>1</element>
+			</list>
+			<transform name="mapped" source="source">
+				<map-to source-as="n" memo-size="4" re-eval-on-update="false">counter.count(n*10)</map-to>
+			</transform>
+		</model>
+
+		<!-- The mapping is only evaluated once for each distinct source value -->
+		<action>assertEquals(2, counter.getCount())</action>
+		<action>assertEquals(5, mapped.size())</action>
+		<action>assertEquals(10, mapped.get(0))</action>
+		<action>assertEquals(20, mapped.get(1))</action>
+		<action>assertEquals(10, mapped.get(4))</action>
+
+		<action>source.add(2)</action>
+		<action>assertEquals(2, counter.getCount())</action>
+		<action>assertEquals(20, mapped.get(5))</action>
+		<action>source.add(3)</action>
+		<action>assertEquals(3, counter.getCount())</action>
+		<action>assertEquals(30, mapped.get(6))</action>
+		<action>source.set(0, 3)</action>
+		<action>assertEquals(3, counter.getCount())</action>
+		<action>assertEquals(30, mapped.get(0))</action>
+	</test>
+	<test name="sortKeyCaching">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<list name="source" type="String">
+				<element>"ccc"</element>
+				<element>"a"</element>
+				<element>"eeeee"</element>
+				<element>"bb"</element>
+				<element>"dddd"</element>
+			</list>
+			<transform name="sorted" source="source">
+				<sort sort-value-as="s" cache-keys="true">
+					<sort-by>counter.count(s.length())</sort-by>
+				</sort>
+			</transform>
+		</model>
+
+		<action>assertEquals("a", sorted.get(0))</action>
+		<action>assertEquals("bb", sorted.get(1))</action>
+		<action>assertEquals("ccc", sorted.get(2))</action>
+		<action>assertEquals("dddd", sorted.get(3))</action>
+		<action>assertEquals("eeeee", sorted.get(4))</action>
+		<!-- The sort key of each value is only computed once, instead of for each comparison -->
+		<action>assertTrue(counter.getCount() &lt;= 5)</action>
+
+		<action>source.add("ffffff")</action>
+		<action>assertEquals("ffffff", sorted.get(5))</action>
+		<action>assertTrue(counter.getCount() &lt;= 6)</action>
+		<action>source.add(0, "")</action>
+		<action>assertEquals("", sorted.get(0))</action>
+		<action>assertTrue(counter.getCount() &lt;= 7)</action>
+	</test>
+	<test name="window">
+		<model>
+			<list name="source" type="int">
+				<element>0</element>
+				<element>1</element>
+				<element>2</element>
+				<element>3</element>
+				<element>4</element>
+				<element>5</element>
+				<element>6</element>
+				<element>7</element>
+				<element>8</element>
+				<element>9</element>
+			</list>
+			<value name="offset" init="2" />
+			<value name="size" init="3" />
+			<value name="page" init="1" />
+			<transform name="windowed" source="source">
+				<window offset="offset" size="size" />
+			</transform>
+			<transform name="paged" source="source">
+				<page page="page" size="size" />
+			</transform>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="mappedOffset" init="0" />
+			<value name="evaluations" type="int" />
+			<transform name="mapped" source="source">
+				<map-to source-as="n" cache="false">counter.count(n*10)</map-to>
+			</transform>
+			<transform name="mappedWindow" source="mapped">
+				<window offset="mappedOffset" size="3" />
+			</transform>
+		</model>
+
+		<action>checkIntList(windowed, 2, 3, 4)</action>
+		<action>checkIntList(paged, 3, 4, 5)</action>
+
+		<!-- Moving the bounds -->
+		<action>offset=5</action>
+		<action>checkIntList(windowed, 5, 6, 7)</action>
+		<action>size=4</action>
+		<action>checkIntList(windowed, 5, 6, 7, 8)</action>
+		<action>checkIntList(paged, 4, 5, 6, 7)</action>
+		<action>page=2</action>
+		<action>checkIntList(paged, 8, 9)</action>
+		<action>offset=20</action>
+		<action>assertEquals(0, windowed.size())</action>
+		<action>offset=5</action>
+		<action>checkIntList(windowed, 5, 6, 7, 8)</action>
+
+		<!-- Changes to the source -->
+		<action>source.add(10)</action>
+		<action>checkIntList(windowed, 5, 6, 7, 8)</action>
+		<action>checkIntList(paged, 8, 9, 10)</action>
+		<action>source.add(0, -1)</action>
+		<action>checkIntList(windowed, 4, 5, 6, 7)</action>
+		<action>checkIntList(paged, 7, 8, 9, 10)</action>
+		<action>source.set(6, 50)</action>
+		<action>checkIntList(windowed, 4, 50, 6, 7)</action>
+		<action>source.remove(0)</action>
+		<action>checkIntList(windowed, 50, 6, 7, 8)</action>
+		<action>checkIntList(paged, 8, 9, 10)</action>
+		<action>offset=9</action>
+		<action>checkIntList(windowed, 9, 10)</action>
+
+		<!-- Moving the window over an un-cached mapping only evaluates the values newly within it.
+			The evaluations are counted from here, since the mapping also evaluates values for the change events above. -->
+		<action>checkIntList(mappedWindow, 0, 10, 20)</action>
+		<action>evaluations=counter.getCount()</action>
+		<action>mappedOffset=2</action>
+		<action>checkIntList(mappedWindow, 20, 30, 40)</action>
+		<action>assertEquals(evaluations+2, counter.getCount())</action>
+		<action>mappedOffset=7</action>
+		<action>checkIntList(mappedWindow, 70, 80, 90)</action>
+		<action>assertEquals(evaluations+5, counter.getCount())</action>
+	</test>
+	<test name="slowValuePool">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="trigger" init="0" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" pool="expressoTestPool" on-thread="org.qommons.ThreadConstraint.ANY" refresh="trigger"
+				value="counter.countThread(trigger)" while-loading="&quot;loading&quot;" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<!-- Loads are performed on the named pool's threads -->
+		<action>waitFor(slow, "slow-value-expressoTestPool-1", 5000)</action>
+		<action>assertEquals(1, counter.getCount())</action>
+		<action>assertTrue(changes &gt; 0)</action>
+		<action>trigger++</action>
+		<action>counter.awaitCount(2)</action>
+		<action>waitFor(slow, "slow-value-expressoTestPool-1", 5000)</action>
+	</test>
+	<test name="slowValueExecutor">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="pool" init="namedExecutor(&quot;slow-value-test-executor&quot;)" />
+			<value name="trigger" init="0" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" executor="pool" on-thread="org.qommons.ThreadConstraint.ANY" refresh="trigger"
+				value="counter.countThread(trigger)" while-loading="&quot;loading&quot;" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<!-- Loads are performed on the given executor's threads -->
+		<action>waitFor(slow, "slow-value-test-executor", 5000)</action>
+		<action>assertEquals(1, counter.getCount())</action>
+		<action>trigger++</action>
+		<action>counter.awaitCount(2)</action>
+		<action>waitFor(slow, "slow-value-test-executor", 5000)</action>
+		<action>pool.shutdown()</action>
+	</test>
+	<test name="slowValueDebounce">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="trigger" init="0" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" debounce="java.time.Duration.ofMillis(500)" on-thread="org.qommons.ThreadConstraint.ANY"
+				refresh="trigger" value="counter.count(trigger)" while-loading="-1" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<action>waitFor(slow, 0, 5000)</action>
+		<action>assertEquals(1, counter.getCount())</action>
+		<!-- A burst of refreshes causes a single load -->
+		<action>trigger++</action>
+		<action>trigger++</action>
+		<action>trigger++</action>
+		<action>trigger++</action>
+		<action>trigger++</action>
+		<action>waitFor(slow, 5, 5000)</action>
+		<action>assertEquals(2, counter.getCount())</action>
+	</test>
+	<test name="slowValueMinInterval">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="trigger" init="0" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" min-interval="java.time.Duration.ofMillis(1000)" on-thread="org.qommons.ThreadConstraint.ANY"
+				refresh="trigger" value="counter.count(trigger)" while-loading="-1" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<action>waitFor(slow, 0, 5000)</action>
+		<action>assertEquals(1, counter.getCount())</action>
+		<!-- The load is held until the minimum interval since the start of the previous load has passed -->
+		<action>trigger++</action>
+		<action>counter.assertCountStays(1, 300)</action>
+		<action>waitFor(slow, 1, 5000)</action>
+		<action>assertEquals(2, counter.getCount())</action>
+	</test>
+	<test name="slowValueMaxInFlight">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="trigger" init="0" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" max-in-flight="1" on-thread="org.qommons.ThreadConstraint.ANY"
+				refresh="trigger" value="counter.passValue(trigger)" while-loading="-1" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<action>counter.awaitCount(1)</action>
+		<action>trigger++</action>
+		<action>trigger++</action>
+		<!-- Loads on the common timer are not interrupted, so the superseded load occupies the only slot until it finishes -->
+		<action>counter.assertCountStays(1, 300)</action>
+		<action>assertEquals(-1, slow)</action>
+		<action>counter.release(1)</action>
+		<!-- Then only the newest request is loaded, and the superseded load's value is discarded -->
+		<action>counter.awaitCount(2)</action>
+		<action>assertEquals(-1, slow)</action>
+		<action>counter.release(1)</action>
+		<action>waitFor(slow, 2, 5000)</action>
+		<action>counter.assertCountStays(2, 300)</action>
+		<action>assertEquals(0, counter.getInterrupts())</action>
+	</test>
+	<test name="slowValueCancelBlocked">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="pool" init="java.util.concurrent.Executors.newCachedThreadPool()" />
+			<value name="trigger" init="0" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" executor="pool" max-in-flight="1" on-thread="org.qommons.ThreadConstraint.ANY"
+				refresh="trigger" value="counter.passValue(trigger)" while-loading="-1" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<action>counter.awaitCount(1)</action>
+		<!-- A superseded load blocked in a given executor is interrupted, which frees its slot for the new load -->
+		<action>trigger++</action>
+		<action>counter.awaitCount(2)</action>
+		<action>assertEquals(1, counter.getInterrupts())</action>
+		<action>assertEquals(-1, slow)</action>
+		<action>counter.release(1)</action>
+		<action>waitFor(slow, 1, 5000)</action>
+		<action>pool.shutdown()</action>
+	</test>
+	<test name="slowValueCache">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="key" init="1" />
+			<value name="changes" init="0" />
+			<slow-value name="slow" cache="true" cache-key="key" on-thread="org.qommons.ThreadConstraint.ANY" refresh="key"
+				value="counter.count(key*10)" while-loading="-1" />
+			<hook name="slowHook" on="slow">changes++</hook>
+		</model>
+
+		<action>waitFor(slow, 10, 5000)</action>
+		<action>key=2</action>
+		<action>waitFor(slow, 20, 5000)</action>
+		<action>assertEquals(2, counter.getCount())</action>
+		<!-- The cached value for the key is shown immediately instead of the while-loading value, while the value is re-loaded -->
+		<action>key=1</action>
+		<action>assertEquals(10, slow)</action>
+		<action>counter.awaitCount(3)</action>
+		<action>waitFor(slow, 10, 5000)</action>
+	</test>
+	<test name="timerWheel">
+		<model>
+			<value name="remaining" init="5" />
+			<value name="executions" init="0" />
+			<value name="ticks" init="0" />
+			<timer name="timer" frequency="java.time.Duration.ofMillis(20)" scheduler="wheel" background="true"
+				remaining-executions="remaining" execution-count="executions">ticks++</timer>
+		</model>
+
+		<action>waitFor(executions, 5, 5000)</action>
+		<!-- The timer deactivates when it runs out of executions -->
+		<action>assertStays(executions, 5, 200)</action>
+		<action>assertEquals(5, ticks)</action>
+		<action>assertEquals(0, remaining)</action>
+	</test>
+	<test name="virtualBackground">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="skipRunning" init="false" />
+			<value name="queueRunning" init="false" />
+			<action name="skipping" background="virtual" overlap="skip" running="skipRunning">counter.pass()</action>
+			<action name="queueing" background="virtual" overlap="queue" running="queueRunning">counter.pass()</action>
+		</model>
+
+		<!-- An invocation while the action is running is skipped -->
+		<action>skipping</action>
+		<action>counter.awaitCount(1)</action>
+		<action>assertTrue(skipRunning)</action>
+		<action>skipping</action>
+		<action>counter.release(1)</action>
+		<action>waitFor(skipRunning, false, 5000)</action>
+		<action>assertEquals(1, counter.getCount())</action>
+
+		<!-- Invocations while the action is running are queued, the latest replacing any already waiting -->
+		<action>queueing</action>
+		<action>counter.awaitCount(2)</action>
+		<action>queueing</action>
+		<action>queueing</action>
+		<action>assertTrue(queueRunning)</action>
+		<action>counter.release(3)</action>
+		<action>counter.awaitCount(3)</action>
+		<action>waitFor(queueRunning, false, 5000)</action>
+		<action>assertEquals(3, counter.getCount())</action>
+	</test>
+	<test name="loopSlicing">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="iterations" init="0" />
+			<value name="progress" init="0" />
+			<value name="running" init="false" />
+			<loop name="slicedLoop" init="iterations=0" while="iterations &lt; 5" slice-count="1" progress="progress"
+				running="running">
+				<action>counter.pass()</action>
+				<action>iterations++</action>
+			</loop>
+		</model>
+
+		<!-- The first slice runs on the executing thread, the rest later -->
+		<action>counter.release(1)</action>
+		<action>slicedLoop</action>
+		<action>assertEquals(1, progress)</action>
+		<action>assertTrue(running)</action>
+		<!-- The loop cannot be executed again until it has finished -->
+		<action>slicedLoop</action>
+		<action>counter.release(10)</action>
+		<action>waitFor(running, false, 5000)</action>
+		<action>assertEquals(5, progress)</action>
+		<action>assertEquals(5, iterations)</action>
+		<action>assertEquals(5, counter.getCount())</action>
+	</test>
+	<test name="asyncCompletion">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="input" init="21" />
+			<value name="asyncResult" init="0" />
+			<value name="asyncRunning" init="false" />
+			<value name="completions" init="0" />
+			<action name="compute" background="virtual" result="asyncResult" running="asyncRunning" on-complete="completions++">
+				counter.count(input*2)
+			</action>
+			<value name="text" init="&quot;not a number&quot;" />
+			<value name="asyncError" type="Throwable" />
+			<value name="errors" init="0" />
+			<action name="parse" background="virtual" error="asyncError" on-error="errors++">Integer.parseInt(text)</action>
+		</model>
+
+		<!-- The result is assigned and the on-complete action performed when the action finishes -->
+		<action>compute</action>
+		<action>waitFor(completions, 1, 5000)</action>
+		<action>assertEquals(42, asyncResult)</action>
+		<action>waitFor(asyncRunning, false, 5000)</action>
+		<action>input=50</action>
+		<action>compute</action>
+		<action>waitFor(completions, 2, 5000)</action>
+		<action>assertEquals(100, asyncResult)</action>
+
+		<!-- The error is assigned and the on-error action performed when the action fails -->
+		<action>parse</action>
+		<action>waitFor(errors, 1, 5000)</action>
+		<action>assertNotNull(asyncError)</action>
+		<action>assertEquals(2, completions)</action>
+	</test>
+	<test name="parallelGroup">
+		<model>
+			<value name="barrier" init="new java.util.concurrent.CyclicBarrier(2)" />
+			<value name="aCount" init="0" />
+			<value name="bCount" init="0" />
+			<value name="bothCount" init="0" />
+			<!-- Each of the first 2 actions can only finish if the other is performed at the same time -->
+			<action-group name="group" parallel="true">
+				<action id="a">barrier.await(5, java.util.concurrent.TimeUnit.SECONDS)</action>
+				<action id="b">barrier.await(5, java.util.concurrent.TimeUnit.SECONDS)</action>
+				<action id="aDone" after="a">aCount++</action>
+				<action id="bDone" after="b">bCount++</action>
+				<action after="aDone bDone">bothCount=aCount+bCount</action>
+			</action-group>
+			<value name="text" init="&quot;not a number&quot;" />
+			<value name="skipped" init="0" />
+			<value name="independent" init="0" />
+			<action-group name="failing" parallel="true">
+				<action id="parse">Integer.parseInt(text)</action>
+				<action after="parse">skipped++</action>
+				<action>independent++</action>
+			</action-group>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="afterBlocked" init="0" />
+			<action-group name="unawaited" parallel="true" await="false">
+				<action id="blocked">counter.pass()</action>
+				<action after="blocked">afterBlocked++</action>
+			</action-group>
+		</model>
+
+		<action>group</action>
+		<action>assertEquals(1, aCount)</action>
+		<action>assertEquals(1, bCount)</action>
+		<action>assertEquals(2, bothCount)</action>
+
+		<!-- The actions after a failed action are skipped, and the error is thrown from the group -->
+		<action expect-throw="NumberFormatException">failing</action>
+		<action>assertEquals(0, skipped)</action>
+		<action>assertEquals(1, independent)</action>
+
+		<!-- An un-awaited group returns while its actions are still running -->
+		<action>unawaited</action>
+		<action>counter.awaitCount(1)</action>
+		<action>assertStays(afterBlocked, 0, 200)</action>
+		<action>counter.release(1)</action>
+		<action>waitFor(afterBlocked, 1, 5000)</action>
+	</test>
+	<test name="eventTransforms">
+		<model>
+			<value name="throttleTrigger" init="0" />
+			<value name="debounceTrigger" init="0" />
+			<value name="sampleTrigger" init="0" />
+			<value name="bufferTrigger" init="0" />
+			<event name="throttleSource">throttleTrigger</event>
+			<event name="debounceSource">debounceTrigger</event>
+			<event name="sampleSource">sampleTrigger</event>
+			<event name="bufferSource">bufferTrigger</event>
+			<transform name="throttled" source="throttleSource">
+				<throttle interval="java.time.Duration.ofMillis(300)" />
+			</transform>
+			<transform name="debounced" source="debounceSource">
+				<debounce delay="java.time.Duration.ofMillis(300)" />
+			</transform>
+			<transform name="sampled" source="sampleSource">
+				<sample interval="java.time.Duration.ofMillis(100)" />
+			</transform>
+			<value name="sampleInterval" init="java.time.Duration.ofHours(1)" />
+			<value name="resampleTrigger" init="0" />
+			<event name="resampleSource">resampleTrigger</event>
+			<transform name="resampled" source="resampleSource">
+				<sample interval="sampleInterval" />
+			</transform>
+			<transform name="buffered" source="bufferSource">
+				<buffer count="3" />
+			</transform>
+			<value name="throttledCount" init="0" />
+			<value name="debouncedCount" init="0" />
+			<value name="sampledCount" init="0" />
+			<value name="resampledCount" init="0" />
+			<value name="bufferedCount" init="0" />
+			<hook name="throttleHook" on="throttled">throttledCount++</hook>
+			<hook name="debounceHook" on="debounced">debouncedCount++</hook>
+			<hook name="sampleHook" on="sampled">sampledCount++</hook>
+			<hook name="resampleHook" on="resampled">resampledCount++</hook>
+			<hook name="bufferHook" on="buffered">bufferedCount+=event.size()</hook>
+		</model>
+
+		<!-- Throttle fires the first event immediately, then the latest at the end of the interval -->
+		<action>throttleTrigger++</action>
+		<action>throttleTrigger++</action>
+		<action>throttleTrigger++</action>
+		<action>assertEquals(1, throttledCount)</action>
+		<action>waitFor(throttledCount, 2, 5000)</action>
+		<action>assertStays(throttledCount, 2, 400)</action>
+
+		<!-- Debounce fires the latest event once the source has been quiet for the delay -->
+		<action>debounceTrigger++</action>
+		<action>debounceTrigger++</action>
+		<action>debounceTrigger++</action>
+		<action>assertEquals(0, debouncedCount)</action>
+		<action>waitFor(debouncedCount, 1, 5000)</action>
+		<action>assertStays(debouncedCount, 1, 400)</action>
+
+		<!-- Sample fires the latest event at the next tick, and nothing when there were no events -->
+		<action>sampleTrigger++</action>
+		<action>waitFor(sampledCount, 1, 5000)</action>
+		<action>assertStays(sampledCount, 1, 300)</action>
+
+		<!-- Sample follows changes to its interval -->
+		<action>resampleTrigger++</action>
+		<action>assertStays(resampledCount, 0, 300)</action>
+		<action>sampleInterval=java.time.Duration.ofMillis(100)</action>
+		<action>waitFor(resampledCount, 1, 5000)</action>
+
+		<!-- Buffer fires a list each time it fills -->
+		<action>bufferTrigger++</action>
+		<action>bufferTrigger++</action>
+		<action>bufferTrigger++</action>
+		<action>bufferTrigger++</action>
+		<action>bufferTrigger++</action>
+		<action>bufferTrigger++</action>
+		<action>bufferTrigger++</action>
+		<action>assertEquals(6, bufferedCount)</action>
+	</test>
+	<test name="sharedRefresh">
+		<model>
+			<value name="refresher" init="new org.observe.SimpleObservable&lt;Void&gt;()" />
+			<list name="entities" type="ExpressoTestEntity">
+				<element>new ExpressoTestEntity()</element>
+				<element>new ExpressoTestEntity()</element>
+				<element>new ExpressoTestEntity()</element>
+			</list>
+			<transform name="mapped" source="entities">
+				<refresh-each source-as="entity" on="refresher" />
+				<map-to source-as="entity">entity.getInt()</map-to>
+			</transform>
+		</model>
+
+		<action>checkSharedRefresh(mapped, entities, refresher)</action>
+	</test>
+	<test name="reduce">
+		<model>
+			<list name="ints" type="int">
+				<element>1</element>
+				<element>2</element>
+				<element>3</element>
+			</list>
+			<transform name="invertibleSum" source="ints">
+				<reduce seed="0" source-as="v" temp-as="t" un-value="t-v">t+v</reduce>
+			</transform>
+			<transform name="aggregateSum" source="ints">
+				<reduce seed="0" source-as="v" temp-as="t" aggregate="sum">t+v</reduce>
+			</transform>
+			<transform name="aggregateMax" source="ints">
+				<reduce seed="0" source-as="v" temp-as="t" aggregate="max">t > v ? t : v</reduce>
+			</transform>
+			<list name="doubles" type="double">
+				<element>1.5</element>
+				<element>2.5</element>
+			</list>
+			<transform name="doubleSum" source="doubles">
+				<reduce seed="0.0" source-as="v" temp-as="t" aggregate="sum">t+v</reduce>
+			</transform>
+			<transform name="truncatedSum" source="doubles">
+				<reduce seed="0" source-as="v" temp-as="t" aggregate="sum">(int) (t+v)</reduce>
+			</transform>
+			<list name="entities" type="ExpressoTestEntity">
+				<element>new ExpressoTestEntity()</element>
+				<element>new ExpressoTestEntity()</element>
+				<element>new ExpressoTestEntity()</element>
+			</list>
+			<transform name="entityTotal" source="entities">
+				<refresh-each source-as="entity" on="entity.changes()" />
+				<reduce seed="0" source-as="e" temp-as="t" un-value="t-e.getInt()">t+e.getInt()</reduce>
+			</transform>
+		</model>
+
+		<action>assertEquals(6, invertibleSum)</action>
+		<action>assertEquals(6, aggregateSum)</action>
+		<action>assertEquals(3, aggregateMax)</action>
+		<action>ints.add(4)</action>
+		<action>assertEquals(10, invertibleSum)</action>
+		<action>assertEquals(10, aggregateSum)</action>
+		<action>assertEquals(4, aggregateMax)</action>
+		<action>ints.remove(0)</action>
+		<action>assertEquals(9, invertibleSum)</action>
+		<action>assertEquals(9, aggregateSum)</action>
+		<action>ints.set(0, 10)</action>
+		<action>assertEquals(17, invertibleSum)</action>
+		<action>assertEquals(17, aggregateSum)</action>
+		<action>assertEquals(10, aggregateMax)</action>
+		<action>ints.remove(0)</action>
+		<action>assertEquals(4, aggregateMax)</action>
+
+		<!-- Fractional terms are summed before converting to an integral result, not truncated one by one -->
+		<action>assertEquals(4.0, doubleSum, 0.0)</action>
+		<action>assertEquals(4, truncatedSum)</action>
+		<!-- A NaN can't be subtracted back out, so removing it re-folds the collection -->
+		<action>doubles.add(Double.NaN)</action>
+		<action>assertTrue(Double.isNaN(doubleSum))</action>
+		<action>doubles.remove(2)</action>
+		<action>assertEquals(4.0, doubleSum, 0.0)</action>
+		<action>assertEquals(4, truncatedSum)</action>
+
+		<!-- Elements refreshed after being modified in place are re-folded, since their previous values are gone -->
+		<action>assertEquals(0, entityTotal)</action>
+		<action>entities.get(0).setInt(5)</action>
+		<action>assertEquals(5, entityTotal)</action>
+		<action>entities.get(1).setInt(7)</action>
+		<action>assertEquals(12, entityTotal)</action>
+		<action>entities.get(0).setInt(1)</action>
+		<action>assertEquals(8, entityTotal)</action>
+		<action>entities.remove(1)</action>
+		<action>assertEquals(1, entityTotal)</action>
+	</test>
+	<test name="aggregates">
+		<model>
+			<value name="factor" init="1" />
+			<list name="ints" type="int">
+				<element>3</element>
+				<element>1</element>
+				<element>2</element>
+			</list>
+			<transform name="total" source="ints">
+				<sum source-as="v" />
+			</transform>
+			<transform name="scaled" source="ints">
+				<sum source-as="v">v*factor</sum>
+			</transform>
+			<transform name="countBig" source="ints">
+				<count-where source-as="v">v > 1</count-where>
+			</transform>
+			<transform name="minV" source="ints">
+				<min-by source-as="v" />
+			</transform>
+			<transform name="maxV" source="ints">
+				<max-by source-as="v" />
+			</transform>
+			<transform name="avg" source="ints">
+				<average source-as="v" />
+			</transform>
+			<list name="entities" type="ExpressoTestEntity">
+				<element>new ExpressoTestEntity()</element>
+				<element>new ExpressoTestEntity()</element>
+				<element>new ExpressoTestEntity()</element>
+			</list>
+			<transform name="top" source="entities">
+				<refresh-each source-as="entity" on="entity.changes()" />
+				<max-by source-as="e">e.getInt()</max-by>
+			</transform>
+		</model>
+
+		<action>assertEquals(6, total)</action>
+		<action>assertEquals(6, scaled)</action>
+		<action>assertEquals(2, countBig)</action>
+		<action>assertEquals(1, minV)</action>
+		<action>assertEquals(3, maxV)</action>
+		<action>assertEquals(2.0, avg, 1E-9)</action>
+
+		<!-- A change to something else a term depends on re-populates the aggregate -->
+		<action>factor=2</action>
+		<action>assertEquals(12, scaled)</action>
+
+		<action>ints.add(5)</action>
+		<action>assertEquals(11, total)</action>
+		<action>assertEquals(22, scaled)</action>
+		<action>assertEquals(3, countBig)</action>
+		<action>assertEquals(1, minV)</action>
+		<action>assertEquals(5, maxV)</action>
+		<action>assertEquals(2.75, avg, 1E-9)</action>
+
+		<action>ints.remove(1)</action>
+		<action>assertEquals(10, total)</action>
+		<action>assertEquals(3, countBig)</action>
+		<action>assertEquals(2, minV)</action>
+		<action>assertEquals(5, maxV)</action>
+		<action>assertEquals(10.0/3, avg, 1E-9)</action>
+
+		<action>ints.set(2, 0)</action>
+		<action>assertEquals(5, total)</action>
+		<action>assertEquals(10, scaled)</action>
+		<action>assertEquals(2, countBig)</action>
+		<action>assertEquals(0, minV)</action>
+		<action>assertEquals(3, maxV)</action>
+		<action>assertEquals(5.0/3, avg, 1E-9)</action>
+
+		<!-- Removals and updates from within the heap -->
+		<action>ints.add(7)</action>
+		<action>ints.add(4)</action>
+		<action>ints.add(6)</action>
+		<action>assertEquals(7, maxV)</action>
+		<action>ints.remove(3)</action>
+		<action>assertEquals(6, maxV)</action>
+		<action>ints.set(0, 10)</action>
+		<action>assertEquals(10, maxV)</action>
+		<action>ints.set(0, 1)</action>
+		<action>assertEquals(6, maxV)</action>
+		<action>ints.remove(2)</action>
+		<action>assertEquals(1, minV)</action>
+		<action>ints.set(0, 5)</action>
+		<action>assertEquals(2, minV)</action>
+
+		<!-- Empty collection results -->
+		<action>ints.clear()</action>
+		<action>assertEquals(0, total)</action>
+		<action>assertEquals(0, countBig)</action>
+		<action>assertNull(minV)</action>
+		<action>assertNull(maxV)</action>
+		<action>assertNull(avg)</action>
+
+		<!-- Elements refreshed after being modified in place are re-positioned by their new terms -->
+		<action>entities.get(0).setInt(1)</action>
+		<action>entities.get(1).setInt(2)</action>
+		<action>entities.get(2).setInt(3)</action>
+		<action>assertSame(entities.get(2), top)</action>
+		<action>entities.get(2).setInt(0)</action>
+		<action>assertSame(entities.get(1), top)</action>
+		<action>entities.get(0).setInt(5)</action>
+		<action>assertSame(entities.get(0), top)</action>
+		<action>entities.remove(0)</action>
+		<action>assertSame(entities.get(0), top)</action>
+	</test>
+	<test name="groupAggregate">
+		<model>
+			<list name="entities" type="ExpressoTestEntity">
+				<element>new ExpressoTestEntity().setString("a").setInt(1)</element>
+				<element>new ExpressoTestEntity().setString("b").setInt(2)</element>
+				<element>new ExpressoTestEntity().setString("a").setInt(3)</element>
+			</list>
+			<transform name="totals" source="entities">
+				<refresh-each source-as="entity" on="entity.changes()" />
+				<group-aggregate source-as="e" key="e.getString()" aggregate="sum">e.getInt()</group-aggregate>
+			</transform>
+			<transform name="maxes" source="entities">
+				<refresh-each source-as="entity" on="entity.changes()" />
+				<group-aggregate source-as="e" key="e.getString()" aggregate="max">e.getInt()</group-aggregate>
+			</transform>
+		</model>
+
+		<action>assertEquals(2, totals.size())</action>
+		<action>assertEquals(4, totals.get("a"))</action>
+		<action>assertEquals(2, totals.get("b"))</action>
+		<action>assertEquals(3, maxes.get("a"))</action>
+		<action>assertEquals(2, maxes.get("b"))</action>
+
+		<!-- A group is created for a new key -->
+		<action>entities.add(new ExpressoTestEntity().setString("c").setInt(5))</action>
+		<action>assertEquals(3, totals.size())</action>
+		<action>assertEquals(5, totals.get("c"))</action>
+		<action>assertEquals(5, maxes.get("c"))</action>
+
+		<!-- A group is removed with its last element -->
+		<action>entities.remove(1)</action>
+		<action>assertEquals(2, totals.size())</action>
+		<action>assertFalse(totals.containsKey("b"))</action>
+		<action>assertFalse(maxes.containsKey("b"))</action>
+
+		<!-- An element whose key changes moves between groups -->
+		<action>entities.get(0).setString("c")</action>
+		<action>assertEquals(3, totals.get("a"))</action>
+		<action>assertEquals(6, totals.get("c"))</action>
+		<action>assertEquals(3, maxes.get("a"))</action>
+		<action>assertEquals(5, maxes.get("c"))</action>
+
+		<!-- An element whose term changes updates its group -->
+		<action>entities.get(1).setInt(10)</action>
+		<action>assertEquals(10, totals.get("a"))</action>
+		<action>assertEquals(10, maxes.get("a"))</action>
+
+		<!-- A group is removed when its last element moves to another group -->
+		<action>entities.get(1).setString("c")</action>
+		<action>assertEquals(1, totals.size())</action>
+		<action>assertFalse(totals.containsKey("a"))</action>
+		<action>assertEquals(16, totals.get("c"))</action>
+		<action>assertEquals(10, maxes.get("c"))</action>
+	</test>
+	<test name="parallelMap">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="threadCounter" init="new ExpressoTestCounter()" />
+			<list name="source" type="int" />
+			<!-- Populates the source before the transformations below are instantiated, so their initial mappings are parallelized -->
+			<hook name="populate">ExpressoTests.fillRange(source, 1500)</hook>
+			<transform name="mapped" source="source">
+				<map-to source-as="n" parallel="true">counter.count(n*2)</map-to>
+			</transform>
+			<transform name="threads" source="source">
+				<map-to source-as="n" parallel="true">threadCounter.countThread(n)</map-to>
+			</transform>
+		</model>
+
+		<action>assertEquals(1500, mapped.size())</action>
+		<action>ExpressoTests.checkParallelMap(source, mapped, threads, counter)</action>
+	</test>
+	<test name="timerOverlap">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="remaining" init="3" />
+			<value name="executions" init="0" />
+			<timer name="timer" frequency="java.time.Duration.ofMillis(10)" background="virtual" overlap="queue"
+				remaining-executions="remaining" execution-count="executions">counter.pass()</timer>
+		</model>
+
+		<action>counter.awaitCount(1)</action>
+		<!-- The timer comes due many times while its first execution is blocked, but the queued executions replace each other
+			and are only counted as they start -->
+		<action>assertStays(executions, 1, 100)</action>
+		<action>assertEquals(2, remaining)</action>
+		<action>counter.release(1)</action>
+		<action>counter.awaitCount(2)</action>
+		<action>waitFor(executions, 2, 5000)</action>
+		<action>counter.release(10)</action>
+		<action>waitFor(executions, 3, 5000)</action>
+		<!-- An execution still queued when the last one runs does not start or count -->
+		<action>assertStays(executions, 3, 100)</action>
+		<action>assertEquals(3, counter.getCount())</action>
+		<action>assertEquals(0, remaining)</action>
+	</test>
+	<test name="backgroundCancel">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<value name="commonRunning" init="false" />
+			<value name="virtualRunning" init="false" />
+			<action name="commonCancel" background="true" overlap="cancel" running="commonRunning">counter.pass()</action>
+			<action name="virtualCancel" background="virtual" overlap="cancel" running="virtualRunning">counter.pass()</action>
+		</model>
+
+		<!-- The common timer's threads are shared, so a cancelled execution on one is left to finish, not interrupted -->
+		<action>commonCancel</action>
+		<action>counter.awaitCount(1)</action>
+		<action>commonCancel</action>
+		<action>counter.awaitCount(2)</action>
+		<action>counter.release(2)</action>
+		<action>waitFor(commonRunning, false, 5000)</action>
+		<action>assertEquals(0, counter.getInterrupts())</action>
+
+		<!-- In virtual mode, a cancelled execution's own thread is interrupted -->
+		<action>virtualCancel</action>
+		<action>counter.awaitCount(3)</action>
+		<action>virtualCancel</action>
+		<action>counter.awaitCount(4)</action>
+		<action>counter.release(1)</action>
+		<action>waitFor(virtualRunning, false, 5000)</action>
+		<action>assertEquals(1, counter.getInterrupts())</action>
+	</test>
+	<test name="sortKeyIdentityCaching">
+		<model>
+			<value name="counter" init="new ExpressoTestCounter()" />
+			<list name="entities" type="ExpressoTestEntity">
+				<element>new ExpressoTestEntity().setInt(3)</element>
+				<element>new ExpressoTestEntity().setInt(1)</element>
+				<element>new ExpressoTestEntity().setInt(2)</element>
+			</list>
+			<transform name="sorted" source="entities">
+				<sort sort-value-as="e" cache-keys="true">
+					<sort-by>counter.count(e.getInt())</sort-by>
+				</sort>
+			</transform>
+		</model>
+
+		<action>assertEquals(1, sorted.get(0).getInt())</action>
+		<action>assertEquals(2, sorted.get(1).getInt())</action>
+		<action>assertEquals(3, sorted.get(2).getInt())</action>
+		<!-- Keys of the mutable entities are cached by identity -->
+		<action>assertTrue(counter.getCount() &lt;= 3)</action>
+
+		<!-- An entity changed in place and updated in the source has its key re-computed -->
+		<action>entities.get(0).setInt(0)</action>
+		<action>entities.set(0, entities.get(0))</action>
+		<action>assertEquals(0, sorted.get(0).getInt())</action>
+		<action>assertEquals(1, sorted.get(1).getInt())</action>
+		<action>assertEquals(2, sorted.get(2).getInt())</action>
+		<action>assertTrue(counter.getCount() &lt;= 4)</action>
+
+		<action>entities.add(new ExpressoTestEntity().setInt(5))</action>
+		<action>assertEquals(5, sorted.get(3).getInt())</action>
+		<action>assertTrue(counter.getCount() &lt;= 5)</action>
+	</test>
 </testing>